@@ -0,0 +1,35 @@
+package com.education.platform.common;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 允许估算总数的分页对象
+ * 分页拦截器遇到该类型时先用EXPLAIN的预估行数作为总数，预估值较小时仍执行精确COUNT。
+ *
+ * @param <T> 数据类型
+ * @author Education Platform Team
+ */
+public class EstimatedPage<T> extends Page<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 本次返回的总数是否为估算值
+     */
+    @Getter
+    @Setter
+    private boolean totalEstimated;
+
+    public EstimatedPage(long current, long size) {
+        super(current, size);
+    }
+
+    /**
+     * 按需创建分页对象：estimate为true时返回估算分页，否则返回普通分页
+     */
+    public static <T> Page<T> of(long current, long size, boolean estimate) {
+        return estimate ? new EstimatedPage<>(current, size) : new Page<>(current, size);
+    }
+}
@@ -0,0 +1,91 @@
+package com.education.platform.common;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标分页的游标
+ * 记录上一页最后一条数据的排序键和主键，对外编码为不透明的URL安全字符串。
+ * 排序键支持LocalDateTime、LocalDate以及null（按倒序排在最后的空值）。
+ *
+ * @author Education Platform Team
+ */
+@Getter
+public final class PageCursor {
+
+    private static final char TYPE_DATE_TIME = 'T';
+
+    private static final char TYPE_DATE = 'D';
+
+    private static final char TYPE_NULL = 'N';
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 排序键
+     */
+    private final Object sortKey;
+
+    /**
+     * 主键
+     */
+    private final long id;
+
+    private PageCursor(Object sortKey, long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    /**
+     * 编码游标
+     */
+    public static String encode(Object sortKey, long id) {
+        StringBuilder sb = new StringBuilder(32);
+        if (sortKey == null) {
+            sb.append(TYPE_NULL);
+        } else if (sortKey instanceof LocalDateTime) {
+            sb.append(TYPE_DATE_TIME).append(sortKey);
+        } else if (sortKey instanceof LocalDate) {
+            sb.append(TYPE_DATE).append(sortKey);
+        } else {
+            throw new IllegalArgumentException("不支持的游标排序键类型: " + sortKey.getClass().getSimpleName());
+        }
+        sb.append(SEPARATOR).append(id);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标，空字符串表示第一页并返回null
+     *
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            long id = Long.parseLong(raw.substring(split + 1));
+            String key = raw.substring(1, split);
+            switch (raw.charAt(0)) {
+                case TYPE_DATE_TIME:
+                    return new PageCursor(LocalDateTime.parse(key), id);
+                case TYPE_DATE:
+                    return new PageCursor(LocalDate.parse(key), id);
+                case TYPE_NULL:
+                    return new PageCursor(null, id);
+                default:
+                    throw new IllegalArgumentException("无效的分页游标");
+            }
+        } catch (RuntimeException e) {
+            // Base64、截取、日期解析等错误统一视为游标无效
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
@@ -42,6 +42,21 @@ public class PageResult<T> implements Serializable {
      */
     private List<T> records;
 
+    /**
+     * 下一页游标（仅游标分页模式返回，没有更多数据时为空）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页（仅游标分页模式返回）
+     */
+    private Boolean hasMore;
+
+    /**
+     * 总条数是否为估算值（仅估算模式返回）
+     */
+    private Boolean totalEstimated;
+
     public PageResult() {
         this.current = 1L;
         this.size = 10L;
@@ -62,12 +77,48 @@ public class PageResult<T> implements Serializable {
      * 从MyBatis-Plus的Page对象转换
      */
     public static <T> PageResult<T> of(Page<T> page) {
-        return new PageResult<>(
+        PageResult<T> result = new PageResult<>(
             page.getCurrent(),
             page.getSize(),
             page.getTotal(),
             page.getRecords()
         );
+        if (page instanceof EstimatedPage && ((EstimatedPage<T>) page).isTotalEstimated()) {
+            result.setTotalEstimated(true);
+        }
+        return result;
+    }
+
+    /**
+     * 游标分页结果
+     * 不返回页码和总页数；total仅在调用方要求统计时返回，否则为空
+     */
+    public static <T> PageResult<T> ofCursor(List<T> records, long size, String nextCursor, Long total) {
+        PageResult<T> result = new PageResult<>();
+        result.setCurrent(null);
+        result.setPages(null);
+        result.setSize(size);
+        result.setTotal(total);
+        result.setRecords(records);
+        result.setNextCursor(nextCursor);
+        result.setHasMore(nextCursor != null);
+        return result;
+    }
+
+    /**
+     * 保留分页信息，替换数据列表（用于将实体转换为返回视图）
+     */
+    public <R> PageResult<R> withRecords(List<R> newRecords) {
+        PageResult<R> result = new PageResult<>();
+        result.setCurrent(current);
+        result.setSize(size);
+        result.setTotal(total);
+        result.setPages(pages);
+        result.setRecords(newRecords);
+        result.setNextCursor(nextCursor);
+        result.setHasMore(hasMore);
+        result.setTotalEstimated(totalEstimated);
+        return result;
     }
 
     /**
@@ -0,0 +1,137 @@
+package com.education.platform.config;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.education.platform.common.EstimatedPage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 带总数缓存的分页拦截器
+ * 1. 相同查询（规范化SQL + 参数值）在有效期内复用上次的COUNT结果，不同页码共用同一总数；
+ * 2. 增删改语句按表使总数缓存失效，由PageCountInvalidationInterceptor在执行前及事务提交后处理；
+ * 3. 分页对象为EstimatedPage时，用EXPLAIN预估行数代替COUNT，预估值低于阈值时仍精确统计。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+public class CachingPaginationInnerInterceptor extends PaginationInnerInterceptor {
+
+    private static final Pattern TABLE_PATTERN =
+            Pattern.compile("\\b(?:from|join|update|into)\\s+`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final PageCountCache countCache;
+
+    private final long estimateThreshold;
+
+    public CachingPaginationInnerInterceptor(DbType dbType, PageCountCache countCache, long estimateThreshold) {
+        super(dbType);
+        this.countCache = countCache;
+        this.estimateThreshold = estimateThreshold;
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+        if (page == null || page.getSize() < 0 || !page.searchCount() || resultHandler != Executor.NO_RESULT_HANDLER) {
+            return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        }
+
+        String sql = normalize(boundSql.getSql());
+        CacheKey key = countKey(executor, ms, parameter, boundSql, sql);
+        Long cached = countCache.get(key);
+        if (cached != null) {
+            page.setTotal(cached);
+            return continuePage(page);
+        }
+
+        if (page instanceof EstimatedPage) {
+            long estimate = estimate(executor, ms, parameter, boundSql);
+            if (estimate >= estimateThreshold) {
+                page.setTotal(estimate);
+                ((EstimatedPage<?>) page).setTotalEstimated(true);
+                return continuePage(page);
+            }
+        }
+
+        PageCountCache.Stamp stamp = countCache.stamp(tablesOf(sql));
+        boolean proceed = super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        countCache.put(key, stamp, page.getTotal());
+        return proceed;
+    }
+
+    /**
+     * 缓存键：语句ID、规范化SQL与全部参数值（不含分页参数）
+     */
+    private CacheKey countKey(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql, String sql) {
+        PluginUtils.MPBoundSql mpBoundSql = PluginUtils.mpBoundSql(boundSql);
+        BoundSql keySql = new BoundSql(ms.getConfiguration(), sql, mpBoundSql.parameterMappings(), parameter);
+        PluginUtils.setAdditionalParameter(keySql, mpBoundSql.additionalParameters());
+        return executor.createCacheKey(ms, parameter, RowBounds.DEFAULT, keySql);
+    }
+
+    /**
+     * 用EXPLAIN预估结果行数：取顶层查询各表预估行数与过滤比例的乘积，失败时返回-1
+     */
+    private long estimate(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql) {
+        try {
+            Connection connection = executor.getTransaction().getConnection();
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+                new DefaultParameterHandler(ms, parameter, boundSql).setParameters(statement);
+                try (ResultSet rs = statement.executeQuery()) {
+                    double rows = -1;
+                    while (rs.next()) {
+                        if (rs.getInt("id") != 1) {
+                            continue;
+                        }
+                        double filtered = rs.getDouble("filtered");
+                        if (rs.wasNull()) {
+                            filtered = 100;
+                        }
+                        double tableRows = Math.max(1, rs.getLong("rows")) * filtered / 100;
+                        rows = rows < 0 ? tableRows : rows * Math.max(1, tableRows);
+                    }
+                    return rows < 0 ? -1 : (long) rows;
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("分页总数估算失败，改为精确统计: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    static String normalize(String sql) {
+        return WHITESPACE.matcher(sql).replaceAll(" ").trim();
+    }
+
+    static String[] tablesOf(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_PATTERN.matcher(sql);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+        return tables.toArray(new String[0]);
+    }
+}
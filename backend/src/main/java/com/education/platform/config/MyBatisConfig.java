@@ -4,11 +4,11 @@ import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.MybatisConfiguration;
 import com.baomidou.mybatisplus.core.config.GlobalConfig;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
-import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -28,13 +28,24 @@ public class MyBatisConfig {
     @Autowired
     private MybatisMetaObjectHandler metaObjectHandler;
 
+    @Autowired
+    private PageCountCache pageCountCache;
+
+    /**
+     * 估算总数低于该值时仍执行精确COUNT
+     */
+    @Value("${app.page-count.estimate-threshold:10000}")
+    private long estimateThreshold;
+
     /**
      * MyBatis-Plus 拦截器
      */
     @Bean
     public MybatisPlusInterceptor mybatisPlusInterceptor() {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        // 分页插件：COUNT结果按查询缓存，写操作按表失效，支持估算总数
+        interceptor.addInnerInterceptor(
+            new CachingPaginationInnerInterceptor(DbType.MYSQL, pageCountCache, estimateThreshold));
         // 移除乐观锁拦截器，因为数据库表中没有version字段
         // interceptor.addInnerInterceptor(new OptimisticLockerInnerInterceptor());
         return interceptor;
@@ -69,8 +80,8 @@ public class MyBatisConfig {
         globalConfig.setMetaObjectHandler(metaObjectHandler);
         sessionFactory.setGlobalConfig(globalConfig);
 
-        // 插件
-        sessionFactory.setPlugins(interceptor);
+        // 插件：写操作在执行前及事务提交后使分页总数缓存失效
+        sessionFactory.setPlugins(interceptor, new PageCountInvalidationInterceptor(pageCountCache));
 
         // Mapper XML 位置
         sessionFactory.setMapperLocations(
@@ -0,0 +1,157 @@
+package com.education.platform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分页总数缓存
+ * 以“规范化后的查询SQL + 参数值”为键缓存COUNT结果，过期时间由app.page-count.cache-ttl配置。
+ * 每张表维护一个版本号，表发生增删改时版本号递增，缓存项记录统计时所涉及表的版本号，
+ * 读取时版本不一致即视为失效，写入方无需遍历缓存。
+ *
+ * @author Education Platform Team
+ */
+@Component
+public class PageCountCache {
+
+    /**
+     * 缓存有效期（秒），小于等于0时不缓存
+     */
+    @Value("${app.page-count.cache-ttl:30}")
+    private long ttlSeconds;
+
+    /**
+     * 最大缓存条数，超出时整体清空
+     */
+    @Value("${app.page-count.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 无法识别表名的写操作会使全部缓存失效
+     */
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    /**
+     * 读取缓存的总数，不存在、已过期或相关表已变更时返回null
+     */
+    public Long get(Object key) {
+        if (ttlSeconds <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt < System.currentTimeMillis() || !isCurrent(entry.stamp)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.total;
+    }
+
+    /**
+     * 记录统计开始时相关表的版本号，统计期间发生的写操作会使本次结果不被采用
+     */
+    public Stamp stamp(String[] tables) {
+        long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = versionOf(tables[i]).get();
+        }
+        return new Stamp(tables, versions, globalVersion.get());
+    }
+
+    /**
+     * 写入缓存
+     */
+    public void put(Object key, Stamp stamp, long total) {
+        if (ttlSeconds <= 0 || !isCurrent(stamp)) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(stamp, total, System.currentTimeMillis() + ttlSeconds * 1000));
+    }
+
+    /**
+     * 表数据变更，使涉及这些表的缓存失效
+     */
+    public void invalidate(String[] tables) {
+        if (tables == null || tables.length == 0) {
+            invalidateAll();
+            return;
+        }
+        for (String table : tables) {
+            versionOf(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * 使全部缓存失效
+     */
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * 定时清理过期缓存
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expireAt < now || !isCurrent(entry.stamp));
+    }
+
+    private AtomicLong versionOf(String table) {
+        return tableVersions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    private boolean isCurrent(Stamp stamp) {
+        if (stamp.globalVersion != globalVersion.get()) {
+            return false;
+        }
+        for (int i = 0; i < stamp.tables.length; i++) {
+            if (stamp.versions[i] != versionOf(stamp.tables[i]).get()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 统计时相关表的版本快照
+     */
+    public static final class Stamp {
+        private final String[] tables;
+        private final long[] versions;
+        private final long globalVersion;
+
+        private Stamp(String[] tables, long[] versions, long globalVersion) {
+            this.tables = tables;
+            this.versions = versions;
+            this.globalVersion = globalVersion;
+        }
+    }
+
+    private static final class Entry {
+        private final Stamp stamp;
+        private final long total;
+        private final long expireAt;
+
+        private Entry(Stamp stamp, long total, long expireAt) {
+            this.stamp = stamp;
+            this.total = total;
+            this.expireAt = expireAt;
+        }
+    }
+}
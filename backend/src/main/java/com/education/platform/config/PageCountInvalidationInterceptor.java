@@ -0,0 +1,96 @@
+package com.education.platform.config;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 写操作使分页总数缓存失效
+ * 语句执行前先失效一次，本事务内的分页查询与执行中的COUNT不会采用旧结果；
+ * 在事务中时于提交后再失效一次，丢弃提交前其他连接按旧数据统计并缓存的总数，
+ * 同一事务涉及的表合并为一次失效；不在事务中时语句即自动提交，执行后立即失效。
+ *
+ * @author Education Platform Team
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class PageCountInvalidationInterceptor implements Interceptor {
+
+    private final PageCountCache countCache;
+
+    /**
+     * 写语句ID → 涉及的表
+     */
+    private final Map<String, String[]> statementTables = new ConcurrentHashMap<>();
+
+    public PageCountInvalidationInterceptor(PageCountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Object parameter = invocation.getArgs()[1];
+        String[] tables = statementTables.computeIfAbsent(ms.getId(), id -> CachingPaginationInnerInterceptor
+                .tablesOf(CachingPaginationInnerInterceptor.normalize(ms.getBoundSql(parameter).getSql())));
+
+        countCache.invalidate(tables);
+        Object result = invocation.proceed();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            invalidateAfterCommit(tables);
+        } else {
+            countCache.invalidate(tables);
+        }
+        return result;
+    }
+
+    /**
+     * 登记本事务涉及的表，提交后统一失效（事务挂起时其同步回调一并挂起，内外层事务各自登记）
+     */
+    private void invalidateAfterCommit(String[] tables) {
+        PendingInvalidation pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInvalidation) {
+                pending = (PendingInvalidation) synchronization;
+                break;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingInvalidation();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        if (tables.length == 0) {
+            pending.all = true;
+        } else {
+            Collections.addAll(pending.tables, tables);
+        }
+    }
+
+    /**
+     * 事务内待失效的表，无法识别表名时提交后使全部缓存失效
+     */
+    private final class PendingInvalidation implements TransactionSynchronization {
+        private final Set<String> tables = new LinkedHashSet<>();
+        private boolean all;
+
+        @Override
+        public void afterCommit() {
+            if (all) {
+                countCache.invalidateAll();
+            } else {
+                countCache.invalidate(tables.toArray(new String[0]));
+            }
+        }
+    }
+}
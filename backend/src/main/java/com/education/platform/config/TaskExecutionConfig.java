@@ -0,0 +1,39 @@
+package com.education.platform.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 异步任务与定时任务线程池
+ * WebSocket消息代理会注册自己的执行器和调度器，Spring Boot默认的applicationTaskExecutor、taskScheduler随之不再创建，
+ * @Async与@Scheduled会退回到代理的线程或每次新建线程。这里显式声明两者（参数取spring.task.execution、
+ * spring.task.scheduling配置），并按默认名称注册，使@Async、@Scheduled始终使用这两个线程池。
+ *
+ * @author Education Platform Team
+ */
+@Configuration
+public class TaskExecutionConfig {
+
+    /**
+     * @Async使用的线程池
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * @Scheduled使用的调度器（名称taskScheduler优先于消息代理的调度器）
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.education.platform.config;
+
+import com.education.platform.security.CurrentUser;
+import com.education.platform.security.CurrentUserArgumentResolver;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC配置类
+ *
+ * @author Education Platform Team
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    static {
+        // @CurrentUser参数由服务端注入，不出现在接口文档中
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
+    @Autowired
+    private CurrentUserArgumentResolver currentUserArgumentResolver;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+}
@@ -0,0 +1,121 @@
+package com.education.platform.config;
+
+import com.education.platform.security.StompAuthChannelInterceptor;
+import com.education.platform.security.StompSessionRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.SimpleBrokerRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
+
+/**
+ * WebSocket推送配置
+ * 客户端连接 {context-path}/ws，以STOMP协议订阅主题（见IPushService）。
+ * 出站：每个连接的待发送数据超过app.push.send-buffer-size-limit或单条发送超过app.push.send-time-limit时
+ * 视为慢消费者并断开该连接；出站线程池队列容量为app.push.outbound-queue-capacity，队列满时丢弃新消息，
+ * 不会因个别客户端拖慢全体推送。
+ * 允许的来源与HTTP跨域配置相同（app.security.allowed-origins）；令牌过期或权限变更的连接由StompSessionRegistry关闭。
+ *
+ * @author Education Platform Team
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Value("${app.push.send-time-limit:10000}")
+    private int sendTimeLimit;
+
+    @Value("${app.push.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.push.outbound-pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${app.push.outbound-queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.push.heartbeat:10000}")
+    private long heartbeat;
+
+    @Value("${app.security.allowed-origins:http://localhost:*,http://127.0.0.1:*}")
+    private String[] allowedOrigins;
+
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Autowired
+    private StompSessionRegistry stompSessionRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 心跳使用独立的单线程调度器，不与定时任务争用线程
+     */
+    private ThreadPoolTaskScheduler heartbeatScheduler;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        SimpleBrokerRegistration broker = registry.enableSimpleBroker("/topic", "/queue");
+        if (heartbeat > 0) {
+            heartbeatScheduler = new ThreadPoolTaskScheduler();
+            heartbeatScheduler.setPoolSize(1);
+            heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+            heartbeatScheduler.initialize();
+            broker.setHeartbeatValue(new long[]{heartbeat, heartbeat}).setTaskScheduler(heartbeatScheduler);
+        }
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit).setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(stompSessionRegistry);
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // 与HTTP接口使用同一个ObjectMapper，日期格式等保持一致
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        messageConverters.add(converter);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdown();
+        }
+    }
+}
@@ -3,22 +3,55 @@ package com.education.platform.controller;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.education.platform.common.ApiResult;
+import com.education.platform.common.EstimatedPage;
+import com.education.platform.common.PageCursor;
 import com.education.platform.common.PageResult;
+import com.education.platform.dto.BatchRowError;
+import com.education.platform.dto.GroupCountRow;
+import com.education.platform.dto.ImportReport;
+import com.education.platform.dto.PersonSearchRow;
+import com.education.platform.dto.StatusChangeListRow;
+import com.education.platform.dto.StatusChangeStatistics;
+import com.education.platform.dto.StudentListRow;
+import com.education.platform.dto.TeacherListRow;
+import com.education.platform.dto.TimetableSolution;
+import com.education.platform.dto.TimetableSolveRequest;
 import com.education.platform.entity.*;
 import com.education.platform.mapper.*;
+import com.education.platform.security.AuthorityEpochRegistry;
+import com.education.platform.security.CurrentUser;
+import com.education.platform.security.LoginUser;
+import com.education.platform.service.IAnnouncementReadService;
+import com.education.platform.service.IExportService;
+import com.education.platform.service.IPeopleSearchService;
+import com.education.platform.service.IPersonImportService;
+import com.education.platform.service.IPushService;
+import com.education.platform.service.IStudentStatusChangeService;
+import com.education.platform.service.ITimetableService;
+import com.education.platform.service.ITimetableSolverService;
 import com.education.platform.service.IUserService;
+import com.education.platform.util.KeysetPaging;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 后台管理控制器
@@ -64,35 +97,40 @@ public class BackendController {
     private AnnouncementMapper announcementMapper;
 
     @Autowired
-    private com.education.platform.util.JwtUtils jwtUtils;
+    private IUserService userService;
 
     @Autowired
-    private IUserService userService;
+    private IPeopleSearchService peopleSearchService;
 
     @Autowired
     private StudentStatusChangeMapper studentStatusChangeMapper;
 
-    /**
-     * 从token中获取用户ID的辅助方法
-     */
-    private Long getCurrentUserIdFromToken(String token) {
-        if (token == null || !token.startsWith("Bearer ")) {
-            return null;
-        }
-        try {
-            String jwt = token.substring(7); // 去掉 "Bearer "
-            String username = jwtUtils.getUsernameFromToken(jwt);
+    @Autowired
+    private IStudentStatusChangeService studentStatusChangeService;
 
-            // 通过用户名查询用户
-            User user = userMapper.selectByUsername(username);
-            if (user != null) {
-                return user.getId();
-            }
-        } catch (Exception e) {
-            System.out.println("=== 从token获取用户ID失败: " + e.getMessage());
-        }
-        return null;
-    }
+    @Autowired
+    private IExportService exportService;
+
+    @Autowired
+    private IPersonImportService personImportService;
+
+    @Autowired
+    private ITimetableService timetableService;
+
+    @Autowired
+    private ITimetableSolverService timetableSolverService;
+
+    @Autowired
+    private IAnnouncementReadService announcementReadService;
+
+    @Autowired
+    private IPushService pushService;
+
+    @Autowired
+    private AuthorityEpochRegistry authorityEpochRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     /**
      * 4.1.1 文档发布
@@ -100,12 +138,12 @@ public class BackendController {
     @PostMapping("/document/publish")
     @Operation(summary = "发布文档", description = "创建并发布文档")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResult<Boolean> publishDocument(@RequestBody Document document, @RequestHeader(value = "Authorization", required = false) String token) {
+    public ApiResult<Boolean> publishDocument(@RequestBody Document document, @CurrentUser LoginUser loginUser) {
         document.setStatus(2); // 2-已发布（根据数据库状态定义）
         document.setPublishTime(LocalDateTime.now());
 
-        // 从token获取当前用户ID作为作者
-        Long currentUserId = getCurrentUserIdFromToken(token);
+        // 从登录上下文获取当前用户ID作为作者
+        Long currentUserId = loginUser != null ? loginUser.getUserId() : null;
         if (currentUserId == null) {
             currentUserId = 1L; // 默认管理员
         }
@@ -144,6 +182,8 @@ public class BackendController {
 
                 announcement.setPriority(0); // 普通优先级
                 announcementMapper.insert(announcement);
+                announcementReadService.onAnnouncementsChanged();
+                pushService.publishAnnouncement(announcement);
             }
 
             return ApiResult.success(result > 0);
@@ -241,89 +281,57 @@ public class BackendController {
     @GetMapping("/student/list")
     @Operation(summary = "学生列表", description = "获取学生列表")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResult<PageResult<Map<String, Object>>> listStudents(
+    public ApiResult<PageResult<StudentListRow>> listStudents(
             @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
             @Parameter(description = "班级ID") @RequestParam(required = false) Long classId,
             @Parameter(description = "姓名/学号模糊查询") @RequestParam(required = false) String keyword,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
-
-        Page<Student> page = new Page<>(current, size);
-        LambdaQueryWrapper<Student> wrapper = new LambdaQueryWrapper<>();
-
-        // 关键词查询（姓名或学号）
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            // 先查询匹配的用户ID
-            LambdaQueryWrapper<User> userWrapper = new LambdaQueryWrapper<>();
-            userWrapper.like(User::getRealName, keyword).or().like(User::getUsername, keyword);
-            List<User> users = userMapper.selectList(userWrapper);
-            List<Long> userIds = users.stream().map(User::getId).collect(java.util.stream.Collectors.toList());
-
-            if (!userIds.isEmpty()) {
-                wrapper.in(Student::getUserId, userIds);
-            } else {
-                // 如果用户表没找到，尝试按学号查询
-                wrapper.like(Student::getStudentNumber, keyword);
-            }
-        }
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "是否返回估算总数（数据量大时更快，返回结果带totalEstimated标记）") @RequestParam(defaultValue = "false") Boolean estimateTotal) {
 
-        if (schoolId != null && classId != null) {
-            wrapper.eq(Student::getClassId, classId);
-        } else if (classId != null) {
-            wrapper.eq(Student::getClassId, classId);
-        } else if (schoolId != null) {
-            LambdaQueryWrapper<com.education.platform.entity.Class> classWrapper = new LambdaQueryWrapper<>();
-            classWrapper.eq(com.education.platform.entity.Class::getSchoolId, schoolId);
-            List<com.education.platform.entity.Class> classes = classMapper.selectList(classWrapper);
-            if (classes.isEmpty()) {
-                Page<Map<String, Object>> emptyPage = new Page<>(current, size);
-                emptyPage.setRecords(new java.util.ArrayList<>());
-                return ApiResult.success(PageResult.of(emptyPage));
-            }
-            List<Long> classIds = classes.stream().map(com.education.platform.entity.Class::getId).collect(java.util.stream.Collectors.toList());
-            wrapper.in(Student::getClassId, classIds);
+        // 索引可用时先在人员检索索引中匹配关键词（支持拼音），再按用户ID过滤
+        List<Long> userIds = searchUserIds(keyword, IPeopleSearchService.ROLE_STUDENT, schoolId, classId);
+        if (userIds != null && userIds.isEmpty()) {
+            return ApiResult.success(PageResult.of(new Page<StudentListRow>(current, size)));
         }
 
-        Page<Student> result = studentMapper.selectPage(page, wrapper);
-
-        // 关联查询用户信息，返回包含姓名的数据
-        List<Map<String, Object>> records = new java.util.ArrayList<>();
-        for (Student student : result.getRecords()) {
-            Map<String, Object> map = new java.util.HashMap<>();
-            map.put("id", student.getId());
-            map.put("studentNumber", student.getStudentNumber());
-            map.put("classId", student.getClassId());
-            map.put("guardianName", student.getGuardianName());
-            map.put("guardianPhone", student.getGuardianPhone());
-            map.put("enrollmentDate", student.getEnrollmentDate());
-            map.put("status", student.getStatus());
-
-            // 关联查询用户姓名
-            User user = userMapper.selectById(student.getUserId());
-            if (user != null) {
-                map.put("name", user.getRealName());
-            } else {
-                map.put("name", "");
-            }
-
-            // 关联查询班级名称
-            com.education.platform.entity.Class classInfo = classMapper.selectById(student.getClassId());
-            if (classInfo != null) {
-                map.put("className", classInfo.getClassName());
-            } else {
-                map.put("className", "");
-            }
+        // 学生、用户、班级联表查询，关键词与学校/班级条件在同一语句中过滤
+        Page<StudentListRow> page = EstimatedPage.of(current, size, estimateTotal);
+        Page<StudentListRow> result = studentMapper.selectStudentListPage(page, schoolId, classId, keyword, userIds);
 
-            records.add(map);
-        }
+        return ApiResult.success(PageResult.of(result));
+    }
 
-        Page<Map<String, Object>> finalPage = new Page<>(current, size);
-        finalPage.setRecords(records);
-        finalPage.setTotal(result.getTotal());
-        finalPage.setSize(result.getSize());
-        finalPage.setCurrent(result.getCurrent());
+    /**
+     * 4.2.1 学生管理 - 导出
+     */
+    @GetMapping("/student/export")
+    @Operation(summary = "导出学生名单", description = "按学生列表的查询条件导出Excel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportStudents(
+            @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "班级ID") @RequestParam(required = false) Long classId,
+            @Parameter(description = "姓名/学号模糊查询") @RequestParam(required = false) String keyword,
+            HttpServletResponse response) {
+        List<Long> userIds = searchUserIds(keyword, IPeopleSearchService.ROLE_STUDENT, schoolId, classId);
+        writeExcel(response, "学生名单", out -> exportService.exportStudents(schoolId, classId, keyword, userIds, out));
+    }
 
-        return ApiResult.success(PageResult.of(finalPage));
+    /**
+     * 4.2.1 学生管理 - 成绩导出
+     */
+    @GetMapping("/grade/export")
+    @Operation(summary = "导出成绩", description = "按学校、班级、科目、考试类型、学期导出成绩Excel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportGrades(
+            @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "班级ID") @RequestParam(required = false) Long classId,
+            @Parameter(description = "科目") @RequestParam(required = false) String subject,
+            @Parameter(description = "考试类型：midterm/final/daily") @RequestParam(required = false) String examType,
+            @Parameter(description = "学期，如2024-2025-1") @RequestParam(required = false) String academicTerm,
+            HttpServletResponse response) {
+        writeExcel(response, "成绩", out -> exportService.exportGrades(
+                schoolId, classId, subject, examType, academicTerm, out));
     }
 
     /**
@@ -383,6 +391,7 @@ public class BackendController {
             }
 
             studentMapper.insert(student);
+            peopleSearchService.refreshUser(user.getId());
             return ApiResult.success(true);
         } catch (Exception e) {
             System.err.println("学生新增失败: " + e.getMessage());
@@ -391,6 +400,19 @@ public class BackendController {
         }
     }
 
+    /**
+     * 4.2.1.1 学生管理 - 批量导入
+     */
+    @PostMapping("/student/import")
+    @Operation(summary = "批量导入学生", description = "上传XLSX或CSV文件批量新增学生账号，返回逐行错误报告")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<ImportReport> importStudents(
+            @Parameter(description = "XLSX或CSV文件，首行为表头：学号、姓名、班级ID或班级，可选监护人、监护人电话、入学日期、密码")
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "学校ID（按班级名称匹配班级时限定学校）") @RequestParam(required = false) Long schoolId) {
+        return importPeople(file, "学生", in -> personImportService.importStudents(file.getOriginalFilename(), in, schoolId));
+    }
+
     /**
      * 4.2.1.2 学生管理 - 更新
      */
@@ -459,6 +481,11 @@ public class BackendController {
             }
 
             studentMapper.updateById(student);
+            peopleSearchService.refreshUser(oldStudent.getUserId());
+            if (!classId.equals(oldStudent.getClassId())) {
+                // 班级（及所属学校）声明变更，使该学生已签发的令牌失效
+                authorityEpochRegistry.bump(oldStudent.getUserId());
+            }
             return ApiResult.success(true);
         } catch (Exception e) {
             System.err.println("学生更新失败: " + e.getMessage());
@@ -484,6 +511,8 @@ public class BackendController {
 
             // 2. 逻辑删除学生记录（使用MyBatis-Plus的@TableLogic注解）
             int result = studentMapper.deleteById(id);
+            peopleSearchService.refreshUser(student.getUserId());
+            authorityEpochRegistry.bump(student.getUserId());
 
             // 3. 可选：同时删除关联的用户记录（或保留作为历史数据）
             // userMapper.deleteById(student.getUserId());
@@ -570,6 +599,20 @@ public class BackendController {
         return ApiResult.success(PageResult.of(result));
     }
 
+    /**
+     * 4.3.1 办公资产管理 - 导出
+     */
+    @GetMapping("/asset/export")
+    @Operation(summary = "导出资产", description = "按资产列表的查询条件导出Excel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportAssets(
+            @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "分类") @RequestParam(required = false) String category,
+            @Parameter(description = "关键词（资产名称）") @RequestParam(required = false) String keyword,
+            HttpServletResponse response) {
+        writeExcel(response, "办公资产", out -> exportService.exportAssets(schoolId, category, keyword, out));
+    }
+
     /**
      * 4.3.1.1 办公资产管理 - 新增
      */
@@ -880,92 +923,139 @@ public class BackendController {
         }
     }
 
+    /**
+     * 4.6.4 课程表管理 - 冲突校验（全校课程表上传前检查，不写入）
+     */
+    @PostMapping("/timetable/validate")
+    @Operation(summary = "课程表冲突校验", description = "检查一批课程表条目的字段以及教师、班级、教室的时间冲突，返回不通过的条目")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<List<BatchRowError>> validateTimetables(
+            @CurrentUser LoginUser loginUser,
+            @RequestBody List<Timetable> timetables) {
+        try {
+            if (timetables == null || timetables.isEmpty()) {
+                return ApiResult.badRequest("课程表条目不能为空");
+            }
+            if (timetables.size() > ITimetableService.MAX_BATCH_SIZE) {
+                return ApiResult.badRequest("单次最多校验 " + ITimetableService.MAX_BATCH_SIZE + " 条课程表记录");
+            }
+            // 未指定学校的条目默认属于当前管理员所在学校
+            Long schoolId = loginUser != null ? loginUser.getSchoolId() : null;
+            for (Timetable timetable : timetables) {
+                if (timetable != null && timetable.getSchoolId() == null) {
+                    timetable.setSchoolId(schoolId);
+                }
+            }
+            List<BatchRowError> errors = timetableService.validate(timetables);
+            return ApiResult.success("共 " + timetables.size() + " 条，不通过 " + errors.size() + " 条", errors);
+        } catch (Exception e) {
+            System.err.println("课程表冲突校验失败: " + e.getMessage());
+            return ApiResult.error("课程表冲突校验失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 4.6.5 课程表管理 - 自动排课
+     */
+    @PostMapping("/timetable/solve")
+    @Operation(summary = "自动排课", description = "根据课时需求、教师任教学科和教室容量生成全校课程表，可选择直接写入")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<TimetableSolution> solveTimetable(
+            @CurrentUser LoginUser loginUser,
+            @RequestBody TimetableSolveRequest request) {
+        if (request.getSchoolId() == null && loginUser != null) {
+            request.setSchoolId(loginUser.getSchoolId());
+        }
+        if (!timetableSolverService.tryBeginSolve()) {
+            return ApiResult.error(429, "已有排课任务在进行，请稍后重试");
+        }
+        try {
+            TimetableSolution solution = timetableSolverService.solve(request);
+            String message = solution.isFeasible() ? "排课完成" : "排课完成，仍有 " + solution.getHardViolations() + " 处冲突";
+            if (solution.isApplied()) {
+                message += "，已写入 " + solution.getWritten() + " 条课程表记录";
+            }
+            return ApiResult.success(message, solution);
+        } catch (IllegalArgumentException e) {
+            return ApiResult.badRequest(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ApiResult.error("排课被中断");
+        } catch (Exception e) {
+            System.err.println("自动排课失败: " + e.getMessage());
+            return ApiResult.error("自动排课失败: " + e.getMessage());
+        } finally {
+            timetableSolverService.endSolve();
+        }
+    }
+
     /**
      * 4.7.1 教师管理 - 列表
      */
     @GetMapping("/teacher/list")
     @Operation(summary = "教师列表", description = "获取教师列表")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResult<PageResult<Map<String, Object>>> listTeachers(
+    public ApiResult<PageResult<TeacherListRow>> listTeachers(
             @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
             @Parameter(description = "姓名/工号模糊查询") @RequestParam(required = false) String keyword,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
-
-        Page<Teacher> page = new Page<>(current, size);
-        LambdaQueryWrapper<Teacher> wrapper = new LambdaQueryWrapper<>();
-
-        // 关键词查询（姓名或工号）
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            // 先查询匹配的用户ID
-            LambdaQueryWrapper<User> userWrapper = new LambdaQueryWrapper<>();
-            userWrapper.like(User::getRealName, keyword).or().like(User::getUsername, keyword);
-            List<User> users = userMapper.selectList(userWrapper);
-            List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
-
-            if (!userIds.isEmpty()) {
-                wrapper.in(Teacher::getUserId, userIds);
-            } else {
-                // 如果用户表没找到，尝试按工号查询
-                wrapper.like(Teacher::getTeacherNumber, keyword);
-            }
-        }
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "是否返回估算总数（数据量大时更快，返回结果带totalEstimated标记）") @RequestParam(defaultValue = "false") Boolean estimateTotal) {
 
-        if (schoolId != null) {
-            // 先查询该学校的所有用户
-            List<User> schoolUsers = userMapper.selectBySchoolId(schoolId);
-            List<Long> userIds = schoolUsers.stream().map(User::getId).collect(Collectors.toList());
-            if (!userIds.isEmpty()) {
-                wrapper.in(Teacher::getUserId, userIds);
-            } else {
-                // 如果没有匹配的教师，返回空结果
-                Page<Map<String, Object>> emptyPage = new Page<>(current, size);
-                emptyPage.setRecords(new java.util.ArrayList<>());
-                return ApiResult.success(PageResult.of(emptyPage));
-            }
+        // 索引可用时先在人员检索索引中匹配关键词（支持拼音），再按用户ID过滤
+        List<Long> userIds = searchUserIds(keyword, IPeopleSearchService.ROLE_TEACHER, schoolId, null);
+        if (userIds != null && userIds.isEmpty()) {
+            return ApiResult.success(PageResult.of(new Page<TeacherListRow>(current, size)));
         }
 
-        wrapper.orderByDesc(Teacher::getCreatedAt);
+        // 教师、用户联表查询，关键词与学校条件在同一语句中过滤
+        Page<TeacherListRow> page = EstimatedPage.of(current, size, estimateTotal);
+        Page<TeacherListRow> result = teacherMapper.selectTeacherListPage(page, schoolId, keyword, userIds);
 
-        Page<Teacher> result = teacherMapper.selectPage(page, wrapper);
+        return ApiResult.success(PageResult.of(result));
+    }
 
-        // 关联查询用户信息，返回包含姓名的数据
-        List<Map<String, Object>> records = new java.util.ArrayList<>();
-        for (Teacher teacher : result.getRecords()) {
-            Map<String, Object> map = new java.util.HashMap<>();
-            map.put("id", teacher.getId());
-            map.put("teacherNumber", teacher.getTeacherNumber());
-            map.put("title", teacher.getTitle());
-            map.put("subject", teacher.getSubject());
-            map.put("hireDate", teacher.getHireDate());
-            map.put("status", teacher.getStatus());
-
-            // 关联查询用户姓名和部门
-            User user = userMapper.selectById(teacher.getUserId());
-            if (user != null) {
-                map.put("name", user.getRealName());
-                map.put("department", user.getDepartment());
-                map.put("phone", user.getPhone());
-                map.put("email", user.getEmail());
-                map.put("schoolId", user.getSchoolId());
-            } else {
-                map.put("name", "");
-                map.put("department", "");
-                map.put("phone", "");
-                map.put("email", "");
-                map.put("schoolId", null);
-            }
+    /**
+     * 4.7.1 教师管理 - 导出
+     */
+    @GetMapping("/teacher/export")
+    @Operation(summary = "导出教师名单", description = "按教师列表的查询条件导出Excel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportTeachers(
+            @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "姓名/工号模糊查询") @RequestParam(required = false) String keyword,
+            HttpServletResponse response) {
+        List<Long> userIds = searchUserIds(keyword, IPeopleSearchService.ROLE_TEACHER, schoolId, null);
+        writeExcel(response, "教师名单", out -> exportService.exportTeachers(schoolId, keyword, userIds, out));
+    }
 
-            records.add(map);
+    /**
+     * 4.7.1.1 人员检索（输入联想）
+     */
+    @GetMapping("/people/search")
+    @Operation(summary = "人员检索", description = "按姓名、用户名、学号、工号、拼音或拼音首字母检索人员")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<List<PersonSearchRow>> searchPeople(
+            @Parameter(description = "关键词") @RequestParam(required = false) String keyword,
+            @Parameter(description = "角色范围：STUDENT、TEACHER") @RequestParam(required = false) String role,
+            @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "班级ID") @RequestParam(required = false) Long classId,
+            @Parameter(description = "最多返回条数") @RequestParam(defaultValue = "10") Integer limit) {
+        if (!peopleSearchService.isReady()) {
+            return ApiResult.error("人员检索索引尚未就绪，请稍后再试");
         }
+        return ApiResult.success(peopleSearchService.search(keyword, role, schoolId, classId, limit));
+    }
 
-        Page<Map<String, Object>> finalPage = new Page<>(current, size);
-        finalPage.setRecords(records);
-        finalPage.setTotal(result.getTotal());
-        finalPage.setSize(result.getSize());
-        finalPage.setCurrent(result.getCurrent());
-
-        return ApiResult.success(PageResult.of(finalPage));
+    /**
+     * 通过人员检索索引将关键词解析为全部匹配的用户ID，列表总数、分页与导出均不截断
+     * 无关键词、索引未就绪或匹配人数超过上限时返回null，由SQL按LIKE条件过滤
+     */
+    private List<Long> searchUserIds(String keyword, String role, Long schoolId, Long classId) {
+        if (keyword == null || keyword.trim().isEmpty() || !peopleSearchService.isReady()) {
+            return null;
+        }
+        return peopleSearchService.matchUserIds(keyword, role, schoolId, classId);
     }
 
     /**
@@ -1033,6 +1123,7 @@ public class BackendController {
 
             // 3. 分配 TEACHER 角色
             userService.assignRole(user.getId(), "TEACHER");
+            peopleSearchService.refreshUser(user.getId());
 
             return ApiResult.success(true);
         } catch (Exception e) {
@@ -1042,6 +1133,19 @@ public class BackendController {
         }
     }
 
+    /**
+     * 4.7.2 教师管理 - 批量导入
+     */
+    @PostMapping("/teacher/import")
+    @Operation(summary = "批量导入教师", description = "上传XLSX或CSV文件批量新增教师账号，返回逐行错误报告")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<ImportReport> importTeachers(
+            @Parameter(description = "XLSX或CSV文件，首行为表头：工号、姓名，可选部门、职称、任教学科、联系电话、邮箱、入职日期、密码")
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "学校ID") @RequestParam Long schoolId) {
+        return importPeople(file, "教师", in -> personImportService.importTeachers(file.getOriginalFilename(), in, schoolId));
+    }
+
     /**
      * 4.7.3 教师管理 - 更新
      */
@@ -1084,7 +1188,9 @@ public class BackendController {
 
             // 2. 更新 User 记录
             User user = userMapper.selectById(oldTeacher.getUserId());
+            boolean schoolChanged = false;
             if (user != null) {
+                schoolChanged = !java.util.Objects.equals(user.getSchoolId(), schoolId);
                 user.setRealName(name);
                 user.setPhone(phone);
                 user.setEmail(email);
@@ -1113,6 +1219,12 @@ public class BackendController {
             }
 
             teacherMapper.updateById(teacher);
+            peopleSearchService.refreshUser(oldTeacher.getUserId());
+            timetableService.onTeacherNamesChanged();
+            if (schoolChanged) {
+                // 所属学校声明变更，使该教师已签发的令牌失效
+                authorityEpochRegistry.bump(oldTeacher.getUserId());
+            }
             return ApiResult.success(true);
         } catch (Exception e) {
             System.err.println("教师更新失败: " + e.getMessage());
@@ -1138,6 +1250,9 @@ public class BackendController {
 
             // 2. 逻辑删除教师记录
             int result = teacherMapper.deleteById(id);
+            peopleSearchService.refreshUser(teacher.getUserId());
+            timetableService.onTeacherNamesChanged();
+            authorityEpochRegistry.bump(teacher.getUserId());
 
             // 3. 可选：同时删除关联的用户记录（或保留作为历史数据）
             // userMapper.deleteById(teacher.getUserId());
@@ -1158,10 +1273,10 @@ public class BackendController {
     @PreAuthorize("isAuthenticated()")
     public ApiResult<Boolean> applyStatusChange(
             @RequestBody StudentStatusChange change,
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @CurrentUser LoginUser loginUser) {
         try {
-            // 从token获取当前用户ID
-            Long currentUserId = getCurrentUserIdFromToken(token);
+            // 从登录上下文获取当前用户ID
+            Long currentUserId = loginUser != null ? loginUser.getUserId() : null;
             if (currentUserId == null) {
                 return ApiResult.error("未登录或登录已过期");
             }
@@ -1180,13 +1295,9 @@ public class BackendController {
             // 设置学生ID
             change.setStudentId(student.getId());
 
-            // 设置初始状态：待审核
-            change.setStatus(0);
-            change.setDeleted(0);
-
-            // 插入记录
-            int result = studentStatusChangeMapper.insert(change);
-            return ApiResult.success(result > 0);
+            // 插入记录（初始状态：待审核），同一事务内更新计数
+            boolean result = studentStatusChangeService.apply(change);
+            return ApiResult.success(result);
         } catch (Exception e) {
             System.err.println("学籍异动申请失败: " + e.getMessage());
             e.printStackTrace();
@@ -1200,111 +1311,67 @@ public class BackendController {
     @GetMapping("/status-change/list")
     @Operation(summary = "学籍异动列表", description = "查询学籍异动申请列表（管理员）")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResult<PageResult<Map<String, Object>>> listStatusChanges(
+    public ApiResult<PageResult<StatusChangeListRow>> listStatusChanges(
             @Parameter(description = "学生姓名") @RequestParam(required = false) String studentName,
             @Parameter(description = "异动类型：1-休学，2-转学，3-复学，4-退学，5-其他") @RequestParam(required = false) Integer changeType,
             @Parameter(description = "审核状态：0-待审核，1-已通过，2-已驳回") @RequestParam(required = false) Integer status,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
-
-        Page<StudentStatusChange> page = new Page<>(current, size);
-        LambdaQueryWrapper<StudentStatusChange> wrapper = new LambdaQueryWrapper<>();
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页") @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数") @RequestParam(defaultValue = "false") Boolean withTotal,
+            @Parameter(description = "是否返回估算总数（数据量大时更快，返回结果带totalEstimated标记）") @RequestParam(defaultValue = "false") Boolean estimateTotal) {
+
+        // 学籍异动、学生、班级、审核人、申请人联表查询
+        if (cursor == null) {
+            Page<StatusChangeListRow> page = EstimatedPage.of(current, size, estimateTotal);
+            Page<StatusChangeListRow> result = studentStatusChangeMapper.selectStatusChangeListPage(
+                    page, studentName, changeType, status, null, null);
+            return ApiResult.success(PageResult.of(result));
+        }
 
-        // 条件查询
-        if (changeType != null) {
-            wrapper.eq(StudentStatusChange::getChangeType, changeType);
+        // 游标模式：按(created_at, id)定位，多取一条判断是否有下一页
+        PageCursor position;
+        try {
+            position = PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ApiResult.badRequest(e.getMessage());
         }
-        if (status != null) {
-            wrapper.eq(StudentStatusChange::getStatus, status);
+        if (position != null && position.getSortKey() != null && !(position.getSortKey() instanceof LocalDateTime)) {
+            return ApiResult.badRequest("无效的分页游标");
         }
-
-        // 按时间倒序排列
-        wrapper.orderByDesc(StudentStatusChange::getCreatedAt);
-
-        Page<StudentStatusChange> result = studentStatusChangeMapper.selectPage(page, wrapper);
-
-        // 关联查询学生和用户信息
-        List<Map<String, Object>> records = new java.util.ArrayList<>();
-        for (StudentStatusChange change : result.getRecords()) {
-            Map<String, Object> map = new java.util.HashMap<>();
-            map.put("id", change.getId());
-            map.put("changeType", change.getChangeType());
-            map.put("reason", change.getReason());
-            map.put("startDate", change.getStartDate());
-            map.put("endDate", change.getEndDate());
-            map.put("targetSchool", change.getTargetSchool());
-            map.put("status", change.getStatus());
-            map.put("approvalComment", change.getApprovalComment());
-            map.put("approvalTime", change.getApprovalTime());
-            map.put("createdAt", change.getCreatedAt());
-
-            // 查询学生信息
-            Student student = studentMapper.selectById(change.getStudentId());
-            if (student != null) {
-                map.put("studentNumber", student.getStudentNumber());
-                map.put("classId", student.getClassId());
-
-                // 查询学生姓名（通过用户表）
-                User user = userMapper.selectById(student.getUserId());
-                if (user != null) {
-                    map.put("studentName", user.getRealName());
-                }
-
-                // 查询班级名称
-                com.education.platform.entity.Class classInfo = classMapper.selectById(student.getClassId());
-                if (classInfo != null) {
-                    map.put("className", classInfo.getClassName());
-                }
-            }
-
-            // 查询审核人信息
-            if (change.getApproverId() != null) {
-                User approver = userMapper.selectById(change.getApproverId());
-                if (approver != null) {
-                    map.put("approverName", approver.getRealName());
-                }
-            }
-
-            // 查询申请人信息
-            if (change.getUserId() != null) {
-                User applicant = userMapper.selectById(change.getUserId());
-                if (applicant != null) {
-                    map.put("applicantName", applicant.getRealName());
-                }
-            }
-
-            // 根据changeType转换中文描述
-            String typeDesc = "";
-            switch (change.getChangeType()) {
-                case 1: typeDesc = "休学"; break;
-                case 2: typeDesc = "转学"; break;
-                case 3: typeDesc = "复学"; break;
-                case 4: typeDesc = "退学"; break;
-                case 5: typeDesc = "其他"; break;
-                default: typeDesc = "未知";
-            }
-            map.put("changeTypeDesc", typeDesc);
-
-            // 根据status转换中文描述
-            String statusDesc = "";
-            switch (change.getStatus()) {
-                case 0: statusDesc = "待审核"; break;
-                case 1: statusDesc = "已通过"; break;
-                case 2: statusDesc = "已驳回"; break;
-                default: statusDesc = "未知";
-            }
-            map.put("statusDesc", statusDesc);
-
-            records.add(map);
+        long limit = Math.max(1, Math.min(size, KeysetPaging.MAX_SIZE));
+        Page<StatusChangeListRow> page = new Page<>(1, limit + 1, false);
+        List<StatusChangeListRow> rows = studentStatusChangeMapper.selectStatusChangeListPage(
+                page, studentName, changeType, status,
+                position != null ? (LocalDateTime) position.getSortKey() : null,
+                position != null ? position.getId() : null).getRecords();
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new java.util.ArrayList<>(rows.subList(0, (int) limit));
+            StatusChangeListRow last = rows.get(rows.size() - 1);
+            nextCursor = PageCursor.encode(last.getCreatedAt(), last.getId());
         }
+        Long total = null;
+        if (withTotal) {
+            total = studentStatusChangeMapper.selectStatusChangeListPage(
+                    new Page<>(1, 1), studentName, changeType, status, null, null).getTotal();
+        }
+        return ApiResult.success(PageResult.ofCursor(rows, limit, nextCursor, total));
+    }
 
-        Page<Map<String, Object>> finalPage = new Page<>(current, size);
-        finalPage.setRecords(records);
-        finalPage.setTotal(result.getTotal());
-        finalPage.setSize(result.getSize());
-        finalPage.setCurrent(result.getCurrent());
-
-        return ApiResult.success(PageResult.of(finalPage));
+    /**
+     * 4.8.2 学籍异动查询 - 导出
+     */
+    @GetMapping("/status-change/export")
+    @Operation(summary = "导出学籍异动", description = "按学籍异动列表的查询条件导出Excel（管理员）")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportStatusChanges(
+            @Parameter(description = "学生姓名") @RequestParam(required = false) String studentName,
+            @Parameter(description = "异动类型：1-休学，2-转学，3-复学，4-退学，5-其他") @RequestParam(required = false) Integer changeType,
+            @Parameter(description = "审核状态：0-待审核，1-已通过，2-已驳回") @RequestParam(required = false) Integer status,
+            HttpServletResponse response) {
+        writeExcel(response, "学籍异动", out -> exportService.exportStatusChanges(studentName, changeType, status, out));
     }
 
     /**
@@ -1314,12 +1381,14 @@ public class BackendController {
     @Operation(summary = "我的学籍异动", description = "查询当前学生的学籍异动申请")
     @PreAuthorize("isAuthenticated()")
     public ApiResult<PageResult<Map<String, Object>>> listMyStatusChanges(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页") @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数") @RequestParam(defaultValue = "false") Boolean withTotal) {
 
-        // 从token获取当前用户ID
-        Long currentUserId = getCurrentUserIdFromToken(token);
+        // 从登录上下文获取当前用户ID
+        Long currentUserId = loginUser != null ? loginUser.getUserId() : null;
         if (currentUserId == null) {
             return ApiResult.error("未登录或登录已过期");
         }
@@ -1332,12 +1401,21 @@ public class BackendController {
             return ApiResult.error("未找到关联的学生信息");
         }
 
-        Page<StudentStatusChange> page = new Page<>(current, size);
         LambdaQueryWrapper<StudentStatusChange> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(StudentStatusChange::getStudentId, student.getId());
-        wrapper.orderByDesc(StudentStatusChange::getCreatedAt);
 
-        Page<StudentStatusChange> result = studentStatusChangeMapper.selectPage(page, wrapper);
+        PageResult<StudentStatusChange> result;
+        if (cursor != null) {
+            try {
+                result = KeysetPaging.seek(studentStatusChangeMapper, wrapper,
+                        StudentStatusChange::getCreatedAt, StudentStatusChange::getId, cursor, size, withTotal);
+            } catch (IllegalArgumentException e) {
+                return ApiResult.badRequest(e.getMessage());
+            }
+        } else {
+            wrapper.orderByDesc(StudentStatusChange::getCreatedAt).orderByDesc(StudentStatusChange::getId);
+            result = PageResult.of(studentStatusChangeMapper.selectPage(new Page<>(current, size), wrapper));
+        }
 
         // 构建返回数据
         List<Map<String, Object>> records = new java.util.ArrayList<>();
@@ -1379,13 +1457,7 @@ public class BackendController {
             records.add(map);
         }
 
-        Page<Map<String, Object>> finalPage = new Page<>(current, size);
-        finalPage.setRecords(records);
-        finalPage.setTotal(result.getTotal());
-        finalPage.setSize(result.getSize());
-        finalPage.setCurrent(result.getCurrent());
-
-        return ApiResult.success(PageResult.of(finalPage));
+        return ApiResult.success(result.withRecords(records));
     }
 
     /**
@@ -1398,7 +1470,7 @@ public class BackendController {
             @Parameter(description = "申请ID") @RequestParam Long id,
             @Parameter(description = "审核状态：1-通过，2-驳回") @RequestParam Integer status,
             @Parameter(description = "审核意见") @RequestParam(required = false) String approvalComment,
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @CurrentUser LoginUser loginUser) {
 
         try {
             // 验证申请是否存在
@@ -1412,19 +1484,17 @@ public class BackendController {
                 return ApiResult.error("该申请已被审核，不能重复审核");
             }
 
-            // 从token获取审核人ID
-            Long currentUserId = getCurrentUserIdFromToken(token);
+            // 从登录上下文获取审核人ID
+            Long currentUserId = loginUser != null ? loginUser.getUserId() : null;
             if (currentUserId == null) {
                 currentUserId = 1L; // 默认管理员
             }
 
-            // 更新审核信息
-            change.setStatus(status);
-            change.setApprovalComment(approvalComment);
-            change.setApproverId(currentUserId);
-            change.setApprovalTime(java.time.LocalDateTime.now());
-
-            int result = studentStatusChangeMapper.updateById(change);
+            // 更新审核信息，同一事务内更新计数
+            boolean result = studentStatusChangeService.approve(change, status, approvalComment, currentUserId);
+            if (!result) {
+                return ApiResult.error("该申请已被审核，不能重复审核");
+            }
 
             // 如果审核通过，可能需要更新学生状态（这里可以根据业务需求扩展）
             if (status == 1) {
@@ -1434,7 +1504,7 @@ public class BackendController {
                 // 这里可以根据changeType做相应处理
             }
 
-            return ApiResult.success(result > 0);
+            return ApiResult.success(true);
         } catch (Exception e) {
             System.err.println("审核学籍异动失败: " + e.getMessage());
             e.printStackTrace();
@@ -1457,9 +1527,9 @@ public class BackendController {
                 return ApiResult.error("申请不存在");
             }
 
-            // 逻辑删除
-            int result = studentStatusChangeMapper.deleteById(id);
-            return ApiResult.success(result > 0);
+            // 逻辑删除，同一事务内更新计数
+            boolean result = studentStatusChangeService.deleteApplication(change);
+            return ApiResult.success(result);
         } catch (Exception e) {
             System.err.println("删除学籍异动失败: " + e.getMessage());
             e.printStackTrace();
@@ -1473,44 +1543,10 @@ public class BackendController {
     @GetMapping("/status-change/statistics")
     @Operation(summary = "学籍异动统计", description = "学籍异动申请统计")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResult<Map<String, Object>> statusChangeStatistics() {
+    public ApiResult<StatusChangeStatistics> statusChangeStatistics() {
         try {
-            // 统计总数
-            LambdaQueryWrapper<StudentStatusChange> totalWrapper = new LambdaQueryWrapper<>();
-            Long total = studentStatusChangeMapper.selectCount(totalWrapper);
-
-            // 统计待审核
-            LambdaQueryWrapper<StudentStatusChange> pendingWrapper = new LambdaQueryWrapper<>();
-            pendingWrapper.eq(StudentStatusChange::getStatus, 0);
-            Long pending = studentStatusChangeMapper.selectCount(pendingWrapper);
-
-            // 统计已通过
-            LambdaQueryWrapper<StudentStatusChange> approvedWrapper = new LambdaQueryWrapper<>();
-            approvedWrapper.eq(StudentStatusChange::getStatus, 1);
-            Long approved = studentStatusChangeMapper.selectCount(approvedWrapper);
-
-            // 统计已驳回
-            LambdaQueryWrapper<StudentStatusChange> rejectedWrapper = new LambdaQueryWrapper<>();
-            rejectedWrapper.eq(StudentStatusChange::getStatus, 2);
-            Long rejected = studentStatusChangeMapper.selectCount(rejectedWrapper);
-
-            // 按类型统计
-            Map<String, Long> typeStats = new HashMap<>();
-            for (int i = 1; i <= 5; i++) {
-                LambdaQueryWrapper<StudentStatusChange> typeWrapper = new LambdaQueryWrapper<>();
-                typeWrapper.eq(StudentStatusChange::getChangeType, i);
-                Long count = studentStatusChangeMapper.selectCount(typeWrapper);
-                typeStats.put(String.valueOf(i), count);
-            }
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("total", total);
-            stats.put("pending", pending);
-            stats.put("approved", approved);
-            stats.put("rejected", rejected);
-            stats.put("typeStats", typeStats);
-
-            return ApiResult.success(stats);
+            // 计数表单行读取，或按状态、类型一次分组聚合
+            return ApiResult.success(studentStatusChangeService.getStatistics());
         } catch (Exception e) {
             System.err.println("统计学籍异动失败: " + e.getMessage());
             return ApiResult.error("统计学籍异动失败: " + e.getMessage());
@@ -1528,14 +1564,15 @@ public class BackendController {
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResult<Map<String, Object>> studentStatistics() {
         try {
-            // 统计总学生数
-            LambdaQueryWrapper<Student> totalWrapper = new LambdaQueryWrapper<>();
-            Long total = studentMapper.selectCount(totalWrapper);
-
-            // 统计在读学生
-            LambdaQueryWrapper<Student> inSchoolWrapper = new LambdaQueryWrapper<>();
-            inSchoolWrapper.eq(Student::getStatus, 1);
-            Long inSchool = studentMapper.selectCount(inSchoolWrapper);
+            // 按学籍状态一次分组统计，总数为各状态之和，在读为状态1
+            long total = 0;
+            long inSchool = 0;
+            for (GroupCountRow row : studentMapper.selectCountGroupByStatus()) {
+                total += row.getTotal();
+                if (Integer.valueOf(1).equals(row.getGroupKey())) {
+                    inSchool = row.getTotal();
+                }
+            }
 
             Map<String, Object> stats = new HashMap<>();
             stats.put("total", total);
@@ -1556,13 +1593,20 @@ public class BackendController {
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResult<Map<String, Object>> classStatistics() {
         try {
-            // 统计总班级数
-            LambdaQueryWrapper<com.education.platform.entity.Class> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(com.education.platform.entity.Class::getStatus, 1);
-            Long total = classMapper.selectCount(wrapper);
+            // 按班级状态一次分组统计，total为正常班级数，dissolved为已解散班级数
+            long total = 0;
+            long dissolved = 0;
+            for (GroupCountRow row : classMapper.selectCountGroupByStatus()) {
+                if (Integer.valueOf(1).equals(row.getGroupKey())) {
+                    total = row.getTotal();
+                } else if (Integer.valueOf(0).equals(row.getGroupKey())) {
+                    dissolved = row.getTotal();
+                }
+            }
 
             Map<String, Object> stats = new HashMap<>();
             stats.put("total", total);
+            stats.put("dissolved", dissolved);
 
             return ApiResult.success(stats);
         } catch (Exception e) {
@@ -1570,4 +1614,78 @@ public class BackendController {
             return ApiResult.error("统计班级信息失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 写出Excel文件；导出失败且响应尚未提交时改为返回错误信息
+     */
+    private void writeExcel(HttpServletResponse response, String fileName, ExcelExport export) {
+        if (!exportService.tryBeginExport()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            writeError(response, ApiResult.error(429, "同时进行的导出过多，请稍后重试"));
+            return;
+        }
+        try {
+            String encodedName = URLEncoder.encode(fileName + "_" + LocalDate.now() + ".xlsx", StandardCharsets.UTF_8)
+                    .replace("+", "%20");
+            response.setContentType(IExportService.CONTENT_TYPE_XLSX);
+            response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + encodedName);
+            export.write(response.getOutputStream());
+        } catch (Exception e) {
+            System.err.println("导出" + fileName + "失败: " + e.getMessage());
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                writeError(response, ApiResult.error("导出" + fileName + "失败"));
+            }
+        } finally {
+            exportService.endExport();
+        }
+    }
+
+    private void writeError(HttpServletResponse response, ApiResult<?> result) {
+        try {
+            response.setContentType("application/json;charset=UTF-8");
+            response.getWriter().write(objectMapper.writeValueAsString(result));
+        } catch (IOException e) {
+            System.err.println("写出错误信息失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 执行批量导入：文件格式或表头错误返回400，同时进行的导入过多返回429
+     */
+    private ApiResult<ImportReport> importPeople(MultipartFile file, String label, PeopleImport task) {
+        if (file == null || file.isEmpty()) {
+            return ApiResult.badRequest("请选择要导入的文件");
+        }
+        if (!personImportService.tryBeginImport()) {
+            return ApiResult.error(429, "已有导入任务在进行，请稍后重试");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ApiResult.success(task.run(in));
+        } catch (IllegalArgumentException e) {
+            return ApiResult.badRequest(e.getMessage());
+        } catch (Exception e) {
+            System.err.println(label + "导入失败: " + e.getMessage());
+            return ApiResult.error(label + "导入失败");
+        } finally {
+            personImportService.endImport();
+        }
+    }
+
+    /**
+     * 导入任务：读取上传文件并返回导入报告
+     */
+    @FunctionalInterface
+    private interface PeopleImport {
+        ImportReport run(InputStream in) throws IOException;
+    }
+
+    /**
+     * 导出任务：将Excel写入输出流
+     */
+    @FunctionalInterface
+    private interface ExcelExport {
+        void write(OutputStream out) throws IOException;
+    }
 }
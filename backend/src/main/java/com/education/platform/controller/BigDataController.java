@@ -1,18 +1,29 @@
 package com.education.platform.controller;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.education.platform.common.ApiResult;
-import com.education.platform.entity.DataAnalysis;
-import com.education.platform.mapper.DataAnalysisMapper;
+import com.education.platform.dto.AnalyticsOverview;
+import com.education.platform.dto.CleaningReport;
+import com.education.platform.dto.IngestionMetrics;
+import com.education.platform.dto.IngestionResult;
+import com.education.platform.security.CurrentUser;
+import com.education.platform.security.LoginUser;
+import com.education.platform.service.IAnalyticsService;
+import com.education.platform.service.IDataAnalysisService;
+import com.education.platform.service.IDataCleaningService;
+import com.education.platform.service.IDataIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,8 +37,27 @@ import java.util.Map;
 @Tag(name = "大数据分析", description = "大数据分析相关接口")
 public class BigDataController {
 
+    /**
+     * 生师比参考上限（每名教师对应的学生数）
+     */
+    private static final double MAX_STUDENT_TEACHER_RATIO = 19;
+
+    /**
+     * 标准班额上限
+     */
+    private static final double MAX_CLASS_SIZE = 45;
+
+    @Autowired
+    private IDataAnalysisService dataAnalysisService;
+
+    @Autowired
+    private IAnalyticsService analyticsService;
+
     @Autowired
-    private DataAnalysisMapper dataAnalysisMapper;
+    private IDataIngestionService dataIngestionService;
+
+    @Autowired
+    private IDataCleaningService dataCleaningService;
 
     /**
      * 4.4.1 数据采集接口
@@ -35,13 +65,77 @@ public class BigDataController {
     @PostMapping("/collection")
     @Operation(summary = "数据采集", description = "学校上传数据")
     @PreAuthorize("hasRole('SCHOOL_ADMIN')")
-    public ApiResult<Boolean> collectData(
+    public ApiResult<IngestionResult> collectData(
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "数据类型") @RequestParam String dataType,
+            @Parameter(description = "数据来源") @RequestParam(defaultValue = "api") String dataSource,
             @Parameter(description = "数据内容") @RequestBody Map<String, Object> dataContent) {
+        if (loginUser == null || loginUser.getSchoolId() == null) {
+            return ApiResult.badRequest("当前用户未关联学校");
+        }
+        if (!dataIngestionService.tryBeginUpload()) {
+            return ApiResult.error(429, "数据上传繁忙，请稍后重试");
+        }
+        try {
+            IngestionResult result = dataIngestionService.ingest(
+                    loginUser.getSchoolId(), dataType, dataSource, dataContent);
+            if (result.isAborted()) {
+                return ApiResult.error(429, "数据采集队列已满，请稍后重试");
+            }
+            return ApiResult.success(result);
+        } finally {
+            dataIngestionService.endUpload();
+        }
+    }
 
-        // 这里可以存储到data_collection表
-        // 简化处理，直接返回成功
-        return ApiResult.success(true);
+    /**
+     * 4.4.1 数据采集接口（批量，流式请求体）
+     * 请求体为NDJSON（每行一个JSON对象）或首行为表头的CSV，逐行读取，每行生成一条采集记录
+     */
+    @PostMapping(value = "/collection/stream",
+            consumes = {"application/x-ndjson", "application/jsonl", "text/csv", "text/plain"})
+    @Operation(summary = "批量数据采集", description = "学校以NDJSON或CSV流式上传批量数据")
+    @PreAuthorize("hasRole('SCHOOL_ADMIN')")
+    public ApiResult<IngestionResult> collectDataStream(
+            @CurrentUser LoginUser loginUser,
+            @Parameter(description = "数据类型") @RequestParam String dataType,
+            @Parameter(description = "数据来源") @RequestParam(defaultValue = "upload") String dataSource,
+            @Parameter(description = "请求体格式: ndjson/csv，不传时按Content-Type判断") @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        if (loginUser == null || loginUser.getSchoolId() == null) {
+            return ApiResult.badRequest("当前用户未关联学校");
+        }
+        if (format == null) {
+            String contentType = request.getContentType();
+            format = contentType != null && contentType.startsWith("text/csv")
+                    ? IDataIngestionService.FORMAT_CSV : IDataIngestionService.FORMAT_NDJSON;
+        }
+        if (!IDataIngestionService.FORMAT_CSV.equals(format) && !IDataIngestionService.FORMAT_NDJSON.equals(format)) {
+            return ApiResult.badRequest("不支持的数据格式: " + format);
+        }
+        if (!dataIngestionService.tryBeginUpload()) {
+            return ApiResult.error(429, "同时进行的数据上传过多，请稍后重试");
+        }
+        try {
+            IngestionResult result = dataIngestionService.ingestStream(
+                    loginUser.getSchoolId(), dataType, dataSource, format, request.getInputStream());
+            return ApiResult.success(result);
+        } catch (IOException e) {
+            System.err.println("读取上传数据失败: " + e.getMessage());
+            return ApiResult.error("读取上传数据失败");
+        } finally {
+            dataIngestionService.endUpload();
+        }
+    }
+
+    /**
+     * 4.4.1 数据采集吞吐指标
+     */
+    @GetMapping("/collection/metrics")
+    @Operation(summary = "数据采集指标", description = "按学校、数据类型统计受理与写入情况")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<List<IngestionMetrics>> collectionMetrics() {
+        return ApiResult.success(dataIngestionService.getMetrics());
     }
 
     /**
@@ -52,25 +146,16 @@ public class BigDataController {
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResult<Map<String, Object>> teacherDistribution(
             @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId) {
-
-        // 模拟分析结果
-        Map<String, Object> result = new HashMap<>();
-        result.put("totalTeachers", 250);
-        result.put("byTitle", Map.of(
-            "高级教师", 50,
-            "一级教师", 120,
-            "二级教师", 80
-        ));
-        result.put("bySubject", Map.of(
-            "语文", 60,
-            "数学", 55,
-            "英语", 50,
-            "物理", 30,
-            "化学", 25,
-            "其他", 30
-        ));
-
-        return ApiResult.success(result);
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("totalTeachers", analyticsService.teacherCount(schoolId));
+            result.put("byTitle", analyticsService.breakdown(IAnalyticsService.DIMENSION_TEACHER_TITLE, schoolId));
+            result.put("bySubject", analyticsService.breakdown(IAnalyticsService.DIMENSION_TEACHER_SUBJECT, schoolId));
+            return ApiResult.success(result);
+        } catch (Exception e) {
+            System.err.println("教师分布分析失败: " + e.getMessage());
+            return ApiResult.error("教师分布分析失败");
+        }
     }
 
     /**
@@ -80,56 +165,79 @@ public class BigDataController {
     @Operation(summary = "学校布局分析", description = "分析学校布局情况")
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResult<Map<String, Object>> schoolLayout() {
-
-        // 模拟分析结果
-        Map<String, Object> result = new HashMap<>();
-        result.put("totalSchools", 50);
-        result.put("byType", Map.of(
-            "小学", 25,
-            "中学", 20,
-            "职业学校", 5
-        ));
-        result.put("byRegion", Map.of(
-            "城区", 30,
-            "郊区", 15,
-            "乡镇", 5
-        ));
-
-        return ApiResult.success(result);
+        try {
+            AnalyticsOverview overview = analyticsService.overview();
+            Map<String, Object> result = new HashMap<>();
+            result.put("totalSchools", overview.getSchoolCount());
+            result.put("byType", analyticsService.breakdown(IAnalyticsService.DIMENSION_SCHOOL_TYPE, null));
+            result.put("byRegion", analyticsService.breakdown(IAnalyticsService.DIMENSION_SCHOOL_REGION, null));
+            result.put("studentTeacherRatioByType", analyticsService.breakdown(IAnalyticsService.DIMENSION_RATIO_BY_TYPE, null));
+            result.put("averageClassSizeByType", analyticsService.breakdown(IAnalyticsService.DIMENSION_CLASS_SIZE_BY_TYPE, null));
+            return ApiResult.success(result);
+        } catch (Exception e) {
+            System.err.println("学校布局分析失败: " + e.getMessage());
+            return ApiResult.error("学校布局分析失败");
+        }
     }
 
     /**
      * 4.4.5 数据可视化 - 图表数据
+     * 读取每天预计算的分析结果，不在请求中统计。
+     * 管理员可查看全区及任意学校；学校管理员和教师只能查看本校（未指定学校时按本校查询）
      */
     @GetMapping("/visualization/chart")
     @Operation(summary = "图表数据", description = "获取图表数据")
-    @PreAuthorize("isAuthenticated()")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SCHOOL_ADMIN', 'TEACHER')")
     public ApiResult<Map<String, Object>> getChartData(
-            @Parameter(description = "图表类型") @RequestParam String chartType,
-            @Parameter(description = "分析类型") @RequestParam String analysisType) {
-
-        Map<String, Object> chartData = new HashMap<>();
-
-        if ("bar".equals(chartType)) {
-            // 柱状图数据
-            chartData.put("xAxis", List.of("1月", "2月", "3月", "4月", "5月", "6月"));
-            chartData.put("series", List.of(120, 200, 150, 80, 70, 110));
-        } else if ("line".equals(chartType)) {
-            // 折线图数据
-            chartData.put("xAxis", List.of("周一", "周二", "周三", "周四", "周五", "周六", "周日"));
-            chartData.put("series", List.of(820, 932, 901, 934, 1290, 1330, 1320));
-        } else if ("pie".equals(chartType)) {
-            // 饼图数据
-            chartData.put("data", List.of(
-                Map.of("value", 1048, "name", "语文"),
-                Map.of("value", 735, "name", "数学"),
-                Map.of("value", 580, "name", "英语"),
-                Map.of("value", 484, "name", "物理"),
-                Map.of("value", 300, "name", "化学")
-            ));
-        }
-
-        return ApiResult.success(chartData);
+            @CurrentUser LoginUser loginUser,
+            @Parameter(description = "图表类型: bar/line/pie") @RequestParam String chartType,
+            @Parameter(description = "分析类型: teacherTitle/teacherSubject/schoolType/schoolRegion/ratioByType/ratioByRegion/classSizeByType/classSizeByRegion/trend")
+            @RequestParam String analysisType,
+            @Parameter(description = "学校ID，为空表示全区（仅支持teacherTitle/teacherSubject）")
+            @RequestParam(required = false) Long schoolId) {
+        if (loginUser == null) {
+            return ApiResult.unauthorized("未登录或token无效");
+        }
+        if (!loginUser.hasRole("ADMIN")) {
+            if (loginUser.getSchoolId() == null) {
+                return ApiResult.forbidden("当前用户未关联学校");
+            }
+            if (schoolId != null && !schoolId.equals(loginUser.getSchoolId())) {
+                return ApiResult.forbidden("只能查看本校的分析数据");
+            }
+            schoolId = loginUser.getSchoolId();
+        }
+        if (!"bar".equals(chartType) && !"line".equals(chartType) && !"pie".equals(chartType)) {
+            return ApiResult.badRequest("不支持的图表类型: " + chartType);
+        }
+        if (!dataAnalysisService.isSupported(analysisType, schoolId, chartType)) {
+            return ApiResult.badRequest("不支持的分析类型: " + analysisType);
+        }
+        try {
+            Map<String, Object> chartData = dataAnalysisService.getChart(analysisType, schoolId, chartType);
+            if (chartData == null) {
+                return ApiResult.error("分析结果尚未生成，请稍后重试");
+            }
+            return ApiResult.success(chartData);
+        } catch (Exception e) {
+            System.err.println("获取图表数据失败: " + e.getMessage());
+            return ApiResult.error("获取图表数据失败");
+        }
+    }
+
+    /**
+     * 立即重新生成当天的分析结果
+     */
+    @PostMapping("/analysis/precompute")
+    @Operation(summary = "预计算分析结果", description = "立即重新生成当天的图表数据")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<Integer> precomputeAnalysis() {
+        try {
+            return ApiResult.success("预计算完成", dataAnalysisService.precompute());
+        } catch (Exception e) {
+            System.err.println("分析结果预计算失败: " + e.getMessage());
+            return ApiResult.error("分析结果预计算失败");
+        }
     }
 
     /**
@@ -139,36 +247,99 @@ public class BigDataController {
     @Operation(summary = "政策参考报告", description = "生成教育规划报告")
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResult<Map<String, Object>> generatePolicyReport() {
+        try {
+            AnalyticsOverview overview = analyticsService.overview();
+            Map<String, Number> ratioByRegion = analyticsService.breakdown(IAnalyticsService.DIMENSION_RATIO_BY_REGION, null);
+            Map<String, Number> bySubject = analyticsService.breakdown(IAnalyticsService.DIMENSION_TEACHER_SUBJECT, null);
+
+            Map<String, Object> keyMetrics = new LinkedHashMap<>();
+            keyMetrics.put("学校数", overview.getSchoolCount());
+            keyMetrics.put("教师数", overview.getTeacherCount());
+            keyMetrics.put("学生数", overview.getStudentCount());
+            keyMetrics.put("教师学生比例", "1:" + overview.getStudentTeacherRatio());
+            keyMetrics.put("平均班级规模", overview.getAverageClassSize() + "人");
 
-        Map<String, Object> report = new HashMap<>();
-        report.put("title", "2025年度教育发展规划参考报告");
-        report.put("generatedDate", LocalDate.now().toString());
-        report.put("summary", "基于大数据分析的教育发展建议");
-        report.put("keyMetrics", Map.of(
-            "教师学生比例", "1:15",
-            "平均班级规模", "35人",
-            "资源利用率", "85%"
-        ));
-        report.put("recommendations", List.of(
-            "建议增加物理和化学教师招聘",
-            "优化郊区学校资源配置",
-            "加强数字化教学资源建设"
-        ));
-
-        return ApiResult.success(report);
+            List<String> recommendations = new ArrayList<>();
+            if (overview.getStudentTeacherRatio() > MAX_STUDENT_TEACHER_RATIO) {
+                recommendations.add("全区生师比为1:" + overview.getStudentTeacherRatio()
+                        + "，高于1:" + MAX_STUDENT_TEACHER_RATIO + "，建议增加教师编制");
+            } else {
+                recommendations.add("全区生师比为1:" + overview.getStudentTeacherRatio() + "，处于合理区间");
+            }
+            if (overview.getAverageClassSize() > MAX_CLASS_SIZE) {
+                recommendations.add("平均班额" + overview.getAverageClassSize() + "人，超过" + MAX_CLASS_SIZE
+                        + "人标准班额，建议增设班级或扩建校舍");
+            }
+            if (ratioByRegion.size() > 1) {
+                Map.Entry<String, Number> highest = ratioByRegion.entrySet().iterator().next();
+                recommendations.add(highest.getKey() + "生师比最高（1:" + highest.getValue()
+                        + "），建议优先向该区域调配教师资源");
+            }
+            if (bySubject.size() > 1) {
+                String subject = null;
+                Number fewest = null;
+                for (Map.Entry<String, Number> entry : bySubject.entrySet()) {
+                    subject = entry.getKey();
+                    fewest = entry.getValue();
+                }
+                recommendations.add(subject + "教师人数最少（" + fewest + "人），建议关注该学科师资补充");
+            }
+
+            Map<String, Object> report = new HashMap<>();
+            report.put("title", LocalDate.now().getYear() + "年度教育发展规划参考报告");
+            report.put("generatedDate", LocalDate.now().toString());
+            report.put("dataTime", overview.getSnapshotTime());
+            report.put("summary", "基于全区教师、学校、班级、学生数据分析的教育发展建议");
+            report.put("keyMetrics", keyMetrics);
+            report.put("recommendations", recommendations);
+
+            return ApiResult.success(report);
+        } catch (Exception e) {
+            System.err.println("生成政策参考报告失败: " + e.getMessage());
+            return ApiResult.error("生成政策参考报告失败");
+        }
     }
 
     /**
      * 4.4.2 数据清洗接口
      */
     @PostMapping("/cleaning")
-    @Operation(summary = "数据清洗", description = "清洗采集的数据")
+    @Operation(summary = "数据清洗", description = "按规则清洗一条采集的数据")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResult<Boolean> cleanData(
-            @Parameter(description = "数据ID") @RequestParam Long dataId) {
+    public ApiResult<CleaningReport> cleanData(
+            @CurrentUser LoginUser loginUser,
+            @Parameter(description = "数据ID") @RequestParam Long dataId,
+            @Parameter(description = "清洗规则(JSON)") @RequestBody(required = false) String rules) {
+        try {
+            return ApiResult.success(dataCleaningService.cleanCollection(
+                    dataId, rules, loginUser == null ? null : loginUser.getUserId()));
+        } catch (IllegalArgumentException e) {
+            return ApiResult.badRequest(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("数据清洗失败: " + e.getMessage());
+            return ApiResult.error("数据清洗失败");
+        }
+    }
 
-        // 这里可以调用数据清洗逻辑
-        // 简化处理，返回成功
-        return ApiResult.success(true);
+    /**
+     * 4.4.2 批量数据清洗
+     */
+    @PostMapping("/cleaning/batch")
+    @Operation(summary = "批量数据清洗", description = "按规则清洗全部待清洗的采集数据")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<CleaningReport> cleanPendingData(
+            @CurrentUser LoginUser loginUser,
+            @Parameter(description = "数据类型") @RequestParam(required = false) String dataType,
+            @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "清洗规则(JSON)") @RequestBody(required = false) String rules) {
+        try {
+            return ApiResult.success(dataCleaningService.cleanPending(
+                    dataType, schoolId, rules, loginUser == null ? null : loginUser.getUserId()));
+        } catch (IllegalArgumentException e) {
+            return ApiResult.badRequest(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("批量数据清洗失败: " + e.getMessage());
+            return ApiResult.error("批量数据清洗失败");
+        }
     }
 }
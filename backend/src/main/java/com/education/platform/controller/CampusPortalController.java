@@ -3,13 +3,16 @@ package com.education.platform.controller;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.education.platform.common.ApiResult;
+import com.education.platform.common.EstimatedPage;
 import com.education.platform.common.PageResult;
+import com.education.platform.dto.PersonSearchRow;
+import com.education.platform.dto.PushMessage;
+import com.education.platform.dto.TimetableClassView;
 import com.education.platform.entity.Announcement;
 import com.education.platform.entity.Grade;
 import com.education.platform.entity.School;
 import com.education.platform.entity.Student;
 import com.education.platform.entity.Teacher;
-import com.education.platform.entity.Timetable;
 import com.education.platform.entity.User;
 import com.education.platform.mapper.AnnouncementMapper;
 import com.education.platform.mapper.ClassMapper;
@@ -17,13 +20,21 @@ import com.education.platform.mapper.GradeMapper;
 import com.education.platform.mapper.SchoolMapper;
 import com.education.platform.mapper.StudentMapper;
 import com.education.platform.mapper.TeacherMapper;
-import com.education.platform.mapper.TimetableMapper;
 import com.education.platform.mapper.UserMapper;
-import com.education.platform.util.JwtUtils;
+import com.education.platform.security.AuthorityEpochRegistry;
+import com.education.platform.security.CurrentUser;
+import com.education.platform.security.LoginUser;
+import com.education.platform.service.IAnnouncementReadService;
+import com.education.platform.service.IPeopleSearchService;
+import com.education.platform.service.IPushService;
+import com.education.platform.service.ITimetableService;
+import com.education.platform.util.KeysetPaging;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 // import org.springframework.security.access.prepost.PreAuthorize; // 已禁用权限控制
 import org.springframework.web.bind.annotation.*;
@@ -47,9 +58,6 @@ public class CampusPortalController {
     @Autowired
     private UserMapper userMapper;
 
-    @Autowired
-    private JwtUtils jwtUtils;
-
     @Autowired
     private StudentMapper studentMapper;
 
@@ -59,9 +67,6 @@ public class CampusPortalController {
     @Autowired
     private ClassMapper classMapper;
 
-    @Autowired
-    private TimetableMapper timetableMapper;
-
     @Autowired
     private GradeMapper gradeMapper;
 
@@ -71,40 +76,33 @@ public class CampusPortalController {
     @Autowired
     private SchoolMapper schoolMapper;
 
-    /**
-     * 从token中获取用户ID的辅助方法
-     */
-    private Long getUserIdFromToken(String token) {
-        if (token == null || !token.startsWith("Bearer ")) {
-            return null;
-        }
-        try {
-            String jwt = token.substring(7); // 去掉 "Bearer "
-            String username = jwtUtils.getUsernameFromToken(jwt);
+    @Autowired
+    private IPeopleSearchService peopleSearchService;
 
-            // 通过用户名查询用户
-            User user = userMapper.selectByUsername(username);
-            if (user != null) {
-                return user.getId();
-            }
-        } catch (Exception e) {
-            System.out.println("=== 从token获取用户ID失败: " + e.getMessage());
-        }
-        return null;
-    }
+    @Autowired
+    private ITimetableService timetableService;
+
+    @Autowired
+    private IAnnouncementReadService announcementReadService;
+
+    @Autowired
+    private IPushService pushService;
+
+    @Autowired
+    private AuthorityEpochRegistry authorityEpochRegistry;
 
     /**
      * 3.1.1 获取仪表盘信息
      */
     @GetMapping("/dashboard")
     @Operation(summary = "获取仪表盘信息", description = "获取用户的仪表盘信息，包括通知、快捷链接等")
-    public ApiResult<Map<String, Object>> getDashboard(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ApiResult<Map<String, Object>> getDashboard(@CurrentUser LoginUser loginUser) {
         try {
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long userId = loginUser.getUserId();
 
             // 获取用户信息
             User user = userMapper.selectById(userId);
@@ -120,22 +118,9 @@ public class CampusPortalController {
             dashboard.put("username", user.getUsername());
             dashboard.put("realName", user.getRealName());
 
-            // 获取未读通知数量 - 根据用户学校和班级过滤
-            LambdaQueryWrapper<Announcement> announcementWrapper = new LambdaQueryWrapper<>();
-            announcementWrapper.eq(Announcement::getStatus, 1);
-
-            // 如果用户有学校ID和班级ID，只显示相关的通知
-            if (user.getSchoolId() != null) {
-                announcementWrapper.and(q -> q
-                    .eq(Announcement::getSchoolId, user.getSchoolId())
-                    .or()
-                    .eq(Announcement::getClassId, user.getClassId())
-                    .or()
-                    .isNull(Announcement::getClassId)
-                );
-            }
-
-            long unreadCount = announcementMapper.selectCount(announcementWrapper);
+            // 获取未读通知数量：可见公告位图 AND NOT 已读位图，可见范围与公告列表一致
+            long unreadCount = announcementReadService.unreadCount(userId,
+                    loginUser.getSchoolId(), loginUser.getClassId());
             dashboard.put("unreadCount", unreadCount);
 
             // 根据用户角色生成个性化统计数据
@@ -188,13 +173,13 @@ public class CampusPortalController {
      */
     @GetMapping("/profile")
     @Operation(summary = "获取个人信息", description = "获取当前用户的基本信息")
-    public ApiResult<Map<String, Object>> getProfile(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ApiResult<Map<String, Object>> getProfile(@CurrentUser LoginUser loginUser) {
         try {
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long userId = loginUser.getUserId();
 
             User user = userMapper.selectById(userId);
             if (user == null) {
@@ -234,7 +219,7 @@ public class CampusPortalController {
      */
     @PostMapping("/profile/update")
     @Operation(summary = "更新个人信息", description = "更新当前用户的基本信息")
-    public ApiResult<String> updateProfile(@RequestHeader(value = "Authorization", required = false) String token, @RequestBody Map<String, Object> profileData) {
+    public ApiResult<String> updateProfile(@CurrentUser LoginUser loginUser, @RequestBody Map<String, Object> profileData) {
         // 使用日志框架而不是System.out
         org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CampusPortalController.class);
 
@@ -242,11 +227,11 @@ public class CampusPortalController {
             logger.info("=== 收到更新请求数据: {}", profileData);
             System.out.println("=== 收到更新请求数据: " + profileData);
 
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long userId = loginUser.getUserId();
             System.out.println("=== 当前用户ID: " + userId);
 
             // 先查询用户是否存在
@@ -355,8 +340,17 @@ public class CampusPortalController {
             System.out.println("=== 更新后重新查询结果: " + updatedUser);
 
             if (result > 0) {
+                peopleSearchService.refreshUser(userId);
+                if (user.getRealName() != null) {
+                    timetableService.onTeacherNamesChanged();
+                }
                 logger.info("=== 更新成功");
                 System.out.println("=== 更新成功");
+                if (user.getSchoolId() != null && !user.getSchoolId().equals(existingUser.getSchoolId())) {
+                    // 所属学校声明变更，当前令牌随之失效
+                    authorityEpochRegistry.bump(userId);
+                    return ApiResult.success("个人信息更新成功，所属学校已变更，请重新登录");
+                }
                 return ApiResult.success("个人信息更新成功");
             } else {
                 logger.warn("=== 更新失败，影响行数为0");
@@ -377,14 +371,14 @@ public class CampusPortalController {
     @PostMapping("/profile/change-password")
     @Operation(summary = "修改密码", description = "修改当前用户的密码")
     public ApiResult<String> changePassword(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @RequestBody Map<String, Object> passwordData) {
         try {
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long userId = loginUser.getUserId();
 
             // 获取用户信息
             User user = userMapper.selectById(userId);
@@ -438,22 +432,15 @@ public class CampusPortalController {
      */
     @GetMapping("/class/info")
     @Operation(summary = "获取班级信息", description = "获取班级花名册和基本信息")
-    public ApiResult<Map<String, Object>> getClassInfo(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ApiResult<Map<String, Object>> getClassInfo(@CurrentUser LoginUser loginUser) {
         try {
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
-            // 获取用户信息
-            User user = userMapper.selectById(userId);
-            if (user == null) {
-                return ApiResult.error("用户不存在");
-            }
-
             // 使用用户的班级ID，如果没有则使用默认班级ID
-            Long classId = user.getClassId();
+            Long classId = loginUser.getClassId();
             if (classId == null) {
                 classId = 1L; // 默认班级
             }
@@ -538,78 +525,46 @@ public class CampusPortalController {
 
     /**
      * 3.1.4 获取课程表
+     * 班级课程表（含教师姓名）由课程表服务缓存，响应携带ETag，
+     * 客户端带If-None-Match重复请求且内容未变时返回304
      */
     @GetMapping("/timetable")
     @Operation(summary = "获取课程表", description = "获取用户的课程表")
-    public ApiResult<List<Map<String, Object>>> getTimetable(
-            @RequestHeader(value = "Authorization", required = false) String token,
+    public ResponseEntity<ApiResult<List<Map<String, Object>>>> getTimetable(
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "星期几 (1-7)")
             @RequestParam(required = false) Integer weekDay) {
         try {
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
-                return ApiResult.error("未登录或token无效");
-            }
-
-            // 获取用户信息
-            User user = userMapper.selectById(userId);
-            if (user == null) {
-                return ApiResult.error("用户不存在");
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
+                return ResponseEntity.ok(ApiResult.error("未登录或token无效"));
             }
 
             // 使用用户的班级ID，如果没有则使用默认班级ID
-            Long classId = user.getClassId();
+            Long classId = loginUser.getClassId();
             if (classId == null) {
                 classId = 1L; // 默认班级
             }
 
-            LambdaQueryWrapper<Timetable> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(Timetable::getClassId, classId);
+            TimetableClassView view = timetableService.getClassView(classId);
+            List<Map<String, Object>> result = view.getItems();
+            String etag = view.getEtag();
             if (weekDay != null) {
-                wrapper.eq(Timetable::getWeekDay, weekDay);
-            }
-            wrapper.orderByAsc(Timetable::getWeekDay, Timetable::getPeriod);
-
-            List<Timetable> timetables = timetableMapper.selectList(wrapper);
-
-            // 构建返回结果，包含教师姓名
-            List<Map<String, Object>> result = new ArrayList<>();
-            for (Timetable timetable : timetables) {
-                Map<String, Object> item = new HashMap<>();
-                item.put("id", timetable.getId());
-                item.put("classId", timetable.getClassId());
-                item.put("teacherId", timetable.getTeacherId());
-                item.put("subject", timetable.getSubject());
-                item.put("weekDay", timetable.getWeekDay());
-                item.put("period", timetable.getPeriod());
-                item.put("startTime", timetable.getStartTime());
-                item.put("endTime", timetable.getEndTime());
-                item.put("classroom", timetable.getClassroom());
-                item.put("academicWeek", timetable.getAcademicWeek());
-
-                // 获取教师姓名
-                String teacherName = "";
-                try {
-                    // 通过teacher_id查询teacher表，再通过user_id查询user表获取姓名
-                    Teacher teacher = teacherMapper.selectById(timetable.getTeacherId());
-                    if (teacher != null && teacher.getUserId() != null) {
-                        User teacherUser = userMapper.selectById(teacher.getUserId());
-                        if (teacherUser != null) {
-                            teacherName = teacherUser.getRealName();
-                        }
+                result = new ArrayList<>();
+                for (Map<String, Object> item : view.getItems()) {
+                    if (weekDay.equals(item.get("weekDay"))) {
+                        result.add(item);
                     }
-                } catch (Exception e) {
-                    System.out.println("获取教师姓名失败: " + e.getMessage());
                 }
-                item.put("teacherName", teacherName);
-
-                result.add(item);
+                etag = etag + "-" + weekDay;
             }
 
-            return ApiResult.success(result);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(ApiResult.success(result));
         } catch (Exception e) {
-            return ApiResult.error("加载课程表失败: " + e.getMessage());
+            return ResponseEntity.ok(ApiResult.error("加载课程表失败: " + e.getMessage()));
         }
     }
 
@@ -619,7 +574,7 @@ public class CampusPortalController {
     @GetMapping("/grades")
     @Operation(summary = "成绩查询", description = "查询学生成绩")
     public ApiResult<PageResult<Grade>> getGrades(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "科目")
             @RequestParam(required = false) String subject,
             @Parameter(description = "学期")
@@ -627,33 +582,25 @@ public class CampusPortalController {
             @Parameter(description = "当前页")
             @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页条数")
-            @RequestParam(defaultValue = "10") Long size) {
+            @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数")
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
         try {
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
-            // 获取用户信息
-            User user = userMapper.selectById(userId);
-            if (user == null) {
-                return ApiResult.error("用户不存在");
-            }
-
-            // 通过用户ID查找对应的学生ID
-            LambdaQueryWrapper<Student> studentWrapper = new LambdaQueryWrapper<>();
-            studentWrapper.eq(Student::getUserId, userId);
-            Student student = studentMapper.selectOne(studentWrapper);
-
-            if (student == null) {
+            // 登录上下文中已携带对应的学生ID
+            Long studentId = loginUser.getStudentId();
+            if (studentId == null) {
                 // 如果没有对应的学生记录，返回空结果
                 Page<Grade> emptyPage = new Page<>(current, size);
                 return ApiResult.success(PageResult.of(emptyPage));
             }
 
-            Long studentId = student.getId();
-
             Page<Grade> page = new Page<>(current, size);
             LambdaQueryWrapper<Grade> wrapper = new LambdaQueryWrapper<>();
             wrapper.eq(Grade::getStudentId, studentId);
@@ -663,7 +610,11 @@ public class CampusPortalController {
             if (academicTerm != null) {
                 wrapper.eq(Grade::getAcademicTerm, academicTerm);
             }
-            wrapper.orderByDesc(Grade::getExamDate);
+            if (cursor != null) {
+                return ApiResult.success(KeysetPaging.seek(gradeMapper, wrapper,
+                        Grade::getExamDate, Grade::getId, cursor, size, withTotal));
+            }
+            wrapper.orderByDesc(Grade::getExamDate).orderByDesc(Grade::getId);
 
             Page<Grade> result = gradeMapper.selectPage(page, wrapper);
             return ApiResult.success(PageResult.of(result));
@@ -678,31 +629,30 @@ public class CampusPortalController {
     @GetMapping("/announcements")
     @Operation(summary = "获取通知公告", description = "获取通知公告列表")
     public ApiResult<PageResult<Announcement>> getAnnouncements(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "类型")
             @RequestParam(required = false) String type,
             @Parameter(description = "当前页")
             @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页条数")
-            @RequestParam(defaultValue = "10") Long size) {
+            @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数")
+            @RequestParam(defaultValue = "false") Boolean withTotal,
+            @Parameter(description = "是否返回估算总数（数据量大时更快，返回结果带totalEstimated标记）")
+            @RequestParam(defaultValue = "false") Boolean estimateTotal) {
         try {
-            // 从token中获取当前用户
-            Long userId = getUserIdFromToken(token);
-            if (userId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
-            // 获取用户信息
-            User user = userMapper.selectById(userId);
-            if (user == null) {
-                return ApiResult.error("用户不存在");
-            }
-
             // 使用用户的学校ID和班级ID
-            Long schoolId = user.getSchoolId();
-            Long classId = user.getClassId();
+            Long schoolId = loginUser.getSchoolId();
+            Long classId = loginUser.getClassId();
 
-            Page<Announcement> page = new Page<>(current, size);
+            Page<Announcement> page = EstimatedPage.of(current, size, estimateTotal);
             LambdaQueryWrapper<Announcement> wrapper = new LambdaQueryWrapper<>();
             wrapper.eq(Announcement::getStatus, 1);
 
@@ -727,7 +677,11 @@ public class CampusPortalController {
                 wrapper.eq(Announcement::getType, type);
             }
 
-            wrapper.orderByDesc(Announcement::getPublishTime);
+            if (cursor != null) {
+                return ApiResult.success(KeysetPaging.seek(announcementMapper, wrapper,
+                        Announcement::getPublishTime, Announcement::getId, cursor, size, withTotal));
+            }
+            wrapper.orderByDesc(Announcement::getPublishTime).orderByDesc(Announcement::getId);
 
             Page<Announcement> result = announcementMapper.selectPage(page, wrapper);
             return ApiResult.success(PageResult.of(result));
@@ -737,11 +691,69 @@ public class CampusPortalController {
     }
 
     /**
-     * 3.2.2 模拟推送通知
+     * 3.1.7 标记公告已读
+     */
+    @PostMapping("/announcements/read")
+    @Operation(summary = "标记公告已读", description = "将指定公告标记为已读，返回新标记数量和剩余未读数量")
+    public ApiResult<Map<String, Object>> markAnnouncementsRead(
+            @CurrentUser LoginUser loginUser,
+            @RequestBody List<Long> announcementIds) {
+        try {
+            if (loginUser == null) {
+                return ApiResult.error("未登录或token无效");
+            }
+            if (announcementIds == null || announcementIds.isEmpty()) {
+                return ApiResult.badRequest("公告ID不能为空");
+            }
+            if (announcementIds.size() > IAnnouncementReadService.MAX_MARK_SIZE) {
+                return ApiResult.badRequest("单次最多标记" + IAnnouncementReadService.MAX_MARK_SIZE + "条公告");
+            }
+
+            int marked = announcementReadService.markRead(loginUser.getUserId(),
+                    loginUser.getSchoolId(), loginUser.getClassId(), announcementIds);
+            Map<String, Object> result = new HashMap<>();
+            result.put("marked", marked);
+            result.put("unreadCount", announcementReadService.unreadCount(loginUser.getUserId(),
+                    loginUser.getSchoolId(), loginUser.getClassId()));
+            return ApiResult.success(result);
+        } catch (Exception e) {
+            System.err.println("标记公告已读失败: " + e.getMessage());
+            return ApiResult.error("标记公告已读失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 3.1.8 全部标记已读
+     */
+    @PostMapping("/announcements/read-all")
+    @Operation(summary = "全部标记已读", description = "将当前可见的全部公告标记为已读")
+    public ApiResult<Map<String, Object>> markAllAnnouncementsRead(@CurrentUser LoginUser loginUser) {
+        try {
+            if (loginUser == null) {
+                return ApiResult.error("未登录或token无效");
+            }
+
+            int marked = announcementReadService.markAllRead(loginUser.getUserId(),
+                    loginUser.getSchoolId(), loginUser.getClassId());
+            Map<String, Object> result = new HashMap<>();
+            result.put("marked", marked);
+            result.put("unreadCount", 0);
+            return ApiResult.success(result);
+        } catch (Exception e) {
+            System.err.println("全部标记已读失败: " + e.getMessage());
+            return ApiResult.error("全部标记已读失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 3.2.2 推送通知
+     * 通过WebSocket推送到该用户的个人队列（/user/queue/notifications），仅管理员和教师可用，
+     * 教师只能推送给本校用户
      */
     @PostMapping("/notifications/push")
-    @Operation(summary = "推送通知", description = "模拟推送通知到移动端")
+    @Operation(summary = "推送通知", description = "通过WebSocket推送通知给指定用户")
     public ApiResult<String> pushNotification(
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "用户ID")
             @RequestParam Long userId,
             @Parameter(description = "标题")
@@ -749,8 +761,26 @@ public class CampusPortalController {
             @Parameter(description = "内容")
             @RequestParam String content) {
         try {
-            // 这里可以集成WebSocket或第三方推送服务
-            // 模拟推送成功
+            if (loginUser == null) {
+                return ApiResult.error("未登录或token无效");
+            }
+            if (!loginUser.hasRole("ADMIN") && !loginUser.hasRole("TEACHER")) {
+                return ApiResult.forbidden("无权推送通知");
+            }
+            List<PersonSearchRow> targets = userMapper.selectPersonSearchRowsByIds(List.of(userId));
+            if (targets.isEmpty()) {
+                return ApiResult.badRequest("用户不存在");
+            }
+            if (!loginUser.hasRole("ADMIN") && (loginUser.getSchoolId() == null
+                    || !loginUser.getSchoolId().equals(targets.get(0).getSchoolId()))) {
+                return ApiResult.forbidden("只能推送通知给本校用户");
+            }
+
+            PushMessage message = new PushMessage();
+            message.setType("notification");
+            message.setTitle(title);
+            message.setContent(content);
+            pushService.pushToUser(userId, message);
             return ApiResult.success("推送成功");
         } catch (Exception e) {
             return ApiResult.error("推送失败: " + e.getMessage());
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.education.platform.common.ApiResult;
 import com.education.platform.common.PageResult;
+import com.education.platform.dto.PersonSearchRow;
 import com.education.platform.entity.ClassApplication;
 import com.education.platform.entity.Student;
 import com.education.platform.entity.Teacher;
@@ -13,8 +14,13 @@ import com.education.platform.mapper.ClassMapper;
 import com.education.platform.mapper.StudentMapper;
 import com.education.platform.mapper.TeacherMapper;
 import com.education.platform.mapper.UserMapper;
+import com.education.platform.security.CurrentUser;
+import com.education.platform.security.LoginUser;
 import com.education.platform.service.IClassApplicationService;
+import com.education.platform.service.IPeopleSearchService;
 import com.education.platform.service.IUserService;
+import com.education.platform.util.BatchLoader;
+import com.education.platform.util.LongObjectMap;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -43,6 +49,9 @@ public class ClassApplicationController {
     @Autowired
     private IUserService userService;
 
+    @Autowired
+    private IPeopleSearchService peopleSearchService;
+
     @Autowired
     private ClassApplicationMapper classApplicationMapper;
 
@@ -211,7 +220,39 @@ public class ClassApplicationController {
     @GetMapping("/search-teachers")
     @Operation(summary = "搜索老师", description = "学生搜索老师用于申请加入班级")
     public ApiResult<List<Map<String, Object>>> searchTeachers(
-            @Parameter(description = "搜索关键词") @RequestParam(required = false) String keyword) {
+            @Parameter(description = "搜索关键词（支持姓名、工号、拼音、拼音首字母）") @RequestParam(required = false) String keyword,
+            @Parameter(description = "最多返回条数") @RequestParam(defaultValue = "20") Integer limit) {
+
+        // 人员检索索引可用时直接在内存中匹配，只取前limit条
+        if (peopleSearchService.isReady()) {
+            List<PersonSearchRow> hits = peopleSearchService.search(keyword, IPeopleSearchService.ROLE_TEACHER, null, null, limit);
+            LongObjectMap<Teacher> teacherMap = BatchLoader.load(teacherMapper, hits, Teacher::getId, PersonSearchRow::getTeacherId);
+            LongObjectMap<User> userMap = BatchLoader.load(userMapper, hits, User::getId, PersonSearchRow::getUserId);
+
+            List<Map<String, Object>> result = new java.util.ArrayList<>();
+            for (PersonSearchRow hit : hits) {
+                Teacher teacher = teacherMap.get(hit.getTeacherId());
+                if (teacher == null) {
+                    continue;
+                }
+                Map<String, Object> map = new HashMap<>();
+                map.put("teacherId", teacher.getId());
+                map.put("teacherNumber", teacher.getTeacherNumber());
+                map.put("title", teacher.getTitle());
+                map.put("subject", teacher.getSubject());
+
+                User user = userMap.get(hit.getUserId());
+                if (user != null) {
+                    map.put("teacherName", user.getRealName());
+                    map.put("phone", user.getPhone());
+                    map.put("email", user.getEmail());
+                } else {
+                    map.put("teacherName", "");
+                }
+                result.add(map);
+            }
+            return ApiResult.success(result);
+        }
 
         // 如果有关键词，需要先查询匹配的用户，再找到对应的老师
         List<Teacher> teachers;
@@ -325,10 +366,19 @@ public class ClassApplicationController {
     @Operation(summary = "老师获取学生列表", description = "老师查看自己班级的学生")
     @PreAuthorize("hasRole('TEACHER')")
     public ApiResult<PageResult<Map<String, Object>>> getTeacherStudents(
-            @Parameter(description = "老师ID") @RequestParam Long teacherId,
+            @Parameter(description = "老师ID") @RequestParam(required = false) Long teacherId,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
-            @Parameter(description = "学生姓名搜索") @RequestParam(required = false) String keyword) {
+            @Parameter(description = "学生姓名搜索") @RequestParam(required = false) String keyword,
+            @CurrentUser LoginUser loginUser) {
+
+        // 未传老师ID时使用当前登录教师
+        if (teacherId == null) {
+            if (loginUser == null || loginUser.getTeacherId() == null) {
+                return ApiResult.error("教师不存在");
+            }
+            teacherId = loginUser.getTeacherId();
+        }
 
         // 先通过老师ID获取老师信息，如果不存在则尝试通过user_id查询
         Teacher teacher = teacherMapper.selectById(teacherId);
@@ -388,6 +438,13 @@ public class ClassApplicationController {
 
         Page<Student> result = studentMapper.selectPage(page, wrapper);
 
+        // 批量加载本页学生的用户信息，班级名称按ID索引
+        LongObjectMap<User> users = BatchLoader.load(userMapper, result.getRecords(), User::getId, Student::getUserId);
+        LongObjectMap<com.education.platform.entity.Class> classMap = new LongObjectMap<>(classes.size());
+        for (com.education.platform.entity.Class cls : classes) {
+            classMap.put(cls.getId(), cls);
+        }
+
         // 构建返回数据
         List<Map<String, Object>> records = new java.util.ArrayList<>();
         for (Student student : result.getRecords()) {
@@ -399,17 +456,17 @@ public class ClassApplicationController {
             map.put("guardianPhone", student.getGuardianPhone());
             map.put("status", student.getStatus());
 
-            // 关联查询用户信息
-            User user = userMapper.selectById(student.getUserId());
+            // 关联用户信息
+            User user = users.get(student.getUserId());
             if (user != null) {
                 map.put("realName", user.getRealName());
                 map.put("gender", user.getGender());
                 map.put("phone", user.getPhone());
             }
 
-            // 查询班级名称
+            // 班级名称
             if (student.getClassId() != null) {
-                com.education.platform.entity.Class classInfo = classMapper.selectById(student.getClassId());
+                com.education.platform.entity.Class classInfo = classMap.get(student.getClassId());
                 if (classInfo != null) {
                     map.put("className", classInfo.getClassName());
                 }
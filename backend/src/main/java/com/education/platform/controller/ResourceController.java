@@ -1,11 +1,16 @@
 package com.education.platform.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.education.platform.common.ApiResult;
+import com.education.platform.common.EstimatedPage;
 import com.education.platform.common.PageResult;
+import com.education.platform.dto.ResourceStatisticsRow;
 import com.education.platform.entity.EducationalResource;
 import com.education.platform.mapper.EducationalResourceMapper;
+import com.education.platform.service.IUsageCounterService;
+import com.education.platform.util.KeysetPaging;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -31,6 +36,9 @@ public class ResourceController {
     @Autowired
     private EducationalResourceMapper resourceMapper;
 
+    @Autowired
+    private IUsageCounterService usageCounterService;
+
     /**
      * 5.1.1 资源上传
      */
@@ -79,18 +87,19 @@ public class ResourceController {
             @Parameter(description = "资源ID") @RequestParam Long id,
             @Parameter(description = "审核状态：1-通过，2-拒绝") @RequestParam Integer status) {
 
-        EducationalResource resource = resourceMapper.selectById(id);
-        if (resource == null) {
+        // 只更新审核字段，不回写整行，避免覆盖并发累加的浏览、下载次数
+        LambdaUpdateWrapper<EducationalResource> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.eq(EducationalResource::getId, id)
+               .set(EducationalResource::getStatus, status)
+               .set(EducationalResource::getApprovalTime, LocalDateTime.now())
+               // 模拟审批人ID
+               .set(EducationalResource::getApproverId, 1L);
+
+        int result = resourceMapper.update(null, wrapper);
+        if (result == 0) {
             return ApiResult.error("资源不存在");
         }
-
-        resource.setStatus(status);
-        resource.setApprovalTime(LocalDateTime.now());
-        // 模拟审批人ID
-        resource.setApproverId(1L);
-
-        int result = resourceMapper.updateById(resource);
-        return ApiResult.success(result > 0);
+        return ApiResult.success(true);
     }
 
     /**
@@ -109,9 +118,8 @@ public class ResourceController {
             return ApiResult.error("资源未发布");
         }
 
-        // 更新下载次数
-        resource.setDownloadCount(resource.getDownloadCount() + 1);
-        resourceMapper.updateById(resource);
+        // 更新下载次数（内存累加，定时批量写入）
+        usageCounterService.recordResourceDownload(resource);
 
         Map<String, String> result = new HashMap<>();
         result.put("url", resource.getFileUrl());
@@ -129,18 +137,14 @@ public class ResourceController {
     public ApiResult<Map<String, Object>> resourceStatistics(
             @Parameter(description = "学校ID") @RequestParam(required = false) Long schoolId) {
 
-        LambdaQueryWrapper<EducationalResource> wrapper = new LambdaQueryWrapper<>();
-        if (schoolId != null) {
-            wrapper.eq(EducationalResource::getSchoolId, schoolId);
-        }
-
-        List<EducationalResource> resources = resourceMapper.selectList(wrapper);
+        // 数据库端聚合，不加载资源明细
+        ResourceStatisticsRow row = resourceMapper.selectStatistics(schoolId);
 
         Map<String, Object> stats = new HashMap<>();
-        long total = resources.size();
-        long published = resources.stream().filter(r -> r.getStatus() == 1).count();
-        long totalViews = resources.stream().mapToInt(EducationalResource::getViewCount).sum();
-        long totalDownloads = resources.stream().mapToInt(EducationalResource::getDownloadCount).sum();
+        long total = row != null ? row.getTotalResources() : 0L;
+        long published = row != null ? row.getPublishedResources() : 0L;
+        long totalViews = row != null ? row.getTotalViews() : 0L;
+        long totalDownloads = row != null ? row.getTotalDownloads() : 0L;
 
         stats.put("totalResources", total);
         stats.put("publishedResources", published);
@@ -166,6 +170,7 @@ public class ResourceController {
 
         // 生成分享码（实际项目中使用更复杂的算法）
         String shareCode = "SHARE" + System.currentTimeMillis();
+        usageCounterService.recordResourceShare(resource);
 
         Map<String, String> result = new HashMap<>();
         result.put("shareCode", shareCode);
@@ -190,9 +195,9 @@ public class ResourceController {
             return ApiResult.error("资源未发布");
         }
 
-        // 增加浏览次数
+        // 增加浏览次数（内存累加，定时批量写入），返回值包含本次浏览
+        usageCounterService.recordResourceView(resource);
         resource.setViewCount(resource.getViewCount() + 1);
-        resourceMapper.updateById(resource);
 
         return ApiResult.success(resource);
     }
@@ -288,6 +293,9 @@ public class ResourceController {
 
             // 更新修改时间
             resource.setUpdatedAt(LocalDateTime.now());
+            // 计数由计数服务累加，编辑时不写入，避免用请求中的旧值覆盖
+            resource.setViewCount(null);
+            resource.setDownloadCount(null);
 
             int result = resourceMapper.updateById(resource);
             return ApiResult.success(result > 0);
@@ -309,9 +317,12 @@ public class ResourceController {
             @Parameter(description = "状态") @RequestParam(required = false) Integer status,
             @Parameter(description = "标题关键词") @RequestParam(required = false) String keyword,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页") @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数") @RequestParam(defaultValue = "false") Boolean withTotal,
+            @Parameter(description = "是否返回估算总数（数据量大时更快，返回结果带totalEstimated标记）") @RequestParam(defaultValue = "false") Boolean estimateTotal) {
 
-        Page<EducationalResource> page = new Page<>(current, size);
+        Page<EducationalResource> page = EstimatedPage.of(current, size, estimateTotal);
         LambdaQueryWrapper<EducationalResource> wrapper = new LambdaQueryWrapper<>();
 
         // 分类筛选
@@ -328,13 +339,21 @@ public class ResourceController {
         }
         // 关键词搜索（标题和描述）
         if (keyword != null && !keyword.isEmpty()) {
-            wrapper.like(EducationalResource::getTitle, keyword)
-                   .or()
-                   .like(EducationalResource::getDescription, keyword);
+            wrapper.and(w -> w.like(EducationalResource::getTitle, keyword)
+                    .or()
+                    .like(EducationalResource::getDescription, keyword));
         }
 
         // 按上传时间倒序排列
-        wrapper.orderByDesc(EducationalResource::getUploadTime);
+        if (cursor != null) {
+            try {
+                return ApiResult.success(KeysetPaging.seek(resourceMapper, wrapper,
+                        EducationalResource::getUploadTime, EducationalResource::getId, cursor, size, withTotal));
+            } catch (IllegalArgumentException e) {
+                return ApiResult.badRequest(e.getMessage());
+            }
+        }
+        wrapper.orderByDesc(EducationalResource::getUploadTime).orderByDesc(EducationalResource::getId);
 
         Page<EducationalResource> result = resourceMapper.selectPage(page, wrapper);
         return ApiResult.success(PageResult.of(result));
@@ -351,7 +370,9 @@ public class ResourceController {
             @Parameter(description = "科目") @RequestParam(required = false) String subject,
             @Parameter(description = "关键词") @RequestParam(required = false) String keyword,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页") @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数") @RequestParam(defaultValue = "false") Boolean withTotal) {
 
         Page<EducationalResource> page = new Page<>(current, size);
         LambdaQueryWrapper<EducationalResource> wrapper = new LambdaQueryWrapper<>();
@@ -365,12 +386,20 @@ public class ResourceController {
         }
         // 关键词搜索（标题和描述）
         if (keyword != null && !keyword.isEmpty()) {
-            wrapper.like(EducationalResource::getTitle, keyword)
-                   .or()
-                   .like(EducationalResource::getDescription, keyword);
+            wrapper.and(w -> w.like(EducationalResource::getTitle, keyword)
+                    .or()
+                    .like(EducationalResource::getDescription, keyword));
         }
 
-        wrapper.orderByDesc(EducationalResource::getUploadTime);
+        if (cursor != null) {
+            try {
+                return ApiResult.success(KeysetPaging.seek(resourceMapper, wrapper,
+                        EducationalResource::getUploadTime, EducationalResource::getId, cursor, size, withTotal));
+            } catch (IllegalArgumentException e) {
+                return ApiResult.badRequest(e.getMessage());
+            }
+        }
+        wrapper.orderByDesc(EducationalResource::getUploadTime).orderByDesc(EducationalResource::getId);
 
         Page<EducationalResource> result = resourceMapper.selectPage(page, wrapper);
         return ApiResult.success(PageResult.of(result));
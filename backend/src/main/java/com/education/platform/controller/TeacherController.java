@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.education.platform.common.ApiResult;
 import com.education.platform.common.PageResult;
+import com.education.platform.dto.TimetableBatchResult;
 import com.education.platform.entity.Announcement;
 import com.education.platform.entity.Assignment;
 import com.education.platform.entity.Class;
@@ -20,7 +21,13 @@ import com.education.platform.mapper.StudentMapper;
 import com.education.platform.mapper.TeacherMapper;
 import com.education.platform.mapper.TimetableMapper;
 import com.education.platform.mapper.UserMapper;
-import com.education.platform.util.JwtUtils;
+import com.education.platform.security.CurrentUser;
+import com.education.platform.security.LoginUser;
+import com.education.platform.service.IAnnouncementReadService;
+import com.education.platform.service.IPushService;
+import com.education.platform.service.ITimetableService;
+import com.education.platform.util.BatchLoader;
+import com.education.platform.util.LongObjectMap;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -51,15 +58,21 @@ public class TeacherController {
     @Autowired
     private AssignmentMapper assignmentMapper;
 
-    @Autowired
-    private JwtUtils jwtUtils;
-
     @Autowired
     private TeacherMapper teacherMapper;
 
     @Autowired
     private TimetableMapper timetableMapper;
 
+    @Autowired
+    private ITimetableService timetableService;
+
+    @Autowired
+    private IAnnouncementReadService announcementReadService;
+
+    @Autowired
+    private IPushService pushService;
+
     @Autowired
     private ClassMapper classMapper;
 
@@ -72,55 +85,27 @@ public class TeacherController {
     @Autowired
     private AnnouncementMapper announcementMapper;
 
-    /**
-     * 从token中获取用户ID的辅助方法
-     */
-    private Long getUserIdFromToken(String token) {
-        if (token == null || !token.startsWith("Bearer ")) {
-            return null;
-        }
-        try {
-            String jwt = token.substring(7);
-            String username = jwtUtils.getUsernameFromToken(jwt);
-            User user = userMapper.selectByUsername(username);
-            if (user != null) {
-                return user.getId();
-            }
-        } catch (Exception e) {
-            System.out.println("=== 从token获取用户ID失败: " + e.getMessage());
-        }
-        return null;
-    }
-
     /**
      * 发布作业
      */
     @PostMapping("/assignments")
     @Operation(summary = "发布作业", description = "教师发布作业")
     public ApiResult<Map<String, Object>> publishAssignment(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @RequestBody Map<String, Object> assignmentData) {
         try {
-            // 从token中获取当前用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long teacherUserId = loginUser.getUserId();
 
             // 获取教师记录（用于获取实际教师ID）
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
-            // 获取用户信息（用于获取学校ID）
-            User user = userMapper.selectById(teacherUserId);
-            if (user == null) {
-                return ApiResult.error("用户信息不存在");
-            }
-
             // 创建作业对象
             Assignment assignment = new Assignment();
 
@@ -182,8 +167,8 @@ public class TeacherController {
             }
 
             // 设置教师ID和学校ID
-            assignment.setTeacherId(teacher.getId());
-            assignment.setSchoolId(user.getSchoolId());
+            assignment.setTeacherId(teacherId);
+            assignment.setSchoolId(loginUser.getSchoolId());
 
             // 设置状态和发布时间
             assignment.setStatus("进行中");
@@ -202,7 +187,7 @@ public class TeacherController {
                     announcement.setPublisherId(teacherUserId);
                     announcement.setPublishTime(LocalDateTime.now());
                     announcement.setStatus(1);
-                    announcement.setSchoolId(user.getSchoolId());
+                    announcement.setSchoolId(loginUser.getSchoolId());
 
                     // 作业通知的班级ID处理：优先使用targetClasses中的第一个班级
                     if (targetClassesObj != null && targetClassesObj instanceof List) {
@@ -214,7 +199,7 @@ public class TeacherController {
                             } catch (Exception e) {
                                 // 如果转换失败，尝试获取教师的第一个班级
                                 LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-                                classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+                                classWrapper.eq(Class::getHeadTeacherId, teacherId);
                                 List<Class> teacherClasses = classMapper.selectList(classWrapper);
                                 if (!teacherClasses.isEmpty()) {
                                     announcement.setClassId(teacherClasses.get(0).getId());
@@ -224,7 +209,7 @@ public class TeacherController {
                     } else {
                         // 没有指定目标班级，使用教师的第一个班级
                         LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-                        classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+                        classWrapper.eq(Class::getHeadTeacherId, teacherId);
                         List<Class> teacherClasses = classMapper.selectList(classWrapper);
                         if (!teacherClasses.isEmpty()) {
                             announcement.setClassId(teacherClasses.get(0).getId());
@@ -233,6 +218,8 @@ public class TeacherController {
 
                     announcement.setPriority(0);
                     announcementMapper.insert(announcement);
+                    announcementReadService.onAnnouncementsChanged();
+                    pushService.publishAnnouncement(announcement);
                 } catch (Exception e) {
                     // 创建通知失败不影响作业发布
                     System.err.println("创建作业通知失败: " + e.getMessage());
@@ -260,15 +247,15 @@ public class TeacherController {
     @GetMapping("/assignments")
     @Operation(summary = "获取作业列表", description = "获取教师发布的作业列表")
     public ApiResult<PageResult<Assignment>> getAssignments(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
         try {
-            // 从token中获取当前用户
-            Long teacherId = getUserIdFromToken(token);
-            if (teacherId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long teacherId = loginUser.getUserId();
 
             Page<Assignment> page = new Page<>(current, size);
             LambdaQueryWrapper<Assignment> wrapper = new LambdaQueryWrapper<>();
@@ -289,14 +276,14 @@ public class TeacherController {
     @DeleteMapping("/assignments/{id}")
     @Operation(summary = "删除作业", description = "删除指定作业")
     public ApiResult<Boolean> deleteAssignment(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "作业ID") @PathVariable Long id) {
         try {
-            // 从token中获取当前用户
-            Long teacherId = getUserIdFromToken(token);
-            if (teacherId == null) {
+            // 从登录上下文获取当前用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long teacherId = loginUser.getUserId();
 
             // 验证作业是否存在且属于当前教师
             Assignment assignment = assignmentMapper.selectById(id);
@@ -322,12 +309,12 @@ public class TeacherController {
     @GetMapping("/dashboard")
     @Operation(summary = "教师仪表盘", description = "获取教师仪表盘数据")
     public ApiResult<Map<String, Object>> getDashboard(
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @CurrentUser LoginUser loginUser) {
         try {
-            Long teacherId = getUserIdFromToken(token);
-            if (teacherId == null) {
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long teacherId = loginUser.getUserId();
 
             // 统计作业数量
             LambdaQueryWrapper<Assignment> wrapper = new LambdaQueryWrapper<>();
@@ -358,30 +345,19 @@ public class TeacherController {
     @GetMapping("/timetable")
     @Operation(summary = "获取教师课程表", description = "获取当前教师的课程表")
     public ApiResult<List<Timetable>> getTeacherTimetable(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "星期几 (1-7)") @RequestParam(required = false) Integer weekDay) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
-            // 获取教师信息
-            User teacherUser = userMapper.selectById(teacherUserId);
-            if (teacherUser == null) {
-                return ApiResult.error("教师用户不存在");
-            }
-
-            // 获取教师ID（通过teacher表）
-            // 这里需要通过teacher表查询，因为timetable表中的teacher_id是teacher表的ID
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            // 获取教师ID（timetable表中的teacher_id是teacher表的ID）
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
-            Long teacherId = teacher.getId();
 
             LambdaQueryWrapper<Timetable> wrapper = new LambdaQueryWrapper<>();
             wrapper.eq(Timetable::getTeacherId, teacherId);
@@ -404,33 +380,24 @@ public class TeacherController {
     @PostMapping("/timetable")
     @Operation(summary = "添加课程表", description = "为教师添加课程表条目")
     public ApiResult<Boolean> addTimetable(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @RequestBody Timetable timetable) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
-            // 获取教师信息
-            User teacherUser = userMapper.selectById(teacherUserId);
-            if (teacherUser == null) {
-                return ApiResult.error("教师用户不存在");
-            }
-
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
             // 如果没有设置班级ID，自动获取教师负责的第一个班级
             if (timetable.getClassId() == null) {
                 LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-                classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+                classWrapper.eq(Class::getHeadTeacherId, teacherId);
                 List<Class> teacherClasses = classMapper.selectList(classWrapper);
                 if (teacherClasses == null || teacherClasses.isEmpty()) {
                     return ApiResult.error("您还没有负责的班级，请联系管理员");
@@ -439,14 +406,16 @@ public class TeacherController {
             }
 
             // 设置教师ID和学校ID
-            timetable.setTeacherId(teacher.getId());
-            timetable.setSchoolId(teacherUser.getSchoolId());
+            timetable.setTeacherId(teacherId);
+            timetable.setSchoolId(loginUser.getSchoolId());
             timetable.setDeleted(0);
 
-            // 保存到数据库
-            int result = timetableMapper.insert(timetable);
+            // 检查时间冲突后保存到数据库
+            timetableService.add(timetable);
 
-            return ApiResult.success(result > 0);
+            return ApiResult.success(true);
+        } catch (IllegalArgumentException e) {
+            return ApiResult.badRequest(e.getMessage());
         } catch (Exception e) {
             System.err.println("添加课程表失败: " + e.getMessage());
             return ApiResult.error("添加课程表失败: " + e.getMessage());
@@ -459,20 +428,17 @@ public class TeacherController {
     @DeleteMapping("/timetable/{id}")
     @Operation(summary = "删除课程表", description = "删除指定的课程表条目")
     public ApiResult<Boolean> deleteTimetable(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "课程表ID") @PathVariable Long id) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
@@ -482,12 +448,11 @@ public class TeacherController {
                 return ApiResult.error("课程表条目不存在");
             }
 
-            if (!timetable.getTeacherId().equals(teacher.getId())) {
+            if (!timetable.getTeacherId().equals(teacherId)) {
                 return ApiResult.error("无权删除该课程表条目");
             }
 
-            int result = timetableMapper.deleteById(id);
-            return ApiResult.success(result > 0);
+            return ApiResult.success(timetableService.delete(timetable));
         } catch (Exception e) {
             System.err.println("删除课程表失败: " + e.getMessage());
             return ApiResult.error("删除课程表失败: " + e.getMessage());
@@ -499,59 +464,60 @@ public class TeacherController {
      */
     @PostMapping("/timetable/batch")
     @Operation(summary = "批量添加课程表", description = "批量添加多个课程表条目")
-    public ApiResult<Map<String, Object>> batchAddTimetable(
-            @RequestHeader(value = "Authorization", required = false) String token,
+    public ApiResult<TimetableBatchResult> batchAddTimetable(
+            @CurrentUser LoginUser loginUser,
             @RequestBody List<Timetable> timetables) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
-            // 获取教师信息
-            User teacherUser = userMapper.selectById(teacherUserId);
-            if (teacherUser == null) {
-                return ApiResult.error("教师用户不存在");
+            if (timetables == null || timetables.isEmpty()) {
+                return ApiResult.badRequest("课程表条目不能为空");
+            }
+            if (timetables.size() > ITimetableService.MAX_BATCH_SIZE) {
+                return ApiResult.badRequest("单次最多添加 " + ITimetableService.MAX_BATCH_SIZE + " 条课程表记录");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
             // 获取教师负责的班级ID（第一个班级）
             LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-            classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+            classWrapper.eq(Class::getHeadTeacherId, teacherId);
             List<Class> teacherClasses = classMapper.selectList(classWrapper);
             if (teacherClasses == null || teacherClasses.isEmpty()) {
                 return ApiResult.error("您还没有负责的班级，请联系管理员");
             }
             Long defaultClassId = teacherClasses.get(0).getId();
 
-            // 批量插入
-            int count = 0;
             for (Timetable timetable : timetables) {
+                if (timetable == null) {
+                    continue;
+                }
                 // 如果没有设置班级ID，使用教师的第一个班级
                 if (timetable.getClassId() == null) {
                     timetable.setClassId(defaultClassId);
                 }
-                timetable.setTeacherId(teacher.getId());
-                timetable.setSchoolId(teacherUser.getSchoolId());
+                timetable.setTeacherId(teacherId);
+                timetable.setSchoolId(loginUser.getSchoolId());
                 timetable.setDeleted(0);
-                timetableMapper.insert(timetable);
-                count++;
             }
 
-            if (count > 0) {
-                Map<String, Object> result = new HashMap<>();
-                result.put("count", count);
-                return ApiResult.success("成功添加 " + count + " 条课程表记录", result);
+            // 一个事务内分块批量插入，失败的条目逐条返回
+            TimetableBatchResult result = timetableService.batchInsert(timetables);
+            if (result.getCount() > 0) {
+                String message = "成功添加 " + result.getCount() + " 条课程表记录";
+                if (result.getFailed() > 0) {
+                    message += "，失败 " + result.getFailed() + " 条";
+                }
+                return ApiResult.success(message, result);
             } else {
-                return ApiResult.error("添加失败");
+                return ApiResult.error("添加失败: " + result.getErrors().get(0).getMessage());
             }
         } catch (Exception e) {
             System.err.println("批量添加课程表失败: " + e.getMessage());
@@ -565,25 +531,22 @@ public class TeacherController {
     @GetMapping("/classes")
     @Operation(summary = "获取教师负责的班级", description = "获取当前教师负责的班级列表")
     public ApiResult<List<Map<String, Object>>> getTeacherClasses(
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @CurrentUser LoginUser loginUser) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
             // 获取教师负责的班级
             LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-            classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+            classWrapper.eq(Class::getHeadTeacherId, teacherId);
             List<Class> classes = classMapper.selectList(classWrapper);
 
             // 构建返回数据
@@ -608,20 +571,17 @@ public class TeacherController {
     @PostMapping("/grades")
     @Operation(summary = "添加成绩", description = "教师为学生添加成绩")
     public ApiResult<Map<String, Object>> addGrade(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @RequestBody Map<String, Object> gradeData) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
@@ -683,7 +643,7 @@ public class TeacherController {
             grade.setAcademicTerm(academicTermObj != null ? academicTermObj.toString() : "2024-2025");
 
             // 设置教师ID
-            grade.setTeacherId(teacher.getId());
+            grade.setTeacherId(teacherId);
 
             // 设置备注
             Object remarkObj = gradeData.get("remark");
@@ -719,31 +679,28 @@ public class TeacherController {
     @GetMapping("/grades")
     @Operation(summary = "获取成绩管理列表", description = "获取教师管理的成绩列表，支持筛选")
     public ApiResult<PageResult<Map<String, Object>>> getGradeManagement(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
             @Parameter(description = "学生ID") @RequestParam(required = false) Long studentId,
             @Parameter(description = "科目") @RequestParam(required = false) String subject,
             @Parameter(description = "考试类型") @RequestParam(required = false) String examType) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
             // 构建查询条件
             Page<Grade> page = new Page<>(current, size);
             LambdaQueryWrapper<Grade> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(Grade::getTeacherId, teacher.getId());
+            wrapper.eq(Grade::getTeacherId, teacherId);
             wrapper.eq(Grade::getDeleted, 0);
 
             if (studentId != null) {
@@ -761,6 +718,18 @@ public class TeacherController {
             // 执行查询
             Page<Grade> result = gradeMapper.selectPage(page, wrapper);
 
+            // 批量加载本页关联的学生及其用户信息
+            LongObjectMap<Student> students = BatchLoader.load(studentMapper, result.getRecords(),
+                    Student::getId, Grade::getStudentId);
+            List<Student> studentList = new ArrayList<>();
+            for (Grade grade : result.getRecords()) {
+                Student student = students.get(grade.getStudentId());
+                if (student != null) {
+                    studentList.add(student);
+                }
+            }
+            LongObjectMap<User> users = BatchLoader.load(userMapper, studentList, User::getId, Student::getUserId);
+
             // 构建返回数据（关联学生信息）
             List<Map<String, Object>> records = new ArrayList<>();
             for (Grade grade : result.getRecords()) {
@@ -775,9 +744,9 @@ public class TeacherController {
                 item.put("remark", grade.getRemark());
 
                 // 获取学生信息
-                Student student = studentMapper.selectById(grade.getStudentId());
+                Student student = students.get(grade.getStudentId());
                 if (student != null) {
-                    User user = userMapper.selectById(student.getUserId());
+                    User user = users.get(student.getUserId());
                     if (user != null) {
                         item.put("studentName", user.getRealName());
                         item.put("studentNumber", student.getStudentNumber());
@@ -807,25 +776,22 @@ public class TeacherController {
     @GetMapping("/students")
     @Operation(summary = "获取教师班级的学生列表", description = "获取教师负责班级的所有学生")
     public ApiResult<List<Map<String, Object>>> getTeacherStudents(
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @CurrentUser LoginUser loginUser) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
             // 获取教师负责的班级
             LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-            classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+            classWrapper.eq(Class::getHeadTeacherId, teacherId);
             List<Class> classes = classMapper.selectList(classWrapper);
 
             if (classes == null || classes.isEmpty()) {
@@ -843,21 +809,25 @@ public class TeacherController {
             studentWrapper.eq(Student::getDeleted, 0);
             List<Student> students = studentMapper.selectList(studentWrapper);
 
+            // 批量加载学生用户信息，班级名称按ID索引
+            LongObjectMap<User> users = BatchLoader.load(userMapper, students, User::getId, Student::getUserId);
+            LongObjectMap<Class> classMap = new LongObjectMap<>(classes.size());
+            for (Class cls : classes) {
+                classMap.put(cls.getId(), cls);
+            }
+
             // 构建返回数据
             List<Map<String, Object>> result = new ArrayList<>();
             for (Student student : students) {
-                User user = userMapper.selectById(student.getUserId());
+                User user = users.get(student.getUserId());
                 if (user != null) {
                     Map<String, Object> item = new HashMap<>();
                     item.put("id", student.getId());
                     item.put("username", user.getUsername());
                     item.put("realName", user.getRealName());
                     item.put("studentNumber", student.getStudentNumber());
-                    item.put("className", classes.stream()
-                            .filter(c -> c.getId().equals(student.getClassId()))
-                            .findFirst()
-                            .map(Class::getClassName)
-                            .orElse(""));
+                    Class cls = classMap.get(student.getClassId());
+                    item.put("className", cls != null ? cls.getClassName() : "");
                     result.add(item);
                 }
             }
@@ -875,20 +845,17 @@ public class TeacherController {
     @DeleteMapping("/grades/{id}")
     @Operation(summary = "删除成绩", description = "删除指定的成绩记录")
     public ApiResult<Boolean> deleteGrade(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "成绩ID") @PathVariable Long id) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
@@ -898,7 +865,7 @@ public class TeacherController {
                 return ApiResult.error("成绩不存在");
             }
 
-            if (!grade.getTeacherId().equals(teacher.getId())) {
+            if (!grade.getTeacherId().equals(teacherId)) {
                 return ApiResult.error("无权删除该成绩");
             }
 
@@ -919,21 +886,18 @@ public class TeacherController {
     @PutMapping("/grades/{id}")
     @Operation(summary = "更新成绩", description = "更新指定的成绩记录")
     public ApiResult<Boolean> updateGrade(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "成绩ID") @PathVariable Long id,
             @RequestBody Map<String, Object> gradeData) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
@@ -943,7 +907,7 @@ public class TeacherController {
                 return ApiResult.error("成绩不存在");
             }
 
-            if (!grade.getTeacherId().equals(teacher.getId())) {
+            if (!grade.getTeacherId().equals(teacherId)) {
                 return ApiResult.error("无权修改该成绩");
             }
 
@@ -986,29 +950,21 @@ public class TeacherController {
     @PostMapping("/announcements")
     @Operation(summary = "发布通知", description = "教师发布通知公告")
     public ApiResult<Map<String, Object>> publishAnnouncement(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @RequestBody Map<String, Object> announcementData) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long teacherUserId = loginUser.getUserId();
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
-            // 获取当前用户信息（用于学校ID）
-            User currentUser = userMapper.selectById(teacherUserId);
-            if (currentUser == null) {
-                return ApiResult.error("用户信息不存在");
-            }
-
             // 创建公告对象
             Announcement announcement = new Announcement();
 
@@ -1066,7 +1022,7 @@ public class TeacherController {
             }
 
             // 设置学校ID
-            announcement.setSchoolId(currentUser.getSchoolId());
+            announcement.setSchoolId(loginUser.getSchoolId());
 
             // 设置班级ID（教师通知只对本班级可见）
             // 优先使用前端指定的classId，如果没有则使用教师负责的第一个班级
@@ -1078,7 +1034,7 @@ public class TeacherController {
                 } catch (Exception e) {
                     // 如果转换失败，尝试获取教师的第一个班级
                     LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-                    classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+                    classWrapper.eq(Class::getHeadTeacherId, teacherId);
                     List<Class> teacherClasses = classMapper.selectList(classWrapper);
                     if (!teacherClasses.isEmpty()) {
                         announcement.setClassId(teacherClasses.get(0).getId());
@@ -1087,7 +1043,7 @@ public class TeacherController {
             } else {
                 // 没有指定班级，使用教师的第一个班级
                 LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-                classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+                classWrapper.eq(Class::getHeadTeacherId, teacherId);
                 List<Class> teacherClasses = classMapper.selectList(classWrapper);
                 if (!teacherClasses.isEmpty()) {
                     announcement.setClassId(teacherClasses.get(0).getId());
@@ -1106,8 +1062,10 @@ public class TeacherController {
 
             // 保存到数据库
             int result = announcementMapper.insert(announcement);
+            announcementReadService.onAnnouncementsChanged();
 
             if (result > 0) {
+                pushService.publishAnnouncement(announcement);
                 Map<String, Object> responseData = new HashMap<>();
                 responseData.put("id", announcement.getId());
                 responseData.put("title", announcement.getTitle());
@@ -1131,15 +1089,15 @@ public class TeacherController {
     @GetMapping("/announcements")
     @Operation(summary = "获取教师通知列表", description = "获取教师发布的通知公告列表")
     public ApiResult<PageResult<Announcement>> getTeacherAnnouncements(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long teacherUserId = loginUser.getUserId();
 
             Page<Announcement> page = new Page<>(current, size);
             LambdaQueryWrapper<Announcement> wrapper = new LambdaQueryWrapper<>();
@@ -1161,14 +1119,14 @@ public class TeacherController {
     @DeleteMapping("/announcements/{id}")
     @Operation(summary = "删除通知", description = "删除指定的通知")
     public ApiResult<Boolean> deleteAnnouncement(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "通知ID") @PathVariable Long id) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
+            Long teacherUserId = loginUser.getUserId();
 
             // 验证通知是否存在且属于当前教师
             Announcement announcement = announcementMapper.selectById(id);
@@ -1183,6 +1141,7 @@ public class TeacherController {
             // 逻辑删除
             announcement.setDeleted(1);
             int result = announcementMapper.updateById(announcement);
+            announcementReadService.onAnnouncementsChanged();
 
             return ApiResult.success(result > 0);
         } catch (Exception e) {
@@ -1197,19 +1156,16 @@ public class TeacherController {
     @GetMapping("/available-classes")
     @Operation(summary = "获取可选班级列表", description = "获取所有未分配班主任的班级列表")
     public ApiResult<List<Map<String, Object>>> getAvailableClasses(
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @CurrentUser LoginUser loginUser) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
@@ -1219,11 +1175,24 @@ public class TeacherController {
             classWrapper.eq(Class::getStatus, 1); // 正常状态
             classWrapper.and(wrapper ->
                 wrapper.isNull(Class::getHeadTeacherId)
-                    .or().eq(Class::getHeadTeacherId, teacher.getId())
+                    .or().eq(Class::getHeadTeacherId, teacherId)
             );
 
             List<Class> classes = classMapper.selectList(classWrapper);
 
+            // 批量加载班主任及其用户信息
+            LongObjectMap<Teacher> headTeachers = BatchLoader.load(teacherMapper, classes,
+                    Teacher::getId, Class::getHeadTeacherId);
+            List<Teacher> headTeacherList = new ArrayList<>();
+            for (Class cls : classes) {
+                Teacher headTeacher = headTeachers.get(cls.getHeadTeacherId());
+                if (headTeacher != null) {
+                    headTeacherList.add(headTeacher);
+                }
+            }
+            LongObjectMap<User> headTeacherUsers = BatchLoader.load(userMapper, headTeacherList,
+                    User::getId, Teacher::getUserId);
+
             // 构建返回数据
             List<Map<String, Object>> result = new ArrayList<>();
             for (Class cls : classes) {
@@ -1235,14 +1204,14 @@ public class TeacherController {
                 item.put("studentCount", cls.getStudentCount());
 
                 // 检查是否已分配给当前教师
-                boolean isSelected = cls.getHeadTeacherId() != null && cls.getHeadTeacherId().equals(teacher.getId());
+                boolean isSelected = cls.getHeadTeacherId() != null && cls.getHeadTeacherId().equals(teacherId);
                 item.put("isSelected", isSelected);
 
                 // 获取班主任姓名（如果有）
                 if (cls.getHeadTeacherId() != null) {
-                    Teacher headTeacher = teacherMapper.selectById(cls.getHeadTeacherId());
+                    Teacher headTeacher = headTeachers.get(cls.getHeadTeacherId());
                     if (headTeacher != null) {
-                        User headTeacherUser = userMapper.selectById(headTeacher.getUserId());
+                        User headTeacherUser = headTeacherUsers.get(headTeacher.getUserId());
                         if (headTeacherUser != null) {
                             item.put("headTeacherName", headTeacherUser.getRealName());
                         }
@@ -1265,20 +1234,17 @@ public class TeacherController {
     @PostMapping("/select-class")
     @Operation(summary = "教师选择班级", description = "教师选择负责的班级")
     public ApiResult<String> selectClass(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "班级ID") @RequestParam Long classId) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
@@ -1297,7 +1263,7 @@ public class TeacherController {
             }
 
             // 检查班级是否已被其他教师占用
-            if (classInfo.getHeadTeacherId() != null && !classInfo.getHeadTeacherId().equals(teacher.getId())) {
+            if (classInfo.getHeadTeacherId() != null && !classInfo.getHeadTeacherId().equals(teacherId)) {
                 Teacher existingTeacher = teacherMapper.selectById(classInfo.getHeadTeacherId());
                 if (existingTeacher != null) {
                     User existingUser = userMapper.selectById(existingTeacher.getUserId());
@@ -1308,7 +1274,7 @@ public class TeacherController {
             }
 
             // 更新班级的班主任
-            classInfo.setHeadTeacherId(teacher.getId());
+            classInfo.setHeadTeacherId(teacherId);
             int result = classMapper.updateById(classInfo);
 
             if (result > 0) {
@@ -1328,20 +1294,17 @@ public class TeacherController {
     @PostMapping("/unselect-class")
     @Operation(summary = "教师取消选择班级", description = "教师取消负责的班级")
     public ApiResult<String> unselectClass(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser LoginUser loginUser,
             @Parameter(description = "班级ID") @RequestParam Long classId) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
@@ -1352,7 +1315,7 @@ public class TeacherController {
             }
 
             // 验证该班级是否属于当前教师
-            if (!teacher.getId().equals(classInfo.getHeadTeacherId())) {
+            if (!teacherId.equals(classInfo.getHeadTeacherId())) {
                 return ApiResult.error("您不是该班级的班主任，无法取消");
             }
 
@@ -1378,25 +1341,22 @@ public class TeacherController {
     @GetMapping("/my-classes")
     @Operation(summary = "获取我的班级", description = "获取教师已选择的班级列表")
     public ApiResult<List<Map<String, Object>>> getMyClasses(
-            @RequestHeader(value = "Authorization", required = false) String token) {
+            @CurrentUser LoginUser loginUser) {
         try {
-            // 从token中获取当前教师用户
-            Long teacherUserId = getUserIdFromToken(token);
-            if (teacherUserId == null) {
+            // 从登录上下文获取当前教师用户
+            if (loginUser == null) {
                 return ApiResult.error("未登录或token无效");
             }
 
             // 获取教师记录
-            LambdaQueryWrapper<Teacher> teacherWrapper = new LambdaQueryWrapper<>();
-            teacherWrapper.eq(Teacher::getUserId, teacherUserId);
-            Teacher teacher = teacherMapper.selectOne(teacherWrapper);
-            if (teacher == null) {
+            Long teacherId = loginUser.getTeacherId();
+            if (teacherId == null) {
                 return ApiResult.error("教师记录不存在，请联系管理员");
             }
 
             // 查询该教师负责的所有班级
             LambdaQueryWrapper<Class> classWrapper = new LambdaQueryWrapper<>();
-            classWrapper.eq(Class::getHeadTeacherId, teacher.getId());
+            classWrapper.eq(Class::getHeadTeacherId, teacherId);
             classWrapper.eq(Class::getDeleted, 0);
             classWrapper.eq(Class::getStatus, 1);
 
@@ -1,11 +1,19 @@
 package com.education.platform.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.education.platform.common.ApiResult;
+import com.education.platform.common.EstimatedPage;
 import com.education.platform.common.PageResult;
+import com.education.platform.dto.CourseRatingSummary;
+import com.education.platform.dto.TrainingStatisticsRow;
 import com.education.platform.entity.*;
 import com.education.platform.mapper.*;
+import com.education.platform.service.ICourseRatingService;
+import com.education.platform.service.ITrainingEnrollmentService;
+import com.education.platform.service.IUsageCounterService;
+import com.education.platform.util.KeysetPaging;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -41,6 +49,15 @@ public class TrainingController {
     @Autowired
     private TrainingEvaluationMapper evaluationMapper;
 
+    @Autowired
+    private IUsageCounterService usageCounterService;
+
+    @Autowired
+    private ICourseRatingService courseRatingService;
+
+    @Autowired
+    private ITrainingEnrollmentService enrollmentService;
+
     /**
      * 1. 获取培训课程列表
      */
@@ -53,7 +70,9 @@ public class TrainingController {
             @Parameter(description = "难度") @RequestParam(required = false) String difficultyLevel,
             @Parameter(description = "关键词") @RequestParam(required = false) String keyword,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "12") Long size) {
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "12") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页") @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数") @RequestParam(defaultValue = "false") Boolean withTotal) {
 
         Page<TrainingCourse> page = new Page<>(current, size);
         LambdaQueryWrapper<TrainingCourse> wrapper = new LambdaQueryWrapper<>();
@@ -69,12 +88,20 @@ public class TrainingController {
             wrapper.eq(TrainingCourse::getDifficultyLevel, difficultyLevel);
         }
         if (keyword != null && !keyword.isEmpty()) {
-            wrapper.like(TrainingCourse::getTitle, keyword)
-                   .or()
-                   .like(TrainingCourse::getDescription, keyword);
+            wrapper.and(w -> w.like(TrainingCourse::getTitle, keyword)
+                    .or()
+                    .like(TrainingCourse::getDescription, keyword));
         }
 
-        wrapper.orderByDesc(TrainingCourse::getUploadTime);
+        if (cursor != null) {
+            try {
+                return ApiResult.success(KeysetPaging.seek(courseMapper, wrapper,
+                        TrainingCourse::getUploadTime, TrainingCourse::getId, cursor, size, withTotal));
+            } catch (IllegalArgumentException e) {
+                return ApiResult.badRequest(e.getMessage());
+            }
+        }
+        wrapper.orderByDesc(TrainingCourse::getUploadTime).orderByDesc(TrainingCourse::getId);
 
         Page<TrainingCourse> result = courseMapper.selectPage(page, wrapper);
         return ApiResult.success(PageResult.of(result));
@@ -96,9 +123,9 @@ public class TrainingController {
             return ApiResult.error("课程未发布");
         }
 
-        // 增加浏览次数
+        // 增加浏览次数（内存累加，定时批量写入），返回值包含本次浏览
+        usageCounterService.recordCourseView(course.getId());
         course.setViewCount(course.getViewCount() + 1);
-        courseMapper.updateById(course);
 
         return ApiResult.success(course);
     }
@@ -110,33 +137,22 @@ public class TrainingController {
     @Operation(summary = "报名课程", description = "学员报名培训课程")
     @PreAuthorize("isAuthenticated()")
     public ApiResult<Boolean> enrollCourse(@RequestBody TrainingEnrollment enrollment) {
-        // 检查是否已报名
-        LambdaQueryWrapper<TrainingEnrollment> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(TrainingEnrollment::getCourseId, enrollment.getCourseId())
-               .eq(TrainingEnrollment::getStudentId, enrollment.getStudentId());
-
-        if (enrollmentMapper.selectCount(wrapper) > 0) {
-            return ApiResult.error("您已经报名该课程");
-        }
-
-        // 获取课程信息
-        TrainingCourse course = courseMapper.selectById(enrollment.getCourseId());
-        if (course == null || course.getStatus() != 1) {
-            return ApiResult.error("课程不可用");
+        // 去重、名额预占在内存中完成，报名记录与报名人数由报名服务批量写入
+        String result = enrollmentService.enroll(enrollment);
+        switch (result) {
+            case ITrainingEnrollmentService.RESULT_ENROLLED:
+                return ApiResult.success(true);
+            case ITrainingEnrollmentService.RESULT_PENDING:
+                return ApiResult.success("报名已受理，请稍后在我的课程中查看", true);
+            case ITrainingEnrollmentService.RESULT_DUPLICATE:
+                return ApiResult.error("您已经报名该课程");
+            case ITrainingEnrollmentService.RESULT_FULL:
+                return ApiResult.error("课程名额已满");
+            case ITrainingEnrollmentService.RESULT_UNAVAILABLE:
+                return ApiResult.error("课程不可用");
+            default:
+                return ApiResult.error("报名失败，请稍后重试");
         }
-
-        // 设置报名信息
-        enrollment.setEnrollmentTime(LocalDateTime.now());
-        enrollment.setStatus("enrolled");
-        enrollment.setProgress(0);
-
-        int result = enrollmentMapper.insert(enrollment);
-
-        // 更新课程报名人数
-        course.setEnrollCount(course.getEnrollCount() + 1);
-        courseMapper.updateById(course);
-
-        return ApiResult.success(result > 0);
     }
 
     /**
@@ -207,12 +223,11 @@ public class TrainingController {
                 enrollment.setCertificateUrl("/api/v1/training/certificate/" + record.getId());
                 enrollmentMapper.updateById(enrollment);
 
-                // 更新课程完成人数
-                TrainingCourse course = courseMapper.selectById(record.getExamId());
-                if (course != null) {
-                    course.setCompletionCount(course.getCompletionCount() + 1);
-                    courseMapper.updateById(course);
-                }
+                // 更新课程完成人数（单条语句累加，不回写整行，避免覆盖并发更新的报名人数）
+                LambdaUpdateWrapper<TrainingCourse> courseUpdate = new LambdaUpdateWrapper<>();
+                courseUpdate.eq(TrainingCourse::getId, record.getExamId())
+                            .setSql("completion_count = COALESCE(completion_count, 0) + 1");
+                courseMapper.update(null, courseUpdate);
             }
         }
 
@@ -231,6 +246,11 @@ public class TrainingController {
     @Operation(summary = "课程评价", description = "对课程进行评价")
     @PreAuthorize("isAuthenticated()")
     public ApiResult<Boolean> evaluateCourse(@RequestBody TrainingEvaluation evaluation) {
+        Integer rating = evaluation.getRating();
+        if (rating == null || rating < ICourseRatingService.MIN_RATING || rating > ICourseRatingService.MAX_RATING) {
+            return ApiResult.badRequest("评分必须为1-5分");
+        }
+
         // 检查是否已评价
         LambdaQueryWrapper<TrainingEvaluation> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(TrainingEvaluation::getCourseId, evaluation.getCourseId())
@@ -240,10 +260,8 @@ public class TrainingController {
             return ApiResult.error("您已经评价过该课程");
         }
 
-        evaluation.setCreatedAt(LocalDateTime.now());
-        int result = evaluationMapper.insert(evaluation);
-
-        return ApiResult.success(result > 0);
+        // 保存评价并增量更新课程评分汇总
+        return ApiResult.success(courseRatingService.evaluate(evaluation));
     }
 
     /**
@@ -258,9 +276,12 @@ public class TrainingController {
             @Parameter(description = "状态") @RequestParam(required = false) Integer status,
             @Parameter(description = "关键词") @RequestParam(required = false) String keyword,
             @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Long current,
-            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size) {
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "游标：传空字符串取第一页，之后传上一页返回的nextCursor；不传则按页码分页") @RequestParam(required = false) String cursor,
+            @Parameter(description = "游标模式下是否统计总条数") @RequestParam(defaultValue = "false") Boolean withTotal,
+            @Parameter(description = "是否返回估算总数（数据量大时更快，返回结果带totalEstimated标记）") @RequestParam(defaultValue = "false") Boolean estimateTotal) {
         try {
-            Page<TrainingCourse> page = new Page<>(current, size);
+            Page<TrainingCourse> page = EstimatedPage.of(current, size, estimateTotal);
             LambdaQueryWrapper<TrainingCourse> wrapper = new LambdaQueryWrapper<>();
 
             if (category != null && !category.isEmpty()) {
@@ -273,12 +294,16 @@ public class TrainingController {
                 wrapper.eq(TrainingCourse::getStatus, status);
             }
             if (keyword != null && !keyword.isEmpty()) {
-                wrapper.like(TrainingCourse::getTitle, keyword)
-                       .or()
-                       .like(TrainingCourse::getDescription, keyword);
+                wrapper.and(w -> w.like(TrainingCourse::getTitle, keyword)
+                        .or()
+                        .like(TrainingCourse::getDescription, keyword));
             }
 
-            wrapper.orderByDesc(TrainingCourse::getUploadTime);
+            if (cursor != null) {
+                return ApiResult.success(KeysetPaging.seek(courseMapper, wrapper,
+                        TrainingCourse::getUploadTime, TrainingCourse::getId, cursor, size, withTotal));
+            }
+            wrapper.orderByDesc(TrainingCourse::getUploadTime).orderByDesc(TrainingCourse::getId);
 
             Page<TrainingCourse> result = courseMapper.selectPage(page, wrapper);
             return ApiResult.success(PageResult.of(result));
@@ -308,9 +333,13 @@ public class TrainingController {
             int result = courseMapper.insert(course);
             return ApiResult.success(result > 0);
         } else {
-            // 编辑
+            // 编辑（计数字段由业务累加维护，不随课程信息回写）
             course.setUpdatedAt(LocalDateTime.now());
+            course.setViewCount(null);
+            course.setEnrollCount(null);
+            course.setCompletionCount(null);
             int result = courseMapper.updateById(course);
+            enrollmentService.refreshCourse(course.getId());
             return ApiResult.success(result > 0);
         }
     }
@@ -323,23 +352,26 @@ public class TrainingController {
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResult<Map<String, Object>> getStatistics() {
         try {
-            List<TrainingCourse> courses = courseMapper.selectList(null);
-            List<TrainingEnrollment> enrollments = enrollmentMapper.selectList(null);
-            List<TrainingExamRecord> exams = examRecordMapper.selectList(null);
+            // 计数、合计、平均值在数据库端一次聚合
+            TrainingStatisticsRow row = courseMapper.selectTrainingStatistics();
+            long totalEnrollments = row.getTotalEnrollments();
+            long totalExams = row.getTotalExams();
 
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalCourses", courses != null ? courses.size() : 0);
-            stats.put("totalEnrollments", enrollments != null ? enrollments.size() : 0);
-            stats.put("totalExams", exams != null ? exams.size() : 0);
-            stats.put("totalViews", courses != null ? courses.stream().mapToInt(TrainingCourse::getViewCount).sum() : 0);
-
-            long completed = 0;
-            if (enrollments != null) {
-                completed = enrollments.stream()
-                        .filter(e -> "completed".equals(e.getStatus()))
-                        .count();
-            }
-            stats.put("completedCourses", completed);
+            stats.put("totalCourses", row.getTotalCourses());
+            stats.put("totalEnrollments", totalEnrollments);
+            stats.put("totalExams", totalExams);
+            stats.put("totalViews", row.getTotalViews());
+            stats.put("completedCourses", row.getCompletedCourses());
+            stats.put("passedExams", row.getPassedExams());
+            stats.put("averageProgress", Math.round(row.getAverageProgress() * 10) / 10.0);
+            stats.put("completionRate", totalEnrollments > 0
+                    ? Math.round(row.getCompletedCourses() * 1000.0 / totalEnrollments) / 10.0 : 0);
+            stats.put("examPassRate", totalExams > 0
+                    ? Math.round(row.getPassedExams() * 1000.0 / totalExams) / 10.0 : 0);
+
+            // 中位数由数据库端分组计数后计算并缓存，不随每次请求扫描报名表
+            stats.putAll(enrollmentService.medians());
 
             return ApiResult.success(stats);
         } catch (Exception e) {
@@ -396,24 +428,27 @@ public class TrainingController {
     @Operation(summary = "课程评分", description = "获取课程平均评分")
     @PreAuthorize("isAuthenticated()")
     public ApiResult<Map<String, Object>> getCourseRating(@PathVariable Long id) {
-        LambdaQueryWrapper<TrainingEvaluation> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(TrainingEvaluation::getCourseId, id);
-
-        List<TrainingEvaluation> evaluations = evaluationMapper.selectList(wrapper);
+        CourseRatingSummary summary = courseRatingService.getRating(id);
 
         Map<String, Object> result = new HashMap<>();
-        if (evaluations.isEmpty()) {
-            result.put("averageRating", 0);
-            result.put("totalEvaluations", 0);
-        } else {
-            double avg = evaluations.stream()
-                    .mapToInt(TrainingEvaluation::getRating)
-                    .average()
-                    .orElse(0);
-            result.put("averageRating", Math.round(avg * 10) / 10.0);
-            result.put("totalEvaluations", evaluations.size());
-        }
+        result.put("averageRating", summary.getAverageRating());
+        result.put("totalEvaluations", summary.getTotalEvaluations());
+        result.put("distribution", summary.getDistribution());
 
         return ApiResult.success(result);
     }
+
+    /**
+     * 13. 批量获取课程评分（课程列表一页一次调用）
+     */
+    @GetMapping("/course/ratings")
+    @Operation(summary = "批量课程评分", description = "按课程ID批量获取平均评分、评价数与分值分布")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<List<CourseRatingSummary>> getCourseRatings(
+            @Parameter(description = "课程ID列表，逗号分隔") @RequestParam List<Long> ids) {
+        if (ids.size() > KeysetPaging.MAX_SIZE) {
+            return ApiResult.badRequest("单次最多查询" + KeysetPaging.MAX_SIZE + "门课程");
+        }
+        return ApiResult.success(courseRatingService.getRatings(ids));
+    }
 }
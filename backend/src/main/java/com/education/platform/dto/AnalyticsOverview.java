@@ -0,0 +1,52 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 全区教育资源总览
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class AnalyticsOverview implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 学校数（正常）
+     */
+    private Long schoolCount;
+
+    /**
+     * 教师数（在职）
+     */
+    private Long teacherCount;
+
+    /**
+     * 班级数（正常）
+     */
+    private Long classCount;
+
+    /**
+     * 学生数（在读）
+     */
+    private Long studentCount;
+
+    /**
+     * 生师比（每名教师对应的学生数）
+     */
+    private Double studentTeacherRatio;
+
+    /**
+     * 平均班额
+     */
+    private Double averageClassSize;
+
+    /**
+     * 快照数据截止时间
+     */
+    private LocalDateTime snapshotTime;
+}
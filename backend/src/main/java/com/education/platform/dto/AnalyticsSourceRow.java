@@ -0,0 +1,47 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 分析快照源数据行（教师、学校、班级、学生共用）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class AnalyticsSourceRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键
+     */
+    private Long id;
+
+    /**
+     * 第一个分类属性（教师职称、学校类型）
+     */
+    private String key1;
+
+    /**
+     * 第二个分类属性（教师学科、学校区域）
+     */
+    private String key2;
+
+    /**
+     * 关联ID（教师、班级所属学校，学生所属班级）
+     */
+    private Long refId;
+
+    /**
+     * 是否计入统计（未删除且状态正常）
+     */
+    private Boolean active;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
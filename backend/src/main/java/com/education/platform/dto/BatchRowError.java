@@ -0,0 +1,26 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 批量提交中失败的条目
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class BatchRowError implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 条目在请求数组中的下标（从0开始）
+     */
+    private int index;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 排课可用教室
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class ClassroomCapacity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 教室名称
+     */
+    private String name;
+
+    /**
+     * 座位数，须不少于上课班级人数
+     */
+    private Integer capacity;
+}
@@ -0,0 +1,53 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据清洗执行结果
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class CleaningReport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 规则摘要（SHA-256），相同规则的多次执行可据此对照
+     */
+    private String ruleHash;
+
+    /**
+     * 处理的采集记录数
+     */
+    private long processed;
+
+    /**
+     * 清洗成功数
+     */
+    private long cleaned;
+
+    /**
+     * 校验失败数（不含重复）
+     */
+    private long failed;
+
+    /**
+     * 判定为重复的记录数
+     */
+    private long duplicates;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 前若干条失败说明
+     */
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,47 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 计数增量（批量刷入资源/课程计数列及资源日统计表）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class CounterDelta implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 资源ID或课程ID
+     */
+    private Long targetId;
+
+    /**
+     * 学校ID（资源日统计使用）
+     */
+    private Long schoolId;
+
+    /**
+     * 统计日期（资源日统计使用）
+     */
+    private LocalDate statDate;
+
+    /**
+     * 浏览次数增量
+     */
+    private long viewCount;
+
+    /**
+     * 下载次数增量
+     */
+    private long downloadCount;
+
+    /**
+     * 分享次数增量
+     */
+    private long shareCount;
+}
@@ -0,0 +1,37 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 课程评分汇总
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class CourseRatingSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 课程ID
+     */
+    private Long courseId;
+
+    /**
+     * 平均评分（保留一位小数，无评价时为0）
+     */
+    private Double averageRating;
+
+    /**
+     * 评价总数
+     */
+    private Long totalEvaluations;
+
+    /**
+     * 各分值评价数，依次为1分到5分
+     */
+    private List<Long> distribution;
+}
@@ -0,0 +1,73 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 成绩列表行（grade / student / user / class / teacher 联表查询结果）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class GradeListRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 成绩ID
+     */
+    private Long id;
+
+    /**
+     * 学号
+     */
+    private String studentNumber;
+
+    /**
+     * 学生姓名
+     */
+    private String studentName;
+
+    /**
+     * 班级名称
+     */
+    private String className;
+
+    /**
+     * 科目
+     */
+    private String subject;
+
+    /**
+     * 考试类型：midterm/final/daily
+     */
+    private String examType;
+
+    /**
+     * 分数
+     */
+    private BigDecimal score;
+
+    /**
+     * 考试日期
+     */
+    private LocalDate examDate;
+
+    /**
+     * 学期
+     */
+    private String academicTerm;
+
+    /**
+     * 录入教师姓名
+     */
+    private String teacherName;
+
+    /**
+     * 备注
+     */
+    private String remark;
+}
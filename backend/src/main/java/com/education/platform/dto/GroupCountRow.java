@@ -0,0 +1,26 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 分组计数行（GROUP BY 单列的聚合结果）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class GroupCountRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 分组值
+     */
+    private Integer groupKey;
+
+    /**
+     * 条数
+     */
+    private Long total;
+}
@@ -0,0 +1,22 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+/**
+ * 分组计数行（数据库端按取值分组，用于计算中位数等分位数）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class HistogramBinRow {
+
+    /**
+     * 取值
+     */
+    private Double value;
+
+    /**
+     * 该取值的记录数
+     */
+    private Long count;
+}
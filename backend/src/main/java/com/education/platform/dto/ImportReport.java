@@ -0,0 +1,58 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入报告
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class ImportReport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 数据行数（不含表头和空行）
+     */
+    private long totalRows;
+
+    /**
+     * 导入成功数
+     */
+    private long imported;
+
+    /**
+     * 导入失败数
+     */
+    private long failed;
+
+    /**
+     * 文件未读完即终止（已读取部分的导入结果保留）
+     */
+    private boolean aborted;
+
+    /**
+     * 终止原因
+     */
+    private String abortReason;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 失败行明细（最多返回前若干条）
+     */
+    private List<ImportRowError> errors = new ArrayList<>();
+
+    /**
+     * 失败行明细是否被截断
+     */
+    private boolean errorsTruncated;
+}
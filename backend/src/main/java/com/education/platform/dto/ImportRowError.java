@@ -0,0 +1,31 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 导入失败的行
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class ImportRowError implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 文件中的行号（从1开始，含表头行）
+     */
+    private int rowNumber;
+
+    /**
+     * 该行的学号或工号
+     */
+    private String number;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,67 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 数据采集吞吐指标（按学校、数据类型）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class IngestionMetrics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 学校ID
+     */
+    private Long schoolId;
+
+    /**
+     * 数据类型
+     */
+    private String dataType;
+
+    /**
+     * 已受理记录数
+     */
+    private Long received;
+
+    /**
+     * 已写入记录数
+     */
+    private Long written;
+
+    /**
+     * 写入失败记录数
+     */
+    private Long failed;
+
+    /**
+     * 格式错误记录数
+     */
+    private Long rejected;
+
+    /**
+     * 已受理数据字节数
+     */
+    private Long bytes;
+
+    /**
+     * 首次受理时间
+     */
+    private LocalDateTime firstReceivedAt;
+
+    /**
+     * 最近写入时间
+     */
+    private LocalDateTime lastWrittenAt;
+
+    /**
+     * 平均写入速率（条/秒，首次受理至最近写入）
+     */
+    private Double recordsPerSecond;
+}
@@ -0,0 +1,38 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据采集受理结果
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class IngestionResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 已受理（进入写入队列）的记录数
+     */
+    private long accepted;
+
+    /**
+     * 格式错误被跳过的记录数
+     */
+    private long rejected;
+
+    /**
+     * 是否因写入队列持续已满而提前终止
+     */
+    private boolean aborted;
+
+    /**
+     * 前若干条错误说明（含行号）
+     */
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 人员变更行（用户、学生或教师记录的更新时间，用于人员检索索引增量同步）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class PersonChangeRow {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
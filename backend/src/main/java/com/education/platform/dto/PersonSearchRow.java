@@ -0,0 +1,61 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 人员检索行（user / student / teacher 联表结果，用于人员检索索引）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class PersonSearchRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 真实姓名
+     */
+    private String realName;
+
+    /**
+     * 所属学校ID
+     */
+    private Long schoolId;
+
+    /**
+     * 所属班级ID
+     */
+    private Long classId;
+
+    /**
+     * 学生ID（非学生为null）
+     */
+    private Long studentId;
+
+    /**
+     * 学号
+     */
+    private String studentNumber;
+
+    /**
+     * 教师ID（非教师为null）
+     */
+    private Long teacherId;
+
+    /**
+     * 教师编号
+     */
+    private String teacherNumber;
+}
@@ -0,0 +1,31 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 推送信封：经推送中继在各节点间传递，由各节点投递给本节点上订阅了对应主题的连接
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class PushEnvelope implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 投递范围：user/class/school/all
+     */
+    private String scope;
+
+    /**
+     * 用户ID、班级ID或学校ID，scope为all时为空
+     */
+    private Long targetId;
+
+    /**
+     * 消息内容
+     */
+    private PushMessage message;
+}
@@ -0,0 +1,42 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 推送消息（WebSocket下发给客户端的内容）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class PushMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 类型：announcement/notification
+     */
+    private String type;
+
+    /**
+     * 标题
+     */
+    private String title;
+
+    /**
+     * 内容（公告只推送摘要，客户端按refId拉取详情）
+     */
+    private String content;
+
+    /**
+     * 关联记录ID（如公告ID）
+     */
+    private Long refId;
+
+    /**
+     * 推送时间
+     */
+    private LocalDateTime time;
+}
@@ -0,0 +1,24 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 课程评价变更行（课程ID及其评价的最近更新时间，用于评分汇总增量同步）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class RatingChangeRow {
+
+    /**
+     * 课程ID
+     */
+    private Long courseId;
+
+    /**
+     * 该课程评价的最近更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 课程评分分布行（按课程、评分分组计数）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class RatingCountRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 课程ID
+     */
+    private Long courseId;
+
+    /**
+     * 评分(1-5)
+     */
+    private Integer rating;
+
+    /**
+     * 条数
+     */
+    private Long total;
+}
@@ -0,0 +1,36 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 资源统计聚合结果
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class ResourceStatisticsRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 资源总数
+     */
+    private Long totalResources;
+
+    /**
+     * 已发布资源数
+     */
+    private Long publishedResources;
+
+    /**
+     * 总浏览次数
+     */
+    private Long totalViews;
+
+    /**
+     * 总下载次数
+     */
+    private Long totalDownloads;
+}
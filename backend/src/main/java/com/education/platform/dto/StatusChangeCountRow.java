@@ -0,0 +1,31 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 学籍异动分组计数行（按审核状态、异动类型分组的聚合结果）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class StatusChangeCountRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 审核状态：0-待审核，1-已通过，2-已驳回
+     */
+    private Integer status;
+
+    /**
+     * 异动类型：1-休学，2-转学，3-复学，4-退学，5-其他
+     */
+    private Integer changeType;
+
+    /**
+     * 条数
+     */
+    private Long total;
+}
@@ -0,0 +1,130 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 学籍异动列表行（student_status_change / student / user / class 联表查询结果）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class StatusChangeListRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 异动ID
+     */
+    private Long id;
+
+    /**
+     * 异动类型：1-休学，2-转学，3-复学，4-退学，5-其他
+     */
+    private Integer changeType;
+
+    /**
+     * 异动原因
+     */
+    private String reason;
+
+    /**
+     * 开始日期
+     */
+    private LocalDate startDate;
+
+    /**
+     * 结束日期
+     */
+    private LocalDate endDate;
+
+    /**
+     * 目标学校（转学）
+     */
+    private String targetSchool;
+
+    /**
+     * 审核状态：0-待审核，1-已通过，2-已驳回
+     */
+    private Integer status;
+
+    /**
+     * 审核意见
+     */
+    private String approvalComment;
+
+    /**
+     * 审核时间
+     */
+    private LocalDateTime approvalTime;
+
+    /**
+     * 申请时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 学号
+     */
+    private String studentNumber;
+
+    /**
+     * 班级ID
+     */
+    private Long classId;
+
+    /**
+     * 学生姓名
+     */
+    private String studentName;
+
+    /**
+     * 班级名称
+     */
+    private String className;
+
+    /**
+     * 审核人姓名
+     */
+    private String approverName;
+
+    /**
+     * 申请人姓名
+     */
+    private String applicantName;
+
+    /**
+     * 异动类型描述
+     */
+    public String getChangeTypeDesc() {
+        if (changeType == null) {
+            return "未知";
+        }
+        switch (changeType) {
+            case 1: return "休学";
+            case 2: return "转学";
+            case 3: return "复学";
+            case 4: return "退学";
+            case 5: return "其他";
+            default: return "未知";
+        }
+    }
+
+    /**
+     * 审核状态描述
+     */
+    public String getStatusDesc() {
+        if (status == null) {
+            return "未知";
+        }
+        switch (status) {
+            case 0: return "待审核";
+            case 1: return "已通过";
+            case 2: return "已驳回";
+            default: return "未知";
+        }
+    }
+}
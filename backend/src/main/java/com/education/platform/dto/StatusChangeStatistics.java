@@ -0,0 +1,43 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 学籍异动统计结果
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class StatusChangeStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 申请总数
+     */
+    private Long total = 0L;
+
+    /**
+     * 待审核
+     */
+    private Long pending = 0L;
+
+    /**
+     * 已通过
+     */
+    private Long approved = 0L;
+
+    /**
+     * 已驳回
+     */
+    private Long rejected = 0L;
+
+    /**
+     * 按异动类型统计：类型编号（1-5） → 条数
+     */
+    private Map<String, Long> typeStats = new HashMap<>();
+}
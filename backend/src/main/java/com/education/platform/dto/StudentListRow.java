@@ -0,0 +1,62 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 学生列表行（student / user / class 联表查询结果）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class StudentListRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 学生ID
+     */
+    private Long id;
+
+    /**
+     * 学号
+     */
+    private String studentNumber;
+
+    /**
+     * 班级ID
+     */
+    private Long classId;
+
+    /**
+     * 监护人姓名
+     */
+    private String guardianName;
+
+    /**
+     * 监护人电话
+     */
+    private String guardianPhone;
+
+    /**
+     * 入学日期
+     */
+    private LocalDate enrollmentDate;
+
+    /**
+     * 状态
+     */
+    private Integer status;
+
+    /**
+     * 学生姓名
+     */
+    private String name;
+
+    /**
+     * 班级名称
+     */
+    private String className;
+}
@@ -0,0 +1,72 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 教师列表行（teacher / user 联表查询结果）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class TeacherListRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 教师ID
+     */
+    private Long id;
+
+    /**
+     * 教师编号
+     */
+    private String teacherNumber;
+
+    /**
+     * 职称
+     */
+    private String title;
+
+    /**
+     * 所教科目
+     */
+    private String subject;
+
+    /**
+     * 入职日期
+     */
+    private LocalDate hireDate;
+
+    /**
+     * 状态
+     */
+    private Integer status;
+
+    /**
+     * 教师姓名
+     */
+    private String name;
+
+    /**
+     * 部门/院系
+     */
+    private String department;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 所属学校ID
+     */
+    private Long schoolId;
+}
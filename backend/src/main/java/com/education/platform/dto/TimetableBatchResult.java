@@ -0,0 +1,38 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 课程表批量添加结果
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class TimetableBatchResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 添加成功数
+     */
+    private int count;
+
+    /**
+     * 添加失败数
+     */
+    private int failed;
+
+    /**
+     * 新记录ID，与请求数组一一对应，失败的条目为null
+     */
+    private List<Long> ids = new ArrayList<>();
+
+    /**
+     * 失败条目明细
+     */
+    private List<BatchRowError> errors = new ArrayList<>();
+}
@@ -0,0 +1,33 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 班级课程表视图（含教师姓名），由课程表服务缓存，条目只读
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class TimetableClassView implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 班级ID
+     */
+    private Long classId;
+
+    /**
+     * 内容摘要，用作ETag
+     */
+    private String etag;
+
+    /**
+     * 按星期、节次排序的课程表条目
+     */
+    private List<Map<String, Object>> items;
+}
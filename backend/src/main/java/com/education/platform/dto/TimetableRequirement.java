@@ -0,0 +1,41 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 排课课时需求：某班级某科目每周上几节课
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class TimetableRequirement implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 班级ID
+     */
+    private Long classId;
+
+    /**
+     * 科目
+     */
+    private String subject;
+
+    /**
+     * 每周课时数
+     */
+    private Integer weeklyHours;
+
+    /**
+     * 任课教师ID，为空时从任教该科目（teacher.subject）的教师中按已分配课时最少选取
+     */
+    private Long teacherId;
+
+    /**
+     * 指定教室（如实验室），为空时使用教室池或本班教室
+     */
+    private String classroom;
+}
@@ -0,0 +1,79 @@
+package com.education.platform.dto;
+
+import com.education.platform.entity.Timetable;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自动排课结果
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class TimetableSolution implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 是否无硬冲突（班级、教师、教室无重复占用，教室容量满足）
+     */
+    private boolean feasible;
+
+    /**
+     * 硬冲突数
+     */
+    private long hardViolations;
+
+    /**
+     * 软约束扣分（同一科目集中在同一天、教师连续上课过多）
+     */
+    private long softPenalty;
+
+    /**
+     * 排课的课时总数
+     */
+    private int lessonCount;
+
+    /**
+     * 并行搜索线程数
+     */
+    private int workers;
+
+    /**
+     * 搜索迭代次数（各线程合计）
+     */
+    private long iterations;
+
+    /**
+     * 求解耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 数据问题提示（如找不到任课教师、教室容量不足的需求已跳过）
+     */
+    private List<String> warnings = new ArrayList<>();
+
+    /**
+     * 排课结果
+     */
+    private List<Timetable> timetables = new ArrayList<>();
+
+    /**
+     * 是否已写入
+     */
+    private boolean applied;
+
+    /**
+     * 写入条数
+     */
+    private int written;
+
+    /**
+     * 写入失败的条目（追加模式下与新增的课程冲突等）
+     */
+    private List<BatchRowError> writeErrors = new ArrayList<>();
+}
@@ -0,0 +1,78 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自动排课请求
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class TimetableSolveRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 学校ID，为空时取当前管理员所在学校
+     */
+    private Long schoolId;
+
+    /**
+     * 学年度（未提供课时需求、从教学任务生成时的筛选条件）
+     */
+    private String academicYear;
+
+    /**
+     * 学期（同上）
+     */
+    private Integer semester;
+
+    /**
+     * 每周上课天数，默认5
+     */
+    private Integer days;
+
+    /**
+     * 每天节次数，默认8
+     */
+    private Integer periodsPerDay;
+
+    /**
+     * 教师最多连续上课节数，默认3
+     */
+    private Integer maxConsecutive;
+
+    /**
+     * 各节上课时间，格式HH:mm-HH:mm，为空时使用默认作息
+     */
+    private List<String> periodTimes;
+
+    /**
+     * 求解时限（秒），为空时使用系统配置
+     */
+    private Integer timeLimitSeconds;
+
+    /**
+     * 课时需求，为空时从教师教学任务（teacher_teaching_task）生成
+     */
+    private List<TimetableRequirement> requirements = new ArrayList<>();
+
+    /**
+     * 可用教室及座位数，为空时各班在本班教室上课，不分配教室
+     */
+    private List<ClassroomCapacity> classrooms = new ArrayList<>();
+
+    /**
+     * 是否替换涉及班级的现有课程表；为false时只在现有课程表的空闲时段中排课
+     */
+    private boolean replaceExisting;
+
+    /**
+     * 是否写入排课结果（仅无硬冲突时写入），为false时只返回预览
+     */
+    private boolean apply;
+}
@@ -0,0 +1,51 @@
+package com.education.platform.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 培训统计聚合结果（课程、报名、考试三张表各聚合一次）
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class TrainingStatisticsRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 课程总数
+     */
+    private Long totalCourses;
+
+    /**
+     * 课程总浏览次数
+     */
+    private Long totalViews;
+
+    /**
+     * 报名总数
+     */
+    private Long totalEnrollments;
+
+    /**
+     * 已完成的报名数
+     */
+    private Long completedCourses;
+
+    /**
+     * 平均学习进度（百分比）
+     */
+    private Double averageProgress;
+
+    /**
+     * 考试记录总数
+     */
+    private Long totalExams;
+
+    /**
+     * 通过的考试记录数
+     */
+    private Long passedExams;
+}
@@ -0,0 +1,40 @@
+package com.education.platform.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 公告已读位图实体类
+ * 每个用户按公告ID区段（ID右移16位）保存一行，bitmap为该区段已读公告ID低16位的压缩位图（IdBitmap区段格式）
+ *
+ * @author Education Platform Team
+ */
+@Data
+@TableName("announcement_read")
+public class AnnouncementRead implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 公告ID区段
+     */
+    private Integer chunk;
+
+    /**
+     * 区段内已读公告的压缩位图
+     */
+    private byte[] bitmap;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
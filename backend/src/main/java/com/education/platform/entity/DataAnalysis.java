@@ -25,7 +25,7 @@ public class DataAnalysis extends BaseEntity {
     private String analysisType;
 
     /**
-     * 学校ID
+     * 学校ID（0表示全区）
      */
     private Long schoolId;
 
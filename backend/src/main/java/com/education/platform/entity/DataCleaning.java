@@ -0,0 +1,56 @@
+package com.education.platform.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 数据清洗记录实体类
+ *
+ * @author Education Platform Team
+ */
+@Data
+@TableName("data_cleaning")
+public class DataCleaning implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 清洗ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 采集ID
+     */
+    private Long collectionId;
+
+    /**
+     * 清洗规则 (JSON)
+     */
+    private String cleanRules;
+
+    /**
+     * 清洗结果
+     */
+    private String cleanResult;
+
+    /**
+     * 状态：0-失败，1-成功
+     */
+    private Integer status;
+
+    /**
+     * 操作人ID
+     */
+    private Long operatorId;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
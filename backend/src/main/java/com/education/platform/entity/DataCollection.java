@@ -0,0 +1,71 @@
+package com.education.platform.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.education.platform.common.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+/**
+ * 数据采集实体类
+ *
+ * @author Education Platform Team
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("data_collection")
+public class DataCollection extends BaseEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 状态：待清洗
+     */
+    public static final int STATUS_PENDING = 0;
+
+    /**
+     * 状态：已清洗
+     */
+    public static final int STATUS_CLEANED = 1;
+
+    /**
+     * 状态：已入库
+     */
+    public static final int STATUS_STORED = 2;
+
+    /**
+     * 状态：与已清洗的记录重复，不再清洗
+     */
+    public static final int STATUS_DUPLICATE = 3;
+
+    /**
+     * 学校ID
+     */
+    private Long schoolId;
+
+    /**
+     * 数据类型：layout/teacher/activity/student
+     */
+    private String dataType;
+
+    /**
+     * 数据来源
+     */
+    private String dataSource;
+
+    /**
+     * 数据内容 (JSON)
+     */
+    private String dataContent;
+
+    /**
+     * 采集日期
+     */
+    private LocalDate collectionDate;
+
+    /**
+     * 状态：0-待清洗，1-已清洗，2-已入库，3-重复
+     */
+    private Integer status;
+}
@@ -0,0 +1,67 @@
+package com.education.platform.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 资源日统计实体类
+ * 按学校、资源、日期汇总浏览、下载、分享次数
+ *
+ * @author Education Platform Team
+ */
+@Data
+@TableName("resource_statistics")
+public class ResourceStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 统计ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 学校ID
+     */
+    private Long schoolId;
+
+    /**
+     * 资源ID
+     */
+    private Long resourceId;
+
+    /**
+     * 统计日期
+     */
+    private LocalDate statDate;
+
+    /**
+     * 浏览数
+     */
+    private Integer viewCount;
+
+    /**
+     * 下载数
+     */
+    private Integer downloadCount;
+
+    /**
+     * 分享数
+     */
+    private Integer shareCount;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
@@ -32,6 +32,11 @@ public class School extends BaseEntity {
      */
     private String schoolType;
 
+    /**
+     * 所属区域: 城区/郊区/乡镇
+     */
+    private String region;
+
     /**
      * 地址
      */
@@ -0,0 +1,83 @@
+package com.education.platform.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 学籍异动计数实体类
+ * 单行汇总表，在申请、审核、删除时增量维护，供管理端统计直接读取
+ *
+ * @author Education Platform Team
+ */
+@Data
+@TableName("status_change_counter")
+public class StatusChangeCounter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 固定行ID
+     */
+    public static final long ROW_ID = 1L;
+
+    /**
+     * 主键ID（固定为1）
+     */
+    @TableId(type = IdType.INPUT)
+    private Long id;
+
+    /**
+     * 申请总数
+     */
+    private Long totalCount;
+
+    /**
+     * 待审核数
+     */
+    private Long pendingCount;
+
+    /**
+     * 已通过数
+     */
+    private Long approvedCount;
+
+    /**
+     * 已驳回数
+     */
+    private Long rejectedCount;
+
+    /**
+     * 休学申请数
+     */
+    private Long suspendCount;
+
+    /**
+     * 转学申请数
+     */
+    private Long transferCount;
+
+    /**
+     * 复学申请数
+     */
+    private Long resumeCount;
+
+    /**
+     * 退学申请数
+     */
+    private Long dropoutCount;
+
+    /**
+     * 其他申请数
+     */
+    private Long otherCount;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
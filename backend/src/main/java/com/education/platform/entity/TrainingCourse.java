@@ -94,6 +94,11 @@ public class TrainingCourse extends BaseEntity {
      */
     private Integer completionCount;
 
+    /**
+     * 报名名额上限（为空不限）
+     */
+    private Integer maxEnrollment;
+
     /**
      * 开始日期
      */
@@ -0,0 +1,38 @@
+package com.education.platform.mapper;
+
+import com.education.platform.dto.AnalyticsSourceRow;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分析快照源数据Mapper
+ * since为空时全量加载有效数据；不为空时加载该时间之后变更的行（含已删除、已停用的行）
+ *
+ * @author Education Platform Team
+ */
+@Mapper
+public interface AnalyticsSourceMapper {
+
+    /**
+     * 教师：职称、学科、所属学校
+     */
+    List<AnalyticsSourceRow> selectTeacherRows(@Param("since") LocalDateTime since);
+
+    /**
+     * 学校：类型、区域
+     */
+    List<AnalyticsSourceRow> selectSchoolRows(@Param("since") LocalDateTime since);
+
+    /**
+     * 班级：所属学校
+     */
+    List<AnalyticsSourceRow> selectClassRows(@Param("since") LocalDateTime since);
+
+    /**
+     * 学生：所属班级
+     */
+    List<AnalyticsSourceRow> selectStudentRows(@Param("since") LocalDateTime since);
+}
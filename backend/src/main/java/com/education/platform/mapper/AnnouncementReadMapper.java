@@ -0,0 +1,36 @@
+package com.education.platform.mapper;
+
+import com.education.platform.entity.AnnouncementRead;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 公告已读位图Mapper接口
+ *
+ * @author Education Platform Team
+ */
+@Mapper
+public interface AnnouncementReadMapper {
+
+    /**
+     * 查询用户全部区段的已读位图
+     */
+    List<AnnouncementRead> selectByUserId(@Param("userId") Long userId);
+
+    /**
+     * 批量插入区段位图，已存在的区段保持不变
+     */
+    int insertIgnoreBatch(@Param("rows") List<AnnouncementRead> rows);
+
+    /**
+     * 按用户+区段查询位图并加行锁，直到事务结束
+     */
+    List<AnnouncementRead> selectForUpdate(@Param("rows") List<AnnouncementRead> rows);
+
+    /**
+     * 批量写入区段位图（按用户+区段唯一键覆盖）
+     */
+    int upsertBatch(@Param("rows") List<AnnouncementRead> rows);
+}
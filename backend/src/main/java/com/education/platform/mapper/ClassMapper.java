@@ -1,9 +1,12 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.GroupCountRow;
 import com.education.platform.entity.Class;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.List;
+
 /**
  * 班级Mapper接口
  *
@@ -11,4 +14,9 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface ClassMapper extends BaseMapper<Class> {
+
+    /**
+     * 按班级状态分组统计班级数
+     */
+    List<GroupCountRow> selectCountGroupByStatus();
 }
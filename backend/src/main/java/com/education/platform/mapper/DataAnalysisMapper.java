@@ -3,6 +3,10 @@ package com.education.platform.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.education.platform.entity.DataAnalysis;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * 数据分析Mapper接口
@@ -11,4 +15,39 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface DataAnalysisMapper extends BaseMapper<DataAnalysis> {
+
+    /**
+     * 批量插入分析结果（多行INSERT）
+     */
+    int insertBatch(@Param("records") List<DataAnalysis> records);
+
+    /**
+     * 删除指定日期的分析结果（重新预计算前清理）
+     */
+    int deleteByAnalysisDate(@Param("analysisDate") LocalDate analysisDate);
+
+    /**
+     * 当前最大ID，作为分析结果的版本号
+     */
+    Long selectMaxId();
+
+    /**
+     * 指定日期的分析结果条数
+     *
+     * @param withinMinutes 只统计最近若干分钟内生成的结果（按数据库时间），为空时不限
+     */
+    long countByAnalysisDate(@Param("analysisDate") LocalDate analysisDate,
+                             @Param("withinMinutes") Integer withinMinutes);
+
+    /**
+     * 获取MySQL命名锁，不等待；锁属于当前连接，须与释放在同一事务内调用
+     *
+     * @return 1-获取成功，0-已被其他连接持有
+     */
+    Integer tryLock(@Param("name") String name);
+
+    /**
+     * 释放MySQL命名锁
+     */
+    Integer releaseLock(@Param("name") String name);
 }
@@ -0,0 +1,22 @@
+package com.education.platform.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.entity.DataCleaning;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 数据清洗记录Mapper接口
+ *
+ * @author Education Platform Team
+ */
+@Mapper
+public interface DataCleaningMapper extends BaseMapper<DataCleaning> {
+
+    /**
+     * 批量写入清洗记录（多行INSERT），同一采集数据已有记录时覆盖为本次结果
+     */
+    int upsertBatch(@Param("records") List<DataCleaning> records);
+}
@@ -0,0 +1,32 @@
+package com.education.platform.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.entity.DataCollection;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 数据采集Mapper接口
+ *
+ * @author Education Platform Team
+ */
+@Mapper
+public interface DataCollectionMapper extends BaseMapper<DataCollection> {
+
+    /**
+     * 批量插入采集记录（多行INSERT）
+     */
+    int insertBatch(@Param("records") List<DataCollection> records);
+
+    /**
+     * 批量写回清洗后的数据内容并标记为已清洗，仅更新仍处于待清洗状态的记录
+     */
+    int updateCleaned(@Param("records") List<DataCollection> records);
+
+    /**
+     * 将仍处于待清洗状态的记录标记为重复
+     */
+    int markDuplicate(@Param("ids") List<Long> ids);
+}
@@ -1,8 +1,13 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.CounterDelta;
+import com.education.platform.dto.ResourceStatisticsRow;
 import com.education.platform.entity.EducationalResource;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 教育资源Mapper接口
@@ -11,4 +16,16 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface EducationalResourceMapper extends BaseMapper<EducationalResource> {
+
+    /**
+     * 资源数量、已发布数量与浏览/下载次数合计（数据库端一次聚合）
+     *
+     * @param schoolId 学校ID，为空时统计全部
+     */
+    ResourceStatisticsRow selectStatistics(@Param("schoolId") Long schoolId);
+
+    /**
+     * 批量累加浏览、下载次数（每个资源ID在列表中只出现一次）
+     */
+    int addCounters(@Param("deltas") List<CounterDelta> deltas);
 }
@@ -1,8 +1,11 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.GradeListRow;
 import com.education.platform.entity.Grade;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 /**
  * 成绩Mapper接口
@@ -11,4 +14,14 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface GradeMapper extends BaseMapper<Grade> {
+
+    /**
+     * 流式查询成绩列表（导出用，联表学生、班级、录入教师）
+     * 需在事务内遍历，遍历期间占用数据库连接
+     */
+    Cursor<GradeListRow> selectGradeListCursor(@Param("schoolId") Long schoolId,
+                                               @Param("classId") Long classId,
+                                               @Param("subject") String subject,
+                                               @Param("examType") String examType,
+                                               @Param("academicTerm") String academicTerm);
 }
@@ -3,6 +3,8 @@ package com.education.platform.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.education.platform.entity.OfficeAsset;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 /**
  * 办公资产Mapper接口
@@ -11,4 +13,12 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface OfficeAssetMapper extends BaseMapper<OfficeAsset> {
+
+    /**
+     * 流式查询办公资产列表（导出用），条件与列表查询一致
+     * 需在事务内遍历，遍历期间占用数据库连接
+     */
+    Cursor<OfficeAsset> selectAssetCursor(@Param("schoolId") Long schoolId,
+                                          @Param("category") String category,
+                                          @Param("keyword") String keyword);
 }
@@ -0,0 +1,23 @@
+package com.education.platform.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.CounterDelta;
+import com.education.platform.entity.ResourceStatistics;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 资源日统计Mapper接口
+ *
+ * @author Education Platform Team
+ */
+@Mapper
+public interface ResourceStatisticsMapper extends BaseMapper<ResourceStatistics> {
+
+    /**
+     * 批量累加资源日统计（按资源+日期唯一键合并）
+     */
+    int upsertDeltas(@Param("deltas") List<CounterDelta> deltas);
+}
@@ -0,0 +1,31 @@
+package com.education.platform.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.entity.StatusChangeCounter;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 学籍异动计数Mapper接口
+ *
+ * @author Education Platform Team
+ */
+@Mapper
+public interface StatusChangeCounterMapper extends BaseMapper<StatusChangeCounter> {
+
+    /**
+     * 按审核状态和异动类型增减计数
+     *
+     * @param status     审核状态
+     * @param changeType 异动类型
+     * @param delta      增量（新增为1，移除为-1）
+     */
+    int adjust(@Param("status") Integer status,
+               @Param("changeType") Integer changeType,
+               @Param("delta") int delta);
+
+    /**
+     * 从学籍异动表全量重算计数
+     */
+    int rebuild();
+}
@@ -1,8 +1,15 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.education.platform.dto.GroupCountRow;
+import com.education.platform.dto.StudentListRow;
 import com.education.platform.entity.Student;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.List;
 
 /**
  * 学生Mapper接口
@@ -11,4 +18,38 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface StudentMapper extends BaseMapper<Student> {
+
+    /**
+     * 分页查询学生列表（联表学生姓名、班级名称）
+     * userIds不为空时按检索索引匹配到的用户过滤，否则按keyword模糊匹配
+     */
+    Page<StudentListRow> selectStudentListPage(Page<StudentListRow> page,
+                                               @Param("schoolId") Long schoolId,
+                                               @Param("classId") Long classId,
+                                               @Param("keyword") String keyword,
+                                               @Param("userIds") List<Long> userIds);
+
+    /**
+     * 按学籍状态分组统计学生数
+     */
+    List<GroupCountRow> selectCountGroupByStatus();
+
+    /**
+     * 流式查询学生列表（导出用），条件与列表查询一致
+     * 需在事务内遍历，遍历期间占用数据库连接
+     */
+    Cursor<StudentListRow> selectStudentListCursor(@Param("schoolId") Long schoolId,
+                                                   @Param("classId") Long classId,
+                                                   @Param("keyword") String keyword,
+                                                   @Param("userIds") List<Long> userIds);
+
+    /**
+     * 查询全部学号（含已删除）
+     */
+    List<String> selectAllStudentNumbers();
+
+    /**
+     * 批量插入学生
+     */
+    int insertBatch(@Param("students") List<Student> students);
 }
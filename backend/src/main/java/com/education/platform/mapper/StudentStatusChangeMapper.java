@@ -1,8 +1,16 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.education.platform.dto.StatusChangeCountRow;
+import com.education.platform.dto.StatusChangeListRow;
 import com.education.platform.entity.StudentStatusChange;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 学籍异动Mapper接口
@@ -11,4 +19,28 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface StudentStatusChangeMapper extends BaseMapper<StudentStatusChange> {
+
+    /**
+     * 分页查询学籍异动列表（联表学生、班级、审核人、申请人）
+     * cursorId不为空时只返回排在(cursorTime, cursorId)之后的数据，用于游标分页
+     */
+    Page<StatusChangeListRow> selectStatusChangeListPage(Page<StatusChangeListRow> page,
+                                                         @Param("studentName") String studentName,
+                                                         @Param("changeType") Integer changeType,
+                                                         @Param("status") Integer status,
+                                                         @Param("cursorTime") LocalDateTime cursorTime,
+                                                         @Param("cursorId") Long cursorId);
+
+    /**
+     * 按审核状态、异动类型分组统计申请数
+     */
+    List<StatusChangeCountRow> selectCountGroupByStatusAndType();
+
+    /**
+     * 流式查询学籍异动列表（导出用），条件与列表查询一致
+     * 需在事务内遍历，遍历期间占用数据库连接
+     */
+    Cursor<StatusChangeListRow> selectStatusChangeListCursor(@Param("studentName") String studentName,
+                                                             @Param("changeType") Integer changeType,
+                                                             @Param("status") Integer status);
 }
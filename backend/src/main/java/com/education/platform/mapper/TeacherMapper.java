@@ -1,8 +1,14 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.education.platform.dto.TeacherListRow;
 import com.education.platform.entity.Teacher;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.List;
 
 /**
  * 教师Mapper接口
@@ -11,4 +17,36 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface TeacherMapper extends BaseMapper<Teacher> {
+
+    /**
+     * 分页查询教师列表（联表教师姓名、部门、联系方式）
+     * userIds不为空时按检索索引匹配到的用户过滤，否则按keyword模糊匹配
+     */
+    Page<TeacherListRow> selectTeacherListPage(Page<TeacherListRow> page,
+                                               @Param("schoolId") Long schoolId,
+                                               @Param("keyword") String keyword,
+                                               @Param("userIds") List<Long> userIds);
+
+    /**
+     * 流式查询教师列表（导出用），条件与列表查询一致
+     * 需在事务内遍历，遍历期间占用数据库连接
+     */
+    Cursor<TeacherListRow> selectTeacherListCursor(@Param("schoolId") Long schoolId,
+                                                   @Param("keyword") String keyword,
+                                                   @Param("userIds") List<Long> userIds);
+
+    /**
+     * 查询全部教师编号（含已删除）
+     */
+    List<String> selectAllTeacherNumbers();
+
+    /**
+     * 批量插入教师
+     */
+    int insertBatch(@Param("teachers") List<Teacher> teachers);
+
+    /**
+     * 查询学校在职教师（仅ID、用户ID、工号、任教学科）
+     */
+    List<Teacher> selectSchoolTeachers(@Param("schoolId") Long schoolId);
 }
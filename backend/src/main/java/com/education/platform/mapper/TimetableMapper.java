@@ -3,6 +3,10 @@ package com.education.platform.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.education.platform.entity.Timetable;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 课程表Mapper接口
@@ -11,4 +15,20 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface TimetableMapper extends BaseMapper<Timetable> {
+
+    /**
+     * 批量插入课程表，插入后回填ID
+     */
+    int insertBatch(@Param("timetables") List<Timetable> timetables);
+
+    /**
+     * 按ID顺序锁定学校行直至事务结束，同一学校的课程表写入在数据库层串行
+     */
+    List<Long> lockSchools(@Param("schoolIds") Collection<Long> schoolIds);
+
+    /**
+     * 读取学校内及相关教师已提交的课程表占用（加共享锁，读取最新提交的数据而非事务快照）
+     */
+    List<Timetable> selectOccupancyForCheck(@Param("schoolIds") Collection<Long> schoolIds,
+                                            @Param("teacherIds") Collection<Long> teacherIds);
 }
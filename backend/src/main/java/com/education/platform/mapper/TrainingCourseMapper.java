@@ -1,8 +1,13 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.CounterDelta;
+import com.education.platform.dto.TrainingStatisticsRow;
 import com.education.platform.entity.TrainingCourse;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 培训课程 Mapper
@@ -11,4 +16,21 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface TrainingCourseMapper extends BaseMapper<TrainingCourse> {
+
+    /**
+     * 培训统计：课程、报名、考试记录三张表各在数据库端聚合一次，合并为一行返回
+     */
+    TrainingStatisticsRow selectTrainingStatistics();
+
+    /**
+     * 批量累加浏览次数（每个课程ID在列表中只出现一次）
+     */
+    int addViewCounts(@Param("deltas") List<CounterDelta> deltas);
+
+    /**
+     * 增加报名人数：设置了名额上限时仅在增加后不超过上限才更新
+     *
+     * @return 更新行数，名额不足或课程不存在时为0
+     */
+    int incrementEnrollCount(@Param("id") Long id, @Param("count") int count);
 }
@@ -1,8 +1,13 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.HistogramBinRow;
 import com.education.platform.entity.TrainingEnrollment;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 学员报名 Mapper
@@ -11,4 +16,25 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface TrainingEnrollmentMapper extends BaseMapper<TrainingEnrollment> {
+
+    /**
+     * 按学习进度分组计数（不超过101行）
+     */
+    List<HistogramBinRow> selectProgressHistogram();
+
+    /**
+     * 按得分（保留1位小数）分组计数（不超过1001行）
+     */
+    List<HistogramBinRow> selectScoreHistogram();
+
+    /**
+     * 查询课程下已有报名记录的学员ID（含已逻辑删除的记录，与唯一键一致）
+     */
+    List<Long> selectExistingStudentIds(@Param("courseId") Long courseId,
+                                        @Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * 批量插入报名记录
+     */
+    int insertBatch(@Param("enrollments") List<TrainingEnrollment> enrollments);
 }
@@ -1,8 +1,15 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.RatingChangeRow;
+import com.education.platform.dto.RatingCountRow;
 import com.education.platform.entity.TrainingEvaluation;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 培训评价 Mapper
@@ -11,4 +18,16 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface TrainingEvaluationMapper extends BaseMapper<TrainingEvaluation> {
+
+    /**
+     * 按课程、评分分组计数
+     *
+     * @param courseIds 课程ID，为空时统计全部课程
+     */
+    List<RatingCountRow> selectRatingCounts(@Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * 查询自某时刻起有评价新增、修改或删除的课程及其最近更新时间
+     */
+    List<RatingChangeRow> selectChangedCourses(@Param("since") LocalDateTime since);
 }
@@ -1,11 +1,17 @@
 package com.education.platform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.education.platform.dto.PersonChangeRow;
+import com.education.platform.dto.PersonSearchRow;
 import com.education.platform.entity.User;
+import com.education.platform.security.LoginUser;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -21,6 +27,11 @@ public interface UserMapper extends BaseMapper<User> {
      */
     User selectByUsername(@Param("username") String username);
 
+    /**
+     * 根据用户名查询登录身份（含教师ID、学生ID）
+     */
+    LoginUser selectLoginUserByUsername(@Param("username") String username);
+
     /**
      * 根据用户ID查询角色列表
      */
@@ -45,4 +56,69 @@ public interface UserMapper extends BaseMapper<User> {
      * 根据角色编码查询角色ID
      */
     Long selectRoleIdByCode(@Param("roleCode") String roleCode);
+
+    /**
+     * 查询全部有效角色（roleId、roleCode）
+     */
+    List<Map<String, Object>> selectRoleCodes();
+
+    /**
+     * 查询角色权限关联（roleId、permissionCode），roleId为空时查询全部
+     */
+    List<Map<String, Object>> selectRolePermissionCodes(@Param("roleId") Long roleId);
+
+    /**
+     * 查询用户角色关联（userId、roleId），userId为空时查询全部
+     */
+    List<Map<String, Object>> selectUserRoleIds(@Param("userId") Long userId);
+
+    /**
+     * RBAC变更标记：RBAC版本号与角色、权限、角色权限、用户角色四张表的最大主键，写入或递增版本号后随之改变
+     */
+    String selectRbacFingerprint();
+
+    /**
+     * 递增RBAC版本号（角色、权限关联变更时调用，使各节点重新加载权限快照）
+     */
+    int incrementRbacVersion();
+
+    /**
+     * 查询全部人员检索数据（用户、学生、教师联表）
+     */
+    List<PersonSearchRow> selectPersonSearchRows();
+
+    /**
+     * 查询全部用户名（含已删除）
+     */
+    List<String> selectAllUsernames();
+
+    /**
+     * 批量插入用户，插入后回填ID
+     */
+    int insertBatch(@Param("users") List<User> users);
+
+    /**
+     * 为一批用户分配同一角色
+     */
+    int insertUserRoles(@Param("userIds") List<Long> userIds, @Param("roleId") Long roleId);
+
+    /**
+     * 按用户ID批量查询人员检索数据
+     */
+    List<PersonSearchRow> selectPersonSearchRowsByIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 查询自某时刻起用户、学生、教师记录有变更的用户ID及变更时间
+     */
+    List<PersonChangeRow> selectPersonChanges(@Param("since") LocalDateTime since);
+
+    /**
+     * 查询用户权限版本号，用户不存在时返回null
+     */
+    Long selectAuthorityVersion(@Param("userId") Long userId);
+
+    /**
+     * 递增用户权限版本号
+     */
+    int incrementAuthorityVersion(@Param("userId") Long userId);
 }
@@ -0,0 +1,191 @@
+package com.education.platform.security;
+
+import com.education.platform.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户权限版本号登记表
+ * 用户角色、所属学校、班级等令牌声明变更时递增版本号，签发早于当前版本的访问令牌即视为失效。
+ * 版本号持久化在user.authority_version，与触发变更的写操作在同一事务中递增，服务重启后不会回退；
+ * 各节点在本地缓存版本号，缓存未命中或超过app.security.epoch-cache-ttl时从数据库重新读取，
+ * 读取失败时拒绝令牌。app.security.epoch-store=redis时递增提交后经发布订阅通知各节点立即更新缓存，
+ * local（默认）时其他节点最迟在缓存过期后感知变更。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Component
+public class AuthorityEpochRegistry {
+
+    public static final String STORE_REDIS = "redis";
+
+    @Value("${app.security.epoch-store:local}")
+    private String store;
+
+    @Value("${app.security.epoch-channel:education:authority-epoch}")
+    private String channel;
+
+    /**
+     * 本地缓存有效期（毫秒）
+     */
+    @Value("${app.security.epoch-cache-ttl:30000}")
+    private long cacheTtl;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Autowired
+    private ObjectProvider<RedisConnectionFactory> connectionFactoryProvider;
+
+    private final Map<Long, Entry> epochs = new ConcurrentHashMap<>();
+
+    private StringRedisTemplate redisTemplate;
+
+    private RedisMessageListenerContainer container;
+
+    @PostConstruct
+    public void init() {
+        if (!STORE_REDIS.equals(store)) {
+            return;
+        }
+        redisTemplate = redisTemplateProvider.getObject();
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactoryProvider.getObject());
+        container.addMessageListener((message, pattern) -> onRemoteBump(message.getBody()), new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * 获取用户当前权限版本号，用户不存在时返回Long.MAX_VALUE
+     *
+     * @throws RuntimeException 数据库读取失败
+     */
+    public long current(Long userId) {
+        if (userId == null) {
+            return 0L;
+        }
+        Entry entry = epochs.get(userId);
+        if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+            return entry.epoch;
+        }
+        Long version = userMapper.selectAuthorityVersion(userId);
+        long epoch = version == null ? Long.MAX_VALUE : version;
+        // 版本号只增不减，与并发的递增通知合并时取较大值
+        return update(userId, epoch);
+    }
+
+    /**
+     * 用户权限变更后递增版本号（加入调用方事务），提交后更新本地缓存并通知其他节点
+     */
+    public long bump(Long userId) {
+        if (userId == null) {
+            return 0L;
+        }
+        userMapper.incrementAuthorityVersion(userId);
+        Long version = userMapper.selectAuthorityVersion(userId);
+        long epoch = version == null ? Long.MAX_VALUE : version;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, epoch);
+                }
+            });
+        } else {
+            publish(userId, epoch);
+        }
+        return epoch;
+    }
+
+    /**
+     * 判断令牌携带的版本号是否仍然有效，版本号无法读取时视为无效
+     */
+    public boolean isCurrent(Long userId, Long tokenEpoch) {
+        if (tokenEpoch == null) {
+            return false;
+        }
+        try {
+            return tokenEpoch >= current(userId);
+        } catch (RuntimeException e) {
+            log.warn("读取用户{}的权限版本号失败，拒绝令牌: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 定时清理过期的本地缓存
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        epochs.values().removeIf(entry -> entry.expireAt <= now);
+    }
+
+    private void publish(Long userId, long epoch) {
+        update(userId, epoch);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, userId + ":" + epoch);
+        } catch (Exception e) {
+            log.warn("通知用户{}的权限版本号变更失败，其他节点将在缓存过期后感知: {}", userId, e.getMessage());
+        }
+    }
+
+    private long update(Long userId, long epoch) {
+        long expireAt = System.currentTimeMillis() + cacheTtl;
+        return epochs.merge(userId, new Entry(epoch, expireAt),
+                (current, next) -> current.epoch > next.epoch ? current : next).epoch;
+    }
+
+    private void onRemoteBump(byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8);
+        int separator = text.indexOf(':');
+        try {
+            Long userId = Long.valueOf(text.substring(0, separator));
+            long epoch = Long.parseLong(text.substring(separator + 1));
+            update(userId, epoch);
+        } catch (RuntimeException e) {
+            log.warn("无法解析权限版本号通知，已忽略: {}", text);
+        }
+    }
+
+    private static final class Entry {
+        private final long epoch;
+        private final long expireAt;
+
+        private Entry(long epoch, long expireAt) {
+            this.epoch = epoch;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.education.platform.security;
 
 import com.education.platform.util.JwtUtils;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -17,7 +17,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * JWT认证过滤器
@@ -34,6 +33,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private AuthorityEpochRegistry authorityEpochRegistry;
+
+    @Autowired
+    private RbacRegistry rbacRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -41,20 +46,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtils.validateToken(jwt, jwtUtils.getUsernameFromToken(jwt))) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
-
-                // 从数据库加载用户详情
-                var userDetails = userDetailsService.loadUserByUsername(username);
-
-                // 获取角色信息
-                List<SimpleGrantedAuthority> authorities = userDetails.getAuthorities().stream()
-                        .map(authority -> new SimpleGrantedAuthority(authority.getAuthority()))
-                        .collect(Collectors.toList());
+            if (StringUtils.hasText(jwt)) {
+                LoginUser loginUser = resolveLoginUser(jwt);
+                String username = loginUser.getUsername();
 
                 // 创建认证令牌
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+                        new UsernamePasswordAuthenticationToken(loginUser, null, loginUser.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 // 设置到SecurityContext
@@ -69,6 +67,66 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 校验令牌并构建登录身份（HTTP请求与WebSocket连接共用）
+     *
+     * @throws RuntimeException 令牌无效、已过期或用户权限已变更
+     */
+    public LoginUser resolveLoginUser(String jwt) {
+        // 只解析一次Token：签名与过期时间在解析时一并校验
+        return resolveLoginUser(jwtUtils.getAllClaimsFromToken(jwt));
+    }
+
+    /**
+     * 由已校验的令牌声明构建登录身份
+     *
+     * @throws RuntimeException 用户权限已变更
+     */
+    public LoginUser resolveLoginUser(Claims claims) {
+        // 构建请求级登录身份，后续控制器通过@CurrentUser直接使用
+        LoginUser loginUser;
+        if (jwtUtils.isClaimsToken(claims)) {
+            // 新版令牌：身份与角色均来自已签名声明，无需查询数据库
+            loginUser = buildLoginUser(claims);
+            if (!authorityEpochRegistry.isCurrent(loginUser.getUserId(),
+                    claims.get(JwtUtils.CLAIM_EPOCH, Long.class))) {
+                throw new RuntimeException("用户权限已变更，请重新登录");
+            }
+            // RBAC快照可用时以快照为准，角色权限变更即时生效
+            if (rbacRegistry.isLoaded()) {
+                loginUser.setRoles(rbacRegistry.getRoles(loginUser.getUserId()));
+                loginUser.setPermissions(rbacRegistry.getPermissions(loginUser.getUserId()));
+            }
+        } else {
+            // 旧版令牌：仅携带用户名，回退到数据库加载
+            loginUser = userDetailsService.loadLoginUser(claims.getSubject());
+        }
+        return loginUser;
+    }
+
+    /**
+     * 从令牌声明构建登录身份
+     */
+    @SuppressWarnings("unchecked")
+    private LoginUser buildLoginUser(Claims claims) {
+        LoginUser loginUser = new LoginUser();
+        loginUser.setUsername(claims.getSubject());
+        loginUser.setUserId(claims.get(JwtUtils.CLAIM_USER_ID, Long.class));
+        loginUser.setSchoolId(claims.get(JwtUtils.CLAIM_SCHOOL_ID, Long.class));
+        loginUser.setClassId(claims.get(JwtUtils.CLAIM_CLASS_ID, Long.class));
+        loginUser.setTeacherId(claims.get(JwtUtils.CLAIM_TEACHER_ID, Long.class));
+        loginUser.setStudentId(claims.get(JwtUtils.CLAIM_STUDENT_ID, Long.class));
+        List<String> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        if (roles != null) {
+            loginUser.setRoles(roles);
+        }
+        List<String> permissions = claims.get(JwtUtils.CLAIM_PERMISSIONS, List.class);
+        if (permissions != null) {
+            loginUser.setPermissions(permissions);
+        }
+        return loginUser;
+    }
+
     /**
      * 从请求中获取JWT Token
      */
@@ -0,0 +1,86 @@
+package com.education.platform.security;
+
+import lombok.Data;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 当前登录用户（请求级身份信息）
+ * 由JWT认证过滤器在每个请求中构建一次，控制器通过 {@link CurrentUser} 注入
+ *
+ * @author Education Platform Team
+ */
+@Data
+public class LoginUser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 所属学校ID
+     */
+    private Long schoolId;
+
+    /**
+     * 所属班级ID
+     */
+    private Long classId;
+
+    /**
+     * 教师ID（teacher表，非教师为null）
+     */
+    private Long teacherId;
+
+    /**
+     * 学生ID（student表，非学生为null）
+     */
+    private Long studentId;
+
+    /**
+     * 角色编码列表
+     */
+    private List<String> roles = Collections.emptyList();
+
+    /**
+     * 权限编码列表
+     */
+    private List<String> permissions = Collections.emptyList();
+
+    /**
+     * 是否拥有指定角色
+     */
+    public boolean hasRole(String roleCode) {
+        return roles != null && roles.contains(roleCode);
+    }
+
+    /**
+     * 转换为Spring Security权限集合（角色加ROLE_前缀，权限原样）
+     */
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        if (roles != null) {
+            for (String role : roles) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+            }
+        }
+        if (permissions != null) {
+            for (String permission : permissions) {
+                authorities.add(new SimpleGrantedAuthority(permission));
+            }
+        }
+        return authorities;
+    }
+}
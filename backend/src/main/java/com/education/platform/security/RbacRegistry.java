@@ -0,0 +1,447 @@
+package com.education.platform.security;
+
+import com.education.platform.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的RBAC权限模型
+ * 角色、权限编码分别映射为位下标：角色 → 权限位图，用户 → 角色位图（相同角色组合共享同一授权对象），
+ * 鉴权只需一次位测试。本节点内的角色、用户角色变更时按行增量刷新快照，并递增rbac_version中的版本号；
+ * 另按app.security.rbac-check-interval查询版本号与四张RBAC表的最大主键（均为常数时间查询），
+ * 与构建快照时不同（其他节点变更或直接改库新增）即全量重新加载。直接改库修改、删除关联时需同时递增版本号。
+ * 可在注解中使用，例如 {@code @PreAuthorize("@rbac.hasPermission('system:user')")}
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Component("rbac")
+public class RbacRegistry {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    /**
+     * 当前快照（不可变，变更时整体替换）
+     */
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 当前快照对应的变更标记（构建前读取，构建期间的变更会在下次检查时重新加载）
+     */
+    private volatile String fingerprint;
+
+    /**
+     * 应用启动后构建完整快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("RBAC快照构建失败，鉴权将回退到数据库查询: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时检查RBAC表是否变更，变更时全量重建
+     */
+    @Scheduled(fixedDelayString = "${app.security.rbac-check-interval:30000}",
+            initialDelayString = "${app.security.rbac-check-interval:30000}")
+    public void reloadIfChanged() {
+        try {
+            String current = userMapper.selectRbacFingerprint();
+            if (!snapshot.loaded || current == null || !current.equals(fingerprint)) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("RBAC快照检查失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重建快照
+     */
+    public synchronized void reload() {
+        String current = userMapper.selectRbacFingerprint();
+        Builder builder = new Builder(Snapshot.EMPTY);
+        for (Map<String, Object> row : userMapper.selectRoleCodes()) {
+            builder.putRole(toLong(row.get("roleId")), (String) row.get("roleCode"));
+        }
+        for (Map<String, Object> row : userMapper.selectRolePermissionCodes(null)) {
+            builder.grant(toLong(row.get("roleId")), (String) row.get("permissionCode"));
+        }
+        Map<Long, BitSet> userRoles = new HashMap<>();
+        for (Map<String, Object> row : userMapper.selectUserRoleIds(null)) {
+            Integer roleBit = builder.roleBits.get(toLong(row.get("roleId")));
+            if (roleBit != null) {
+                userRoles.computeIfAbsent(toLong(row.get("userId")), k -> new BitSet()).set(roleBit);
+            }
+        }
+        userRoles.forEach(builder::putUser);
+        snapshot = builder.build(true);
+        fingerprint = current;
+        log.info("RBAC快照构建完成: 角色{}个, 权限{}个, 用户{}个",
+                snapshot.roleCodes.size(), snapshot.permissionCodes.size(), snapshot.userGrants.size());
+    }
+
+    /**
+     * 用户角色变更（user_role）后刷新该用户
+     */
+    public synchronized void onUserRolesChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        bumpVersion();
+        if (!snapshot.loaded) {
+            return;
+        }
+        Builder builder = new Builder(snapshot);
+        BitSet roles = new BitSet();
+        for (Map<String, Object> row : userMapper.selectUserRoleIds(userId)) {
+            Long roleId = toLong(row.get("roleId"));
+            Integer roleBit = builder.roleBits.get(roleId);
+            if (roleBit == null) {
+                // 新建的角色尚未进入快照，先补齐角色定义
+                refreshRoleInto(builder, roleId);
+                roleBit = builder.roleBits.get(roleId);
+            }
+            if (roleBit != null) {
+                roles.set(roleBit);
+            }
+        }
+        builder.putUser(userId, roles);
+        snapshot = builder.build(true);
+    }
+
+    /**
+     * 批量新建的用户（均只分配了同一个角色）加入快照
+     */
+    public synchronized void onUsersCreated(Collection<Long> userIds, Long roleId) {
+        if (userIds.isEmpty() || roleId == null) {
+            return;
+        }
+        bumpVersion();
+        if (!snapshot.loaded) {
+            return;
+        }
+        Builder builder = new Builder(snapshot);
+        Integer roleBit = builder.roleBits.get(roleId);
+        if (roleBit == null) {
+            refreshRoleInto(builder, roleId);
+            roleBit = builder.roleBits.get(roleId);
+        }
+        if (roleBit == null) {
+            return;
+        }
+        BitSet roles = new BitSet();
+        roles.set(roleBit);
+        for (Long userId : userIds) {
+            builder.putUser(userId, roles);
+        }
+        snapshot = builder.build(true);
+    }
+
+    /**
+     * 角色或角色权限（role、role_permission）变更后刷新该角色
+     */
+    public synchronized void onRoleChanged(Long roleId) {
+        if (roleId == null) {
+            return;
+        }
+        bumpVersion();
+        if (!snapshot.loaded) {
+            return;
+        }
+        Builder builder = new Builder(snapshot);
+        refreshRoleInto(builder, roleId);
+        builder.regrantAll();
+        snapshot = builder.build(true);
+    }
+
+    /**
+     * 快照是否可用
+     */
+    public boolean isLoaded() {
+        return snapshot.loaded;
+    }
+
+    /**
+     * 用户是否已在快照中（没有任何角色的用户不在快照中）
+     */
+    public boolean containsUser(Long userId) {
+        return userId != null && snapshot.userGrants.containsKey(userId);
+    }
+
+    /**
+     * 判断用户是否拥有指定权限
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        Snapshot current = snapshot;
+        Integer bit = current.permissionBits.get(permissionCode);
+        Grant grant = userId == null ? null : current.userGrants.get(userId);
+        return bit != null && grant != null && grant.permissions.get(bit);
+    }
+
+    /**
+     * 判断用户是否拥有指定角色
+     */
+    public boolean hasRole(Long userId, String roleCode) {
+        Snapshot current = snapshot;
+        Integer bit = current.roleCodeBits.get(roleCode);
+        Grant grant = userId == null ? null : current.userGrants.get(userId);
+        return bit != null && grant != null && grant.roles.get(bit);
+    }
+
+    /**
+     * 当前登录用户是否拥有指定权限（供@PreAuthorize使用）
+     */
+    public boolean hasPermission(String permissionCode) {
+        LoginUser loginUser = currentLoginUser();
+        return loginUser != null && hasPermission(loginUser.getUserId(), permissionCode);
+    }
+
+    /**
+     * 当前登录用户是否拥有指定角色（供@PreAuthorize使用）
+     */
+    public boolean hasRole(String roleCode) {
+        LoginUser loginUser = currentLoginUser();
+        return loginUser != null && hasRole(loginUser.getUserId(), roleCode);
+    }
+
+    /**
+     * 获取用户角色编码列表
+     */
+    public List<String> getRoles(Long userId) {
+        Grant grant = userId == null ? null : snapshot.userGrants.get(userId);
+        return grant == null ? Collections.emptyList() : grant.roleCodes;
+    }
+
+    /**
+     * 获取用户权限编码列表
+     */
+    public List<String> getPermissions(Long userId) {
+        Grant grant = userId == null ? null : snapshot.userGrants.get(userId);
+        return grant == null ? Collections.emptyList() : grant.permissionCodes;
+    }
+
+    /**
+     * 递增RBAC版本号通知其他节点；在事务中调用时于提交后执行，不在持有快照锁时等待版本号行锁
+     */
+    private void bumpVersion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementVersion();
+                }
+            });
+        } else {
+            incrementVersion();
+        }
+    }
+
+    private void incrementVersion() {
+        try {
+            userMapper.incrementRbacVersion();
+        } catch (Exception e) {
+            log.warn("递增RBAC版本号失败，其他节点可能延迟感知权限变更: {}", e.getMessage());
+        }
+    }
+
+    private void refreshRoleInto(Builder builder, Long roleId) {
+        builder.clearRole(roleId);
+        for (Map<String, Object> row : userMapper.selectRoleCodes()) {
+            if (roleId.equals(toLong(row.get("roleId")))) {
+                builder.putRole(roleId, (String) row.get("roleCode"));
+            }
+        }
+        for (Map<String, Object> row : userMapper.selectRolePermissionCodes(roleId)) {
+            builder.grant(roleId, (String) row.get("permissionCode"));
+        }
+    }
+
+    private LoginUser currentLoginUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof LoginUser) {
+            return (LoginUser) authentication.getPrincipal();
+        }
+        return null;
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    /**
+     * 用户授权（相同角色组合的用户共享同一实例）
+     */
+    private static final class Grant {
+        private final BitSet roles;
+        private final BitSet permissions;
+        private final List<String> roleCodes;
+        private final List<String> permissionCodes;
+
+        private Grant(BitSet roles, BitSet permissions, List<String> roleCodes, List<String> permissionCodes) {
+            this.roles = roles;
+            this.permissions = permissions;
+            this.roleCodes = roleCodes;
+            this.permissionCodes = permissionCodes;
+        }
+    }
+
+    /**
+     * 不可变快照
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(false, new HashMap<>(), new HashMap<>(), new ArrayList<>(),
+                new HashMap<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>());
+
+        private final boolean loaded;
+        private final Map<Long, Integer> roleBits;
+        private final Map<String, Integer> roleCodeBits;
+        private final List<String> roleCodes;
+        private final Map<String, Integer> permissionBits;
+        private final List<String> permissionCodes;
+        private final List<BitSet> rolePermissions;
+        private final Map<Long, Grant> userGrants;
+
+        private Snapshot(boolean loaded, Map<Long, Integer> roleBits, Map<String, Integer> roleCodeBits,
+                         List<String> roleCodes, Map<String, Integer> permissionBits, List<String> permissionCodes,
+                         List<BitSet> rolePermissions, Map<Long, Grant> userGrants) {
+            this.loaded = loaded;
+            this.roleBits = roleBits;
+            this.roleCodeBits = roleCodeBits;
+            this.roleCodes = roleCodes;
+            this.permissionBits = permissionBits;
+            this.permissionCodes = permissionCodes;
+            this.rolePermissions = rolePermissions;
+            this.userGrants = userGrants;
+        }
+    }
+
+    /**
+     * 快照构建器（在旧快照的副本上修改，完成后整体发布）
+     */
+    private static final class Builder {
+        private final Map<Long, Integer> roleBits;
+        private final Map<String, Integer> roleCodeBits;
+        private final List<String> roleCodes;
+        private final Map<String, Integer> permissionBits;
+        private final List<String> permissionCodes;
+        private final List<BitSet> rolePermissions;
+        private final Map<Long, BitSet> userRoleSets = new HashMap<>();
+        private final Map<Long, Grant> userGrants;
+        private final Map<BitSet, Grant> grantCache = new HashMap<>();
+
+        private Builder(Snapshot base) {
+            this.roleBits = new HashMap<>(base.roleBits);
+            this.roleCodeBits = new HashMap<>(base.roleCodeBits);
+            this.roleCodes = new ArrayList<>(base.roleCodes);
+            this.permissionBits = new HashMap<>(base.permissionBits);
+            this.permissionCodes = new ArrayList<>(base.permissionCodes);
+            this.rolePermissions = new ArrayList<>();
+            for (BitSet permissions : base.rolePermissions) {
+                rolePermissions.add((BitSet) permissions.clone());
+            }
+            this.userGrants = new HashMap<>(base.userGrants);
+            base.userGrants.forEach((userId, grant) -> {
+                userRoleSets.put(userId, grant.roles);
+                grantCache.putIfAbsent(grant.roles, grant);
+            });
+        }
+
+        private void putRole(Long roleId, String roleCode) {
+            Integer bit = roleBits.get(roleId);
+            if (bit == null) {
+                bit = roleCodes.size();
+                roleBits.put(roleId, bit);
+                roleCodes.add(roleCode);
+                rolePermissions.add(new BitSet());
+            } else {
+                roleCodeBits.remove(roleCodes.get(bit));
+                roleCodes.set(bit, roleCode);
+            }
+            roleCodeBits.put(roleCode, bit);
+        }
+
+        private void clearRole(Long roleId) {
+            Integer bit = roleBits.get(roleId);
+            if (bit != null) {
+                rolePermissions.get(bit).clear();
+            }
+        }
+
+        private void grant(Long roleId, String permissionCode) {
+            Integer roleBit = roleBits.get(roleId);
+            if (roleBit == null || permissionCode == null) {
+                return;
+            }
+            Integer permissionBit = permissionBits.get(permissionCode);
+            if (permissionBit == null) {
+                permissionBit = permissionCodes.size();
+                permissionBits.put(permissionCode, permissionBit);
+                permissionCodes.add(permissionCode);
+            }
+            rolePermissions.get(roleBit).set(permissionBit);
+        }
+
+        private void putUser(Long userId, BitSet roles) {
+            if (roles.isEmpty()) {
+                userRoleSets.remove(userId);
+                userGrants.remove(userId);
+                return;
+            }
+            userRoleSets.put(userId, roles);
+            userGrants.put(userId, compile(roles));
+        }
+
+        private void regrantAll() {
+            grantCache.clear();
+            userRoleSets.forEach((userId, roles) -> userGrants.put(userId, compile(roles)));
+        }
+
+        private Grant compile(BitSet roles) {
+            Grant cached = grantCache.get(roles);
+            if (cached != null) {
+                return cached;
+            }
+            BitSet permissions = new BitSet();
+            List<String> codes = new ArrayList<>();
+            for (int bit = roles.nextSetBit(0); bit >= 0; bit = roles.nextSetBit(bit + 1)) {
+                permissions.or(rolePermissions.get(bit));
+                codes.add(roleCodes.get(bit));
+            }
+            List<String> permissionList = new ArrayList<>();
+            for (int bit = permissions.nextSetBit(0); bit >= 0; bit = permissions.nextSetBit(bit + 1)) {
+                permissionList.add(permissionCodes.get(bit));
+            }
+            BitSet key = (BitSet) roles.clone();
+            Grant grant = new Grant(key, permissions,
+                    Collections.unmodifiableList(codes), Collections.unmodifiableList(permissionList));
+            grantCache.put(key, grant);
+            return grant;
+        }
+
+        private Snapshot build(boolean loaded) {
+            return new Snapshot(loaded, roleBits, roleCodeBits, roleCodes, permissionBits, permissionCodes,
+                    rolePermissions, userGrants);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.education.platform.security;
+
+import com.education.platform.entity.Class;
+import com.education.platform.mapper.ClassMapper;
+import com.education.platform.service.IPushService;
+import com.education.platform.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STOMP入站拦截器
+ * CONNECT：校验Authorization头中的JWT，连接身份为StompPrincipal，未携带或无效时拒绝连接；
+ * SUBSCRIBE：先复核令牌未过期且权限版本号未变更（学校、班级变更时版本号递增，因此版本号有效即令牌中的
+ * 学校、班级仍然有效），再只允许订阅个人队列、全体主题、本校主题和本班主题（管理员不限，教师可订阅本校各班，
+ * 班级所属学校缓存app.push.class-cache-ttl毫秒）；
+ * SEND：推送通道只下行，拒绝客户端发送
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String USER_DESTINATION_PREFIX = "/user/queue/";
+
+    /**
+     * 班级所属学校缓存的最大条数，超出时清空重建
+     */
+    private static final int CLASS_CACHE_MAX_ENTRIES = 10000;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private StompSessionRegistry stompSessionRegistry;
+
+    @Autowired
+    private ClassMapper classMapper;
+
+    @Value("${app.push.class-cache-ttl:600000}")
+    private long classCacheTtl;
+
+    /**
+     * 班级ID → 所属学校（不存在的班级也缓存，学校ID为null）
+     */
+    private final Map<Long, ClassSchool> classSchools = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT:
+                StompPrincipal principal = authenticate(accessor);
+                accessor.setUser(principal);
+                stompSessionRegistry.authenticated(accessor.getSessionId(), principal);
+                break;
+            case SUBSCRIBE:
+                authorize(principalOf(accessor), accessor.getDestination());
+                break;
+            case SEND:
+                throw new AccessDeniedException("推送通道不接受客户端消息");
+            default:
+                break;
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(StompHeaderAccessor accessor) {
+        String bearerToken = accessor.getFirstNativeHeader("Authorization");
+        if (!StringUtils.hasText(bearerToken) || !bearerToken.startsWith("Bearer ")) {
+            throw new BadCredentialsException("未携带令牌");
+        }
+        Claims claims;
+        LoginUser loginUser;
+        try {
+            claims = jwtUtils.getAllClaimsFromToken(bearerToken.substring(7));
+            loginUser = jwtAuthenticationFilter.resolveLoginUser(claims);
+        } catch (Exception e) {
+            log.debug("WebSocket连接认证失败: {}", e.getMessage());
+            throw new BadCredentialsException("令牌无效或已过期");
+        }
+        if (loginUser == null || loginUser.getUserId() == null || claims.getExpiration() == null) {
+            throw new BadCredentialsException("令牌无效或已过期");
+        }
+        return new StompPrincipal(loginUser, claims.getExpiration().getTime(),
+                claims.get(JwtUtils.CLAIM_EPOCH, Long.class));
+    }
+
+    private static StompPrincipal principalOf(StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        if (!(user instanceof StompPrincipal)) {
+            throw new AccessDeniedException("未登录");
+        }
+        return (StompPrincipal) user;
+    }
+
+    private void authorize(StompPrincipal principal, String destination) {
+        if (!stompSessionRegistry.isValid(principal)) {
+            throw new AccessDeniedException("令牌已过期或用户权限已变更，请重新登录");
+        }
+        LoginUser loginUser = principal.getLoginUser();
+        if (destination == null) {
+            throw new AccessDeniedException("订阅目的地为空");
+        }
+        if (destination.startsWith(USER_DESTINATION_PREFIX) || IPushService.TOPIC_ALL.equals(destination)) {
+            return;
+        }
+        if (destination.startsWith(IPushService.TOPIC_SCHOOL_PREFIX)) {
+            Long schoolId = parseId(destination, IPushService.TOPIC_SCHOOL_PREFIX);
+            if (schoolId != null && (loginUser.hasRole("ADMIN") || schoolId.equals(loginUser.getSchoolId()))) {
+                return;
+            }
+        } else if (destination.startsWith(IPushService.TOPIC_CLASS_PREFIX)) {
+            Long classId = parseId(destination, IPushService.TOPIC_CLASS_PREFIX);
+            if (classId != null && (loginUser.hasRole("ADMIN") || classId.equals(loginUser.getClassId())
+                    || isSchoolTeacherOf(loginUser, classId))) {
+                return;
+            }
+        }
+        throw new AccessDeniedException("无权订阅: " + destination);
+    }
+
+    private boolean isSchoolTeacherOf(LoginUser loginUser, Long classId) {
+        if (loginUser.getTeacherId() == null || loginUser.getSchoolId() == null) {
+            return false;
+        }
+        return loginUser.getSchoolId().equals(schoolOfClass(classId));
+    }
+
+    private Long schoolOfClass(Long classId) {
+        long now = System.currentTimeMillis();
+        ClassSchool cached = classSchools.get(classId);
+        if (cached != null && now - cached.loadedAt < classCacheTtl) {
+            return cached.schoolId;
+        }
+        Class cls = classMapper.selectById(classId);
+        Long schoolId = cls == null ? null : cls.getSchoolId();
+        if (classSchools.size() >= CLASS_CACHE_MAX_ENTRIES) {
+            classSchools.clear();
+        }
+        classSchools.put(classId, new ClassSchool(schoolId, now));
+        return schoolId;
+    }
+
+    private static Long parseId(String destination, String prefix) {
+        try {
+            return Long.valueOf(destination.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class ClassSchool {
+        private final Long schoolId;
+        private final long loadedAt;
+
+        private ClassSchool(Long schoolId, long loadedAt) {
+            this.schoolId = schoolId;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
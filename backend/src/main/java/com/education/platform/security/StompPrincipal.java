@@ -0,0 +1,48 @@
+package com.education.platform.security;
+
+import java.security.Principal;
+
+/**
+ * WebSocket连接的登录身份
+ * 名称为用户ID，用户目的地（/user/queue/...）按用户ID路由；同时记录令牌过期时间和权限版本号，
+ * 用于订阅时和连接存续期间复核令牌是否仍然有效
+ *
+ * @author Education Platform Team
+ */
+public class StompPrincipal implements Principal {
+
+    private final LoginUser loginUser;
+
+    /**
+     * 令牌过期时间（毫秒时间戳）
+     */
+    private final long expiresAt;
+
+    /**
+     * 令牌携带的权限版本号，旧版令牌为null
+     */
+    private final Long epoch;
+
+    public StompPrincipal(LoginUser loginUser, long expiresAt, Long epoch) {
+        this.loginUser = loginUser;
+        this.expiresAt = expiresAt;
+        this.epoch = epoch;
+    }
+
+    public LoginUser getLoginUser() {
+        return loginUser;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Long getEpoch() {
+        return epoch;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(loginUser.getUserId());
+    }
+}
@@ -0,0 +1,102 @@
+package com.education.platform.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket连接登记表
+ * 记录每个连接及其登录身份，定时检查令牌是否过期、用户权限版本号是否已变更，失效的连接由服务端关闭，
+ * 客户端需重新登录后再连接。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Component
+public class StompSessionRegistry implements WebSocketHandlerDecoratorFactory {
+
+    private static final CloseStatus REVOKED = CloseStatus.POLICY_VIOLATION.withReason("token expired or revoked");
+
+    private final AuthorityEpochRegistry authorityEpochRegistry;
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+
+    public StompSessionRegistry(AuthorityEpochRegistry authorityEpochRegistry) {
+        this.authorityEpochRegistry = authorityEpochRegistry;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new Entry(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * STOMP CONNECT认证通过后登记连接身份（STOMP会话ID即WebSocket会话ID）
+     */
+    public void authenticated(String sessionId, StompPrincipal principal) {
+        Entry entry = sessions.get(sessionId);
+        if (entry != null) {
+            entry.principal = principal;
+        }
+    }
+
+    /**
+     * 连接身份是否仍然有效：令牌未过期且权限版本号未变更
+     */
+    public boolean isValid(StompPrincipal principal) {
+        if (principal.getExpiresAt() <= System.currentTimeMillis()) {
+            return false;
+        }
+        Long epoch = principal.getEpoch();
+        return epoch == null || authorityEpochRegistry.isCurrent(principal.getLoginUser().getUserId(), epoch);
+    }
+
+    /**
+     * 定时关闭令牌过期或权限已变更的连接
+     */
+    @Scheduled(fixedDelayString = "${app.push.session-check-interval:30000}")
+    public void closeRevoked() {
+        for (Entry entry : sessions.values()) {
+            StompPrincipal principal = entry.principal;
+            if (principal == null || isValid(principal)) {
+                continue;
+            }
+            try {
+                entry.session.close(REVOKED);
+            } catch (IOException e) {
+                log.debug("关闭WebSocket连接失败: {}", e.getMessage());
+            }
+            sessions.remove(entry.session.getId());
+        }
+    }
+
+    private static final class Entry {
+        private final WebSocketSession session;
+        private volatile StompPrincipal principal;
+
+        private Entry(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
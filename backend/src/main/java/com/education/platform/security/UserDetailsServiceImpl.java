@@ -24,6 +24,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private RbacRegistry rbacRegistry;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // 查询用户
@@ -33,10 +36,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         // 查询角色
-        List<String> roles = new ArrayList<>(userMapper.selectRolesByUserId(user.getId()));
+        List<String> roles = getRoles(user.getId());
 
         // 查询权限
-        List<String> permissions = new ArrayList<>(userMapper.selectPermissionsByUserId(user.getId()));
+        List<String> permissions = getPermissions(user.getId());
 
         // 合并角色和权限
         List<SimpleGrantedAuthority> authorities = roles.stream()
@@ -57,4 +60,38 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 authorities
         );
     }
+
+    /**
+     * 加载请求级登录身份（用户、教师/学生ID、角色、权限）
+     */
+    public LoginUser loadLoginUser(String username) throws UsernameNotFoundException {
+        LoginUser loginUser = userMapper.selectLoginUserByUsername(username);
+        if (loginUser == null) {
+            throw new UsernameNotFoundException("用户不存在: " + username);
+        }
+
+        loginUser.setRoles(getRoles(loginUser.getUserId()));
+        loginUser.setPermissions(getPermissions(loginUser.getUserId()));
+        return loginUser;
+    }
+
+    /**
+     * 查询用户角色（优先使用RBAC快照）
+     */
+    private List<String> getRoles(Long userId) {
+        if (rbacRegistry.isLoaded()) {
+            return rbacRegistry.getRoles(userId);
+        }
+        return new ArrayList<>(userMapper.selectRolesByUserId(userId));
+    }
+
+    /**
+     * 查询用户权限（优先使用RBAC快照）
+     */
+    private List<String> getPermissions(Long userId) {
+        if (rbacRegistry.isLoaded()) {
+            return rbacRegistry.getPermissions(userId);
+        }
+        return new ArrayList<>(userMapper.selectPermissionsByUserId(userId));
+    }
 }
@@ -0,0 +1,91 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.AnalyticsOverview;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 教育数据分析服务接口
+ * 基于常驻内存的教师、学校、班级、学生列式快照计算各类分布，不在每次图表渲染时查询数据库
+ *
+ * @author Education Platform Team
+ */
+public interface IAnalyticsService {
+
+    /**
+     * 分析维度：教师按职称
+     */
+    String DIMENSION_TEACHER_TITLE = "teacherTitle";
+
+    /**
+     * 分析维度：教师按学科
+     */
+    String DIMENSION_TEACHER_SUBJECT = "teacherSubject";
+
+    /**
+     * 分析维度：学校按类型
+     */
+    String DIMENSION_SCHOOL_TYPE = "schoolType";
+
+    /**
+     * 分析维度：学校按区域
+     */
+    String DIMENSION_SCHOOL_REGION = "schoolRegion";
+
+    /**
+     * 分析维度：各类型学校生师比
+     */
+    String DIMENSION_RATIO_BY_TYPE = "ratioByType";
+
+    /**
+     * 分析维度：各区域生师比
+     */
+    String DIMENSION_RATIO_BY_REGION = "ratioByRegion";
+
+    /**
+     * 分析维度：各类型学校平均班额
+     */
+    String DIMENSION_CLASS_SIZE_BY_TYPE = "classSizeByType";
+
+    /**
+     * 分析维度：各区域平均班额
+     */
+    String DIMENSION_CLASS_SIZE_BY_REGION = "classSizeByRegion";
+
+    /**
+     * 按维度统计
+     *
+     * @param dimension 分析维度，取值见DIMENSION_*常量
+     * @param schoolId  学校范围（仅教师维度有效），为空表示全区
+     * @return 分类名称到数值的映射，按数值降序；不支持的维度返回null
+     */
+    Map<String, Number> breakdown(String dimension, Long schoolId);
+
+    /**
+     * 在职教师数
+     *
+     * @param schoolId 学校范围，为空表示全区
+     */
+    long teacherCount(Long schoolId);
+
+    /**
+     * 正常状态的学校ID，升序
+     */
+    List<Long> activeSchoolIds();
+
+    /**
+     * 全区总览
+     */
+    AnalyticsOverview overview();
+
+    /**
+     * 增量刷新快照：只加载上次刷新后变更的行
+     */
+    void refresh();
+
+    /**
+     * 全量重建快照
+     */
+    void rebuild();
+}
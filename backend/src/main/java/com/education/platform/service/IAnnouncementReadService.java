@@ -0,0 +1,48 @@
+package com.education.platform.service;
+
+import java.util.Collection;
+
+/**
+ * 公告已读服务接口
+ * 每个用户的已读公告集合保存为压缩位图，未读数 = 可见公告位图 AND NOT 已读位图；
+ * 标记已读只修改内存中的位图，定时按区段批量写入announcement_read
+ * 可见范围与公告列表一致：教育局通知（学校为空）、本校全校公告、本班公告
+ *
+ * @author Education Platform Team
+ */
+public interface IAnnouncementReadService {
+
+    /**
+     * 单次标记已读的公告数上限
+     */
+    int MAX_MARK_SIZE = 1000;
+
+    /**
+     * 用户可见的已发布公告中未读的数量
+     */
+    long unreadCount(Long userId, Long schoolId, Long classId);
+
+    /**
+     * 标记公告已读，不可见或不存在的公告忽略
+     *
+     * @return 新标记为已读的数量
+     */
+    int markRead(Long userId, Long schoolId, Long classId, Collection<Long> announcementIds);
+
+    /**
+     * 将用户当前可见的全部公告标记为已读
+     *
+     * @return 新标记为已读的数量
+     */
+    int markAllRead(Long userId, Long schoolId, Long classId);
+
+    /**
+     * 公告发布、修改或删除后调用，下次读取时重新加载可见范围索引
+     */
+    void onAnnouncementsChanged();
+
+    /**
+     * 将内存中尚未写入的已读位图立即写入数据库
+     */
+    void flush();
+}
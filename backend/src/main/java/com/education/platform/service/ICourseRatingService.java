@@ -0,0 +1,48 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.CourseRatingSummary;
+import com.education.platform.entity.TrainingEvaluation;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 课程评分服务接口
+ * 常驻内存维护每门课程的评价数、评分总和与分值分布，评价提交时增量更新
+ *
+ * @author Education Platform Team
+ */
+public interface ICourseRatingService {
+
+    /**
+     * 评分最小值
+     */
+    int MIN_RATING = 1;
+
+    /**
+     * 评分最大值
+     */
+    int MAX_RATING = 5;
+
+    /**
+     * 提交课程评价，事务提交后更新评分汇总
+     *
+     * @return 是否保存成功
+     */
+    boolean evaluate(TrainingEvaluation evaluation);
+
+    /**
+     * 获取单门课程的评分汇总
+     */
+    CourseRatingSummary getRating(Long courseId);
+
+    /**
+     * 批量获取课程评分汇总，按传入顺序返回，重复ID只返回一次
+     */
+    List<CourseRatingSummary> getRatings(Collection<Long> courseIds);
+
+    /**
+     * 从评价表重建全部课程的评分汇总
+     */
+    void rebuild();
+}
@@ -0,0 +1,47 @@
+package com.education.platform.service;
+
+import java.util.Map;
+
+/**
+ * 分析结果预计算服务接口
+ * 定时将各类分析结果按学校、图表类型生成图表数据写入data_analysis表，图表接口只读取预计算结果
+ *
+ * @author Education Platform Team
+ */
+public interface IDataAnalysisService {
+
+    /**
+     * 分析类型：全区生师比、学生数、教师数近30天趋势
+     */
+    String ANALYSIS_TREND = "trend";
+
+    /**
+     * 分析类型：全区总览（趋势的数据来源，不直接用于图表）
+     */
+    String ANALYSIS_OVERVIEW = "overview";
+
+    /**
+     * 全区结果的学校ID
+     */
+    long DISTRICT_SCHOOL_ID = 0L;
+
+    /**
+     * 分析类型与图表类型是否有预计算结果
+     */
+    boolean isSupported(String analysisType, Long schoolId, String chartType);
+
+    /**
+     * 读取最近一次预计算的图表数据
+     *
+     * @param schoolId 学校ID，为空表示全区
+     * @return 图表数据，尚未生成或学校不存在、已停用时返回null
+     */
+    Map<String, Object> getChart(String analysisType, Long schoolId, String chartType);
+
+    /**
+     * 立即预计算当天的分析结果（覆盖当天已有结果）
+     *
+     * @return 写入的结果条数
+     */
+    int precompute();
+}
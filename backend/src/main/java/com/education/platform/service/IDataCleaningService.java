@@ -0,0 +1,34 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.CleaningReport;
+
+/**
+ * 数据清洗服务接口
+ * 按JSON规则集清洗待清洗（status=0）的采集数据，成功的记录写回清洗后的内容并置为已清洗（status=1），
+ * 每条记录的清洗结果写入data_cleaning表
+ *
+ * @author Education Platform Team
+ */
+public interface IDataCleaningService {
+
+    /**
+     * 清洗单条采集数据
+     *
+     * @param collectionId 采集ID
+     * @param rules        清洗规则JSON，为空时只校验数据内容为JSON对象
+     * @param operatorId   操作人ID
+     * @throws IllegalArgumentException 采集数据不存在、已清洗或规则格式错误
+     */
+    CleaningReport cleanCollection(Long collectionId, String rules, Long operatorId);
+
+    /**
+     * 清洗全部待清洗数据
+     *
+     * @param dataType   数据类型，为空不限
+     * @param schoolId   学校ID，为空不限
+     * @param rules      清洗规则JSON
+     * @param operatorId 操作人ID
+     * @throws IllegalArgumentException 规则格式错误
+     */
+    CleaningReport cleanPending(String dataType, Long schoolId, String rules, Long operatorId);
+}
@@ -0,0 +1,56 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.IngestionMetrics;
+import com.education.platform.dto.IngestionResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据采集服务接口
+ * 学校上报的数据先进入有界暂存队列，由后台线程批量写入data_collection表（状态为待清洗）
+ *
+ * @author Education Platform Team
+ */
+public interface IDataIngestionService {
+
+    /**
+     * 请求体格式：每行一个JSON对象
+     */
+    String FORMAT_NDJSON = "ndjson";
+
+    /**
+     * 请求体格式：首行为表头的CSV
+     */
+    String FORMAT_CSV = "csv";
+
+    /**
+     * 尝试占用一个上传名额，同时进行的上传过多时返回false
+     */
+    boolean tryBeginUpload();
+
+    /**
+     * 释放上传名额
+     */
+    void endUpload();
+
+    /**
+     * 受理单条数据
+     */
+    IngestionResult ingest(Long schoolId, String dataType, String dataSource, Map<String, Object> content);
+
+    /**
+     * 逐行读取并受理流式请求体，不将整个请求体读入内存；写入队列已满时阻塞读取，超时后终止
+     *
+     * @param format FORMAT_NDJSON或FORMAT_CSV
+     */
+    IngestionResult ingestStream(Long schoolId, String dataType, String dataSource, String format,
+                                 InputStream body) throws IOException;
+
+    /**
+     * 各学校、各数据类型的吞吐指标
+     */
+    List<IngestionMetrics> getMetrics();
+}
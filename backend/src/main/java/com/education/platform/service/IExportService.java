@@ -0,0 +1,69 @@
+package com.education.platform.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 数据导出服务接口
+ * 通过MyBatis游标逐行读取查询结果并写入流式Excel，导出数据量不影响堆内存占用
+ *
+ * @author Education Platform Team
+ */
+public interface IExportService {
+
+    /**
+     * xlsx文件的Content-Type
+     */
+    String CONTENT_TYPE_XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    /**
+     * 尝试占用一个导出名额，同时进行的导出过多时返回false
+     */
+    boolean tryBeginExport();
+
+    /**
+     * 释放导出名额
+     */
+    void endExport();
+
+    /**
+     * 导出学生名单，条件与学生列表一致
+     *
+     * @param userIds 人员检索索引匹配到的用户ID，为空列表时只导出表头
+     * @return 导出行数
+     */
+    long exportStudents(Long schoolId, Long classId, String keyword, List<Long> userIds,
+                        OutputStream out) throws IOException;
+
+    /**
+     * 导出教师名单，条件与教师列表一致
+     *
+     * @param userIds 人员检索索引匹配到的用户ID，为空列表时只导出表头
+     * @return 导出行数
+     */
+    long exportTeachers(Long schoolId, String keyword, List<Long> userIds, OutputStream out) throws IOException;
+
+    /**
+     * 导出成绩
+     *
+     * @return 导出行数
+     */
+    long exportGrades(Long schoolId, Long classId, String subject, String examType, String academicTerm,
+                      OutputStream out) throws IOException;
+
+    /**
+     * 导出学籍异动申请，条件与学籍异动列表一致
+     *
+     * @return 导出行数
+     */
+    long exportStatusChanges(String studentName, Integer changeType, Integer status,
+                             OutputStream out) throws IOException;
+
+    /**
+     * 导出办公资产，条件与资产列表一致
+     *
+     * @return 导出行数
+     */
+    long exportAssets(Long schoolId, String category, String keyword, OutputStream out) throws IOException;
+}
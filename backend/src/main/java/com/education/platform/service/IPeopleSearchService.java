@@ -0,0 +1,70 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.PersonSearchRow;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 人员检索服务接口
+ * 常驻内存的姓名、用户名、学号、工号索引，支持前缀、包含、全拼、拼音首字母匹配
+ *
+ * @author Education Platform Team
+ */
+public interface IPeopleSearchService {
+
+    /**
+     * 角色范围：学生
+     */
+    String ROLE_STUDENT = "STUDENT";
+
+    /**
+     * 角色范围：教师
+     */
+    String ROLE_TEACHER = "TEACHER";
+
+    /**
+     * 关键词解析为用户ID时最多取用的匹配人数，超过时改由SQL按LIKE条件过滤，避免过长的IN列表
+     */
+    int MAX_KEYWORD_MATCHES = 1000;
+
+    /**
+     * 索引是否已构建完成
+     */
+    boolean isReady();
+
+    /**
+     * 检索人员
+     *
+     * @param keyword  关键词（为空时按范围返回前limit条）
+     * @param role     角色范围：STUDENT、TEACHER，为空不限
+     * @param schoolId 学校范围，为空不限
+     * @param classId  班级范围，为空不限
+     * @param limit    最多返回条数
+     * @return 按匹配度排序的人员列表
+     */
+    List<PersonSearchRow> search(String keyword, String role, Long schoolId, Long classId, int limit);
+
+    /**
+     * 返回关键词在范围内匹配的全部用户ID（不截断），用于列表与导出的关键词过滤
+     *
+     * @return 匹配的用户ID，匹配人数超过MAX_KEYWORD_MATCHES时返回null
+     */
+    List<Long> matchUserIds(String keyword, String role, Long schoolId, Long classId);
+
+    /**
+     * 用户、学生、教师数据变更后刷新该用户的索引
+     * 在事务中调用时于事务提交后执行，索引重建期间的变更在重建完成后重新应用
+     */
+    void refreshUser(Long userId);
+
+    /**
+     * 批量新增或变更用户后刷新这些用户的索引
+     */
+    void refreshUsers(Collection<Long> userIds);
+
+    /**
+     * 全量重建索引
+     */
+    void rebuild();
+}
@@ -0,0 +1,46 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 人员批量导入服务接口
+ * 逐行读取XLSX或CSV文件（首行为表头），分块并行校验后按表批量写入用户、角色、学生/教师记录，
+ * 返回逐行错误报告；某一行失败不影响其他行
+ *
+ * @author Education Platform Team
+ */
+public interface IPersonImportService {
+
+    /**
+     * 尝试占用一个导入名额，同时进行的导入过多时返回false
+     */
+    boolean tryBeginImport();
+
+    /**
+     * 释放导入名额
+     */
+    void endImport();
+
+    /**
+     * 批量导入学生
+     * 表头：学号、姓名、班级ID或班级（名称）为必填，可选监护人、监护人电话、入学日期、密码
+     *
+     * @param fileName 原始文件名，按扩展名判断格式（.xlsx/.csv）
+     * @param schoolId 按班级名称匹配班级时限定的学校，为空时班级名称须在全区唯一
+     * @throws IllegalArgumentException 文件格式不支持或表头缺少必填列
+     */
+    ImportReport importStudents(String fileName, InputStream in, Long schoolId) throws IOException;
+
+    /**
+     * 批量导入教师
+     * 表头：工号、姓名为必填，可选部门、职称、任教学科、联系电话、邮箱、入职日期、密码
+     *
+     * @param fileName 原始文件名，按扩展名判断格式（.xlsx/.csv）
+     * @param schoolId 教师所属学校
+     * @throws IllegalArgumentException 文件格式不支持或表头缺少必填列
+     */
+    ImportReport importTeachers(String fileName, InputStream in, Long schoolId) throws IOException;
+}
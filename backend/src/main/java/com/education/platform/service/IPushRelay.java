@@ -0,0 +1,26 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.PushEnvelope;
+
+import java.util.function.Consumer;
+
+/**
+ * 推送中继接口
+ * 推送服务把消息发布到中继，中继把消息送达每个节点上注册的监听器（含发布者所在节点），
+ * 各节点再投递给本节点的WebSocket连接。由app.push.relay选择实现：
+ * local为进程内直接分发（单节点），redis为Redis发布订阅（多节点共享推送）
+ *
+ * @author Education Platform Team
+ */
+public interface IPushRelay {
+
+    /**
+     * 发布消息
+     */
+    void publish(PushEnvelope envelope);
+
+    /**
+     * 注册本节点的监听器
+     */
+    void subscribe(Consumer<PushEnvelope> listener);
+}
@@ -0,0 +1,57 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.PushMessage;
+import com.education.platform.entity.Announcement;
+
+/**
+ * 实时推送服务接口
+ * 客户端通过STOMP over WebSocket连接（CONNECT帧携带Authorization: Bearer令牌）后订阅：
+ * 个人通知 /user/queue/notifications、本班 /topic/class.{班级ID}、本校 /topic/school.{学校ID}、全体 /topic/all。
+ * 推送先发布到推送中继（IPushRelay），再由各节点投递给本节点的连接
+ *
+ * @author Education Platform Team
+ */
+public interface IPushService {
+
+    String SCOPE_USER = "user";
+
+    String SCOPE_CLASS = "class";
+
+    String SCOPE_SCHOOL = "school";
+
+    String SCOPE_ALL = "all";
+
+    String USER_QUEUE = "/queue/notifications";
+
+    String TOPIC_CLASS_PREFIX = "/topic/class.";
+
+    String TOPIC_SCHOOL_PREFIX = "/topic/school.";
+
+    String TOPIC_ALL = "/topic/all";
+
+    /**
+     * 推送给单个用户（该用户的全部连接）
+     */
+    void pushToUser(Long userId, PushMessage message);
+
+    /**
+     * 推送给班级主题
+     */
+    void pushToClass(Long classId, PushMessage message);
+
+    /**
+     * 推送给学校主题
+     */
+    void pushToSchool(Long schoolId, PushMessage message);
+
+    /**
+     * 推送给全体
+     */
+    void pushToAll(PushMessage message);
+
+    /**
+     * 按公告的可见范围推送新公告：班级公告推送到班级，全校公告推送到学校，教育局公告推送给全体。
+     * 推送失败只记录日志，不影响公告发布
+     */
+    void publishAnnouncement(Announcement announcement);
+}
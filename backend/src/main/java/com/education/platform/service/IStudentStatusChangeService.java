@@ -0,0 +1,40 @@
+package com.education.platform.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.education.platform.dto.StatusChangeStatistics;
+import com.education.platform.entity.StudentStatusChange;
+
+/**
+ * 学籍异动服务接口
+ *
+ * @author Education Platform Team
+ */
+public interface IStudentStatusChangeService extends IService<StudentStatusChange> {
+
+    /**
+     * 提交学籍异动申请（状态置为待审核）
+     */
+    boolean apply(StudentStatusChange change);
+
+    /**
+     * 审核学籍异动申请，仅待审核的申请可以审核
+     *
+     * @return 申请已被他人审核时返回false
+     */
+    boolean approve(StudentStatusChange change, Integer status, String approvalComment, Long approverId);
+
+    /**
+     * 删除学籍异动申请（逻辑删除）
+     */
+    boolean deleteApplication(StudentStatusChange change);
+
+    /**
+     * 学籍异动统计：启用计数表时直接读取计数行，否则分组聚合一次查出
+     */
+    StatusChangeStatistics getStatistics();
+
+    /**
+     * 从学籍异动表重算计数表
+     */
+    void rebuildCounter();
+}
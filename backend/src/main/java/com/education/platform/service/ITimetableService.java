@@ -0,0 +1,75 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.BatchRowError;
+import com.education.platform.dto.TimetableBatchResult;
+import com.education.platform.dto.TimetableClassView;
+import com.education.platform.entity.Timetable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 课程表服务接口
+ * 写入前检查同一教师、班级、教室在同一星期、节次、教学周是否已有课程（单周/双周与all视为重叠）
+ *
+ * @author Education Platform Team
+ */
+public interface ITimetableService {
+
+    /**
+     * 单次批量添加的条目数上限
+     */
+    int MAX_BATCH_SIZE = 5000;
+
+    /**
+     * 批量添加课程表
+     * 逐条校验、检查冲突后在一个事务内分块多行插入并回填ID；失败的条目记入结果，不影响其他条目
+     *
+     * @param timetables 已设置学校、班级、教师的课程表条目
+     */
+    TimetableBatchResult batchInsert(List<Timetable> timetables);
+
+    /**
+     * 添加单条课程表
+     *
+     * @throws IllegalArgumentException 校验不通过、时间冲突或写入失败
+     */
+    void add(Timetable timetable);
+
+    /**
+     * 删除课程表并释放其占用的时段
+     */
+    boolean delete(Timetable timetable);
+
+    /**
+     * 校验一批课程表（不写入）：字段校验、与已有课程的冲突以及本批条目之间的冲突
+     *
+     * @return 不通过的条目，全部通过时为空列表
+     */
+    List<BatchRowError> validate(List<Timetable> timetables);
+
+    /**
+     * 替换若干班级的课程表：在一个事务内删除这些班级的现有课程表并写入新条目，全部成功或全部回滚
+     * 写入前在占用索引的锁内复核新条目与其他班级（含正在写入的条目）及彼此之间的冲突
+     *
+     * @return 写入条数
+     * @throws IllegalArgumentException 条目校验不通过或存在时间冲突
+     */
+    int replaceClassTimetables(Collection<Long> classIds, List<Timetable> timetables);
+
+    /**
+     * 从数据库全量重建占用索引
+     */
+    void rebuildOccupancy();
+
+    /**
+     * 获取班级课程表视图（含教师姓名）
+     * 命中缓存时不访问数据库；该班级课程表或任一教师姓名变更后重新生成
+     */
+    TimetableClassView getClassView(Long classId);
+
+    /**
+     * 教师姓名变更（修改、删除教师或用户修改姓名）后调用，使全部班级课程表视图失效
+     */
+    void onTeacherNamesChanged();
+}
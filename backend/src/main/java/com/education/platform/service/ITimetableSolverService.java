@@ -0,0 +1,40 @@
+package com.education.platform.service;
+
+import com.education.platform.dto.TimetableSolution;
+import com.education.platform.dto.TimetableSolveRequest;
+
+import java.util.List;
+
+/**
+ * 自动排课服务接口
+ * 根据班级课时需求、教师任教学科和教室容量生成全校课程表
+ *
+ * @author Education Platform Team
+ */
+public interface ITimetableSolverService {
+
+    /**
+     * 默认作息：每天8节
+     */
+    List<String> DEFAULT_PERIOD_TIMES = List.of(
+            "08:00-08:45", "08:55-09:40", "10:00-10:45", "10:55-11:40",
+            "14:00-14:45", "14:55-15:40", "15:50-16:35", "16:45-17:30"
+    );
+
+    /**
+     * 尝试占用一个排课名额，同时进行的排课过多时返回false
+     */
+    boolean tryBeginSolve();
+
+    /**
+     * 释放排课名额
+     */
+    void endSolve();
+
+    /**
+     * 生成课程表，到达时限时返回迄今最好的结果；request.apply为true且无硬冲突时写入
+     *
+     * @throws IllegalArgumentException 参数不合法或没有可排的课时需求
+     */
+    TimetableSolution solve(TimetableSolveRequest request) throws InterruptedException;
+}
@@ -0,0 +1,65 @@
+package com.education.platform.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.education.platform.entity.TrainingEnrollment;
+
+import java.util.Map;
+
+/**
+ * 培训报名服务接口
+ *
+ * @author Education Platform Team
+ */
+public interface ITrainingEnrollmentService extends IService<TrainingEnrollment> {
+
+    /**
+     * 报名结果：报名成功
+     */
+    String RESULT_ENROLLED = "ENROLLED";
+
+    /**
+     * 报名结果：已报名过该课程
+     */
+    String RESULT_DUPLICATE = "DUPLICATE";
+
+    /**
+     * 报名结果：名额已满
+     */
+    String RESULT_FULL = "FULL";
+
+    /**
+     * 报名结果：课程不存在或未发布
+     */
+    String RESULT_UNAVAILABLE = "UNAVAILABLE";
+
+    /**
+     * 报名结果：已受理，等待写入超时，稍后可在“我的课程”中查看
+     */
+    String RESULT_PENDING = "PENDING";
+
+    /**
+     * 报名结果：写入失败
+     */
+    String RESULT_FAILED = "FAILED";
+
+    /**
+     * 报名课程
+     * 同一学员对同一课程重复报名时返回RESULT_DUPLICATE，不会产生重复记录
+     *
+     * @return 报名结果，取值见RESULT_*常量
+     */
+    String enroll(TrainingEnrollment enrollment);
+
+    /**
+     * 课程信息变更后刷新内存中的名额上限与发布状态
+     */
+    void refreshCourse(Long courseId);
+
+    /**
+     * 全部报名的学习进度中位数与得分中位数
+     * 由数据库端分组计数后计算，结果缓存app.training.statistics-cache-ttl秒
+     *
+     * @return 键为medianProgress、medianScore，无数据时值为null
+     */
+    Map<String, Double> medians();
+}
@@ -0,0 +1,37 @@
+package com.education.platform.service;
+
+import com.education.platform.entity.EducationalResource;
+
+/**
+ * 访问计数服务接口
+ * 浏览、下载、分享次数先在内存中累加，定时批量写入资源表、课程表及资源日统计表
+ *
+ * @author Education Platform Team
+ */
+public interface IUsageCounterService {
+
+    /**
+     * 记录一次资源浏览
+     */
+    void recordResourceView(EducationalResource resource);
+
+    /**
+     * 记录一次资源下载
+     */
+    void recordResourceDownload(EducationalResource resource);
+
+    /**
+     * 记录一次资源分享
+     */
+    void recordResourceShare(EducationalResource resource);
+
+    /**
+     * 记录一次课程浏览
+     */
+    void recordCourseView(Long courseId);
+
+    /**
+     * 将内存中尚未写入的计数立即写入数据库
+     */
+    void flush();
+}
@@ -37,6 +37,11 @@ public interface IUserService extends IService<User> {
      */
     Boolean assignRole(Long userId, String roleCode);
 
+    /**
+     * 查询角色ID，角色不存在时自动创建
+     */
+    Long ensureRole(String roleCode);
+
     /**
      * 根据用户名查询用户
      */
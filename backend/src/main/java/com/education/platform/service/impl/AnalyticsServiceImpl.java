@@ -0,0 +1,363 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.AnalyticsOverview;
+import com.education.platform.dto.AnalyticsSourceRow;
+import com.education.platform.mapper.AnalyticsSourceMapper;
+import com.education.platform.service.IAnalyticsService;
+import com.education.platform.util.ColumnarTable;
+import com.education.platform.util.ValueDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 教育数据分析服务实现
+ * 教师、学校、班级、学生四张表各保存为一份列式快照：分类属性（职称、学科、学校类型、区域）与
+ * 关联ID（学校、班级）均经字典编码为int列，十万级数据只占几MB内存。
+ * 分组计数在快照上并行完成；生师比、平均班额先按班级、学校聚合计数数组，再按学校属性汇总。
+ * 定时按updated_at增量加载变更行并归并成新快照（原快照不变，读取无需加锁），
+ * 每天凌晨全量重建一次，清理已删除的行并纳入按关联表变更的数据（如教师所在学校调整）。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class AnalyticsServiceImpl implements IAnalyticsService {
+
+    /**
+     * 分类属性为空时的显示名称
+     */
+    private static final String UNSET = "未设置";
+
+    private static final Map<String, String> SCHOOL_TYPE_NAMES = Map.of(
+            "primary", "小学",
+            "secondary", "中学",
+            "vocational", "职业学校"
+    );
+
+    private static final int TEACHER_SCHOOL = 0;
+    private static final int TEACHER_TITLE = 1;
+    private static final int TEACHER_SUBJECT = 2;
+
+    private static final int SCHOOL_SELF = 0;
+    private static final int SCHOOL_TYPE = 1;
+    private static final int SCHOOL_REGION = 2;
+
+    private static final int CLASS_SELF = 0;
+    private static final int CLASS_SCHOOL = 1;
+
+    private static final int STUDENT_CLASS = 0;
+
+    @Autowired
+    private AnalyticsSourceMapper sourceMapper;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 应用启动后构建快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("分析快照初始化失败，将在首次访问时重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时增量刷新
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.refresh-interval:60000}")
+    public void scheduledRefresh() {
+        if (snapshot != null) {
+            refresh();
+        }
+    }
+
+    /**
+     * 每天凌晨全量重建
+     */
+    @Scheduled(cron = "0 50 3 * * ?")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Override
+    public Map<String, Number> breakdown(String dimension, Long schoolId) {
+        Snapshot s = current();
+        if (DIMENSION_TEACHER_TITLE.equals(dimension) || DIMENSION_TEACHER_SUBJECT.equals(dimension)) {
+            int column = DIMENSION_TEACHER_TITLE.equals(dimension) ? TEACHER_TITLE : TEACHER_SUBJECT;
+            int schoolCode = schoolId == null ? 0 : s.schoolIds.code(schoolId);
+            if (schoolCode < 0) {
+                return new LinkedHashMap<>();
+            }
+            long[] counts = s.teachers.groupCount(column, s.labels.size(),
+                    schoolId == null ? -1 : TEACHER_SCHOOL, schoolCode);
+            return toLabelMap(s, counts, Function.identity());
+        }
+        if (DIMENSION_SCHOOL_TYPE.equals(dimension)) {
+            return toLabelMap(s, s.schools.groupCount(SCHOOL_TYPE, s.labels.size(), -1, 0), AnalyticsServiceImpl::schoolTypeName);
+        }
+        if (DIMENSION_SCHOOL_REGION.equals(dimension)) {
+            return toLabelMap(s, s.schools.groupCount(SCHOOL_REGION, s.labels.size(), -1, 0), Function.identity());
+        }
+        if (DIMENSION_RATIO_BY_TYPE.equals(dimension)) {
+            return ratioBy(s, SCHOOL_TYPE, true);
+        }
+        if (DIMENSION_RATIO_BY_REGION.equals(dimension)) {
+            return ratioBy(s, SCHOOL_REGION, true);
+        }
+        if (DIMENSION_CLASS_SIZE_BY_TYPE.equals(dimension)) {
+            return ratioBy(s, SCHOOL_TYPE, false);
+        }
+        if (DIMENSION_CLASS_SIZE_BY_REGION.equals(dimension)) {
+            return ratioBy(s, SCHOOL_REGION, false);
+        }
+        return null;
+    }
+
+    @Override
+    public long teacherCount(Long schoolId) {
+        Snapshot s = current();
+        if (schoolId == null) {
+            return s.teachers.activeCount();
+        }
+        int schoolCode = s.schoolIds.code(schoolId);
+        return schoolCode < 0 ? 0 : s.teachers.countWhere(TEACHER_SCHOOL, schoolCode);
+    }
+
+    @Override
+    public List<Long> activeSchoolIds() {
+        Snapshot s = current();
+        List<Long> ids = new ArrayList<>();
+        s.schools.forEachActive(row -> ids.add(s.schools.id(row)));
+        return ids;
+    }
+
+    @Override
+    public AnalyticsOverview overview() {
+        Snapshot s = current();
+        long teachers = s.teachers.activeCount();
+        long classes = s.classes.activeCount();
+        long students = s.students.activeCount();
+
+        AnalyticsOverview overview = new AnalyticsOverview();
+        overview.setSchoolCount(s.schools.activeCount());
+        overview.setTeacherCount(teachers);
+        overview.setClassCount(classes);
+        overview.setStudentCount(students);
+        overview.setStudentTeacherRatio(divide(students, teachers));
+        overview.setAverageClassSize(divide(students, classes));
+        overview.setSnapshotTime(s.watermark);
+        return overview;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            rebuild();
+            return;
+        }
+        LocalDateTime since = s.watermark;
+        List<AnalyticsSourceRow> teacherRows = sourceMapper.selectTeacherRows(since);
+        List<AnalyticsSourceRow> schoolRows = sourceMapper.selectSchoolRows(since);
+        List<AnalyticsSourceRow> classRows = sourceMapper.selectClassRows(since);
+        List<AnalyticsSourceRow> studentRows = sourceMapper.selectStudentRows(since);
+        if (teacherRows.isEmpty() && schoolRows.isEmpty() && classRows.isEmpty() && studentRows.isEmpty()) {
+            return;
+        }
+        snapshot = s.apply(teacherRows, schoolRows, classRows, studentRows);
+        log.debug("分析快照增量刷新：教师{}、学校{}、班级{}、学生{}行",
+                teacherRows.size(), schoolRows.size(), classRows.size(), studentRows.size());
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Snapshot rebuilt = new Snapshot().apply(
+                sourceMapper.selectTeacherRows(null),
+                sourceMapper.selectSchoolRows(null),
+                sourceMapper.selectClassRows(null),
+                sourceMapper.selectStudentRows(null));
+        snapshot = rebuilt;
+        log.info("分析快照重建完成：教师{}、学校{}、班级{}、学生{}，耗时{}ms",
+                rebuilt.teachers.activeCount(), rebuilt.schools.activeCount(), rebuilt.classes.activeCount(),
+                rebuilt.students.activeCount(), System.currentTimeMillis() - start);
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            rebuild();
+            s = snapshot;
+        }
+        return s;
+    }
+
+    /**
+     * 按学校属性汇总学生数与教师数（或班级数）之比
+     *
+     * @param perTeacher true为生师比，false为平均班额
+     */
+    private Map<String, Number> ratioBy(Snapshot s, int schoolColumn, boolean perTeacher) {
+        long[] studentsPerClass = s.students.groupCount(STUDENT_CLASS, s.classIds.size(), -1, 0);
+        long[] studentsPerSchool = new long[s.schoolIds.size()];
+        long[] classesPerSchool = new long[s.schoolIds.size()];
+        s.classes.forEachActive(row -> {
+            int school = s.classes.value(CLASS_SCHOOL, row);
+            if (school >= 0 && school < studentsPerSchool.length) {
+                studentsPerSchool[school] += studentsPerClass[s.classes.value(CLASS_SELF, row)];
+                classesPerSchool[school]++;
+            }
+        });
+        long[] divisorPerSchool = perTeacher
+                ? s.teachers.groupCount(TEACHER_SCHOOL, s.schoolIds.size(), -1, 0)
+                : classesPerSchool;
+
+        long[] students = new long[s.labels.size()];
+        long[] divisors = new long[s.labels.size()];
+        s.schools.forEachActive(row -> {
+            int label = s.schools.value(schoolColumn, row);
+            int school = s.schools.value(SCHOOL_SELF, row);
+            students[label] += studentsPerSchool[school];
+            divisors[label] += divisorPerSchool[school];
+        });
+
+        Function<String, String> naming = schoolColumn == SCHOOL_TYPE
+                ? AnalyticsServiceImpl::schoolTypeName : Function.identity();
+        List<Map.Entry<String, Double>> entries = new ArrayList<>();
+        for (int label = 0; label < students.length; label++) {
+            if (divisors[label] > 0) {
+                entries.add(Map.entry(naming.apply(s.labels.decode(label)), divide(students[label], divisors[label])));
+            }
+        }
+        entries.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        Map<String, Number> result = new LinkedHashMap<>();
+        entries.forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    /**
+     * 计数数组转为名称映射，按计数降序，忽略计数为0的分类
+     */
+    private static Map<String, Number> toLabelMap(Snapshot s, long[] counts, Function<String, String> naming) {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                codes.add(code);
+            }
+        }
+        codes.sort((a, b) -> Long.compare(counts[b], counts[a]));
+        Map<String, Number> result = new LinkedHashMap<>();
+        for (int code : codes) {
+            result.merge(naming.apply(s.labels.decode(code)), counts[code], (a, b) -> a.longValue() + b.longValue());
+        }
+        return result;
+    }
+
+    private static String schoolTypeName(String type) {
+        return SCHOOL_TYPE_NAMES.getOrDefault(type, type);
+    }
+
+    private static double divide(long dividend, long divisor) {
+        return divisor == 0 ? 0 : Math.round(dividend * 10.0 / divisor) / 10.0;
+    }
+
+    /**
+     * 快照：四张列式表与共用字典
+     * 字典只增不减，增量刷新时新旧快照共用；全量重建时重新创建
+     */
+    private static final class Snapshot {
+        private final ValueDictionary<String> labels;
+        private final ValueDictionary<Long> schoolIds;
+        private final ValueDictionary<Long> classIds;
+        private final ColumnarTable teachers;
+        private final ColumnarTable schools;
+        private final ColumnarTable classes;
+        private final ColumnarTable students;
+        private final LocalDateTime watermark;
+
+        private Snapshot() {
+            this(new ValueDictionary<>(), new ValueDictionary<>(), new ValueDictionary<>(),
+                    ColumnarTable.empty(3), ColumnarTable.empty(3), ColumnarTable.empty(2), ColumnarTable.empty(1),
+                    null);
+        }
+
+        private Snapshot(ValueDictionary<String> labels, ValueDictionary<Long> schoolIds,
+                         ValueDictionary<Long> classIds, ColumnarTable teachers, ColumnarTable schools,
+                         ColumnarTable classes, ColumnarTable students, LocalDateTime watermark) {
+            this.labels = labels;
+            this.schoolIds = schoolIds;
+            this.classIds = classIds;
+            this.teachers = teachers;
+            this.schools = schools;
+            this.classes = classes;
+            this.students = students;
+            this.watermark = watermark;
+        }
+
+        /**
+         * 合并变更行生成新快照；水位取变更行中最大的更新时间，下次按“大于等于”加载，重复加载的行覆盖即可
+         */
+        private Snapshot apply(List<AnalyticsSourceRow> teacherRows, List<AnalyticsSourceRow> schoolRows,
+                               List<AnalyticsSourceRow> classRows, List<AnalyticsSourceRow> studentRows) {
+            List<ColumnarTable.Row> teacherChanges = new ArrayList<>(teacherRows.size());
+            for (AnalyticsSourceRow row : teacherRows) {
+                teacherChanges.add(new ColumnarTable.Row(row.getId(), new int[]{
+                        encodeId(schoolIds, row.getRefId()), label(row.getKey1()), label(row.getKey2())}, isActive(row)));
+            }
+            List<ColumnarTable.Row> schoolChanges = new ArrayList<>(schoolRows.size());
+            for (AnalyticsSourceRow row : schoolRows) {
+                schoolChanges.add(new ColumnarTable.Row(row.getId(), new int[]{
+                        schoolIds.encode(row.getId()), label(row.getKey1()), label(row.getKey2())}, isActive(row)));
+            }
+            List<ColumnarTable.Row> classChanges = new ArrayList<>(classRows.size());
+            for (AnalyticsSourceRow row : classRows) {
+                classChanges.add(new ColumnarTable.Row(row.getId(), new int[]{
+                        classIds.encode(row.getId()), encodeId(schoolIds, row.getRefId())}, isActive(row)));
+            }
+            List<ColumnarTable.Row> studentChanges = new ArrayList<>(studentRows.size());
+            for (AnalyticsSourceRow row : studentRows) {
+                studentChanges.add(new ColumnarTable.Row(row.getId(), new int[]{
+                        encodeId(classIds, row.getRefId())}, isActive(row)));
+            }
+
+            LocalDateTime next = watermark;
+            for (List<AnalyticsSourceRow> rows : List.of(teacherRows, schoolRows, classRows, studentRows)) {
+                for (AnalyticsSourceRow row : rows) {
+                    if (row.getUpdatedAt() != null && (next == null || row.getUpdatedAt().isAfter(next))) {
+                        next = row.getUpdatedAt();
+                    }
+                }
+            }
+            return new Snapshot(labels, schoolIds, classIds,
+                    teachers.withChanges(teacherChanges), schools.withChanges(schoolChanges),
+                    classes.withChanges(classChanges), students.withChanges(studentChanges),
+                    next == null ? LocalDateTime.now() : next);
+        }
+
+        private int label(String value) {
+            return labels.encode(value == null || value.isBlank() ? UNSET : value.trim());
+        }
+
+        private static int encodeId(ValueDictionary<Long> dictionary, Long id) {
+            return id == null ? -1 : dictionary.encode(id);
+        }
+
+        private static boolean isActive(AnalyticsSourceRow row) {
+            return Boolean.TRUE.equals(row.getActive());
+        }
+    }
+}
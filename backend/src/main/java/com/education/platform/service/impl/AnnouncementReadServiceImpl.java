@@ -0,0 +1,355 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.education.platform.entity.Announcement;
+import com.education.platform.entity.AnnouncementRead;
+import com.education.platform.mapper.AnnouncementMapper;
+import com.education.platform.mapper.AnnouncementReadMapper;
+import com.education.platform.service.IAnnouncementReadService;
+import com.education.platform.util.IdBitmap;
+import com.education.platform.util.LongObjectMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 公告已读服务实现
+ * 1. 已发布公告按可见范围（教育局、学校、学校+班级）建成IdBitmap，按app.announcement.index-refresh-interval
+ *    或公告变更后重新加载；每种“学校+班级”组合的可见位图在首次使用时合并并缓存；
+ * 2. 用户已读位图首次访问时从announcement_read加载（每个区段一行），标记已读只修改内存并记下变更的区段，
+ *    定时任务（app.announcement.read-flush-interval）将变更区段排序后分批写入，失败时留待下次重试；
+ *    写入在一个事务内：先INSERT IGNORE补齐缺失区段，再加行锁读出库中区段，与内存位图按位或合并后写回，
+ *    多个节点同时写同一用户的同一区段时不会互相覆盖已读记录；
+ *    超过app.announcement.read-cache-idle未访问且已写入的位图移出内存。
+ * 位图已在内存中时不再重新加载，其他节点新增的已读记录在本节点写入该区段或位图移出后重新加载时才可见。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class AnnouncementReadServiceImpl implements IAnnouncementReadService {
+
+    /**
+     * 单条SQL最多包含的区段数（位图容器最大约8KB）
+     */
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private AnnouncementMapper announcementMapper;
+
+    @Autowired
+    private AnnouncementReadMapper announcementReadMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.announcement.index-refresh-interval:60000}")
+    private long indexRefreshInterval;
+
+    @Value("${app.announcement.read-cache-idle:1800000}")
+    private long readCacheIdle;
+
+    private final Object indexLock = new Object();
+
+    private volatile AnnouncementIndex index;
+
+    private volatile boolean indexStale = true;
+
+    private final Map<Long, UserReads> userReads = new ConcurrentHashMap<>();
+
+    @Override
+    public long unreadCount(Long userId, Long schoolId, Long classId) {
+        IdBitmap visible = index().visible(schoolId, classId);
+        return withReads(userId, reads -> visible.andNotCardinality(reads.bitmap));
+    }
+
+    @Override
+    public int markRead(Long userId, Long schoolId, Long classId, Collection<Long> announcementIds) {
+        IdBitmap visible = index().visible(schoolId, classId);
+        return withReads(userId, reads -> {
+            int marked = 0;
+            for (Long id : announcementIds) {
+                if (id != null && visible.contains(id) && reads.bitmap.add(id)) {
+                    reads.dirty.add(IdBitmap.chunkOf(id));
+                    marked++;
+                }
+            }
+            return marked;
+        });
+    }
+
+    @Override
+    public int markAllRead(Long userId, Long schoolId, Long classId) {
+        IdBitmap visible = index().visible(schoolId, classId);
+        return withReads(userId, reads -> {
+            long before = reads.bitmap.cardinality();
+            reads.dirty.addAll(reads.bitmap.addAll(visible));
+            return (int) (reads.bitmap.cardinality() - before);
+        });
+    }
+
+    @Override
+    public void onAnnouncementsChanged() {
+        indexStale = true;
+    }
+
+    /**
+     * 定时写入
+     */
+    @Scheduled(fixedDelayString = "${app.announcement.read-flush-interval:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 应用停止前写入剩余位图
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    public synchronized void flush() {
+        long idleBefore = System.currentTimeMillis() - readCacheIdle;
+        List<AnnouncementRead> rows = new ArrayList<>();
+        for (Map.Entry<Long, UserReads> entry : userReads.entrySet()) {
+            UserReads reads = entry.getValue();
+            synchronized (reads) {
+                if (reads.dirty.isEmpty()) {
+                    if (reads.lastAccess < idleBefore) {
+                        reads.evicted = true;
+                        userReads.remove(entry.getKey(), reads);
+                    }
+                    continue;
+                }
+                for (Integer chunk : reads.dirty) {
+                    AnnouncementRead row = new AnnouncementRead();
+                    row.setUserId(entry.getKey());
+                    row.setChunk(chunk);
+                    row.setBitmap(reads.bitmap.serializeChunk(chunk));
+                    rows.add(row);
+                }
+                reads.dirty.clear();
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        rows.sort(Comparator.comparing(AnnouncementRead::getUserId).thenComparing(AnnouncementRead::getChunk));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                    writeMerged(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("已读位图写入失败，{}个区段将在下次重试: {}", rows.size(), e.getMessage());
+            // 有待写区段的位图不会被移出，且移出只在本方法内进行
+            for (AnnouncementRead row : rows) {
+                UserReads reads = userReads.get(row.getUserId());
+                if (reads != null) {
+                    synchronized (reads) {
+                        reads.dirty.add(row.getChunk());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 与库中区段合并后写入（须在事务内调用）：补齐缺失区段、加锁读出，按位或并入内存位图，只写回有变化的区段
+     */
+    private void writeMerged(List<AnnouncementRead> batch) {
+        announcementReadMapper.insertIgnoreBatch(batch);
+        Map<String, AnnouncementRead> byKey = new HashMap<>(batch.size() * 2);
+        for (AnnouncementRead row : batch) {
+            byKey.put(row.getUserId() + "|" + row.getChunk(), row);
+        }
+        List<AnnouncementRead> changed = new ArrayList<>(batch.size());
+        for (AnnouncementRead stored : announcementReadMapper.selectForUpdate(batch)) {
+            AnnouncementRead row = byKey.get(stored.getUserId() + "|" + stored.getChunk());
+            if (row == null || Arrays.equals(stored.getBitmap(), row.getBitmap())) {
+                continue;
+            }
+            try {
+                row.setBitmap(merge(row, stored.getBitmap()));
+            } catch (IllegalArgumentException e) {
+                log.warn("用户{}的已读位图区段{}无法解析，将被覆盖: {}", row.getUserId(), row.getChunk(), e.getMessage());
+            }
+            if (!Arrays.equals(stored.getBitmap(), row.getBitmap())) {
+                changed.add(row);
+            }
+        }
+        if (!changed.isEmpty()) {
+            announcementReadMapper.upsertBatch(changed);
+        }
+    }
+
+    /**
+     * 库中区段并入内存位图（位图已移出时只合并本次写入的数据），返回合并后的区段
+     */
+    private byte[] merge(AnnouncementRead row, byte[] stored) {
+        UserReads reads = userReads.get(row.getUserId());
+        if (reads != null) {
+            synchronized (reads) {
+                reads.bitmap.orChunk(row.getChunk(), stored);
+                return reads.bitmap.serializeChunk(row.getChunk());
+            }
+        }
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.putChunk(row.getChunk(), row.getBitmap());
+        bitmap.orChunk(row.getChunk(), stored);
+        return bitmap.serializeChunk(row.getChunk());
+    }
+
+    /**
+     * 在用户已读位图的锁内执行操作；位图恰好被移出时重新加载
+     */
+    private <T> T withReads(Long userId, Function<UserReads, T> action) {
+        while (true) {
+            UserReads reads = userReads.get(userId);
+            if (reads == null) {
+                UserReads loaded = loadReads(userId);
+                reads = userReads.putIfAbsent(userId, loaded);
+                if (reads == null) {
+                    reads = loaded;
+                }
+            }
+            synchronized (reads) {
+                if (!reads.evicted) {
+                    reads.lastAccess = System.currentTimeMillis();
+                    return action.apply(reads);
+                }
+            }
+        }
+    }
+
+    private UserReads loadReads(Long userId) {
+        UserReads reads = new UserReads();
+        reads.lastAccess = System.currentTimeMillis();
+        for (AnnouncementRead row : announcementReadMapper.selectByUserId(userId)) {
+            try {
+                reads.bitmap.putChunk(row.getChunk(), row.getBitmap());
+            } catch (IllegalArgumentException e) {
+                log.warn("用户{}的已读位图区段{}无法解析，已忽略: {}", userId, row.getChunk(), e.getMessage());
+            }
+        }
+        return reads;
+    }
+
+    /**
+     * 当前可见范围索引，过期或公告变更后重新加载
+     */
+    private AnnouncementIndex index() {
+        AnnouncementIndex current = index;
+        if (current != null && !indexStale && System.currentTimeMillis() - current.loadedAt < indexRefreshInterval) {
+            return current;
+        }
+        synchronized (indexLock) {
+            current = index;
+            if (current == null || indexStale || System.currentTimeMillis() - current.loadedAt >= indexRefreshInterval) {
+                // 先清除标记再加载，加载期间发生的变更会触发下一次加载
+                indexStale = false;
+                current = loadIndex();
+                index = current;
+            }
+            return current;
+        }
+    }
+
+    private AnnouncementIndex loadIndex() {
+        LambdaQueryWrapper<Announcement> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(Announcement::getId, Announcement::getSchoolId, Announcement::getClassId);
+        wrapper.eq(Announcement::getStatus, 1);
+        List<Announcement> announcements = announcementMapper.selectList(wrapper);
+
+        AnnouncementIndex loaded = new AnnouncementIndex();
+        for (Announcement announcement : announcements) {
+            Long id = announcement.getId();
+            if (id == null || id < 0 || id > IdBitmap.MAX_ID) {
+                continue;
+            }
+            if (announcement.getSchoolId() == null) {
+                loaded.global.add(id);
+            } else if (announcement.getClassId() == null) {
+                IdBitmap school = loaded.schools.get(announcement.getSchoolId());
+                if (school == null) {
+                    school = new IdBitmap();
+                    loaded.schools.put(announcement.getSchoolId(), school);
+                }
+                school.add(id);
+            } else {
+                loaded.classes.computeIfAbsent(audienceKey(announcement.getSchoolId(), announcement.getClassId()),
+                        k -> new IdBitmap()).add(id);
+            }
+        }
+        log.debug("公告可见范围索引加载完成: {}条", announcements.size());
+        return loaded;
+    }
+
+    private static String audienceKey(Long schoolId, Long classId) {
+        return schoolId + "|" + classId;
+    }
+
+    /**
+     * 已发布公告的可见范围索引，加载完成后只读
+     */
+    private static final class AnnouncementIndex {
+        private final long loadedAt = System.currentTimeMillis();
+        private final IdBitmap global = new IdBitmap();
+        private final LongObjectMap<IdBitmap> schools = new LongObjectMap<>();
+        private final Map<String, IdBitmap> classes = new HashMap<>();
+
+        /**
+         * 学校+班级 → 可见公告位图
+         */
+        private final Map<String, IdBitmap> audiences = new ConcurrentHashMap<>();
+
+        /**
+         * 用户可见的公告：教育局通知；有学校时加本校全校公告；有班级时再加本班公告
+         */
+        private IdBitmap visible(Long schoolId, Long classId) {
+            if (schoolId == null) {
+                return global;
+            }
+            return audiences.computeIfAbsent(audienceKey(schoolId, classId), k -> IdBitmap.or(global,
+                    schools.get(schoolId), classId == null ? null : classes.get(k)));
+        }
+    }
+
+    /**
+     * 单个用户的已读位图，访问需持有该对象的锁
+     */
+    private static final class UserReads {
+        private final IdBitmap bitmap = new IdBitmap();
+
+        /**
+         * 尚未写入的区段
+         */
+        private final Set<Integer> dirty = new HashSet<>();
+
+        private long lastAccess;
+
+        /**
+         * 已移出缓存，不能再修改
+         */
+        private boolean evicted;
+    }
+}
@@ -8,7 +8,9 @@ import com.education.platform.entity.User;
 import com.education.platform.mapper.ClassApplicationMapper;
 import com.education.platform.mapper.StudentMapper;
 import com.education.platform.mapper.UserMapper;
+import com.education.platform.security.AuthorityEpochRegistry;
 import com.education.platform.service.IClassApplicationService;
+import com.education.platform.service.IPeopleSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,6 +33,12 @@ public class ClassApplicationServiceImpl extends ServiceImpl<ClassApplicationMap
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private AuthorityEpochRegistry authorityEpochRegistry;
+
+    @Autowired
+    private IPeopleSearchService peopleSearchService;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean createApplication(ClassApplication application) {
@@ -106,6 +114,9 @@ public class ClassApplicationServiceImpl extends ServiceImpl<ClassApplicationMap
                     user.setClassId(application.getClassId());
                     userMapper.updateById(user);
                 }
+                // 班级声明变更，使该学生已签发的令牌失效，并刷新人员检索索引中的班级
+                authorityEpochRegistry.bump(student.getUserId());
+                peopleSearchService.refreshUser(student.getUserId());
             }
         }
 
@@ -0,0 +1,269 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.CourseRatingSummary;
+import com.education.platform.dto.RatingChangeRow;
+import com.education.platform.dto.RatingCountRow;
+import com.education.platform.entity.TrainingEvaluation;
+import com.education.platform.mapper.TrainingEvaluationMapper;
+import com.education.platform.service.ICourseRatingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 课程评分服务实现
+ * 每门课程对应一个不可变的汇总对象（评价数、评分总和、1-5分分布），评价提交的事务成功后
+ * 用ConcurrentHashMap.compute原子替换，读取时无需加锁、无需查询评价明细。
+ * 启动时及每天凌晨从评价表分组重算一次，校正直接改库等途径造成的偏差；
+ * 重建完成前的读取按课程ID分组查询数据库。
+ * 其他节点提交的评价按评价表updated_at定时增量同步（app.training.rating-sync-interval），
+ * 只重新统计有变更的课程。
+ * 评价事务从提交前到增量写入汇总期间持有重建锁的读锁，重建在写锁内查询并替换汇总，
+ * 每条评价要么已计入重建结果，要么在替换后才写入新汇总，不会丢失或重复计数。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class CourseRatingServiceImpl implements ICourseRatingService {
+
+    /**
+     * 增量同步时每次统计的课程数
+     */
+    private static final int SYNC_BATCH = 500;
+
+    @Autowired
+    private TrainingEvaluationMapper evaluationMapper;
+
+    private volatile Map<Long, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * 重建锁：评价提交与增量写入共享读锁，重建独占写锁
+     */
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    /**
+     * 增量同步水位：已同步到的评价最大更新时间（由对象锁保护）
+     */
+    private LocalDateTime watermark;
+
+    /**
+     * 应用启动后构建评分汇总
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("课程评分汇总初始化失败，评分将回退到分组查询: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每天凌晨校正评分汇总
+     */
+    @Scheduled(cron = "0 40 3 * * ?")
+    public void reconcile() {
+        rebuild();
+    }
+
+    /**
+     * 定时重新统计水位之后有评价变更的课程，同步其他节点提交的评价
+     */
+    @Scheduled(fixedDelayString = "${app.training.rating-sync-interval:60000}")
+    public synchronized void syncChanges() {
+        if (!ready || watermark == null) {
+            return;
+        }
+        List<RatingChangeRow> changes = evaluationMapper.selectChangedCourses(watermark);
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Long> courseIds = new ArrayList<>(changes.size());
+        LocalDateTime next = watermark;
+        for (RatingChangeRow change : changes) {
+            courseIds.add(change.getCourseId());
+            if (change.getUpdatedAt() != null && change.getUpdatedAt().isAfter(next)) {
+                next = change.getUpdatedAt();
+            }
+        }
+        // 写锁内统计并替换，本节点同时提交的评价要么已计入统计，要么在替换后才写入
+        rebuildLock.writeLock().lock();
+        try {
+            for (int from = 0; from < courseIds.size(); from += SYNC_BATCH) {
+                List<Long> batch = courseIds.subList(from, Math.min(from + SYNC_BATCH, courseIds.size()));
+                Map<Long, Aggregate> loaded = loadAggregates(batch);
+                for (Long courseId : batch) {
+                    Aggregate aggregate = loaded.get(courseId);
+                    if (aggregate == null) {
+                        aggregates.remove(courseId);
+                    } else {
+                        aggregates.put(courseId, aggregate);
+                    }
+                }
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        watermark = next;
+        log.debug("课程评分汇总增量同步: {}门课程", courseIds.size());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean evaluate(TrainingEvaluation evaluation) {
+        evaluation.setCreatedAt(LocalDateTime.now());
+        if (evaluationMapper.insert(evaluation) <= 0) {
+            return false;
+        }
+        Long courseId = evaluation.getCourseId();
+        int rating = evaluation.getRating();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    rebuildLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    addRating(courseId, rating);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (locked) {
+                        rebuildLock.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            addRating(courseId, rating);
+        }
+        return true;
+    }
+
+    @Override
+    public CourseRatingSummary getRating(Long courseId) {
+        return getRatings(List.of(courseId)).get(0);
+    }
+
+    @Override
+    public List<CourseRatingSummary> getRatings(Collection<Long> courseIds) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(courseIds);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Aggregate> source = ready ? aggregates : loadAggregates(ids);
+        List<CourseRatingSummary> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(toSummary(id, source.getOrDefault(id, Aggregate.EMPTY)));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, Aggregate> rebuilt;
+        rebuildLock.writeLock().lock();
+        try {
+            // 全量统计开始前的时刻作为增量同步水位
+            LocalDateTime snapshotTime = LocalDateTime.now();
+            rebuilt = new ConcurrentHashMap<>(loadAggregates(null));
+            aggregates = rebuilt;
+            watermark = snapshotTime;
+            ready = true;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        log.info("课程评分汇总重建完成，课程数: {}，耗时: {}ms", rebuilt.size(), System.currentTimeMillis() - start);
+    }
+
+    private void addRating(Long courseId, int rating) {
+        aggregates.compute(courseId, (id, current) ->
+                (current == null ? Aggregate.EMPTY : current).plus(rating, 1));
+    }
+
+    /**
+     * 分组查询评价表构建汇总
+     *
+     * @param courseIds 课程ID，为空时加载全部课程
+     */
+    private Map<Long, Aggregate> loadAggregates(Collection<Long> courseIds) {
+        Map<Long, Aggregate> result = new HashMap<>();
+        for (RatingCountRow row : evaluationMapper.selectRatingCounts(courseIds)) {
+            result.merge(row.getCourseId(), Aggregate.EMPTY.plus(row.getRating(), row.getTotal()),
+                    Aggregate::merge);
+        }
+        return result;
+    }
+
+    private static CourseRatingSummary toSummary(Long courseId, Aggregate aggregate) {
+        CourseRatingSummary summary = new CourseRatingSummary();
+        summary.setCourseId(courseId);
+        summary.setTotalEvaluations(aggregate.count);
+        summary.setAverageRating(aggregate.count == 0
+                ? 0.0 : Math.round((double) aggregate.sum / aggregate.count * 10) / 10.0);
+        List<Long> distribution = new ArrayList<>(aggregate.histogram.length);
+        for (long value : aggregate.histogram) {
+            distribution.add(value);
+        }
+        summary.setDistribution(distribution);
+        return summary;
+    }
+
+    /**
+     * 单门课程的评分汇总（不可变）
+     */
+    private static final class Aggregate {
+        private static final Aggregate EMPTY = new Aggregate(0, 0, new long[MAX_RATING - MIN_RATING + 1]);
+
+        private final long count;
+        private final long sum;
+        private final long[] histogram;
+
+        private Aggregate(long count, long sum, long[] histogram) {
+            this.count = count;
+            this.sum = sum;
+            this.histogram = histogram;
+        }
+
+        private Aggregate plus(int rating, long times) {
+            long[] next = Arrays.copyOf(histogram, histogram.length);
+            next[rating - MIN_RATING] += times;
+            return new Aggregate(count + times, sum + (long) rating * times, next);
+        }
+
+        private Aggregate merge(Aggregate other) {
+            long[] next = Arrays.copyOf(histogram, histogram.length);
+            for (int i = 0; i < next.length; i++) {
+                next[i] += other.histogram[i];
+            }
+            return new Aggregate(count + other.count, sum + other.sum, next);
+        }
+    }
+}
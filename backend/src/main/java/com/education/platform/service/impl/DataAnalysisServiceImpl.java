@@ -0,0 +1,396 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.education.platform.dto.AnalyticsOverview;
+import com.education.platform.entity.DataAnalysis;
+import com.education.platform.mapper.DataAnalysisMapper;
+import com.education.platform.service.IAnalyticsService;
+import com.education.platform.service.IDataAnalysisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分析结果预计算服务实现
+ * 1. 每天凌晨（app.analysis.precompute-cron）基于分析快照生成全区各维度、各学校教师维度的
+ *    柱状图、折线图、饼图数据，以及全区总览和近30天趋势，整体替换当天的结果；
+ * 2. 图表数据按“分析类型 + 学校 + 图表类型”缓存在内存中，缓存项记录加载时的版本号；
+ *    版本号取data_analysis表的最大ID，本节点预计算后立即更新，其他节点每分钟检查一次，
+ *    版本变化后缓存项在下次读取时重新加载。尚未生成的结果同样缓存，图表接口不触发计算；
+ *    学校维度只接受正常状态的学校（随版本检查每分钟更新），其他学校ID直接返回空且不缓存，
+ *    缓存项不超过“维度 × 学校 × 图表类型”的组合数；
+ * 3. 预计算在一个事务内先获取MySQL命名锁（GET_LOCK），多节点部署时同一时刻只有一个节点执行；
+ *    定时任务发现其他节点刚生成过当天结果、启动时发现当天结果已存在，均跳过。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class DataAnalysisServiceImpl implements IDataAnalysisService {
+
+    private static final List<String> CHART_TYPES = List.of("bar", "line", "pie");
+
+    /**
+     * 全区生成的分析维度
+     */
+    private static final List<String> DISTRICT_DIMENSIONS = List.of(
+            IAnalyticsService.DIMENSION_TEACHER_TITLE,
+            IAnalyticsService.DIMENSION_TEACHER_SUBJECT,
+            IAnalyticsService.DIMENSION_SCHOOL_TYPE,
+            IAnalyticsService.DIMENSION_SCHOOL_REGION,
+            IAnalyticsService.DIMENSION_RATIO_BY_TYPE,
+            IAnalyticsService.DIMENSION_RATIO_BY_REGION,
+            IAnalyticsService.DIMENSION_CLASS_SIZE_BY_TYPE,
+            IAnalyticsService.DIMENSION_CLASS_SIZE_BY_REGION
+    );
+
+    /**
+     * 按学校生成的分析维度
+     */
+    private static final List<String> SCHOOL_DIMENSIONS = List.of(
+            IAnalyticsService.DIMENSION_TEACHER_TITLE,
+            IAnalyticsService.DIMENSION_TEACHER_SUBJECT
+    );
+
+    /**
+     * 趋势覆盖的天数
+     */
+    private static final int TREND_DAYS = 30;
+
+    /**
+     * 单条SQL最多包含的记录数
+     */
+    private static final int BATCH_SIZE = 200;
+
+    /**
+     * 定时预计算时，当天结果在该时间（分钟）内已由其他节点生成则跳过
+     */
+    private static final int PRECOMPUTE_FRESH_MINUTES = 60;
+
+    /**
+     * 预计算使用的MySQL命名锁
+     */
+    private static final String PRECOMPUTE_LOCK = "education:analysis-precompute";
+
+    /**
+     * 未生成结果的缓存占位
+     */
+    private static final Map<String, Object> MISSING = Collections.emptyMap();
+
+    @Autowired
+    private DataAnalysisMapper dataAnalysisMapper;
+
+    @Autowired
+    private IAnalyticsService analyticsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<ChartKey, CachedChart> cache = new ConcurrentHashMap<>();
+
+    private volatile long version = -1;
+
+    /**
+     * 正常状态的学校，学校维度的请求只接受这些学校
+     */
+    private volatile Set<Long> knownSchools;
+
+    /**
+     * 应用启动时当天结果不存在则立即生成
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refreshVersion();
+            precomputeExclusively(null);
+        } catch (Exception e) {
+            log.warn("分析结果预计算失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每天定时预计算
+     */
+    @Scheduled(cron = "${app.analysis.precompute-cron:0 10 4 * * ?}")
+    public void scheduledPrecompute() {
+        precomputeExclusively(PRECOMPUTE_FRESH_MINUTES);
+    }
+
+    /**
+     * 检查其他节点是否生成了新结果，并更新学校列表、移出已停用学校的缓存项
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void refreshVersion() {
+        Long maxId = dataAnalysisMapper.selectMaxId();
+        version = maxId == null ? 0 : maxId;
+        Set<Long> schools = new HashSet<>(analyticsService.activeSchoolIds());
+        knownSchools = schools;
+        cache.keySet().removeIf(key -> key.schoolId != DISTRICT_SCHOOL_ID && !schools.contains(key.schoolId));
+    }
+
+    @Override
+    public boolean isSupported(String analysisType, Long schoolId, String chartType) {
+        if (!CHART_TYPES.contains(chartType)) {
+            return false;
+        }
+        if (ANALYSIS_TREND.equals(analysisType)) {
+            return schoolId == null && !"pie".equals(chartType);
+        }
+        return (schoolId == null ? DISTRICT_DIMENSIONS : SCHOOL_DIMENSIONS).contains(analysisType);
+    }
+
+    @Override
+    public Map<String, Object> getChart(String analysisType, Long schoolId, String chartType) {
+        if (schoolId != null) {
+            Set<Long> schools = knownSchools;
+            if (schools == null || !schools.contains(schoolId)) {
+                return null;
+            }
+        }
+        ChartKey key = new ChartKey(analysisType, schoolId == null ? DISTRICT_SCHOOL_ID : schoolId, chartType);
+        long current = version;
+        CachedChart cached = cache.get(key);
+        if (cached == null || cached.version != current) {
+            cached = new CachedChart(current, load(key));
+            cache.put(key, cached);
+        }
+        return cached.data == MISSING ? null : cached.data;
+    }
+
+    @Override
+    public synchronized int precompute() {
+        Integer written = transactionTemplate.execute(status -> {
+            if (!tryLock()) {
+                throw new IllegalStateException("其他节点正在预计算分析结果，请稍后重试");
+            }
+            try {
+                return compute();
+            } finally {
+                dataAnalysisMapper.releaseLock(PRECOMPUTE_LOCK);
+            }
+        });
+        refreshVersion();
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * 定时与启动时的预计算：未取得命名锁（其他节点正在执行）或当天已有结果时跳过
+     *
+     * @param withinMinutes 当天结果在最近若干分钟内生成过才跳过，为空表示当天有结果即跳过
+     */
+    private synchronized void precomputeExclusively(Integer withinMinutes) {
+        Integer written = transactionTemplate.execute(status -> {
+            if (!tryLock()) {
+                log.info("其他节点正在预计算分析结果，本节点跳过");
+                return null;
+            }
+            try {
+                if (dataAnalysisMapper.countByAnalysisDate(LocalDate.now(), withinMinutes) > 0) {
+                    log.info("当天分析结果已生成，本节点跳过预计算");
+                    return null;
+                }
+                return compute();
+            } finally {
+                dataAnalysisMapper.releaseLock(PRECOMPUTE_LOCK);
+            }
+        });
+        if (written != null) {
+            refreshVersion();
+        }
+    }
+
+    private boolean tryLock() {
+        return Integer.valueOf(1).equals(dataAnalysisMapper.tryLock(PRECOMPUTE_LOCK));
+    }
+
+    /**
+     * 生成并整体替换当天的结果，须在持有命名锁的事务内调用
+     */
+    private int compute() {
+        long start = System.currentTimeMillis();
+        analyticsService.refresh();
+        LocalDate today = LocalDate.now();
+        List<DataAnalysis> rows = new ArrayList<>();
+
+        for (String dimension : DISTRICT_DIMENSIONS) {
+            addCharts(rows, dimension, DISTRICT_SCHOOL_ID, analyticsService.breakdown(dimension, null), today);
+        }
+        for (Long schoolId : analyticsService.activeSchoolIds()) {
+            for (String dimension : SCHOOL_DIMENSIONS) {
+                addCharts(rows, dimension, schoolId, analyticsService.breakdown(dimension, schoolId), today);
+            }
+        }
+
+        AnalyticsOverview overview = analyticsService.overview();
+        rows.add(newRow(ANALYSIS_OVERVIEW, DISTRICT_SCHOOL_ID, null, overview, today));
+        Map<String, Object> trend = buildTrend(overview, today);
+        rows.add(newRow(ANALYSIS_TREND, DISTRICT_SCHOOL_ID, "bar", trend, today));
+        rows.add(newRow(ANALYSIS_TREND, DISTRICT_SCHOOL_ID, "line", trend, today));
+
+        dataAnalysisMapper.deleteByAnalysisDate(today);
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            dataAnalysisMapper.insertBatch(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        log.info("分析结果预计算完成，{}条，耗时{}ms", rows.size(), System.currentTimeMillis() - start);
+        return rows.size();
+    }
+
+    /**
+     * 同一份分布数据生成三种图表
+     */
+    private void addCharts(List<DataAnalysis> rows, String dimension, long schoolId,
+                           Map<String, Number> values, LocalDate date) {
+        Map<String, Object> axis = new LinkedHashMap<>();
+        axis.put("xAxis", new ArrayList<>(values.keySet()));
+        axis.put("series", new ArrayList<>(values.values()));
+        rows.add(newRow(dimension, schoolId, "bar", axis, date));
+        rows.add(newRow(dimension, schoolId, "line", axis, date));
+
+        List<Map<String, Object>> data = new ArrayList<>(values.size());
+        values.forEach((name, value) -> data.add(Map.of("value", value, "name", name)));
+        rows.add(newRow(dimension, schoolId, "pie", Map.of("data", data), date));
+    }
+
+    /**
+     * 近30天趋势：取此前各天的总览结果，加上当天总览
+     */
+    private Map<String, Object> buildTrend(AnalyticsOverview today, LocalDate date) {
+        LambdaQueryWrapper<DataAnalysis> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(DataAnalysis::getAnalysisType, ANALYSIS_OVERVIEW)
+               .eq(DataAnalysis::getSchoolId, DISTRICT_SCHOOL_ID)
+               .ge(DataAnalysis::getAnalysisDate, date.minusDays(TREND_DAYS - 1))
+               .lt(DataAnalysis::getAnalysisDate, date)
+               .orderByAsc(DataAnalysis::getAnalysisDate);
+        List<String> dates = new ArrayList<>();
+        List<Number> ratios = new ArrayList<>();
+        List<Number> students = new ArrayList<>();
+        List<Number> teachers = new ArrayList<>();
+        for (DataAnalysis row : dataAnalysisMapper.selectList(wrapper)) {
+            try {
+                AnalyticsOverview past = objectMapper.readValue(row.getResultData(), AnalyticsOverview.class);
+                dates.add(row.getAnalysisDate().toString());
+                ratios.add(past.getStudentTeacherRatio());
+                students.add(past.getStudentCount());
+                teachers.add(past.getTeacherCount());
+            } catch (JsonProcessingException e) {
+                log.warn("总览结果解析失败，ID: {}", row.getId());
+            }
+        }
+        dates.add(date.toString());
+        ratios.add(today.getStudentTeacherRatio());
+        students.add(today.getStudentCount());
+        teachers.add(today.getTeacherCount());
+
+        Map<String, Object> trend = new LinkedHashMap<>();
+        trend.put("xAxis", dates);
+        trend.put("series", ratios);
+        trend.put("students", students);
+        trend.put("teachers", teachers);
+        return trend;
+    }
+
+    private DataAnalysis newRow(String type, long schoolId, String chartType, Object data, LocalDate date) {
+        DataAnalysis row = new DataAnalysis();
+        row.setAnalysisType(type);
+        row.setSchoolId(schoolId);
+        row.setChartType(chartType);
+        row.setAnalysisDate(date);
+        try {
+            row.setResultData(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("分析结果序列化失败", e);
+        }
+        return row;
+    }
+
+    /**
+     * 读取最近一天的预计算结果
+     */
+    private Map<String, Object> load(ChartKey key) {
+        LambdaQueryWrapper<DataAnalysis> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(DataAnalysis::getAnalysisType, key.analysisType)
+               .eq(DataAnalysis::getSchoolId, key.schoolId)
+               .eq(DataAnalysis::getChartType, key.chartType)
+               .orderByDesc(DataAnalysis::getAnalysisDate)
+               .orderByDesc(DataAnalysis::getId);
+        List<DataAnalysis> rows = dataAnalysisMapper.selectPage(new Page<>(1, 1, false), wrapper).getRecords();
+        if (rows.isEmpty()) {
+            return MISSING;
+        }
+        try {
+            return Collections.unmodifiableMap(objectMapper.readValue(rows.get(0).getResultData(),
+                    new TypeReference<LinkedHashMap<String, Object>>() { }));
+        } catch (JsonProcessingException e) {
+            log.warn("分析结果解析失败，ID: {}", rows.get(0).getId());
+            return MISSING;
+        }
+    }
+
+    /**
+     * 缓存键：分析类型 + 学校 + 图表类型
+     */
+    private static final class ChartKey {
+        private final String analysisType;
+        private final long schoolId;
+        private final String chartType;
+
+        private ChartKey(String analysisType, long schoolId, String chartType) {
+            this.analysisType = analysisType;
+            this.schoolId = schoolId;
+            this.chartType = chartType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChartKey)) {
+                return false;
+            }
+            ChartKey other = (ChartKey) o;
+            return schoolId == other.schoolId && Objects.equals(analysisType, other.analysisType)
+                    && Objects.equals(chartType, other.chartType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(analysisType, schoolId, chartType);
+        }
+    }
+
+    /**
+     * 带版本号的缓存项
+     */
+    private static final class CachedChart {
+        private final long version;
+        private final Map<String, Object> data;
+
+        private CachedChart(long version, Map<String, Object> data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+}
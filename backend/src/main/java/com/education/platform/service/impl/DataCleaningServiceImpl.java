@@ -0,0 +1,328 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.education.platform.dto.CleaningReport;
+import com.education.platform.entity.DataCleaning;
+import com.education.platform.entity.DataCollection;
+import com.education.platform.mapper.DataCleaningMapper;
+import com.education.platform.mapper.DataCollectionMapper;
+import com.education.platform.service.IDataCleaningService;
+import com.education.platform.util.CleaningRuleSet;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 数据清洗服务实现
+ * 1. 规则JSON规范化后取SHA-256作为键，编译结果缓存复用，重复执行相同规则时不再解析；
+ * 2. 待清洗数据按主键分页读取，每页在专用ForkJoinPool上并行解析、清洗；
+ * 3. 去重在并行阶段之后按主键顺序进行，本次执行中同一学校、同一数据类型下去重键相同的记录保留主键最小的一条，
+ *    其余记录置为重复状态，不再参与之后的清洗；去重字段缺失或为空的记录不参与去重。
+ *    去重范围仅限本次执行处理的记录，已在之前执行中清洗的数据不参与比较；已见去重键在执行期间常驻内存，
+ *    每条约百余字节，单次执行的数据量以百万条为宜；
+ * 4. 每页一个事务：多行INSERT写入清洗记录（每条采集数据一条，重复执行时覆盖为最近一次结果），
+ *    一条UPDATE写回清洗后的内容并置为已清洗。
+ * 校验失败的记录保持待清洗状态，修正规则后可再次执行。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class DataCleaningServiceImpl implements IDataCleaningService {
+
+    /**
+     * 每页读取的采集记录数
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * 单条SQL最多包含的记录数
+     */
+    private static final int BATCH_SIZE = 200;
+
+    /**
+     * 编译规则缓存条数
+     */
+    private static final int RULE_CACHE_SIZE = 128;
+
+    /**
+     * 报告中最多返回的失败说明条数
+     */
+    private static final int MAX_ERRORS = 20;
+
+    @Autowired
+    private DataCollectionMapper dataCollectionMapper;
+
+    @Autowired
+    private DataCleaningMapper dataCleaningMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.cleaning.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    /**
+     * 规则摘要 → 编译后的规则，按访问顺序淘汰
+     */
+    private final Map<String, CleaningRuleSet> compiledRules =
+            new LinkedHashMap<>(RULE_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CleaningRuleSet> eldest) {
+                    return size() > RULE_CACHE_SIZE;
+                }
+            };
+
+    @PostConstruct
+    public void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    @Override
+    public CleaningReport cleanCollection(Long collectionId, String rules, Long operatorId) {
+        DataCollection collection = dataCollectionMapper.selectById(collectionId);
+        if (collection == null) {
+            throw new IllegalArgumentException("采集数据不存在");
+        }
+        if (!Integer.valueOf(DataCollection.STATUS_PENDING).equals(collection.getStatus())) {
+            throw new IllegalArgumentException("该数据已清洗");
+        }
+        Run run = prepare(rules, operatorId);
+        process(run, List.of(collection));
+        return run.finish();
+    }
+
+    @Override
+    public CleaningReport cleanPending(String dataType, Long schoolId, String rules, Long operatorId) {
+        Run run = prepare(rules, operatorId);
+        long lastId = 0;
+        while (true) {
+            LambdaQueryWrapper<DataCollection> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(DataCollection::getStatus, DataCollection.STATUS_PENDING)
+                   .gt(DataCollection::getId, lastId)
+                   .orderByAsc(DataCollection::getId);
+            if (dataType != null && !dataType.isEmpty()) {
+                wrapper.eq(DataCollection::getDataType, dataType);
+            }
+            if (schoolId != null) {
+                wrapper.eq(DataCollection::getSchoolId, schoolId);
+            }
+            List<DataCollection> page = dataCollectionMapper.selectPage(new Page<>(1, PAGE_SIZE, false), wrapper)
+                    .getRecords();
+            if (page.isEmpty()) {
+                break;
+            }
+            process(run, page);
+            lastId = page.get(page.size() - 1).getId();
+        }
+        CleaningReport report = run.finish();
+        log.info("数据清洗完成：处理{}条，成功{}条，失败{}条，重复{}条，耗时{}ms", report.getProcessed(),
+                report.getCleaned(), report.getFailed(), report.getDuplicates(), report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * 解析规则（命中缓存时跳过编译）
+     */
+    private Run prepare(String rules, Long operatorId) {
+        String canonical;
+        JsonNode tree;
+        try {
+            tree = rules == null || rules.isBlank() ? null : objectMapper.readTree(rules);
+            canonical = tree == null ? "{}" : objectMapper.writeValueAsString(tree);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("清洗规则不是有效的JSON: " + e.getOriginalMessage());
+        }
+        String hash = sha256(canonical);
+        CleaningRuleSet ruleSet;
+        synchronized (compiledRules) {
+            ruleSet = compiledRules.get(hash);
+        }
+        if (ruleSet == null) {
+            ruleSet = CleaningRuleSet.compile(tree);
+            synchronized (compiledRules) {
+                compiledRules.put(hash, ruleSet);
+            }
+        }
+        return new Run(ruleSet, canonical, hash, operatorId);
+    }
+
+    /**
+     * 处理一页采集数据：并行清洗，按主键顺序去重，批量写入
+     */
+    private void process(Run run, List<DataCollection> page) {
+        List<Outcome> outcomes;
+        try {
+            outcomes = pool.submit(() -> page.parallelStream().map(c -> clean(run.ruleSet, c)).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("数据清洗被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("数据清洗失败: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<DataCleaning> records = new ArrayList<>(outcomes.size());
+        List<DataCollection> cleaned = new ArrayList<>();
+        List<Long> duplicates = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            DataCollection collection = outcome.collection;
+            if (outcome.errors.isEmpty() && outcome.dedupKey != null) {
+                String key = collection.getSchoolId() + "\u0002" + collection.getDataType() + "\u0002" + outcome.dedupKey;
+                Long firstId = run.seen.putIfAbsent(key, collection.getId());
+                if (firstId != null) {
+                    outcome.errors.add("与采集ID " + firstId + " 重复");
+                    duplicates.add(collection.getId());
+                    run.report.setDuplicates(run.report.getDuplicates() + 1);
+                }
+            } else if (!outcome.errors.isEmpty()) {
+                run.report.setFailed(run.report.getFailed() + 1);
+            }
+
+            boolean success = outcome.errors.isEmpty();
+            DataCleaning record = new DataCleaning();
+            record.setCollectionId(collection.getId());
+            record.setCleanRules(run.canonicalRules);
+            record.setCleanResult(resultText(run.hash, outcome.errors));
+            record.setStatus(success ? 1 : 0);
+            record.setOperatorId(run.operatorId);
+            records.add(record);
+            if (success) {
+                DataCollection update = new DataCollection();
+                update.setId(collection.getId());
+                update.setDataContent(outcome.content);
+                cleaned.add(update);
+                run.report.setCleaned(run.report.getCleaned() + 1);
+            } else if (run.report.getErrors().size() < MAX_ERRORS) {
+                run.report.getErrors().add("采集ID " + collection.getId() + "：" + String.join("；", outcome.errors));
+            }
+        }
+        run.report.setProcessed(run.report.getProcessed() + outcomes.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < records.size(); from += BATCH_SIZE) {
+                dataCleaningMapper.upsertBatch(records.subList(from, Math.min(from + BATCH_SIZE, records.size())));
+            }
+            for (int from = 0; from < duplicates.size(); from += BATCH_SIZE) {
+                dataCollectionMapper.markDuplicate(duplicates.subList(from, Math.min(from + BATCH_SIZE, duplicates.size())));
+            }
+            for (int from = 0; from < cleaned.size(); from += BATCH_SIZE) {
+                dataCollectionMapper.updateCleaned(cleaned.subList(from, Math.min(from + BATCH_SIZE, cleaned.size())));
+            }
+        });
+    }
+
+    /**
+     * 清洗单条记录（在并行线程中执行）
+     */
+    private Outcome clean(CleaningRuleSet ruleSet, DataCollection collection) {
+        Outcome outcome = new Outcome(collection);
+        try {
+            JsonNode content = objectMapper.readTree(collection.getDataContent());
+            ObjectNode result = ruleSet.clean(content, outcome.errors);
+            if (outcome.errors.isEmpty()) {
+                outcome.content = objectMapper.writeValueAsString(result);
+                outcome.dedupKey = ruleSet.dedupKey(result);
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            outcome.errors.add("数据内容不是有效的JSON");
+        }
+        return outcome;
+    }
+
+    private String resultText(String hash, List<String> errors) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ruleHash", hash);
+        result.put("success", errors.isEmpty());
+        if (!errors.isEmpty()) {
+            result.put("errors", errors);
+        }
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            return String.join("；", errors);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 一次清洗执行的上下文
+     */
+    private static final class Run {
+        private final CleaningRuleSet ruleSet;
+        private final String canonicalRules;
+        private final String hash;
+        private final Long operatorId;
+        private final long startedAt = System.currentTimeMillis();
+        /**
+         * 本次执行已见的去重键 → 首条采集ID，随执行结束释放
+         */
+        private final Map<String, Long> seen = new HashMap<>();
+        private final CleaningReport report = new CleaningReport();
+
+        private Run(CleaningRuleSet ruleSet, String canonicalRules, String hash, Long operatorId) {
+            this.ruleSet = ruleSet;
+            this.canonicalRules = canonicalRules;
+            this.hash = hash;
+            this.operatorId = operatorId;
+            report.setRuleHash(hash);
+        }
+
+        private CleaningReport finish() {
+            report.setElapsedMillis(System.currentTimeMillis() - startedAt);
+            return report;
+        }
+    }
+
+    /**
+     * 单条记录的清洗结果
+     */
+    private static final class Outcome {
+        private final DataCollection collection;
+        private final List<String> errors = new ArrayList<>();
+        private String content;
+        private String dedupKey;
+
+        private Outcome(DataCollection collection) {
+            this.collection = collection;
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.IngestionMetrics;
+import com.education.platform.dto.IngestionResult;
+import com.education.platform.entity.DataCollection;
+import com.education.platform.mapper.DataCollectionMapper;
+import com.education.platform.service.IDataIngestionService;
+import com.education.platform.util.SpreadsheetRowReader;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数据采集服务实现
+ * 1. 同时进行的上传数受信号量限制，超出时直接拒绝（请求级背压）；
+ * 2. 请求线程逐行解析请求体，每行一条记录放入有界暂存队列，队列满时阻塞读取，
+ *    上游发送随之放缓，持续阻塞超过超时时间则终止本次上传；
+ * 3. 若干写入线程从队列批量取出记录（按条数与字节数双重限制，避免超过max_allowed_packet），
+ *    多行INSERT写入data_collection；失败的批次对半拆分后分别重试，单条仍失败或数据库不可用时
+ *    追加写入本地暂存文件（app.ingestion.spill-dir），由定时任务重新写入，已受理的记录不丢弃；
+ * 4. 按“学校 + 数据类型”累计受理、写入、失败（转入暂存文件）条数与字节数。
+ * 请求体按行读取时单行长度受限，超长行在读取过程中直接跳过，不整行读入内存。
+ * 队列中尚未写入的记录在应用正常停止时写完，进程异常退出时会丢失，学校可按采集日期重新上报。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class DataIngestionServiceImpl implements IDataIngestionService {
+
+    /**
+     * 单批最多写入的记录数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 暂存文件名，重新写入时先改名为REPLAY_PREFIX开头的文件
+     */
+    private static final String SPILL_FILE = "pending.ndjson";
+
+    private static final String REPLAY_PREFIX = "replay-";
+
+    /**
+     * 单行最大字符数
+     */
+    private static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+    /**
+     * 每次上传最多返回的错误说明条数
+     */
+    private static final int MAX_ERRORS = 20;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Autowired
+    private DataCollectionMapper dataCollectionMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.ingestion.queue-capacity:20000}")
+    private int queueCapacity;
+
+    @Value("${app.ingestion.writer-threads:2}")
+    private int writerThreads;
+
+    @Value("${app.ingestion.max-concurrent-uploads:4}")
+    private int maxConcurrentUploads;
+
+    /**
+     * 队列已满时单条记录最长等待时间（毫秒）
+     */
+    @Value("${app.ingestion.offer-timeout:30000}")
+    private long offerTimeout;
+
+    /**
+     * 单批最多写入的字节数（UTF-8），需小于MySQL的max_allowed_packet
+     */
+    @Value("${app.ingestion.batch-max-bytes:4194304}")
+    private long batchMaxBytes;
+
+    @Value("${app.ingestion.spill-dir:data/ingestion-spill}")
+    private String spillDir;
+
+    private final Object spillLock = new Object();
+
+    private BlockingQueue<DataCollection> queue;
+
+    private Semaphore uploads;
+
+    private final List<Thread> writers = new ArrayList<>();
+
+    private final Map<MetricKey, Counter> counters = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        uploads = new Semaphore(maxConcurrentUploads);
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::writeLoop, "data-ingestion-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    /**
+     * 停止写入线程，写完队列中剩余的记录
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(offerTimeout);
+        }
+    }
+
+    @Override
+    public boolean tryBeginUpload() {
+        return uploads.tryAcquire();
+    }
+
+    @Override
+    public void endUpload() {
+        uploads.release();
+    }
+
+    @Override
+    public IngestionResult ingest(Long schoolId, String dataType, String dataSource, Map<String, Object> content) {
+        IngestionResult result = new IngestionResult();
+        Counter counter = counterOf(schoolId, dataType);
+        try {
+            String json = objectMapper.writeValueAsString(content);
+            if (!enqueue(newRecord(schoolId, dataType, dataSource, json), counter, json.length())) {
+                result.setAborted(true);
+                return result;
+            }
+            result.setAccepted(1);
+        } catch (JsonProcessingException e) {
+            reject(result, counter, 1, e.getOriginalMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setAborted(true);
+        }
+        return result;
+    }
+
+    @Override
+    public IngestionResult ingestStream(Long schoolId, String dataType, String dataSource, String format,
+                                        InputStream body) throws IOException {
+        IngestionResult result = new IngestionResult();
+        Counter counter = counterOf(schoolId, dataType);
+        boolean csv = FORMAT_CSV.equals(format);
+        BoundedLineReader reader = new BoundedLineReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024), MAX_LINE_LENGTH);
+        List<String> header = null;
+        long lineNumber = 0;
+        String line;
+        try {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.isOverflow()) {
+                    reject(result, counter, lineNumber, "单行超过" + MAX_LINE_LENGTH + "个字符");
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                String json;
+                if (csv) {
+                    List<String> fields = SpreadsheetRowReader.parseCsvLine(line);
+                    if (header == null) {
+                        // 去掉UTF-8 BOM
+                        if (!fields.isEmpty() && fields.get(0).startsWith("\uFEFF")) {
+                            fields.set(0, fields.get(0).substring(1));
+                        }
+                        header = fields;
+                        continue;
+                    }
+                    if (fields.size() != header.size()) {
+                        reject(result, counter, lineNumber, "列数为" + fields.size() + "，表头为" + header.size());
+                        continue;
+                    }
+                    Map<String, String> row = new LinkedHashMap<>();
+                    for (int i = 0; i < header.size(); i++) {
+                        row.put(header.get(i), fields.get(i));
+                    }
+                    json = objectMapper.writeValueAsString(row);
+                } else {
+                    String error = validateJsonObject(line);
+                    if (error != null) {
+                        reject(result, counter, lineNumber, error);
+                        continue;
+                    }
+                    json = line;
+                }
+                if (!enqueue(newRecord(schoolId, dataType, dataSource, json), counter, line.length())) {
+                    result.setAborted(true);
+                    result.getErrors().add("第" + lineNumber + "行：写入队列持续已满，上传已终止");
+                    break;
+                }
+                result.setAccepted(result.getAccepted() + 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setAborted(true);
+        }
+        return result;
+    }
+
+    @Override
+    public List<IngestionMetrics> getMetrics() {
+        List<IngestionMetrics> metrics = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> {
+            IngestionMetrics m = new IngestionMetrics();
+            m.setSchoolId(key.schoolId);
+            m.setDataType(key.dataType);
+            m.setReceived(counter.received.sum());
+            m.setWritten(counter.written.sum());
+            m.setFailed(counter.failed.sum());
+            m.setRejected(counter.rejected.sum());
+            m.setBytes(counter.bytes.sum());
+            m.setFirstReceivedAt(counter.firstReceivedAt);
+            m.setLastWrittenAt(counter.lastWrittenAt);
+            if (counter.firstReceivedAt != null && counter.lastWrittenAt != null) {
+                long millis = Math.max(1, Duration.between(counter.firstReceivedAt, counter.lastWrittenAt).toMillis());
+                m.setRecordsPerSecond(Math.round(m.getWritten() * 10000.0 / millis) / 10.0);
+            }
+            metrics.add(m);
+        });
+        metrics.sort(Comparator.comparing(IngestionMetrics::getSchoolId, Comparator.nullsFirst(Long::compare))
+                .thenComparing(IngestionMetrics::getDataType));
+        return metrics;
+    }
+
+    private DataCollection newRecord(Long schoolId, String dataType, String dataSource, String json) {
+        DataCollection record = new DataCollection();
+        record.setSchoolId(schoolId);
+        record.setDataType(dataType);
+        record.setDataSource(dataSource);
+        record.setDataContent(json);
+        record.setCollectionDate(LocalDate.now());
+        record.setStatus(DataCollection.STATUS_PENDING);
+        return record;
+    }
+
+    /**
+     * 放入暂存队列，队列满时最多等待offerTimeout
+     */
+    private boolean enqueue(DataCollection record, Counter counter, long bytes) throws InterruptedException {
+        if (!running || !queue.offer(record, offerTimeout, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        counter.received.increment();
+        counter.bytes.add(bytes);
+        if (counter.firstReceivedAt == null) {
+            counter.firstReceivedAt = LocalDateTime.now();
+        }
+        return true;
+    }
+
+    private void reject(IngestionResult result, Counter counter, long lineNumber, String reason) {
+        result.setRejected(result.getRejected() + 1);
+        counter.rejected.increment();
+        if (result.getErrors().size() < MAX_ERRORS) {
+            result.getErrors().add("第" + lineNumber + "行：" + reason);
+        }
+    }
+
+    private void writeLoop() {
+        List<DataCollection> batch = new ArrayList<>(BATCH_SIZE);
+        DataCollection carry = null;
+        while (running || carry != null || !queue.isEmpty()) {
+            try {
+                DataCollection first = carry != null ? carry : queue.poll(200, TimeUnit.MILLISECONDS);
+                carry = null;
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long bytes = utf8Length(first.getDataContent());
+                DataCollection next;
+                while (batch.size() < BATCH_SIZE && (next = queue.poll()) != null) {
+                    long size = utf8Length(next.getDataContent());
+                    if (bytes + size > batchMaxBytes) {
+                        // 超出字节上限的记录留作下一批的第一条
+                        carry = next;
+                        break;
+                    }
+                    batch.add(next);
+                    bytes += size;
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        if (carry != null) {
+            writeBatch(Collections.singletonList(carry));
+        }
+    }
+
+    /**
+     * 多行INSERT写入；失败时对半拆分重试，单条仍失败或数据库不可用时转入暂存文件
+     */
+    private void writeBatch(List<DataCollection> batch) {
+        try {
+            insert(batch);
+            return;
+        } catch (DataAccessResourceFailureException e) {
+            // 连接失败时拆分只会重复失败，整批转入暂存文件
+            log.warn("数据采集批量写入失败（数据库不可用），{}条转入暂存文件: {}", batch.size(), e.getMessage());
+            spill(batch);
+            return;
+        } catch (Exception e) {
+            if (batch.size() > 1) {
+                log.warn("数据采集批量写入失败，拆分为两批重试（{}条）: {}", batch.size(), e.getMessage());
+                int middle = batch.size() / 2;
+                writeBatch(new ArrayList<>(batch.subList(0, middle)));
+                writeBatch(new ArrayList<>(batch.subList(middle, batch.size())));
+                return;
+            }
+            log.warn("数据采集单条写入失败，重试: {}", e.getMessage());
+        }
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            log.error("数据采集单条写入重试失败，转入暂存文件: {}", e.getMessage());
+            spill(batch);
+        }
+    }
+
+    private void insert(List<DataCollection> batch) {
+        dataCollectionMapper.insertBatch(batch);
+        LocalDateTime now = LocalDateTime.now();
+        for (DataCollection record : batch) {
+            Counter counter = counterOf(record.getSchoolId(), record.getDataType());
+            counter.written.increment();
+            counter.lastWrittenAt = now;
+        }
+    }
+
+    /**
+     * 写入失败的记录追加到暂存文件，每行一条；暂存文件也无法写入时才丢弃
+     */
+    private void spill(List<DataCollection> records) {
+        records.forEach(record -> counterOf(record.getSchoolId(), record.getDataType()).failed.increment());
+        synchronized (spillLock) {
+            try {
+                Path dir = Files.createDirectories(Paths.get(spillDir));
+                try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve(SPILL_FILE), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (DataCollection record : records) {
+                        Map<String, Object> line = new HashMap<>();
+                        line.put("schoolId", record.getSchoolId());
+                        line.put("dataType", record.getDataType());
+                        line.put("dataSource", record.getDataSource());
+                        line.put("dataContent", record.getDataContent());
+                        line.put("collectionDate", record.getCollectionDate().toString());
+                        writer.write(objectMapper.writeValueAsString(line));
+                        writer.newLine();
+                    }
+                }
+            } catch (IOException e) {
+                log.error("数据采集暂存文件写入失败，丢弃{}条: {}", records.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 定时将暂存文件中的记录重新写入，仍失败的记录写回新的暂存文件
+     */
+    @Scheduled(fixedDelayString = "${app.ingestion.spill-retry-interval:300000}")
+    public void replaySpilled() {
+        Path dir = Paths.get(spillDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        synchronized (spillLock) {
+            Path pending = dir.resolve(SPILL_FILE);
+            try {
+                if (Files.exists(pending)) {
+                    Files.move(pending, dir.resolve(REPLAY_PREFIX + System.currentTimeMillis() + ".ndjson"));
+                }
+            } catch (IOException e) {
+                log.warn("数据采集暂存文件改名失败: {}", e.getMessage());
+                return;
+            }
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, REPLAY_PREFIX + "*.ndjson")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.warn("读取数据采集暂存目录失败: {}", e.getMessage());
+            return;
+        }
+        Collections.sort(files);
+        for (Path file : files) {
+            try {
+                replayFile(file);
+                Files.delete(file);
+            } catch (IOException e) {
+                log.warn("数据采集暂存文件{}重新写入失败: {}", file.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private void replayFile(Path file) throws IOException {
+        List<DataCollection> batch = new ArrayList<>(BATCH_SIZE);
+        long bytes = 0;
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<?, ?> values = objectMapper.readValue(line, Map.class);
+                DataCollection record = newRecord(values.get("schoolId") == null ? null
+                                : ((Number) values.get("schoolId")).longValue(),
+                        (String) values.get("dataType"), (String) values.get("dataSource"),
+                        (String) values.get("dataContent"));
+                record.setCollectionDate(LocalDate.parse((String) values.get("collectionDate")));
+                long size = utf8Length(record.getDataContent());
+                if (!batch.isEmpty() && (batch.size() >= BATCH_SIZE || bytes + size > batchMaxBytes)) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    bytes = 0;
+                }
+                batch.add(record);
+                bytes += size;
+                count++;
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+        log.info("数据采集暂存文件{}已重新写入: {}条", file.getFileName(), count);
+    }
+
+    /**
+     * 字符串按UTF-8编码后的字节数
+     */
+    private static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private Counter counterOf(Long schoolId, String dataType) {
+        return counters.computeIfAbsent(new MetricKey(schoolId, dataType), k -> new Counter());
+    }
+
+    /**
+     * 校验一行是否为JSON对象（流式解析，不构建对象树）
+     */
+    private static String validateJsonObject(String line) {
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return "不是JSON对象";
+            }
+            parser.skipChildren();
+            if (parser.nextToken() != null) {
+                return "JSON对象后存在多余内容";
+            }
+            return null;
+        } catch (IOException e) {
+            return "JSON格式错误";
+        }
+    }
+
+    /**
+     * 指标键：学校 + 数据类型
+     */
+    private static final class MetricKey {
+        private final Long schoolId;
+        private final String dataType;
+
+        private MetricKey(Long schoolId, String dataType) {
+            this.schoolId = schoolId;
+            this.dataType = dataType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MetricKey)) {
+                return false;
+            }
+            MetricKey other = (MetricKey) o;
+            return Objects.equals(schoolId, other.schoolId) && Objects.equals(dataType, other.dataType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schoolId, dataType);
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder received = new LongAdder();
+        private final LongAdder written = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private volatile LocalDateTime firstReceivedAt;
+        private volatile LocalDateTime lastWrittenAt;
+    }
+
+    /**
+     * 限制单行长度的按行读取：超长行在读取时跳过剩余内容，不整行读入内存
+     * 行结束符与BufferedReader.readLine相同（\n、\r、\r\n）
+     */
+    private static final class BoundedLineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean overflow;
+
+        private BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * 读取下一行，超长时返回空字符串并将isOverflow置为true，结束时返回null
+         */
+        private String readLine() throws IOException {
+            line.setLength(0);
+            overflow = false;
+            boolean read = false;
+            while (true) {
+                if (position >= limit) {
+                    limit = reader.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return read ? result() : null;
+                    }
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    skipLineFeed = buffer[position] == '\r';
+                    position++;
+                    return result();
+                }
+            }
+        }
+
+        private boolean isOverflow() {
+            return overflow;
+        }
+
+        private void append(int start, int end) {
+            if (overflow) {
+                return;
+            }
+            if (line.length() + end - start > maxLength) {
+                overflow = true;
+                line.setLength(0);
+                return;
+            }
+            line.append(buffer, start, end - start);
+        }
+
+        private String result() {
+            return overflow ? "" : line.toString();
+        }
+    }
+}
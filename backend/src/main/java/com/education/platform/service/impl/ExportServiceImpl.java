@@ -0,0 +1,192 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.GradeListRow;
+import com.education.platform.dto.StatusChangeListRow;
+import com.education.platform.dto.StudentListRow;
+import com.education.platform.dto.TeacherListRow;
+import com.education.platform.mapper.GradeMapper;
+import com.education.platform.mapper.OfficeAssetMapper;
+import com.education.platform.mapper.StudentMapper;
+import com.education.platform.mapper.StudentStatusChangeMapper;
+import com.education.platform.mapper.TeacherMapper;
+import com.education.platform.service.IExportService;
+import com.education.platform.util.StreamingExcelWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 数据导出服务实现
+ * 1. 在只读事务中打开MyBatis游标（MySQL驱动逐行流式读取），每读一行即写入SXSSF工作簿，
+ *    不构造完整结果列表；
+ * 2. 游标读完即结束事务、归还连接，之后再将工作簿写入响应流，客户端下载慢不会占用数据库连接；
+ * 3. 同时进行的导出数量受app.export.max-concurrent限制。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements IExportService {
+
+    private static final Map<Integer, String> STUDENT_STATUS = Map.of(1, "在读", 2, "毕业", 3, "转学", 4, "休学");
+
+    private static final Map<Integer, String> TEACHER_STATUS = Map.of(1, "在职", 2, "离职");
+
+    private static final Map<Integer, String> CHANGE_TYPE = Map.of(1, "休学", 2, "转学", 3, "复学", 4, "退学", 5, "其他");
+
+    private static final Map<Integer, String> APPROVAL_STATUS = Map.of(0, "待审核", 1, "已通过", 2, "已驳回");
+
+    private static final Map<Integer, String> ASSET_STATUS = Map.of(1, "正常", 2, "维修中", 3, "报废");
+
+    private static final Map<String, String> EXAM_TYPE = Map.of("midterm", "期中", "final", "期末", "daily", "平时");
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private TeacherMapper teacherMapper;
+
+    @Autowired
+    private GradeMapper gradeMapper;
+
+    @Autowired
+    private StudentStatusChangeMapper studentStatusChangeMapper;
+
+    @Autowired
+    private OfficeAssetMapper officeAssetMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 同时进行的导出数上限
+     */
+    @Value("${app.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private Semaphore exports;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        exports = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @Override
+    public boolean tryBeginExport() {
+        return exports.tryAcquire();
+    }
+
+    @Override
+    public void endExport() {
+        exports.release();
+    }
+
+    @Override
+    public long exportStudents(Long schoolId, Long classId, String keyword, List<Long> userIds,
+                               OutputStream out) throws IOException {
+        String[] headers = {"学号", "姓名", "班级", "监护人", "监护人电话", "入学日期", "状态"};
+        Supplier<Cursor<StudentListRow>> query = userIds != null && userIds.isEmpty() ? null
+                : () -> studentMapper.selectStudentListCursor(schoolId, classId, keyword, userIds);
+        return export("学生名单", headers, query, row -> new Object[]{
+                row.getStudentNumber(), row.getName(), row.getClassName(), row.getGuardianName(),
+                row.getGuardianPhone(), row.getEnrollmentDate(), STUDENT_STATUS.get(row.getStatus())
+        }, out);
+    }
+
+    @Override
+    public long exportTeachers(Long schoolId, String keyword, List<Long> userIds,
+                               OutputStream out) throws IOException {
+        String[] headers = {"工号", "姓名", "部门", "职称", "任教学科", "联系电话", "邮箱", "入职日期", "状态"};
+        Supplier<Cursor<TeacherListRow>> query = userIds != null && userIds.isEmpty() ? null
+                : () -> teacherMapper.selectTeacherListCursor(schoolId, keyword, userIds);
+        return export("教师名单", headers, query, row -> new Object[]{
+                row.getTeacherNumber(), row.getName(), row.getDepartment(), row.getTitle(), row.getSubject(),
+                row.getPhone(), row.getEmail(), row.getHireDate(), TEACHER_STATUS.get(row.getStatus())
+        }, out);
+    }
+
+    @Override
+    public long exportGrades(Long schoolId, Long classId, String subject, String examType, String academicTerm,
+                             OutputStream out) throws IOException {
+        String[] headers = {"学号", "姓名", "班级", "科目", "考试类型", "分数", "考试日期", "学期", "录入教师", "备注"};
+        return export("成绩", headers,
+                () -> gradeMapper.selectGradeListCursor(schoolId, classId, subject, examType, academicTerm),
+                row -> new Object[]{
+                        row.getStudentNumber(), row.getStudentName(), row.getClassName(), row.getSubject(),
+                        EXAM_TYPE.getOrDefault(row.getExamType(), row.getExamType()), row.getScore(),
+                        row.getExamDate(), row.getAcademicTerm(), row.getTeacherName(), row.getRemark()
+                }, out);
+    }
+
+    @Override
+    public long exportStatusChanges(String studentName, Integer changeType, Integer status,
+                                    OutputStream out) throws IOException {
+        String[] headers = {"学号", "学生姓名", "班级", "异动类型", "异动原因", "开始日期", "结束日期", "转入学校",
+                "审核状态", "审核意见", "审核人", "审核时间", "申请人", "申请时间"};
+        return export("学籍异动", headers,
+                () -> studentStatusChangeMapper.selectStatusChangeListCursor(studentName, changeType, status),
+                row -> new Object[]{
+                        row.getStudentNumber(), row.getStudentName(), row.getClassName(),
+                        CHANGE_TYPE.get(row.getChangeType()), row.getReason(), row.getStartDate(), row.getEndDate(),
+                        row.getTargetSchool(), APPROVAL_STATUS.get(row.getStatus()), row.getApprovalComment(),
+                        row.getApproverName(), row.getApprovalTime(), row.getApplicantName(), row.getCreatedAt()
+                }, out);
+    }
+
+    @Override
+    public long exportAssets(Long schoolId, String category, String keyword, OutputStream out) throws IOException {
+        String[] headers = {"资产编码", "资产名称", "分类", "规格型号", "数量", "单价", "总价值", "采购日期",
+                "存放位置", "状态", "责任人"};
+        return export("办公资产", headers,
+                () -> officeAssetMapper.selectAssetCursor(schoolId, category, keyword),
+                row -> new Object[]{
+                        row.getAssetCode(), row.getAssetName(), row.getCategory(), row.getSpecification(),
+                        row.getQuantity(), row.getUnitPrice(), row.getTotalValue(), row.getPurchaseDate(),
+                        row.getLocation(), ASSET_STATUS.get(row.getStatus()), row.getResponsiblePerson()
+                }, out);
+    }
+
+    /**
+     * 在只读事务中遍历游标写入工作簿，事务结束后再写出到输出流
+     *
+     * @param query 打开游标的查询，为空时只导出表头
+     */
+    private <T> long export(String sheetName, String[] headers, Supplier<Cursor<T>> query,
+                            Function<T, Object[]> toRow, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(sheetName, headers)) {
+            if (query != null) {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Cursor<T> cursor = query.get()) {
+                        for (T row : cursor) {
+                            writer.writeRow(toRow.apply(row));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            writer.finish(out);
+            log.info("导出{}完成，{}行，耗时{}ms", sheetName, writer.getRowCount(), System.currentTimeMillis() - start);
+            return writer.getRowCount();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.PushEnvelope;
+import com.education.platform.service.IPushRelay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内推送中继（默认，app.push.relay=local）
+ * 发布即在调用线程内交给本节点的监听器，只能送达连接到本节点的客户端
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.push.relay", havingValue = "local", matchIfMissing = true)
+public class LocalPushRelay implements IPushRelay {
+
+    private final List<Consumer<PushEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(PushEnvelope envelope) {
+        for (Consumer<PushEnvelope> listener : listeners) {
+            try {
+                listener.accept(envelope);
+            } catch (Exception e) {
+                log.warn("推送投递失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<PushEnvelope> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,537 @@
+package com.education.platform.service.impl;
+
+import cn.hutool.extra.pinyin.PinyinUtil;
+import com.education.platform.dto.PersonChangeRow;
+import com.education.platform.dto.PersonSearchRow;
+import com.education.platform.mapper.UserMapper;
+import com.education.platform.service.IPeopleSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 人员检索服务实现
+ * 对姓名、用户名、学号、工号以及姓名全拼、拼音首字母建立单字/双字倒排索引。
+ * 检索时取最短的倒排链作为候选集，逐条校验后按匹配度保留前K条，避免全表LIKE扫描。
+ * 更新时旧文档标记删除、新文档追加，删除比例过高时定时全量重建；
+ * 更新在事务提交后执行，重建期间到达的更新记下用户ID，新索引替换后重新读取应用。
+ * 其他节点的变更按用户、学生、教师表的updated_at定时增量同步（app.people-search.sync-interval）。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class PeopleSearchServiceImpl implements IPeopleSearchService {
+
+    /**
+     * 单次检索最多返回条数
+     */
+    private static final int MAX_LIMIT = 1000;
+
+    /**
+     * 已删除文档占比超过该值时重建索引
+     */
+    private static final double GARBAGE_RATIO = 0.25;
+
+    /**
+     * 增量同步时每次按ID查询的人数
+     */
+    private static final int SYNC_BATCH = 1000;
+
+    /**
+     * 各检索字段权重：姓名、用户名、学号、工号、全拼、首字母
+     */
+    private static final int[] FIELD_WEIGHTS = {40, 30, 30, 30, 20, 20};
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Index index = new Index();
+
+    private volatile boolean ready;
+
+    /**
+     * 是否正在重建（由读写锁保护）
+     */
+    private boolean rebuilding;
+
+    /**
+     * 重建期间变更的用户，替换索引后重新应用（由读写锁保护）
+     */
+    private final Set<Long> pendingUsers = new LinkedHashSet<>();
+
+    /**
+     * 增量同步水位：已同步到的最大更新时间（由同步方法的对象锁保护）
+     */
+    private LocalDateTime watermark;
+
+    /**
+     * 应用启动后异步构建索引
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("人员检索索引构建失败，关键词检索将回退到数据库查询: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时检查已删除文档占比，必要时重建
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void compactIfNeeded() {
+        Index current = index;
+        if (ready && current.removed > current.docs.size() * GARBAGE_RATIO) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 定时读取水位之后变更的人员并刷新索引，同步其他节点的新增、修改与删除
+     */
+    @Scheduled(fixedDelayString = "${app.people-search.sync-interval:60000}")
+    public synchronized void syncChanges() {
+        if (!ready || watermark == null) {
+            return;
+        }
+        List<PersonChangeRow> changes = userMapper.selectPersonChanges(watermark);
+        if (changes.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new LinkedHashSet<>();
+        LocalDateTime next = watermark;
+        for (PersonChangeRow change : changes) {
+            userIds.add(change.getUserId());
+            if (change.getUpdatedAt() != null && change.getUpdatedAt().isAfter(next)) {
+                next = change.getUpdatedAt();
+            }
+        }
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += SYNC_BATCH) {
+            applyRefresh(ids.subList(from, Math.min(from + SYNC_BATCH, ids.size())));
+        }
+        watermark = next;
+        log.debug("人员检索索引增量同步: {}人", ids.size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            // 先于全量查询开始记录变更，查询快照之后提交的更新都会被重新应用
+            rebuilding = true;
+            pendingUsers.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Long> replay;
+        int total;
+        // 全量查询开始前的时刻作为增量同步水位，查询期间的变更由下次同步重新读取
+        LocalDateTime snapshotTime = LocalDateTime.now();
+        try {
+            List<PersonSearchRow> rows = userMapper.selectPersonSearchRows();
+            Index fresh = new Index();
+            for (PersonSearchRow row : rows) {
+                fresh.add(row);
+            }
+            total = rows.size();
+            lock.writeLock().lock();
+            try {
+                index = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                replay = new ArrayList<>(pendingUsers);
+                pendingUsers.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        watermark = snapshotTime;
+        if (!replay.isEmpty()) {
+            applyRefresh(replay);
+        }
+        log.info("人员检索索引构建完成: {}人, 重新应用{}人变更, 耗时{}ms", total, replay.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void refreshUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(Collections.singletonList(userId));
+    }
+
+    @Override
+    public void refreshUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        afterCommit(new ArrayList<>(userIds));
+    }
+
+    @Override
+    public List<Long> matchUserIds(String keyword, String role, Long schoolId, Long classId) {
+        String query = normalize(keyword);
+        List<Long> userIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            IntList candidates = query.isEmpty() ? null : current.candidates(query);
+            if (candidates == null) {
+                return userIds;
+            }
+            for (int i = 0; i < candidates.size; i++) {
+                Entry entry = current.docs.get(candidates.values[i]);
+                if (entry == null || !inScope(entry.row, role, schoolId, classId) || score(entry, query) <= 0) {
+                    continue;
+                }
+                if (userIds.size() >= MAX_KEYWORD_MATCHES) {
+                    return null;
+                }
+                userIds.add(entry.row.getUserId());
+            }
+            return userIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 在事务中调用时于提交后刷新，避免读到未提交的数据、事务回滚后索引与数据库不一致
+     */
+    private void afterCommit(List<Long> userIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyRefresh(userIds);
+                }
+            });
+        } else {
+            applyRefresh(userIds);
+        }
+    }
+
+    private void applyRefresh(List<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                pendingUsers.addAll(userIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!ready) {
+            return;
+        }
+        List<PersonSearchRow> rows;
+        try {
+            rows = userMapper.selectPersonSearchRowsByIds(userIds);
+        } catch (Exception e) {
+            log.warn("人员检索索引刷新失败，将在下次重建时修正: {}", e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long userId : userIds) {
+                index.remove(userId);
+            }
+            for (PersonSearchRow row : rows) {
+                index.add(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<PersonSearchRow> search(String keyword, String role, Long schoolId, Long classId, int limit) {
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String query = normalize(keyword);
+
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            if (query.isEmpty()) {
+                List<PersonSearchRow> result = new ArrayList<>();
+                for (Entry entry : current.docs) {
+                    if (entry != null && inScope(entry.row, role, schoolId, classId)) {
+                        result.add(entry.row);
+                        if (result.size() >= k) {
+                            break;
+                        }
+                    }
+                }
+                return result;
+            }
+
+            IntList candidates = current.candidates(query);
+            if (candidates == null) {
+                return Collections.emptyList();
+            }
+
+            // 小顶堆保留得分最高的前K条
+            PriorityQueue<Hit> heap = new PriorityQueue<>();
+            for (int i = 0; i < candidates.size; i++) {
+                Entry entry = current.docs.get(candidates.values[i]);
+                if (entry == null || !inScope(entry.row, role, schoolId, classId)) {
+                    continue;
+                }
+                int score = score(entry, query);
+                if (score <= 0) {
+                    continue;
+                }
+                if (heap.size() < k) {
+                    heap.offer(new Hit(entry.row, score));
+                } else if (score > heap.peek().score) {
+                    heap.poll();
+                    heap.offer(new Hit(entry.row, score));
+                }
+            }
+
+            Hit[] hits = heap.toArray(new Hit[0]);
+            Arrays.sort(hits, Collections.reverseOrder());
+            List<PersonSearchRow> result = new ArrayList<>(hits.length);
+            for (Hit hit : hits) {
+                result.add(hit.row);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 计算匹配得分：完全匹配 > 前缀匹配 > 包含匹配，再按字段权重区分
+     */
+    private static int score(Entry entry, String query) {
+        int best = 0;
+        for (int field = 0; field < entry.keys.length; field++) {
+            String key = entry.keys[field];
+            if (key == null) {
+                continue;
+            }
+            int score;
+            if (key.equals(query)) {
+                score = 100 + FIELD_WEIGHTS[field];
+            } else if (key.startsWith(query)) {
+                score = 60 + FIELD_WEIGHTS[field];
+            } else if (key.contains(query)) {
+                score = 20 + FIELD_WEIGHTS[field];
+            } else {
+                continue;
+            }
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    private static boolean inScope(PersonSearchRow row, String role, Long schoolId, Long classId) {
+        if (ROLE_STUDENT.equals(role) && row.getStudentId() == null) {
+            return false;
+        }
+        if (ROLE_TEACHER.equals(role) && row.getTeacherId() == null) {
+            return false;
+        }
+        if (schoolId != null && !schoolId.equals(row.getSchoolId())) {
+            return false;
+        }
+        return classId == null || classId.equals(row.getClassId());
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 构建文档检索字段：姓名、用户名、学号、工号、姓名全拼、姓名拼音首字母
+     */
+    private static String[] buildKeys(PersonSearchRow row) {
+        String realName = normalize(row.getRealName());
+        String[] keys = new String[FIELD_WEIGHTS.length];
+        keys[0] = blankToNull(realName);
+        keys[1] = blankToNull(normalize(row.getUsername()));
+        keys[2] = blankToNull(normalize(row.getStudentNumber()));
+        keys[3] = blankToNull(normalize(row.getTeacherNumber()));
+        if (containsChinese(realName)) {
+            try {
+                keys[4] = blankToNull(normalize(PinyinUtil.getPinyin(realName, "")));
+                keys[5] = blankToNull(normalize(PinyinUtil.getFirstLetter(realName, "")));
+            } catch (Exception e) {
+                // 未引入拼音引擎时仅支持汉字匹配
+                log.debug("姓名拼音转换失败: {}", e.getMessage());
+            }
+        }
+        return keys;
+    }
+
+    private static boolean containsChinese(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.UnicodeScript.of(value.charAt(i)) == Character.UnicodeScript.HAN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 索引数据（读写由外层读写锁保护）
+     */
+    private static final class Index {
+        private final List<Entry> docs = new ArrayList<>();
+        private final Map<Long, Integer> userDocs = new HashMap<>();
+        private final Map<Integer, IntList> unigrams = new HashMap<>();
+        private final Map<Integer, IntList> bigrams = new HashMap<>();
+        private int removed;
+
+        private void add(PersonSearchRow row) {
+            int docId = docs.size();
+            Entry entry = new Entry(row, buildKeys(row));
+            docs.add(entry);
+            userDocs.put(row.getUserId(), docId);
+            for (String key : entry.keys) {
+                if (key == null) {
+                    continue;
+                }
+                for (int i = 0; i < key.length(); i++) {
+                    unigrams.computeIfAbsent((int) key.charAt(i), c -> new IntList()).addUnique(docId);
+                    if (i + 1 < key.length()) {
+                        bigrams.computeIfAbsent(bigram(key, i), c -> new IntList()).addUnique(docId);
+                    }
+                }
+            }
+        }
+
+        private void remove(Long userId) {
+            Integer docId = userDocs.remove(userId);
+            if (docId != null) {
+                docs.set(docId, null);
+                removed++;
+            }
+        }
+
+        /**
+         * 取最短的倒排链作为候选集，任一双字不存在时返回null
+         */
+        private IntList candidates(String query) {
+            if (query.length() == 1) {
+                return unigrams.get((int) query.charAt(0));
+            }
+            IntList shortest = null;
+            for (int i = 0; i + 1 < query.length(); i++) {
+                IntList postings = bigrams.get(bigram(query, i));
+                if (postings == null) {
+                    return null;
+                }
+                if (shortest == null || postings.size < shortest.size) {
+                    shortest = postings;
+                }
+            }
+            return shortest;
+        }
+
+        private static int bigram(String value, int offset) {
+            return (value.charAt(offset) << 16) | value.charAt(offset + 1);
+        }
+    }
+
+    /**
+     * 索引文档
+     */
+    private static final class Entry {
+        private final PersonSearchRow row;
+        private final String[] keys;
+
+        private Entry(PersonSearchRow row, String[] keys) {
+            this.row = row;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * 检索命中
+     */
+    private static final class Hit implements Comparable<Hit> {
+        private final PersonSearchRow row;
+        private final int score;
+
+        private Hit(PersonSearchRow row, int score) {
+            this.row = row;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            return Integer.compare(score, other.score);
+        }
+    }
+
+    /**
+     * 可增长的int数组（倒排链）
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void addUnique(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,775 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.education.platform.dto.ImportReport;
+import com.education.platform.dto.ImportRowError;
+import com.education.platform.entity.School;
+import com.education.platform.entity.Student;
+import com.education.platform.entity.Teacher;
+import com.education.platform.entity.User;
+import com.education.platform.mapper.ClassMapper;
+import com.education.platform.mapper.SchoolMapper;
+import com.education.platform.mapper.StudentMapper;
+import com.education.platform.mapper.TeacherMapper;
+import com.education.platform.mapper.UserMapper;
+import com.education.platform.security.RbacRegistry;
+import com.education.platform.service.IPeopleSearchService;
+import com.education.platform.service.IPersonImportService;
+import com.education.platform.service.IUserService;
+import com.education.platform.util.SpreadsheetRowReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * 人员批量导入服务实现
+ * 1. 文件逐行读取（XLSX先落临时文件再以SAX方式解析），每CHUNK_SIZE行为一块；
+ * 2. 每块在专用ForkJoinPool上并行校验字段、解析日期、计算自定义密码的BCrypt摘要；
+ * 3. 查重在并行阶段之后按行号顺序进行：导入开始时一次性加载已有用户名和学号/工号到内存，
+ *    文件内重复的编号保留第一次出现的行；
+ * 4. 每块一个事务，按表（user、user_role、student/teacher）执行多行INSERT；
+ *    整块写入失败（如并发新增造成唯一键冲突）时回滚并逐行重试，只有出错的行记为失败；
+ * 5. 提交后批量刷新RBAC快照和人员检索索引。
+ * 未提供密码列的行统一使用app.import.default-password，每次导入只计算一次摘要。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class PersonImportServiceImpl implements IPersonImportService {
+
+    /**
+     * 每块行数（一块一个事务）
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * 单条SQL最多包含的记录数
+     */
+    private static final int BATCH_SIZE = 200;
+
+    /**
+     * 报告中最多返回的失败行数
+     */
+    private static final int MAX_ERRORS = 1000;
+
+    /**
+     * 学号、工号最大长度（用户名为前缀加编号，不超过50个字符）
+     */
+    private static final int MAX_NUMBER_LENGTH = 42;
+
+    /**
+     * 学生账号的角色（与自助注册一致）
+     */
+    private static final String STUDENT_ROLE = "USER";
+
+    private static final String TEACHER_ROLE = "TEACHER";
+
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final Pattern PHONE_PATTERN = Pattern.compile("[0-9+\\-() ]+");
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    /**
+     * 支持的日期写法，M/d/yy为Excel默认日期格式的显示文本
+     */
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("yyyy-M-d"),
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.ofPattern("yyyy.M.d"),
+            DateTimeFormatter.ofPattern("yyyy年M月d日"),
+            DateTimeFormatter.ofPattern("yyyyMMdd"),
+            DateTimeFormatter.ofPattern("M/d/yy")
+    );
+
+    /**
+     * 学生表头别名 → 字段
+     */
+    private static final Map<String, String> STUDENT_COLUMNS = Map.ofEntries(
+            Map.entry("学号", "studentNumber"), Map.entry("studentNumber", "studentNumber"),
+            Map.entry("姓名", "name"), Map.entry("name", "name"),
+            Map.entry("班级ID", "classId"), Map.entry("classId", "classId"),
+            Map.entry("班级", "className"), Map.entry("班级名称", "className"), Map.entry("className", "className"),
+            Map.entry("监护人", "guardianName"), Map.entry("监护人姓名", "guardianName"),
+            Map.entry("guardianName", "guardianName"),
+            Map.entry("监护人电话", "guardianPhone"), Map.entry("guardianPhone", "guardianPhone"),
+            Map.entry("入学日期", "enrollmentDate"), Map.entry("enrollmentDate", "enrollmentDate"),
+            Map.entry("密码", "password"), Map.entry("password", "password")
+    );
+
+    /**
+     * 教师表头别名 → 字段
+     */
+    private static final Map<String, String> TEACHER_COLUMNS = Map.ofEntries(
+            Map.entry("工号", "teacherNumber"), Map.entry("教师编号", "teacherNumber"),
+            Map.entry("teacherNumber", "teacherNumber"),
+            Map.entry("姓名", "name"), Map.entry("name", "name"),
+            Map.entry("部门", "department"), Map.entry("department", "department"),
+            Map.entry("职称", "title"), Map.entry("title", "title"),
+            Map.entry("任教学科", "subject"), Map.entry("科目", "subject"), Map.entry("subject", "subject"),
+            Map.entry("联系电话", "phone"), Map.entry("电话", "phone"), Map.entry("phone", "phone"),
+            Map.entry("邮箱", "email"), Map.entry("email", "email"),
+            Map.entry("入职日期", "hireDate"), Map.entry("hireDate", "hireDate"),
+            Map.entry("密码", "password"), Map.entry("password", "password")
+    );
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private TeacherMapper teacherMapper;
+
+    @Autowired
+    private ClassMapper classMapper;
+
+    @Autowired
+    private SchoolMapper schoolMapper;
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private IPeopleSearchService peopleSearchService;
+
+    @Autowired
+    private RbacRegistry rbacRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 校验线程数，小于等于0时取CPU核数
+     */
+    @Value("${app.import.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * 同时进行的导入数上限
+     */
+    @Value("${app.import.max-concurrent:1}")
+    private int maxConcurrent;
+
+    /**
+     * 未提供密码列时的初始密码
+     */
+    @Value("${app.import.default-password:123456}")
+    private String defaultPassword;
+
+    private ForkJoinPool pool;
+
+    private Semaphore imports;
+
+    @PostConstruct
+    public void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        imports = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    @Override
+    public boolean tryBeginImport() {
+        return imports.tryAcquire();
+    }
+
+    @Override
+    public void endImport() {
+        imports.release();
+    }
+
+    @Override
+    public ImportReport importStudents(String fileName, InputStream in, Long schoolId) throws IOException {
+        checkFormat(fileName);
+        Map<Long, Long> classSchools = new HashMap<>();
+        Map<String, List<Long>> classesByName = new HashMap<>();
+        LambdaQueryWrapper<com.education.platform.entity.Class> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(com.education.platform.entity.Class::getId, com.education.platform.entity.Class::getSchoolId,
+                com.education.platform.entity.Class::getClassName);
+        if (schoolId != null) {
+            wrapper.eq(com.education.platform.entity.Class::getSchoolId, schoolId);
+        }
+        for (com.education.platform.entity.Class clazz : classMapper.selectList(wrapper)) {
+            classSchools.put(clazz.getId(), clazz.getSchoolId());
+            if (clazz.getClassName() != null) {
+                classesByName.computeIfAbsent(clazz.getClassName().trim(), k -> new ArrayList<>()).add(clazz.getId());
+            }
+        }
+        StudentImporter importer = new StudentImporter(classSchools, classesByName);
+        return run(fileName, in, importer);
+    }
+
+    @Override
+    public ImportReport importTeachers(String fileName, InputStream in, Long schoolId) throws IOException {
+        checkFormat(fileName);
+        if (schoolId == null) {
+            throw new IllegalArgumentException("学校ID不能为空");
+        }
+        School school = schoolMapper.selectById(schoolId);
+        if (school == null) {
+            throw new IllegalArgumentException("学校不存在");
+        }
+        return run(fileName, in, new TeacherImporter(schoolId));
+    }
+
+    private static void checkFormat(String fileName) {
+        if (!isXlsx(fileName) && !(fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv"))) {
+            throw new IllegalArgumentException("仅支持.xlsx或.csv文件");
+        }
+    }
+
+    private static boolean isXlsx(String fileName) {
+        return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx");
+    }
+
+    /**
+     * 读取文件并逐块导入；读取中途出错时保留已导入的部分并标记终止
+     */
+    private ImportReport run(String fileName, InputStream in, Importer<?> importer) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportReport report = importer.report;
+        Path temp = null;
+        try {
+            if (isXlsx(fileName)) {
+                // XLSX为zip格式，需随机读取，先落到临时文件
+                temp = Files.createTempFile("person-import-", ".xlsx");
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try {
+                if (temp != null) {
+                    SpreadsheetRowReader.readXlsx(temp.toFile(), importer::accept);
+                } else {
+                    SpreadsheetRowReader.readCsv(in, importer::accept);
+                }
+            } catch (IOException e) {
+                if (importer.columns == null) {
+                    throw new IllegalArgumentException("无法读取文件: " + e.getMessage());
+                }
+                report.setAborted(true);
+                report.setAbortReason("文件读取中断: " + e.getMessage());
+            }
+            if (importer.columns == null) {
+                throw new IllegalArgumentException("文件中没有表头");
+            }
+            importer.flush();
+        } finally {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("人员导入完成：共{}行，成功{}行，失败{}行，耗时{}ms", report.getTotalRows(), report.getImported(),
+                report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    private static LocalDate parseDate(String text) {
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // 尝试下一种写法
+            }
+        }
+        return null;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    /**
+     * 文件中的一行
+     */
+    private static final class SourceRow {
+        private final int rowNumber;
+        private final List<String> cells;
+
+        private SourceRow(int rowNumber, List<String> cells) {
+            this.rowNumber = rowNumber;
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * 校验后的一行
+     */
+    private static final class Candidate<P> {
+        private final int rowNumber;
+        private final String number;
+        private final List<String> errors = new ArrayList<>();
+        private String password;
+        private User user;
+        private P profile;
+
+        private Candidate(int rowNumber, String number) {
+            this.rowNumber = rowNumber;
+            this.number = number;
+        }
+    }
+
+    /**
+     * 一次导入的状态，P为学生或教师档案
+     */
+    private abstract class Importer<P> {
+
+        private final ImportReport report = new ImportReport();
+
+        private final String numberLabel;
+
+        private final Long roleId;
+
+        private final Map<String, String> aliases;
+
+        private final String defaultPasswordHash;
+
+        /**
+         * 已有用户名、编号（导入开始时加载）
+         */
+        private final Set<String> usernames;
+
+        private final Set<String> numbers;
+
+        /**
+         * 本文件中已出现的编号 → 首次出现的行号
+         */
+        private final Map<String, Integer> fileNumbers = new HashMap<>();
+
+        /**
+         * 字段 → 列下标
+         */
+        private Map<String, Integer> columns;
+
+        private List<SourceRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        private Importer(String numberLabel, String roleCode, Map<String, String> aliases, List<String> existingNumbers) {
+            this.numberLabel = numberLabel;
+            this.roleId = userService.ensureRole(roleCode);
+            this.aliases = aliases;
+            this.defaultPasswordHash = passwordEncoder.encode(defaultPassword);
+            this.usernames = new HashSet<>(userMapper.selectAllUsernames());
+            this.numbers = new HashSet<>(existingNumbers);
+        }
+
+        /**
+         * 校验表头中的必填列
+         */
+        protected abstract void checkColumns(Map<String, Integer> columns);
+
+        /**
+         * 校验一行并构造用户、档案（在并行线程中执行，只读共享状态）
+         */
+        protected abstract Candidate<P> validate(SourceRow row);
+
+        /**
+         * 档案关联用户ID
+         */
+        protected abstract void bindUser(P profile, Long userId);
+
+        /**
+         * 批量插入档案
+         */
+        protected abstract void insertProfiles(List<P> profiles);
+
+        private void accept(int rowNumber, List<String> cells) {
+            if (columns == null) {
+                Map<String, Integer> mapped = new HashMap<>();
+                for (int i = 0; i < cells.size(); i++) {
+                    String field = aliases.get(cells.get(i).trim());
+                    if (field != null) {
+                        mapped.putIfAbsent(field, i);
+                    }
+                }
+                checkColumns(mapped);
+                columns = mapped;
+                return;
+            }
+            report.setTotalRows(report.getTotalRows() + 1);
+            chunk.add(new SourceRow(rowNumber, cells));
+            if (chunk.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * 取单元格值（去除首尾空白，空值返回null）
+         */
+        protected String value(SourceRow row, String field) {
+            Integer column = columns.get(field);
+            if (column == null || column >= row.cells.size()) {
+                return null;
+            }
+            String value = row.cells.get(column).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * 校验学号/工号、姓名并构造用户（公共部分）
+         */
+        protected Candidate<P> newCandidate(SourceRow row, String numberField, String usernamePrefix) {
+            String number = value(row, numberField);
+            Candidate<P> candidate = new Candidate<>(row.rowNumber, number);
+            if (number == null) {
+                candidate.errors.add(numberLabel + "不能为空");
+            } else if (number.length() > MAX_NUMBER_LENGTH || !NUMBER_PATTERN.matcher(number).matches()) {
+                candidate.errors.add(numberLabel + "只能包含字母、数字、下划线和短横线，且不超过"
+                        + MAX_NUMBER_LENGTH + "个字符");
+            }
+            String name = value(row, "name");
+            if (name == null) {
+                candidate.errors.add("姓名不能为空");
+            } else if (name.length() > 50) {
+                candidate.errors.add("姓名不能超过50个字符");
+            }
+            String password = value(row, "password");
+            if (password != null && (password.length() < 6 || password.length() > 32)) {
+                candidate.errors.add("密码长度应为6-32位");
+            }
+
+            candidate.password = password;
+
+            User user = new User();
+            user.setUsername(usernamePrefix + number);
+            user.setRealName(name);
+            candidate.user = user;
+            return candidate;
+        }
+
+        /**
+         * 校验通过的行计算密码摘要（自定义密码的BCrypt摘要在并行线程中计算）
+         */
+        private Candidate<P> encodePassword(Candidate<P> candidate) {
+            if (candidate.errors.isEmpty()) {
+                candidate.user.setPassword(candidate.password != null
+                        ? passwordEncoder.encode(candidate.password) : defaultPasswordHash);
+            }
+            return candidate;
+        }
+
+        protected void checkLength(Candidate<P> candidate, String value, int max, String label) {
+            if (value != null && value.length() > max) {
+                candidate.errors.add(label + "不能超过" + max + "个字符");
+            }
+        }
+
+        protected void checkPhone(Candidate<P> candidate, String value, String label) {
+            if (value != null && (value.length() > 20 || !PHONE_PATTERN.matcher(value).matches())) {
+                candidate.errors.add(label + "格式不正确");
+            }
+        }
+
+        protected LocalDate date(Candidate<P> candidate, String value, String label) {
+            if (value == null) {
+                return LocalDate.now();
+            }
+            LocalDate date = parseDate(value);
+            if (date == null) {
+                candidate.errors.add(label + "格式不正确，应为yyyy-MM-dd");
+            }
+            return date;
+        }
+
+        /**
+         * 处理缓存的行：并行校验，按行号顺序查重，整块写入
+         */
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<SourceRow> rows = chunk;
+            chunk = new ArrayList<>(CHUNK_SIZE);
+
+            List<Candidate<P>> candidates;
+            try {
+                candidates = pool.submit(() -> rows.parallelStream().map(this::validate).map(this::encodePassword)
+                        .toList()).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("导入校验被中断", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("导入校验失败: " + e.getCause().getMessage(), e.getCause());
+            }
+
+            List<Candidate<P>> valid = new ArrayList<>(candidates.size());
+            for (Candidate<P> candidate : candidates) {
+                if (candidate.errors.isEmpty()) {
+                    Integer firstRow = fileNumbers.putIfAbsent(candidate.number, candidate.rowNumber);
+                    if (firstRow != null) {
+                        candidate.errors.add("与第" + firstRow + "行的" + numberLabel + "重复");
+                    } else if (numbers.contains(candidate.number)) {
+                        candidate.errors.add(numberLabel + "已存在");
+                    } else if (usernames.contains(candidate.user.getUsername())) {
+                        candidate.errors.add("用户名" + candidate.user.getUsername() + "已存在");
+                    }
+                }
+                if (candidate.errors.isEmpty()) {
+                    valid.add(candidate);
+                } else {
+                    fail(candidate, String.join("；", candidate.errors));
+                }
+            }
+            persist(valid);
+        }
+
+        private void persist(List<Candidate<P>> valid) {
+            if (valid.isEmpty()) {
+                return;
+            }
+            List<Long> userIds = new ArrayList<>(valid.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(valid));
+                valid.forEach(candidate -> userIds.add(candidate.user.getId()));
+            } catch (RuntimeException e) {
+                log.warn("导入批次写入失败，改为逐行写入: {}", rootMessage(e));
+                for (Candidate<P> candidate : valid) {
+                    candidate.user.setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insert(List.of(candidate)));
+                        userIds.add(candidate.user.getId());
+                    } catch (RuntimeException ex) {
+                        fail(candidate, "写入失败: " + rootMessage(ex));
+                    }
+                }
+            }
+            report.setImported(report.getImported() + userIds.size());
+            rbacRegistry.onUsersCreated(userIds, roleId);
+            peopleSearchService.refreshUsers(userIds);
+        }
+
+        /**
+         * 按表批量插入用户、档案、用户角色
+         */
+        private void insert(List<Candidate<P>> candidates) {
+            List<User> users = new ArrayList<>(candidates.size());
+            candidates.forEach(candidate -> users.add(candidate.user));
+            for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+                userMapper.insertBatch(users.subList(from, Math.min(from + BATCH_SIZE, users.size())));
+            }
+            List<P> profiles = new ArrayList<>(candidates.size());
+            List<Long> userIds = new ArrayList<>(candidates.size());
+            for (Candidate<P> candidate : candidates) {
+                bindUser(candidate.profile, candidate.user.getId());
+                profiles.add(candidate.profile);
+                userIds.add(candidate.user.getId());
+            }
+            for (int from = 0; from < profiles.size(); from += BATCH_SIZE) {
+                insertProfiles(profiles.subList(from, Math.min(from + BATCH_SIZE, profiles.size())));
+                userMapper.insertUserRoles(userIds.subList(from, Math.min(from + BATCH_SIZE, userIds.size())),
+                        roleId);
+            }
+        }
+
+        private void fail(Candidate<P> candidate, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() >= MAX_ERRORS) {
+                report.setErrorsTruncated(true);
+                return;
+            }
+            ImportRowError error = new ImportRowError();
+            error.setRowNumber(candidate.rowNumber);
+            error.setNumber(candidate.number);
+            error.setMessage(message);
+            report.getErrors().add(error);
+        }
+    }
+
+    /**
+     * 学生导入
+     */
+    private final class StudentImporter extends Importer<Student> {
+
+        /**
+         * 班级ID → 学校ID
+         */
+        private final Map<Long, Long> classSchools;
+
+        /**
+         * 班级名称 → 班级ID（同名班级可能有多个）
+         */
+        private final Map<String, List<Long>> classesByName;
+
+        private StudentImporter(Map<Long, Long> classSchools, Map<String, List<Long>> classesByName) {
+            super("学号", STUDENT_ROLE, STUDENT_COLUMNS, studentMapper.selectAllStudentNumbers());
+            this.classSchools = classSchools;
+            this.classesByName = classesByName;
+        }
+
+        @Override
+        protected void checkColumns(Map<String, Integer> columns) {
+            if (!columns.containsKey("studentNumber") || !columns.containsKey("name")) {
+                throw new IllegalArgumentException("表头缺少必填列：学号、姓名");
+            }
+            if (!columns.containsKey("classId") && !columns.containsKey("className")) {
+                throw new IllegalArgumentException("表头缺少必填列：班级ID或班级");
+            }
+        }
+
+        @Override
+        protected Candidate<Student> validate(SourceRow row) {
+            Candidate<Student> candidate = newCandidate(row, "studentNumber", "student_");
+            Long classId = resolveClass(candidate, value(row, "classId"), value(row, "className"));
+            String guardianName = value(row, "guardianName");
+            String guardianPhone = value(row, "guardianPhone");
+            checkLength(candidate, guardianName, 50, "监护人");
+            checkPhone(candidate, guardianPhone, "监护人电话");
+            LocalDate enrollmentDate = date(candidate, value(row, "enrollmentDate"), "入学日期");
+
+            User user = candidate.user;
+            user.setPhone(guardianPhone);
+            user.setEmail(candidate.number + "@edu.com");
+            user.setClassId(classId);
+            user.setSchoolId(classId != null ? classSchools.get(classId) : null);
+
+            Student student = new Student();
+            student.setStudentNumber(candidate.number);
+            student.setClassId(classId);
+            student.setGuardianName(guardianName);
+            student.setGuardianPhone(guardianPhone);
+            student.setEnrollmentDate(enrollmentDate);
+            student.setStatus(1); // 在读
+            candidate.profile = student;
+            return candidate;
+        }
+
+        private Long resolveClass(Candidate<Student> candidate, String classIdText, String className) {
+            if (classIdText != null) {
+                try {
+                    Long classId = Long.parseLong(classIdText);
+                    if (classSchools.containsKey(classId)) {
+                        return classId;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // 按不存在处理
+                }
+                candidate.errors.add("班级ID " + classIdText + " 不存在或不属于指定学校");
+                return null;
+            }
+            if (className == null) {
+                candidate.errors.add("班级不能为空");
+                return null;
+            }
+            List<Long> matched = classesByName.get(className);
+            if (matched == null) {
+                candidate.errors.add("班级“" + className + "”不存在");
+                return null;
+            }
+            if (matched.size() > 1) {
+                candidate.errors.add("班级“" + className + "”不唯一，请指定学校或改用班级ID");
+                return null;
+            }
+            return matched.get(0);
+        }
+
+        @Override
+        protected void bindUser(Student profile, Long userId) {
+            profile.setUserId(userId);
+        }
+
+        @Override
+        protected void insertProfiles(List<Student> profiles) {
+            studentMapper.insertBatch(profiles);
+        }
+    }
+
+    /**
+     * 教师导入
+     */
+    private final class TeacherImporter extends Importer<Teacher> {
+
+        private final Long schoolId;
+
+        private TeacherImporter(Long schoolId) {
+            super("工号", TEACHER_ROLE, TEACHER_COLUMNS, teacherMapper.selectAllTeacherNumbers());
+            this.schoolId = schoolId;
+        }
+
+        @Override
+        protected void checkColumns(Map<String, Integer> columns) {
+            if (!columns.containsKey("teacherNumber") || !columns.containsKey("name")) {
+                throw new IllegalArgumentException("表头缺少必填列：工号、姓名");
+            }
+        }
+
+        @Override
+        protected Candidate<Teacher> validate(SourceRow row) {
+            Candidate<Teacher> candidate = newCandidate(row, "teacherNumber", "teacher_");
+            String department = value(row, "department");
+            String title = value(row, "title");
+            String subject = value(row, "subject");
+            String phone = value(row, "phone");
+            String email = value(row, "email");
+            checkLength(candidate, department, 100, "部门");
+            checkLength(candidate, title, 50, "职称");
+            checkLength(candidate, subject, 50, "任教学科");
+            checkPhone(candidate, phone, "联系电话");
+            if (email != null && (email.length() > 100 || !EMAIL_PATTERN.matcher(email).matches())) {
+                candidate.errors.add("邮箱格式不正确");
+            }
+            LocalDate hireDate = date(candidate, value(row, "hireDate"), "入职日期");
+
+            User user = candidate.user;
+            user.setPhone(phone);
+            user.setEmail(email != null ? email : candidate.number + "@edu.com");
+            user.setSchoolId(schoolId);
+            user.setDepartment(department);
+            user.setTitle(title);
+
+            Teacher teacher = new Teacher();
+            teacher.setTeacherNumber(candidate.number);
+            teacher.setTitle(title);
+            teacher.setSubject(subject);
+            teacher.setHireDate(hireDate);
+            teacher.setStatus(1); // 在职
+            candidate.profile = teacher;
+            return candidate;
+        }
+
+        @Override
+        protected void bindUser(Teacher profile, Long userId) {
+            profile.setUserId(userId);
+        }
+
+        @Override
+        protected void insertProfiles(List<Teacher> profiles) {
+            teacherMapper.insertBatch(profiles);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.PushEnvelope;
+import com.education.platform.dto.PushMessage;
+import com.education.platform.entity.Announcement;
+import com.education.platform.service.IPushRelay;
+import com.education.platform.service.IPushService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 实时推送服务实现
+ * 推送只发布到中继；本节点在启动时向中继注册监听器，收到消息后交给STOMP简单代理，
+ * 由代理按订阅分发到各连接的出站队列（容量与慢消费者断开策略见WebSocketConfig）
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class PushServiceImpl implements IPushService {
+
+    /**
+     * 公告推送的内容摘要长度
+     */
+    private static final int SUMMARY_LENGTH = 100;
+
+    @Autowired
+    private IPushRelay pushRelay;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @PostConstruct
+    public void init() {
+        pushRelay.subscribe(this::deliver);
+    }
+
+    @Override
+    public void pushToUser(Long userId, PushMessage message) {
+        if (userId != null) {
+            publish(SCOPE_USER, userId, message);
+        }
+    }
+
+    @Override
+    public void pushToClass(Long classId, PushMessage message) {
+        if (classId != null) {
+            publish(SCOPE_CLASS, classId, message);
+        }
+    }
+
+    @Override
+    public void pushToSchool(Long schoolId, PushMessage message) {
+        if (schoolId != null) {
+            publish(SCOPE_SCHOOL, schoolId, message);
+        }
+    }
+
+    @Override
+    public void pushToAll(PushMessage message) {
+        publish(SCOPE_ALL, null, message);
+    }
+
+    @Override
+    public void publishAnnouncement(Announcement announcement) {
+        try {
+            PushMessage message = new PushMessage();
+            message.setType("announcement");
+            message.setTitle(announcement.getTitle());
+            String content = announcement.getContent();
+            if (content != null && content.length() > SUMMARY_LENGTH) {
+                content = content.substring(0, SUMMARY_LENGTH) + "...";
+            }
+            message.setContent(content);
+            message.setRefId(announcement.getId());
+            message.setTime(announcement.getPublishTime());
+
+            if (announcement.getSchoolId() == null) {
+                pushToAll(message);
+            } else if (announcement.getClassId() == null) {
+                pushToSchool(announcement.getSchoolId(), message);
+            } else {
+                pushToClass(announcement.getClassId(), message);
+            }
+        } catch (Exception e) {
+            log.warn("公告推送失败，公告ID={}: {}", announcement.getId(), e.getMessage());
+        }
+    }
+
+    private void publish(String scope, Long targetId, PushMessage message) {
+        if (message.getTime() == null) {
+            message.setTime(LocalDateTime.now());
+        }
+        PushEnvelope envelope = new PushEnvelope();
+        envelope.setScope(scope);
+        envelope.setTargetId(targetId);
+        envelope.setMessage(message);
+        pushRelay.publish(envelope);
+    }
+
+    /**
+     * 投递给本节点上订阅了对应主题的连接
+     */
+    private void deliver(PushEnvelope envelope) {
+        PushMessage message = envelope.getMessage();
+        switch (envelope.getScope()) {
+            case SCOPE_USER:
+                messagingTemplate.convertAndSendToUser(String.valueOf(envelope.getTargetId()), USER_QUEUE, message);
+                break;
+            case SCOPE_CLASS:
+                messagingTemplate.convertAndSend(TOPIC_CLASS_PREFIX + envelope.getTargetId(), message);
+                break;
+            case SCOPE_SCHOOL:
+                messagingTemplate.convertAndSend(TOPIC_SCHOOL_PREFIX + envelope.getTargetId(), message);
+                break;
+            case SCOPE_ALL:
+                messagingTemplate.convertAndSend(TOPIC_ALL, message);
+                break;
+            default:
+                log.warn("未知的推送范围: {}", envelope.getScope());
+                break;
+        }
+    }
+}
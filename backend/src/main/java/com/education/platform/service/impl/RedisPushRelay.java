@@ -0,0 +1,95 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.PushEnvelope;
+import com.education.platform.service.IPushRelay;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Redis发布订阅推送中继（app.push.relay=redis）
+ * 消息以JSON发布到app.push.redis-channel，每个节点订阅该频道并投递给本节点的连接（发布者所在节点同样经由Redis收到），
+ * 多节点部署时客户端连接到任一节点都能收到推送
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.push.relay", havingValue = "redis")
+public class RedisPushRelay implements IPushRelay {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.push.redis-channel:education:push}")
+    private String channel;
+
+    private final List<Consumer<PushEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    private RedisMessageListenerContainer container;
+
+    @PostConstruct
+    public void init() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> dispatch(message.getBody()), new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        container.destroy();
+    }
+
+    @Override
+    public void publish(PushEnvelope envelope) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(envelope));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("推送消息序列化失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<PushEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    private void dispatch(byte[] body) {
+        PushEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(body, PushEnvelope.class);
+        } catch (Exception e) {
+            log.warn("无法解析推送消息，已忽略: {}", e.getMessage());
+            return;
+        }
+        for (Consumer<PushEnvelope> listener : listeners) {
+            try {
+                listener.accept(envelope);
+            } catch (Exception e) {
+                log.warn("推送投递失败: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.education.platform.dto.StatusChangeCountRow;
+import com.education.platform.dto.StatusChangeStatistics;
+import com.education.platform.entity.StatusChangeCounter;
+import com.education.platform.entity.StudentStatusChange;
+import com.education.platform.mapper.StatusChangeCounterMapper;
+import com.education.platform.mapper.StudentStatusChangeMapper;
+import com.education.platform.service.IStudentStatusChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 学籍异动服务实现类
+ * 启用计数表（app.statistics.status-change-counter）时，申请、审核、删除与计数更新在同一事务中完成，
+ * 启动时和每天凌晨从明细表重算一次以校正偏差。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class StudentStatusChangeServiceImpl extends ServiceImpl<StudentStatusChangeMapper, StudentStatusChange>
+        implements IStudentStatusChangeService {
+
+    @Autowired
+    private StudentStatusChangeMapper studentStatusChangeMapper;
+
+    @Autowired
+    private StatusChangeCounterMapper statusChangeCounterMapper;
+
+    @Value("${app.statistics.status-change-counter:false}")
+    private boolean counterEnabled;
+
+    /**
+     * 计数表是否已完成初始化
+     */
+    private volatile boolean counterReady;
+
+    /**
+     * 应用启动后初始化计数表
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!counterEnabled) {
+            return;
+        }
+        try {
+            rebuildCounter();
+        } catch (Exception e) {
+            log.warn("学籍异动计数表初始化失败，统计将回退到分组查询: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每天凌晨校正计数表
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void reconcileCounter() {
+        if (counterEnabled) {
+            rebuildCounter();
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean apply(StudentStatusChange change) {
+        change.setStatus(0);
+        change.setDeleted(0);
+        if (studentStatusChangeMapper.insert(change) <= 0) {
+            return false;
+        }
+        adjustCounter(0, change.getChangeType(), 1);
+        return true;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean approve(StudentStatusChange change, Integer status, String approvalComment, Long approverId) {
+        Integer oldStatus = change.getStatus();
+        change.setStatus(status);
+        change.setApprovalComment(approvalComment);
+        change.setApproverId(approverId);
+        change.setApprovalTime(LocalDateTime.now());
+
+        // 仅更新仍处于待审核的申请，避免重复审核导致计数重复变更
+        LambdaUpdateWrapper<StudentStatusChange> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.eq(StudentStatusChange::getId, change.getId());
+        wrapper.eq(StudentStatusChange::getStatus, oldStatus);
+        if (studentStatusChangeMapper.update(change, wrapper) <= 0) {
+            return false;
+        }
+        adjustCounter(oldStatus, change.getChangeType(), -1);
+        adjustCounter(status, change.getChangeType(), 1);
+        return true;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deleteApplication(StudentStatusChange change) {
+        if (studentStatusChangeMapper.deleteById(change.getId()) <= 0) {
+            return false;
+        }
+        adjustCounter(change.getStatus(), change.getChangeType(), -1);
+        return true;
+    }
+
+    @Override
+    public StatusChangeStatistics getStatistics() {
+        if (counterEnabled && counterReady) {
+            StatusChangeCounter counter = statusChangeCounterMapper.selectById(StatusChangeCounter.ROW_ID);
+            if (counter != null) {
+                return fromCounter(counter);
+            }
+        }
+        return fromGroupRows(studentStatusChangeMapper.selectCountGroupByStatusAndType());
+    }
+
+    @Override
+    public void rebuildCounter() {
+        statusChangeCounterMapper.rebuild();
+        counterReady = true;
+    }
+
+    private void adjustCounter(Integer status, Integer changeType, int delta) {
+        if (counterEnabled) {
+            statusChangeCounterMapper.adjust(status, changeType, delta);
+        }
+    }
+
+    private static StatusChangeStatistics fromCounter(StatusChangeCounter counter) {
+        StatusChangeStatistics stats = new StatusChangeStatistics();
+        stats.setTotal(counter.getTotalCount());
+        stats.setPending(counter.getPendingCount());
+        stats.setApproved(counter.getApprovedCount());
+        stats.setRejected(counter.getRejectedCount());
+        Map<String, Long> typeStats = stats.getTypeStats();
+        typeStats.put("1", counter.getSuspendCount());
+        typeStats.put("2", counter.getTransferCount());
+        typeStats.put("3", counter.getResumeCount());
+        typeStats.put("4", counter.getDropoutCount());
+        typeStats.put("5", counter.getOtherCount());
+        return stats;
+    }
+
+    private static StatusChangeStatistics fromGroupRows(List<StatusChangeCountRow> rows) {
+        StatusChangeStatistics stats = new StatusChangeStatistics();
+        Map<String, Long> typeStats = stats.getTypeStats();
+        for (int type = 1; type <= 5; type++) {
+            typeStats.put(String.valueOf(type), 0L);
+        }
+        long total = 0;
+        long pending = 0;
+        long approved = 0;
+        long rejected = 0;
+        for (StatusChangeCountRow row : rows) {
+            long count = row.getTotal() != null ? row.getTotal() : 0L;
+            total += count;
+            if (row.getStatus() != null) {
+                switch (row.getStatus()) {
+                    case 0: pending += count; break;
+                    case 1: approved += count; break;
+                    case 2: rejected += count; break;
+                    default: break;
+                }
+            }
+            String type = String.valueOf(row.getChangeType());
+            if (typeStats.containsKey(type)) {
+                typeStats.merge(type, count, Long::sum);
+            }
+        }
+        stats.setTotal(total);
+        stats.setPending(pending);
+        stats.setApproved(approved);
+        stats.setRejected(rejected);
+        return stats;
+    }
+}
@@ -0,0 +1,639 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.education.platform.dto.BatchRowError;
+import com.education.platform.dto.TimetableBatchResult;
+import com.education.platform.dto.TimetableClassView;
+import com.education.platform.entity.Teacher;
+import com.education.platform.entity.Timetable;
+import com.education.platform.entity.User;
+import com.education.platform.mapper.TeacherMapper;
+import com.education.platform.mapper.TimetableMapper;
+import com.education.platform.mapper.UserMapper;
+import com.education.platform.service.ITimetableService;
+import com.education.platform.util.BatchLoader;
+import com.education.platform.util.LongObjectMap;
+import com.education.platform.util.TimetableOccupancy;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 课程表服务实现
+ * 1. 批量添加时先逐条校验，通过的条目在同一个事务内按BATCH_SIZE条一块执行多行INSERT，
+ *    每块包在一个保存点中：某块写入失败时只回滚该块并逐条重试，出错的条目记为失败，其余条目照常提交；
+ * 2. 教师、班级、教室的时段占用常驻内存（TimetableOccupancy），写入前在锁内检查并预占，
+ *    写入失败或删除后释放；索引按app.timetable.occupancy-refresh-interval定时全量重建，
+ *    以同步其他节点或直接改库造成的变更；
+ *    各节点的索引互不可见，写入事务先按ID顺序锁定涉及的学校行（SELECT ... FOR UPDATE），
+ *    同一学校的写入在数据库层串行，再按已提交的数据复核冲突，其他节点已占用的条目记为失败；
+ * 3. 班级课程表视图（含教师姓名）按班级缓存，每个班级一个版本号，另有一个全局的教师姓名版本号，
+ *    写入方提交后递增版本号，读取时版本不一致即重新生成；缓存另按app.timetable.view-cache-ttl过期，
+ *    以同步其他节点的变更。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class TimetableServiceImpl implements ITimetableService {
+
+    /**
+     * 单条SQL最多包含的记录数
+     */
+    private static final int BATCH_SIZE = 200;
+
+    private static final int MAX_SUBJECT_LENGTH = 50;
+
+    private static final int MAX_CLASSROOM_LENGTH = 50;
+
+    private static final Set<String> ACADEMIC_WEEKS = Set.of("all", "odd", "even");
+
+    @Autowired
+    private TimetableMapper timetableMapper;
+
+    @Autowired
+    private TeacherMapper teacherMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 班级课程表视图缓存有效期（秒），小于等于0时不缓存
+     */
+    @Value("${app.timetable.view-cache-ttl:300}")
+    private long viewCacheTtlSeconds;
+
+    private TransactionTemplate transaction;
+
+    /**
+     * 外层事务内的保存点
+     */
+    private TransactionTemplate savepoint;
+
+    /**
+     * 保护occupancy与inflight
+     */
+    private final Object lock = new Object();
+
+    private TimetableOccupancy occupancy = new TimetableOccupancy();
+
+    private boolean occupancyLoaded;
+
+    /**
+     * 已预占但尚未提交的条目，全量重建时保留
+     */
+    private final Set<Timetable> inflight = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * 班级ID → 课程表视图
+     */
+    private final Map<Long, CachedView> views = new ConcurrentHashMap<>();
+
+    /**
+     * 班级ID → 课程表版本号
+     */
+    private final Map<Long, AtomicLong> classVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong teacherNameVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        savepoint = new TransactionTemplate(transactionManager);
+        savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * 应用启动后构建占用索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuildOccupancy();
+        } catch (Exception e) {
+            log.warn("课程表占用索引构建失败，将在首次写入时重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时全量重建
+     */
+    @Scheduled(fixedDelayString = "${app.timetable.occupancy-refresh-interval:600000}",
+            initialDelayString = "${app.timetable.occupancy-refresh-interval:600000}")
+    public void scheduledRebuild() {
+        synchronized (lock) {
+            if (occupancyLoaded) {
+                rebuildOccupancy();
+            }
+        }
+    }
+
+    @Override
+    public void rebuildOccupancy() {
+        synchronized (lock) {
+            TimetableOccupancy rebuilt = new TimetableOccupancy();
+            List<Timetable> rows = timetableMapper.selectList(occupancyColumns());
+            rows.forEach(rebuilt::add);
+            inflight.forEach(rebuilt::add);
+            occupancy = rebuilt;
+            occupancyLoaded = true;
+            log.info("课程表占用索引构建完成: {}条", rows.size());
+        }
+    }
+
+    @Override
+    public TimetableBatchResult batchInsert(List<Timetable> timetables) {
+        TimetableBatchResult result = new TimetableBatchResult();
+        List<Integer> reserved = new ArrayList<>(timetables.size());
+        synchronized (lock) {
+            ensureOccupancy();
+            for (int i = 0; i < timetables.size(); i++) {
+                Timetable timetable = timetables.get(i);
+                String error = check(timetable);
+                if (error == null) {
+                    error = reserve(timetable);
+                }
+                if (error == null) {
+                    reserved.add(i);
+                } else {
+                    fail(result, i, error);
+                }
+            }
+        }
+        Set<Integer> failed = new HashSet<>();
+        boolean committed = false;
+        try {
+            if (!reserved.isEmpty()) {
+                transaction.executeWithoutResult(status -> {
+                    List<Integer> accepted = recheck(timetables, reserved, result, failed);
+                    for (int from = 0; from < accepted.size(); from += BATCH_SIZE) {
+                        insertChunk(timetables, accepted.subList(from, Math.min(from + BATCH_SIZE, accepted.size())),
+                                result, failed);
+                    }
+                });
+            }
+            committed = true;
+        } finally {
+            synchronized (lock) {
+                for (Integer index : reserved) {
+                    Timetable timetable = timetables.get(index);
+                    inflight.remove(timetable);
+                    if (!committed || failed.contains(index)) {
+                        release(timetable);
+                    } else {
+                        invalidateView(timetable.getClassId());
+                    }
+                }
+            }
+        }
+        result.setCount(reserved.size() - failed.size());
+        result.getErrors().sort(Comparator.comparingInt(BatchRowError::getIndex));
+        for (Timetable timetable : timetables) {
+            result.getIds().add(timetable == null ? null : timetable.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public void add(Timetable timetable) {
+        TimetableBatchResult result = batchInsert(Collections.singletonList(timetable));
+        if (result.getCount() == 0) {
+            throw new IllegalArgumentException(result.getErrors().get(0).getMessage());
+        }
+    }
+
+    @Override
+    public boolean delete(Timetable timetable) {
+        boolean deleted = timetableMapper.deleteById(timetable.getId()) > 0;
+        if (deleted) {
+            synchronized (lock) {
+                if (occupancyLoaded) {
+                    release(timetable);
+                }
+            }
+            invalidateView(timetable.getClassId());
+        }
+        return deleted;
+    }
+
+    @Override
+    public int replaceClassTimetables(Collection<Long> classIds, List<Timetable> timetables) {
+        for (int i = 0; i < timetables.size(); i++) {
+            String error = check(timetables.get(i));
+            if (error != null) {
+                throw new IllegalArgumentException("第" + (i + 1) + "条课程表不合法: " + error);
+            }
+        }
+        synchronized (lock) {
+            transaction.executeWithoutResult(status -> {
+                // 排课求解期间其他班级（含其他节点）可能已占用同一教师或教室，锁定学校后按已提交的数据复核
+                TimetableOccupancy others = lockAndLoad(timetables, classIds);
+                for (Timetable pending : inflight) {
+                    if (!classIds.contains(pending.getClassId())) {
+                        others.add(pending);
+                    }
+                }
+                for (int i = 0; i < timetables.size(); i++) {
+                    Timetable timetable = timetables.get(i);
+                    TimetableOccupancy.Resource resource = others.conflict(timetable);
+                    if (resource != null) {
+                        throw new IllegalArgumentException("第" + (i + 1) + "条课程表" + conflictMessage(resource, timetable));
+                    }
+                    others.add(timetable);
+                }
+                if (!classIds.isEmpty()) {
+                    LambdaQueryWrapper<Timetable> wrapper = new LambdaQueryWrapper<>();
+                    wrapper.in(Timetable::getClassId, classIds);
+                    timetableMapper.delete(wrapper);
+                }
+                for (int from = 0; from < timetables.size(); from += BATCH_SIZE) {
+                    timetableMapper.insertBatch(timetables.subList(from, Math.min(from + BATCH_SIZE, timetables.size())));
+                }
+            });
+            rebuildOccupancy();
+        }
+        classIds.forEach(this::invalidateView);
+        timetables.forEach(timetable -> invalidateView(timetable.getClassId()));
+        return timetables.size();
+    }
+
+    @Override
+    public TimetableClassView getClassView(Long classId) {
+        AtomicLong classVersion = classVersions.computeIfAbsent(classId, id -> new AtomicLong());
+        long now = System.currentTimeMillis();
+        CachedView cached = views.get(classId);
+        if (cached != null && cached.expireAt >= now && cached.classVersion == classVersion.get()
+                && cached.nameVersion == teacherNameVersion.get()) {
+            return cached.view;
+        }
+        // 先记录版本号再查询，查询期间发生的写入会使本次结果不被缓存
+        long classStamp = classVersion.get();
+        long nameStamp = teacherNameVersion.get();
+        TimetableClassView view = buildView(classId);
+        if (viewCacheTtlSeconds > 0 && classStamp == classVersion.get() && nameStamp == teacherNameVersion.get()) {
+            views.put(classId, new CachedView(view, classStamp, nameStamp, now + viewCacheTtlSeconds * 1000));
+        }
+        return view;
+    }
+
+    @Override
+    public void onTeacherNamesChanged() {
+        teacherNameVersion.incrementAndGet();
+        views.clear();
+    }
+
+    @Override
+    public List<BatchRowError> validate(List<Timetable> timetables) {
+        List<BatchRowError> errors = new ArrayList<>();
+        TimetableOccupancy upload = new TimetableOccupancy();
+        synchronized (lock) {
+            ensureOccupancy();
+            for (int i = 0; i < timetables.size(); i++) {
+                Timetable timetable = timetables.get(i);
+                String error = check(timetable);
+                if (error == null) {
+                    TimetableOccupancy.Resource resource = occupancy.conflict(timetable);
+                    if (resource != null) {
+                        error = conflictMessage(resource, timetable);
+                    } else if ((resource = upload.conflict(timetable)) != null) {
+                        error = "与本次提交的其他条目冲突: " + conflictMessage(resource, timetable);
+                    } else {
+                        upload.add(timetable);
+                    }
+                }
+                if (error != null) {
+                    BatchRowError rowError = new BatchRowError();
+                    rowError.setIndex(i);
+                    rowError.setMessage(error);
+                    errors.add(rowError);
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * 班级课程表变更（已提交）后递增版本号
+     */
+    private void invalidateView(Long classId) {
+        if (classId == null) {
+            return;
+        }
+        classVersions.computeIfAbsent(classId, id -> new AtomicLong()).incrementAndGet();
+        views.remove(classId);
+    }
+
+    /**
+     * 查询班级课程表并批量加载教师姓名，生成视图及其内容摘要
+     */
+    private TimetableClassView buildView(Long classId) {
+        LambdaQueryWrapper<Timetable> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Timetable::getClassId, classId);
+        wrapper.orderByAsc(Timetable::getWeekDay, Timetable::getPeriod);
+        List<Timetable> timetables = timetableMapper.selectList(wrapper);
+
+        LongObjectMap<Teacher> teachers = BatchLoader.load(teacherMapper, timetables,
+                Teacher::getId, Timetable::getTeacherId);
+        List<Teacher> teacherList = new ArrayList<>();
+        for (Timetable timetable : timetables) {
+            Teacher teacher = teachers.get(timetable.getTeacherId());
+            if (teacher != null) {
+                teacherList.add(teacher);
+            }
+        }
+        LongObjectMap<User> users = BatchLoader.load(userMapper, teacherList, User::getId, Teacher::getUserId);
+
+        List<Map<String, Object>> items = new ArrayList<>(timetables.size());
+        StringBuilder content = new StringBuilder();
+        for (Timetable timetable : timetables) {
+            String teacherName = "";
+            Teacher teacher = teachers.get(timetable.getTeacherId());
+            if (teacher != null) {
+                User teacherUser = users.get(teacher.getUserId());
+                if (teacherUser != null && teacherUser.getRealName() != null) {
+                    teacherName = teacherUser.getRealName();
+                }
+            }
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", timetable.getId());
+            item.put("classId", timetable.getClassId());
+            item.put("teacherId", timetable.getTeacherId());
+            item.put("subject", timetable.getSubject());
+            item.put("weekDay", timetable.getWeekDay());
+            item.put("period", timetable.getPeriod());
+            item.put("startTime", timetable.getStartTime());
+            item.put("endTime", timetable.getEndTime());
+            item.put("classroom", timetable.getClassroom());
+            item.put("academicWeek", timetable.getAcademicWeek());
+            item.put("teacherName", teacherName);
+            items.add(Collections.unmodifiableMap(item));
+
+            content.append(timetable.getId()).append('|').append(timetable.getTeacherId())
+                    .append('|').append(timetable.getSubject()).append('|').append(timetable.getWeekDay())
+                    .append('|').append(timetable.getPeriod()).append('|').append(timetable.getStartTime())
+                    .append('|').append(timetable.getEndTime()).append('|').append(timetable.getClassroom())
+                    .append('|').append(timetable.getAcademicWeek()).append('|').append(teacherName).append('\n');
+        }
+
+        TimetableClassView view = new TimetableClassView();
+        view.setClassId(classId);
+        view.setItems(Collections.unmodifiableList(items));
+        view.setEtag(classId + "-" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)));
+        return view;
+    }
+
+    /**
+     * 在保存点内写入一块，失败时回滚到保存点并逐条重试
+     */
+    private void insertChunk(List<Timetable> timetables, List<Integer> indexes,
+                             TimetableBatchResult result, Set<Integer> failed) {
+        List<Timetable> rows = new ArrayList<>(indexes.size());
+        indexes.forEach(index -> rows.add(timetables.get(index)));
+        try {
+            savepoint.executeWithoutResult(status -> timetableMapper.insertBatch(rows));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("课程表批次写入失败，改为逐条写入: {}", rootMessage(e));
+        }
+        for (Integer index : indexes) {
+            Timetable timetable = timetables.get(index);
+            timetable.setId(null);
+            try {
+                savepoint.executeWithoutResult(status -> timetableMapper.insertBatch(List.of(timetable)));
+            } catch (RuntimeException e) {
+                timetable.setId(null);
+                failed.add(index);
+                fail(result, index, "写入失败: " + rootMessage(e));
+            }
+        }
+    }
+
+    /**
+     * 锁定学校后按已提交的数据复核已预占的条目，与其他节点写入冲突的条目记为失败，返回可写入的条目，需在事务内调用
+     */
+    private List<Integer> recheck(List<Timetable> timetables, List<Integer> indexes,
+                                  TimetableBatchResult result, Set<Integer> failed) {
+        List<Timetable> rows = new ArrayList<>(indexes.size());
+        indexes.forEach(index -> rows.add(timetables.get(index)));
+        TimetableOccupancy committed = lockAndLoad(rows, Collections.emptySet());
+        List<Integer> accepted = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            Timetable timetable = timetables.get(index);
+            TimetableOccupancy.Resource resource = committed.conflict(timetable);
+            if (resource != null) {
+                failed.add(index);
+                fail(result, index, conflictMessage(resource, timetable));
+            } else {
+                committed.add(timetable);
+                accepted.add(index);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 按ID顺序锁定条目涉及的学校（直至事务结束），再加载这些学校及相关教师已提交的占用，
+     * excludeClassIds中班级的记录不计入，需在事务内调用
+     */
+    private TimetableOccupancy lockAndLoad(Collection<Timetable> timetables, Collection<Long> excludeClassIds) {
+        TimetableOccupancy committed = new TimetableOccupancy();
+        Set<Long> schoolIds = new TreeSet<>();
+        Set<Long> teacherIds = new HashSet<>();
+        for (Timetable timetable : timetables) {
+            schoolIds.add(timetable.getSchoolId());
+            teacherIds.add(timetable.getTeacherId());
+        }
+        if (schoolIds.isEmpty()) {
+            return committed;
+        }
+        timetableMapper.lockSchools(schoolIds);
+        for (Timetable row : timetableMapper.selectOccupancyForCheck(schoolIds, teacherIds)) {
+            if (!excludeClassIds.contains(row.getClassId())) {
+                committed.add(row);
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * 占用索引尚未构建（启动时构建失败）时立即构建，需持有lock
+     */
+    private void ensureOccupancy() {
+        if (!occupancyLoaded) {
+            rebuildOccupancy();
+        }
+    }
+
+    /**
+     * 检查冲突并预占时段，返回冲突信息，无冲突时返回null，需持有lock
+     */
+    private String reserve(Timetable timetable) {
+        TimetableOccupancy.Resource resource = occupancy.conflict(timetable);
+        if (resource != null) {
+            return conflictMessage(resource, timetable);
+        }
+        occupancy.add(timetable);
+        inflight.add(timetable);
+        return null;
+    }
+
+    /**
+     * 释放时段，存在重复占用的资源从数据库重新加载，需持有lock
+     */
+    private void release(Timetable timetable) {
+        for (TimetableOccupancy.Resource resource : occupancy.remove(timetable)) {
+            LambdaQueryWrapper<Timetable> wrapper = occupancyColumns();
+            switch (resource) {
+                case TEACHER:
+                    wrapper.eq(Timetable::getTeacherId, timetable.getTeacherId());
+                    break;
+                case CLASS:
+                    wrapper.eq(Timetable::getClassId, timetable.getClassId());
+                    break;
+                default:
+                    wrapper.eq(Timetable::getSchoolId, timetable.getSchoolId())
+                            .eq(Timetable::getClassroom, timetable.getClassroom().trim());
+                    break;
+            }
+            List<Timetable> rows = new ArrayList<>(timetableMapper.selectList(wrapper));
+            for (Timetable pending : inflight) {
+                if (sameResource(resource, pending, timetable)) {
+                    rows.add(pending);
+                }
+            }
+            occupancy.reset(resource, timetable, rows);
+        }
+    }
+
+    private static boolean sameResource(TimetableOccupancy.Resource resource, Timetable a, Timetable b) {
+        switch (resource) {
+            case TEACHER:
+                return Objects.equals(a.getTeacherId(), b.getTeacherId());
+            case CLASS:
+                return Objects.equals(a.getClassId(), b.getClassId());
+            default:
+                return Objects.equals(TimetableOccupancy.classroomKey(a.getSchoolId(), a.getClassroom()),
+                        TimetableOccupancy.classroomKey(b.getSchoolId(), b.getClassroom()));
+        }
+    }
+
+    /**
+     * 构建占用索引所需的列
+     */
+    private static LambdaQueryWrapper<Timetable> occupancyColumns() {
+        LambdaQueryWrapper<Timetable> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(Timetable::getId, Timetable::getSchoolId, Timetable::getClassId, Timetable::getTeacherId,
+                Timetable::getWeekDay, Timetable::getPeriod, Timetable::getClassroom, Timetable::getAcademicWeek);
+        return wrapper;
+    }
+
+    private static String conflictMessage(TimetableOccupancy.Resource resource, Timetable timetable) {
+        String week = "odd".equals(timetable.getAcademicWeek()) ? "（单周）"
+                : "even".equals(timetable.getAcademicWeek()) ? "（双周）" : "";
+        return "时间冲突: " + resource.getLabel() + "在星期" + timetable.getWeekDay()
+                + "第" + timetable.getPeriod() + "节" + week + "已有课程";
+    }
+
+    /**
+     * 校验单条课程表，返回错误信息，通过时返回null
+     */
+    private static String check(Timetable timetable) {
+        if (timetable == null) {
+            return "条目为空";
+        }
+        timetable.setId(null);
+        List<String> errors = new ArrayList<>();
+        if (timetable.getSchoolId() == null || timetable.getClassId() == null || timetable.getTeacherId() == null) {
+            errors.add("学校、班级或教师为空");
+        }
+        String subject = timetable.getSubject();
+        if (subject == null || subject.isBlank()) {
+            errors.add("科目不能为空");
+        } else if (subject.length() > MAX_SUBJECT_LENGTH) {
+            errors.add("科目长度不能超过" + MAX_SUBJECT_LENGTH);
+        }
+        Integer weekDay = timetable.getWeekDay();
+        if (weekDay == null || weekDay < 1 || weekDay > TimetableOccupancy.DAYS) {
+            errors.add("星期须为1-" + TimetableOccupancy.DAYS);
+        }
+        Integer period = timetable.getPeriod();
+        if (period == null || period < 1 || period > TimetableOccupancy.PERIODS) {
+            errors.add("节次须为1-" + TimetableOccupancy.PERIODS);
+        }
+        if (timetable.getStartTime() == null || timetable.getEndTime() == null) {
+            errors.add("开始时间和结束时间不能为空");
+        } else if (!timetable.getStartTime().isBefore(timetable.getEndTime())) {
+            errors.add("开始时间须早于结束时间");
+        }
+        String classroom = timetable.getClassroom();
+        if (classroom != null) {
+            classroom = classroom.trim();
+            timetable.setClassroom(classroom.isEmpty() ? null : classroom);
+            if (classroom.length() > MAX_CLASSROOM_LENGTH) {
+                errors.add("教室长度不能超过" + MAX_CLASSROOM_LENGTH);
+            }
+        }
+        if (timetable.getAcademicWeek() != null && !ACADEMIC_WEEKS.contains(timetable.getAcademicWeek())) {
+            errors.add("教学周须为all/odd/even");
+        }
+        return errors.isEmpty() ? null : String.join("；", errors);
+    }
+
+    private static void fail(TimetableBatchResult result, int index, String message) {
+        result.setFailed(result.getFailed() + 1);
+        BatchRowError error = new BatchRowError();
+        error.setIndex(index);
+        error.setMessage(message);
+        result.getErrors().add(error);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private static final class CachedView {
+        private final TimetableClassView view;
+        private final long classVersion;
+        private final long nameVersion;
+        private final long expireAt;
+
+        private CachedView(TimetableClassView view, long classVersion, long nameVersion, long expireAt) {
+            this.view = view;
+            this.classVersion = classVersion;
+            this.nameVersion = nameVersion;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.education.platform.dto.ClassroomCapacity;
+import com.education.platform.dto.TimetableBatchResult;
+import com.education.platform.dto.TimetableRequirement;
+import com.education.platform.dto.TimetableSolution;
+import com.education.platform.dto.TimetableSolveRequest;
+import com.education.platform.entity.Teacher;
+import com.education.platform.entity.TeacherTeachingTask;
+import com.education.platform.entity.Timetable;
+import com.education.platform.mapper.ClassMapper;
+import com.education.platform.mapper.TeacherMapper;
+import com.education.platform.mapper.TeacherTeachingTaskMapper;
+import com.education.platform.mapper.TimetableMapper;
+import com.education.platform.service.ITimetableService;
+import com.education.platform.service.ITimetableSolverService;
+import com.education.platform.util.TimetableOccupancy;
+import com.education.platform.util.TimetableSolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * 自动排课服务实现
+ * 1. 课时需求取自请求，未提供时由本校教师的教学任务生成（教学班号匹配班级编号或名称，周学时为课时数）；
+ *    未指定任课教师的需求从任教该科目的教师中按已分配课时最少选取；
+ * 2. 现有课程表占用的时段作为硬约束的已占用位（替换模式下忽略涉及班级自身的课程）；
+ * 3. 提供教室列表时，未指定教室的课时按班级人数从教室池分配座位数足够的教室；
+ * 4. 在专用ForkJoinPool上并行搜索（见TimetableSolver），到达时限返回迄今最好的结果；
+ * 5. 要求写入且无硬冲突时批量写入：替换模式在一个事务内替换涉及班级的课程表，追加模式逐条检查冲突后写入。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class TimetableSolverServiceImpl implements ITimetableSolverService {
+
+    private static final int DEFAULT_DAYS = 5;
+
+    private static final int DEFAULT_MAX_CONSECUTIVE = 3;
+
+    /**
+     * 单次排课的课时总数上限
+     */
+    private static final int MAX_LESSONS = 20000;
+
+    /**
+     * 结果中最多返回的提示条数
+     */
+    private static final int MAX_WARNINGS = 200;
+
+    private static final Pattern SUBJECT_SEPARATOR = Pattern.compile("[,，、/;；\\s]+");
+
+    @Autowired
+    private ClassMapper classMapper;
+
+    @Autowired
+    private TeacherMapper teacherMapper;
+
+    @Autowired
+    private TeacherTeachingTaskMapper teachingTaskMapper;
+
+    @Autowired
+    private TimetableMapper timetableMapper;
+
+    @Autowired
+    private ITimetableService timetableService;
+
+    /**
+     * 并行搜索线程数，小于等于0时取CPU核数
+     */
+    @Value("${app.timetable.solver.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * 默认求解时限（秒）
+     */
+    @Value("${app.timetable.solver.time-limit:30}")
+    private int defaultTimeLimit;
+
+    /**
+     * 求解时限上限（秒）
+     */
+    @Value("${app.timetable.solver.max-time-limit:120}")
+    private int maxTimeLimit;
+
+    /**
+     * 同时进行的排课数上限
+     */
+    @Value("${app.timetable.solver.max-concurrent:1}")
+    private int maxConcurrent;
+
+    private ForkJoinPool pool;
+
+    private Semaphore solves;
+
+    @PostConstruct
+    public void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        solves = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public boolean tryBeginSolve() {
+        return solves.tryAcquire();
+    }
+
+    @Override
+    public void endSolve() {
+        solves.release();
+    }
+
+    @Override
+    public TimetableSolution solve(TimetableSolveRequest request) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Long schoolId = request.getSchoolId();
+        if (schoolId == null) {
+            throw new IllegalArgumentException("学校ID不能为空");
+        }
+        int days = request.getDays() != null ? request.getDays() : DEFAULT_DAYS;
+        int periods = request.getPeriodsPerDay() != null ? request.getPeriodsPerDay() : TimetableOccupancy.PERIODS;
+        if (days < 1 || days > TimetableOccupancy.DAYS) {
+            throw new IllegalArgumentException("每周上课天数须为1-" + TimetableOccupancy.DAYS);
+        }
+        if (periods < 1 || periods > TimetableOccupancy.PERIODS) {
+            throw new IllegalArgumentException("每天节次数须为1-" + TimetableOccupancy.PERIODS);
+        }
+        int maxConsecutive = request.getMaxConsecutive() != null
+                ? request.getMaxConsecutive() : DEFAULT_MAX_CONSECUTIVE;
+        LocalTime[][] periodTimes = parsePeriodTimes(request.getPeriodTimes(), periods);
+        int timeLimit = request.getTimeLimitSeconds() != null ? request.getTimeLimitSeconds() : defaultTimeLimit;
+        timeLimit = Math.max(1, Math.min(timeLimit, maxTimeLimit));
+
+        TimetableSolution solution = new TimetableSolution();
+        Map<Long, com.education.platform.entity.Class> classes = loadClasses(schoolId);
+        Map<Long, Teacher> teachers = new LinkedHashMap<>();
+        for (Teacher teacher : teacherMapper.selectSchoolTeachers(schoolId)) {
+            teachers.put(teacher.getId(), teacher);
+        }
+        List<TimetableRequirement> requirements = request.getRequirements() == null || request.getRequirements().isEmpty()
+                ? fromTeachingTasks(request, classes, teachers.keySet(), solution)
+                : request.getRequirements();
+        List<TimetableRequirement> resolved = resolve(requirements, classes, teachers, days * periods, solution);
+
+        // 教室池：同名教室只取第一个，被指定为专用教室的不参与分配
+        Set<String> dedicated = new LinkedHashSet<>();
+        resolved.forEach(req -> {
+            if (req.getClassroom() != null) {
+                dedicated.add(req.getClassroom());
+            }
+        });
+        Map<String, Integer> poolRooms = new LinkedHashMap<>();
+        if (request.getClassrooms() != null) {
+            for (ClassroomCapacity room : request.getClassrooms()) {
+                if (room != null && room.getName() != null && !room.getName().isBlank()
+                        && room.getCapacity() != null && room.getCapacity() > 0
+                        && !dedicated.contains(room.getName().trim())) {
+                    poolRooms.putIfAbsent(room.getName().trim(), room.getCapacity());
+                }
+            }
+        }
+        List<Integer> capacities = new ArrayList<>(new TreeSet<>(poolRooms.values()));
+
+        List<TimetableRequirement> accepted = new ArrayList<>();
+        List<Integer> tiers = new ArrayList<>();
+        for (TimetableRequirement req : resolved) {
+            int tier = -1;
+            if (req.getClassroom() == null && !capacities.isEmpty()) {
+                Integer size = classes.get(req.getClassId()).getStudentCount();
+                tier = tierOf(capacities, size == null ? 0 : size);
+                if (tier < 0) {
+                    warn(solution, classLabel(classes, req.getClassId()) + "人数超过所有教室的座位数，"
+                            + req.getSubject() + "未排课");
+                    continue;
+                }
+            }
+            accepted.add(req);
+            tiers.add(tier);
+        }
+
+        Set<Long> classIds = new LinkedHashSet<>();
+        Set<Long> teacherIds = new LinkedHashSet<>();
+        accepted.forEach(req -> {
+            classIds.add(req.getClassId());
+            teacherIds.add(req.getTeacherId());
+        });
+        Blocked blocked = loadBlocked(schoolId, classIds, teacherIds, request.isReplaceExisting(), days, periods);
+
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(days, periods, maxConsecutive);
+        List<String> poolRoomNames = new ArrayList<>(poolRooms.keySet());
+        for (String name : poolRoomNames) {
+            problem.addPoolRoom(capacities.indexOf(poolRooms.get(name)), blocked.rooms.getOrDefault(name, 0L));
+        }
+        Map<Long, Integer> classIndex = new HashMap<>();
+        Map<Long, Integer> teacherIndex = new HashMap<>();
+        Map<String, Integer> roomIndex = new HashMap<>();
+        Map<Long, Integer> classHours = new HashMap<>();
+        Map<Long, Integer> teacherHours = new HashMap<>();
+        int lessons = 0;
+        for (int r = 0; r < accepted.size(); r++) {
+            TimetableRequirement req = accepted.get(r);
+            int clazz = classIndex.computeIfAbsent(req.getClassId(),
+                    id -> problem.addClass(blocked.classes.getOrDefault(id, 0L)));
+            int teacher = teacherIndex.computeIfAbsent(req.getTeacherId(),
+                    id -> problem.addTeacher(blocked.teachers.getOrDefault(id, 0L)));
+            int room = req.getClassroom() == null ? -1 : roomIndex.computeIfAbsent(req.getClassroom(),
+                    name -> problem.addRoom(blocked.rooms.getOrDefault(name, 0L)));
+            problem.addRequirement(clazz, teacher, room, tiers.get(r), req.getWeeklyHours());
+            classHours.merge(req.getClassId(), req.getWeeklyHours(), Integer::sum);
+            teacherHours.merge(req.getTeacherId(), req.getWeeklyHours(), Integer::sum);
+            lessons += req.getWeeklyHours();
+        }
+        if (accepted.isEmpty()) {
+            throw new IllegalArgumentException("没有可排的课时需求");
+        }
+        if (lessons > MAX_LESSONS) {
+            throw new IllegalArgumentException("课时总数超过上限 " + MAX_LESSONS);
+        }
+        int slots = problem.getSlots();
+        classHours.forEach((id, hours) -> {
+            int free = slots - Long.bitCount(blocked.classes.getOrDefault(id, 0L));
+            if (hours > free) {
+                warn(solution, classLabel(classes, id) + "每周" + hours + "节课，超过可用时段" + free + "个，无法全部排开");
+            }
+        });
+        teacherHours.forEach((id, hours) -> {
+            int free = slots - Long.bitCount(blocked.teachers.getOrDefault(id, 0L));
+            if (hours > free) {
+                warn(solution, "教师" + id + "每周" + hours + "节课，超过可用时段" + free + "个，无法全部排开");
+            }
+        });
+
+        TimetableSolver.Result result = TimetableSolver.solve(problem, pool, pool.getParallelism(),
+                timeLimit * 1000L, System.nanoTime());
+        for (int lesson = 0; lesson < result.getLessonCount(); lesson++) {
+            TimetableRequirement req = accepted.get(result.requirementOf(lesson));
+            int slot = result.slotOf(lesson);
+            int period = slot % periods;
+            Timetable timetable = new Timetable();
+            timetable.setSchoolId(schoolId);
+            timetable.setClassId(req.getClassId());
+            timetable.setTeacherId(req.getTeacherId());
+            timetable.setSubject(req.getSubject());
+            timetable.setWeekDay(slot / periods + 1);
+            timetable.setPeriod(period + 1);
+            timetable.setStartTime(periodTimes[period][0]);
+            timetable.setEndTime(periodTimes[period][1]);
+            int poolRoom = result.poolRoomOf(lesson);
+            timetable.setClassroom(req.getClassroom() != null ? req.getClassroom()
+                    : poolRoom >= 0 ? poolRoomNames.get(poolRoom) : null);
+            timetable.setAcademicWeek("all");
+            timetable.setDeleted(0);
+            solution.getTimetables().add(timetable);
+        }
+        solution.getTimetables().sort(Comparator.comparing(Timetable::getClassId)
+                .thenComparing(Timetable::getWeekDay).thenComparing(Timetable::getPeriod));
+        solution.setFeasible(result.getHardViolations() == 0);
+        solution.setHardViolations(result.getHardViolations());
+        solution.setSoftPenalty(result.getSoftPenalty());
+        solution.setLessonCount(result.getLessonCount());
+        solution.setIterations(result.getIterations());
+        solution.setWorkers(pool.getParallelism());
+        log.info("自动排课完成: 学校{}, 课时{}, 硬冲突{}, 软约束扣分{}, 迭代{}次, 耗时{}ms", schoolId,
+                result.getLessonCount(), result.getHardViolations(), result.getSoftPenalty(), result.getIterations(),
+                System.currentTimeMillis() - start);
+
+        if (request.isApply()) {
+            if (!solution.isFeasible()) {
+                warn(solution, "排课结果存在硬冲突，未写入");
+            } else if (request.isReplaceExisting()) {
+                try {
+                    solution.setWritten(timetableService.replaceClassTimetables(classIds, solution.getTimetables()));
+                    solution.setApplied(true);
+                } catch (IllegalArgumentException e) {
+                    // 求解期间其他班级占用了同一教师或教室，整体放弃写入，由调用方重新排课
+                    warn(solution, "写入前复核发现冲突，未写入，请重新排课: " + e.getMessage());
+                }
+            } else {
+                TimetableBatchResult written = timetableService.batchInsert(solution.getTimetables());
+                solution.setWritten(written.getCount());
+                solution.setWriteErrors(written.getErrors());
+                solution.setApplied(written.getCount() > 0);
+            }
+        }
+        solution.setElapsedMillis(System.currentTimeMillis() - start);
+        return solution;
+    }
+
+    private Map<Long, com.education.platform.entity.Class> loadClasses(Long schoolId) {
+        LambdaQueryWrapper<com.education.platform.entity.Class> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(com.education.platform.entity.Class::getSchoolId, schoolId)
+                .eq(com.education.platform.entity.Class::getStatus, 1);
+        Map<Long, com.education.platform.entity.Class> classes = new LinkedHashMap<>();
+        for (com.education.platform.entity.Class clazz : classMapper.selectList(wrapper)) {
+            classes.put(clazz.getId(), clazz);
+        }
+        return classes;
+    }
+
+    /**
+     * 由教师教学任务生成课时需求
+     */
+    private List<TimetableRequirement> fromTeachingTasks(TimetableSolveRequest request,
+                                                         Map<Long, com.education.platform.entity.Class> classes,
+                                                         Set<Long> teacherIds, TimetableSolution solution) {
+        List<TimetableRequirement> requirements = new ArrayList<>();
+        if (teacherIds.isEmpty()) {
+            return requirements;
+        }
+        Map<String, Long> classByNumber = new HashMap<>();
+        for (com.education.platform.entity.Class clazz : classes.values()) {
+            if (clazz.getClassName() != null) {
+                classByNumber.putIfAbsent(clazz.getClassName().trim(), clazz.getId());
+            }
+        }
+        for (com.education.platform.entity.Class clazz : classes.values()) {
+            if (clazz.getClassCode() != null) {
+                classByNumber.put(clazz.getClassCode().trim(), clazz.getId());
+            }
+        }
+        LambdaQueryWrapper<TeacherTeachingTask> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(TeacherTeachingTask::getTeacherId, teacherIds)
+                .gt(TeacherTeachingTask::getWeeklyHours, 0);
+        if (request.getAcademicYear() != null && !request.getAcademicYear().isBlank()) {
+            wrapper.eq(TeacherTeachingTask::getAcademicYear, request.getAcademicYear());
+        }
+        if (request.getSemester() != null) {
+            wrapper.eq(TeacherTeachingTask::getSemester, request.getSemester());
+        }
+        for (TeacherTeachingTask task : teachingTaskMapper.selectList(wrapper)) {
+            Long classId = task.getClassNumber() == null ? null : classByNumber.get(task.getClassNumber().trim());
+            if (classId == null) {
+                warn(solution, "教学任务" + task.getId() + "的教学班号" + task.getClassNumber() + "未匹配到本校班级");
+                continue;
+            }
+            TimetableRequirement requirement = new TimetableRequirement();
+            requirement.setClassId(classId);
+            requirement.setSubject(task.getCourseName());
+            requirement.setWeeklyHours(task.getWeeklyHours());
+            requirement.setTeacherId(task.getTeacherId());
+            requirements.add(requirement);
+        }
+        return requirements;
+    }
+
+    /**
+     * 校验课时需求并确定任课教师，不合法的需求记为提示后跳过
+     */
+    private List<TimetableRequirement> resolve(List<TimetableRequirement> requirements,
+                                               Map<Long, com.education.platform.entity.Class> classes,
+                                               Map<Long, Teacher> teachers, int slots, TimetableSolution solution) {
+        Map<String, List<Long>> teachersBySubject = new HashMap<>();
+        for (Teacher teacher : teachers.values()) {
+            if (teacher.getSubject() != null) {
+                for (String subject : SUBJECT_SEPARATOR.split(teacher.getSubject().trim())) {
+                    if (!subject.isEmpty()) {
+                        teachersBySubject.computeIfAbsent(subject, k -> new ArrayList<>()).add(teacher.getId());
+                    }
+                }
+            }
+        }
+        Map<Long, Integer> load = new HashMap<>();
+        List<TimetableRequirement> explicit = new ArrayList<>();
+        List<TimetableRequirement> unassigned = new ArrayList<>();
+        for (TimetableRequirement req : requirements) {
+            if (req == null) {
+                continue;
+            }
+            String subject = req.getSubject() == null ? "" : req.getSubject().trim();
+            if (req.getClassId() == null || !classes.containsKey(req.getClassId())) {
+                warn(solution, "班级" + req.getClassId() + "不存在或不属于本校，" + subject + "未排课");
+                continue;
+            }
+            if (subject.isEmpty() || req.getWeeklyHours() == null || req.getWeeklyHours() < 1
+                    || req.getWeeklyHours() > slots) {
+                warn(solution, "班级" + req.getClassId() + "的课时需求科目为空或周课时不在1-" + slots + "之间，已跳过");
+                continue;
+            }
+            TimetableRequirement copy = new TimetableRequirement();
+            copy.setClassId(req.getClassId());
+            copy.setSubject(subject);
+            copy.setWeeklyHours(req.getWeeklyHours());
+            copy.setTeacherId(req.getTeacherId());
+            copy.setClassroom(req.getClassroom() == null || req.getClassroom().isBlank() ? null : req.getClassroom().trim());
+            if (copy.getTeacherId() == null) {
+                unassigned.add(copy);
+            } else if (!teachers.containsKey(copy.getTeacherId())) {
+                warn(solution, "教师" + copy.getTeacherId() + "不存在或不属于本校，班级" + copy.getClassId() + subject + "未排课");
+            } else {
+                explicit.add(copy);
+                load.merge(copy.getTeacherId(), copy.getWeeklyHours(), Integer::sum);
+            }
+        }
+        // 课时多的需求先分配教师，使各教师课时尽量均衡
+        unassigned.sort(Comparator.comparing(TimetableRequirement::getWeeklyHours).reversed());
+        for (TimetableRequirement req : unassigned) {
+            List<Long> candidates = teachersBySubject.get(req.getSubject());
+            if (candidates == null) {
+                warn(solution, "没有任教" + req.getSubject() + "的教师，班级" + req.getClassId() + "未排该科目");
+                continue;
+            }
+            Long teacherId = candidates.get(0);
+            for (Long candidate : candidates) {
+                if (load.getOrDefault(candidate, 0) < load.getOrDefault(teacherId, 0)) {
+                    teacherId = candidate;
+                }
+            }
+            req.setTeacherId(teacherId);
+            load.merge(teacherId, req.getWeeklyHours(), Integer::sum);
+            explicit.add(req);
+        }
+        return explicit;
+    }
+
+    /**
+     * 现有课程表占用的时段
+     */
+    private Blocked loadBlocked(Long schoolId, Set<Long> classIds, Set<Long> teacherIds, boolean replace,
+                                int days, int periods) {
+        Blocked blocked = new Blocked();
+        if (classIds.isEmpty()) {
+            return blocked;
+        }
+        LambdaQueryWrapper<Timetable> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(Timetable::getSchoolId, Timetable::getClassId, Timetable::getTeacherId,
+                Timetable::getWeekDay, Timetable::getPeriod, Timetable::getClassroom)
+                .and(w -> w.eq(Timetable::getSchoolId, schoolId).or().in(Timetable::getTeacherId, teacherIds));
+        for (Timetable row : timetableMapper.selectList(wrapper)) {
+            if (replace && classIds.contains(row.getClassId())) {
+                continue;
+            }
+            Integer weekDay = row.getWeekDay();
+            Integer period = row.getPeriod();
+            if (weekDay == null || period == null || weekDay < 1 || weekDay > days || period < 1 || period > periods) {
+                continue;
+            }
+            // 单双周课程也按整周占用处理
+            long bit = 1L << ((weekDay - 1) * periods + period - 1);
+            if (row.getClassId() != null) {
+                blocked.classes.merge(row.getClassId(), bit, (a, b) -> a | b);
+            }
+            if (row.getTeacherId() != null) {
+                blocked.teachers.merge(row.getTeacherId(), bit, (a, b) -> a | b);
+            }
+            if (schoolId.equals(row.getSchoolId()) && row.getClassroom() != null && !row.getClassroom().isBlank()) {
+                blocked.rooms.merge(row.getClassroom().trim(), bit, (a, b) -> a | b);
+            }
+        }
+        return blocked;
+    }
+
+    /**
+     * 座位数不少于班级人数的最小容量档位，没有时返回-1
+     */
+    private static int tierOf(List<Integer> capacities, int size) {
+        for (int i = 0; i < capacities.size(); i++) {
+            if (capacities.get(i) >= size) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static LocalTime[][] parsePeriodTimes(List<String> texts, int periods) {
+        List<String> source = texts == null || texts.isEmpty() ? DEFAULT_PERIOD_TIMES : texts;
+        if (source.size() < periods) {
+            throw new IllegalArgumentException("上课时间须覆盖每天" + periods + "节");
+        }
+        LocalTime[][] times = new LocalTime[periods][];
+        for (int i = 0; i < periods; i++) {
+            String text = source.get(i) == null ? "" : source.get(i).trim();
+            String[] parts = text.split("\\s*-\\s*");
+            try {
+                if (parts.length != 2) {
+                    throw new DateTimeParseException(text, text, 0);
+                }
+                LocalTime start = LocalTime.parse(parts[0]);
+                LocalTime end = LocalTime.parse(parts[1]);
+                if (!start.isBefore(end)) {
+                    throw new IllegalArgumentException("第" + (i + 1) + "节开始时间须早于结束时间");
+                }
+                times[i] = new LocalTime[]{start, end};
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("第" + (i + 1) + "节上课时间格式应为HH:mm-HH:mm");
+            }
+        }
+        return times;
+    }
+
+    private static String classLabel(Map<Long, com.education.platform.entity.Class> classes, Long classId) {
+        com.education.platform.entity.Class clazz = classes.get(classId);
+        return clazz != null && clazz.getClassName() != null ? "班级" + clazz.getClassName() : "班级" + classId;
+    }
+
+    private static void warn(TimetableSolution solution, String message) {
+        if (solution.getWarnings().size() < MAX_WARNINGS) {
+            solution.getWarnings().add(message);
+        }
+    }
+
+    /**
+     * 现有课程表占用的时段位图
+     */
+    private static final class Blocked {
+        private final Map<Long, Long> classes = new HashMap<>();
+        private final Map<Long, Long> teachers = new HashMap<>();
+        private final Map<String, Long> rooms = new HashMap<>();
+    }
+}
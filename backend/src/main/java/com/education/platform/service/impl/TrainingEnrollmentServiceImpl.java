@@ -0,0 +1,526 @@
+package com.education.platform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.education.platform.dto.HistogramBinRow;
+import com.education.platform.entity.TrainingCourse;
+import com.education.platform.entity.TrainingEnrollment;
+import com.education.platform.mapper.TrainingCourseMapper;
+import com.education.platform.mapper.TrainingEnrollmentMapper;
+import com.education.platform.service.ITrainingEnrollmentService;
+import com.education.platform.util.BoundedHistogram;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 培训报名服务实现
+ * 热门课程开放报名时大量请求集中在同一课程，逐条“先查后插 + 读改写报名人数”会产生重复报名、
+ * 人数错误和行锁等待。这里的处理方式：
+ * 1. 每门课程在内存中维护已报名学员、待写入学员和待写入名额数，重复报名和名额已满直接返回，不访问数据库；
+ * 2. 预占成功的报名进入队列，由单个写入线程按课程分组，每批一个事务：多行INSERT写入报名记录，
+ *    再用一条带名额条件的UPDATE累加报名人数；条件不满足或写入异常时整批回滚，先按数据库重新核对该课程，
+ *    再逐条重试，仍有名额的报名照常成功；
+ * 3. 请求线程等待所在批次提交后返回真实结果（组提交），等待超时返回“处理中”；
+ * 4. 写入线程每隔app.training.seat-reconcile-interval按数据库核对已缓存课程的报名人数和已报名学员
+ *    （同步其他节点的报名和被删除的报名），超过app.training.seat-cache-idle未访问且无待写入报名的课程移出内存。
+ * 多节点部署时由唯一键和条件UPDATE保证最终不超额、不重复。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class TrainingEnrollmentServiceImpl extends ServiceImpl<TrainingEnrollmentMapper, TrainingEnrollment>
+        implements ITrainingEnrollmentService {
+
+    /**
+     * 单批最多写入的报名数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private TrainingEnrollmentMapper enrollmentMapper;
+
+    @Autowired
+    private TrainingCourseMapper courseMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 请求线程等待写入结果的最长时间（毫秒）
+     */
+    @Value("${app.training.enroll-timeout:10000}")
+    private long enrollTimeout;
+
+    /**
+     * 已缓存课程与数据库核对的间隔（毫秒）
+     */
+    @Value("${app.training.seat-reconcile-interval:60000}")
+    private long reconcileInterval;
+
+    /**
+     * 课程报名状态在内存中的保留时间（毫秒），超时未访问且无待写入报名时移出
+     */
+    @Value("${app.training.seat-cache-idle:1800000}")
+    private long seatCacheIdle;
+
+    /**
+     * 中位数缓存时间（秒）
+     */
+    @Value("${app.training.statistics-cache-ttl:300}")
+    private long statisticsCacheTtl;
+
+    private final Object mediansLock = new Object();
+
+    private volatile CachedMedians cachedMedians;
+
+    private final Map<Long, CourseSeats> seats = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<PendingEnrollment> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    /**
+     * 上次核对时间，只由写入线程访问
+     */
+    private long lastReconcile = System.currentTimeMillis();
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "training-enrollment-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 停止接收报名，写完队列中剩余的报名后退出
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(enrollTimeout);
+    }
+
+    @Override
+    public String enroll(TrainingEnrollment enrollment) {
+        Long courseId = enrollment.getCourseId();
+        Long studentId = enrollment.getStudentId();
+        if (!running || courseId == null || studentId == null) {
+            return RESULT_FAILED;
+        }
+        CourseSeats courseSeats;
+        while (true) {
+            courseSeats = seatsOf(courseId);
+            if (courseSeats == null || !courseSeats.open) {
+                return RESULT_UNAVAILABLE;
+            }
+            courseSeats.lastAccess = System.currentTimeMillis();
+            if (courseSeats.enrolledStudents.contains(studentId) || !courseSeats.pendingStudents.add(studentId)) {
+                return RESULT_DUPLICATE;
+            }
+            if (!courseSeats.tryReserve()) {
+                courseSeats.pendingStudents.remove(studentId);
+                return RESULT_FULL;
+            }
+            if (!courseSeats.evicted) {
+                break;
+            }
+            // 预占时课程恰好被移出内存：撤销后按重新加载的状态报名
+            courseSeats.pending.decrementAndGet();
+            courseSeats.pendingStudents.remove(studentId);
+        }
+
+        enrollment.setEnrollmentTime(LocalDateTime.now());
+        enrollment.setStatus("enrolled");
+        enrollment.setProgress(0);
+        PendingEnrollment pending = new PendingEnrollment(enrollment, courseSeats);
+        queue.add(pending);
+
+        try {
+            return pending.result.get(enrollTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return RESULT_PENDING;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return RESULT_PENDING;
+        } catch (Exception e) {
+            return RESULT_FAILED;
+        }
+    }
+
+    @Override
+    public void refreshCourse(Long courseId) {
+        CourseSeats courseSeats = seats.get(courseId);
+        if (courseSeats == null) {
+            return;
+        }
+        TrainingCourse course = courseMapper.selectById(courseId);
+        courseSeats.open = course != null && Integer.valueOf(1).equals(course.getStatus());
+        courseSeats.capacity = course == null ? null : course.getMaxEnrollment();
+    }
+
+    @Override
+    public Map<String, Double> medians() {
+        CachedMedians current = cachedMedians;
+        if (current != null && System.currentTimeMillis() - current.loadedAt < statisticsCacheTtl * 1000) {
+            return current.values;
+        }
+        synchronized (mediansLock) {
+            current = cachedMedians;
+            if (current == null || System.currentTimeMillis() - current.loadedAt >= statisticsCacheTtl * 1000) {
+                current = new CachedMedians(loadMedians());
+                cachedMedians = current;
+            }
+            return current.values;
+        }
+    }
+
+    /**
+     * 数据库端按取值分组计数，计入定长直方图后取中位数
+     */
+    private Map<String, Double> loadMedians() {
+        BoundedHistogram progress = new BoundedHistogram(0, 100, 1);
+        for (HistogramBinRow bin : enrollmentMapper.selectProgressHistogram()) {
+            progress.add(bin.getValue(), bin.getCount());
+        }
+        BoundedHistogram score = new BoundedHistogram(0, 100, 0.1);
+        for (HistogramBinRow bin : enrollmentMapper.selectScoreHistogram()) {
+            score.add(bin.getValue(), bin.getCount());
+        }
+        Map<String, Double> values = new HashMap<>();
+        values.put("medianProgress", progress.quantile(0.5));
+        values.put("medianScore", score.quantile(0.5));
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * 课程报名状态，首次访问时从数据库加载；课程不存在时返回null
+     */
+    private CourseSeats seatsOf(Long courseId) {
+        return seats.computeIfAbsent(courseId, id -> {
+            TrainingCourse course = courseMapper.selectById(id);
+            if (course == null) {
+                return null;
+            }
+            CourseSeats courseSeats = new CourseSeats();
+            courseSeats.apply(course, loadStudentIds(id));
+            return courseSeats;
+        });
+    }
+
+    /**
+     * 课程下未删除报名的学员ID
+     */
+    private Set<Long> loadStudentIds(Long courseId) {
+        LambdaQueryWrapper<TrainingEnrollment> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(TrainingEnrollment::getStudentId)
+               .eq(TrainingEnrollment::getCourseId, courseId);
+        Set<Long> studentIds = ConcurrentHashMap.newKeySet();
+        for (Object studentId : enrollmentMapper.selectObjs(wrapper)) {
+            studentIds.add(((Number) studentId).longValue());
+        }
+        return studentIds;
+    }
+
+    /**
+     * 按数据库核对课程报名状态，只在写入线程中调用（此时没有本节点的报名正在提交）
+     */
+    private void reconcile(Long courseId, CourseSeats courseSeats) {
+        TrainingCourse course = courseMapper.selectById(courseId);
+        if (course == null) {
+            courseSeats.open = false;
+            return;
+        }
+        courseSeats.apply(course, loadStudentIds(courseId));
+    }
+
+    /**
+     * 核对所有已缓存课程，移出长时间未访问且无待写入报名的课程
+     */
+    private void reconcileAll() {
+        long idleBefore = System.currentTimeMillis() - seatCacheIdle;
+        for (Map.Entry<Long, CourseSeats> entry : seats.entrySet()) {
+            CourseSeats courseSeats = entry.getValue();
+            if (courseSeats.lastAccess < idleBefore) {
+                // 先标记再检查待写入数，与报名线程“先预占再检查标记”配合，两者至少一方能看到对方
+                courseSeats.evicted = true;
+                if (courseSeats.pending.get() == 0) {
+                    seats.remove(entry.getKey(), courseSeats);
+                    continue;
+                }
+                courseSeats.evicted = false;
+            }
+            try {
+                reconcile(entry.getKey(), courseSeats);
+            } catch (Exception e) {
+                log.warn("课程{}报名状态核对失败: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingEnrollment> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (System.currentTimeMillis() - lastReconcile >= reconcileInterval) {
+                    lastReconcile = System.currentTimeMillis();
+                    reconcileAll();
+                }
+                PendingEnrollment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("报名批量写入异常: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 按课程分组写入，每门课程一个事务；整批未写入时核对后逐条重试
+     */
+    private void writeBatch(List<PendingEnrollment> batch) {
+        Map<Long, List<PendingEnrollment>> byCourse = new LinkedHashMap<>();
+        for (PendingEnrollment pending : batch) {
+            byCourse.computeIfAbsent(pending.enrollment.getCourseId(), id -> new ArrayList<>()).add(pending);
+        }
+        for (Map.Entry<Long, List<PendingEnrollment>> entry : byCourse.entrySet()) {
+            Long courseId = entry.getKey();
+            List<PendingEnrollment> group = entry.getValue();
+            List<PendingEnrollment> duplicates = new ArrayList<>();
+            try {
+                Boolean saved = transactionTemplate.execute(status -> {
+                    duplicates.clear();
+                    List<TrainingEnrollment> accepted = splitDuplicates(courseId, group, duplicates);
+                    if (accepted.isEmpty()) {
+                        return true;
+                    }
+                    enrollmentMapper.insertBatch(accepted);
+                    if (courseMapper.incrementEnrollCount(courseId, accepted.size()) == 0) {
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                });
+                if (Boolean.TRUE.equals(saved)) {
+                    for (PendingEnrollment pending : group) {
+                        if (duplicates.contains(pending)) {
+                            pending.duplicate();
+                        } else {
+                            pending.enrolled();
+                        }
+                    }
+                    continue;
+                }
+                log.debug("课程{}名额不足以容纳本批{}条报名，逐条重试", courseId, group.size());
+            } catch (Exception e) {
+                log.warn("课程{}报名批量写入失败，本批{}条逐条重试: {}", courseId, group.size(), e.getMessage());
+            }
+            retryIndividually(courseId, group);
+        }
+    }
+
+    /**
+     * 整批回滚后先按数据库核对课程状态，再每条报名一个事务重试
+     */
+    private void retryIndividually(Long courseId, List<PendingEnrollment> group) {
+        try {
+            reconcile(courseId, group.get(0).seats);
+        } catch (Exception e) {
+            log.warn("课程{}报名状态核对失败: {}", courseId, e.getMessage());
+        }
+        for (PendingEnrollment pending : group) {
+            TrainingEnrollment enrollment = pending.enrollment;
+            try {
+                Boolean saved = transactionTemplate.execute(status -> {
+                    enrollmentMapper.insertBatch(List.of(enrollment));
+                    if (courseMapper.incrementEnrollCount(courseId, 1) == 0) {
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                });
+                if (Boolean.TRUE.equals(saved)) {
+                    pending.enrolled();
+                } else {
+                    pending.reject(RESULT_FULL);
+                }
+            } catch (DuplicateKeyException e) {
+                pending.duplicate();
+            } catch (Exception e) {
+                log.error("课程{}学员{}报名写入失败: {}", courseId, enrollment.getStudentId(), e.getMessage());
+                pending.reject(RESULT_FAILED);
+            }
+        }
+    }
+
+    /**
+     * 剔除数据库中已存在的报名（其他节点写入或已逻辑删除），返回需要插入的记录
+     */
+    private List<TrainingEnrollment> splitDuplicates(Long courseId, List<PendingEnrollment> group,
+                                                     List<PendingEnrollment> duplicates) {
+        List<Long> studentIds = new ArrayList<>(group.size());
+        for (PendingEnrollment pending : group) {
+            studentIds.add(pending.enrollment.getStudentId());
+        }
+        Set<Long> existing = new HashSet<>(enrollmentMapper.selectExistingStudentIds(courseId, studentIds));
+        List<TrainingEnrollment> accepted = new ArrayList<>(group.size());
+        for (PendingEnrollment pending : group) {
+            if (existing.contains(pending.enrollment.getStudentId())) {
+                duplicates.add(pending);
+            } else {
+                accepted.add(pending.enrollment);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 单门课程的报名状态
+     */
+    private static final class CourseSeats {
+        /**
+         * 已写入数据库的报名学员，核对时整体替换
+         */
+        private volatile Set<Long> enrolledStudents = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 已预占名额、等待写入的报名学员
+         */
+        private final Set<Long> pendingStudents = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 已预占、等待写入的名额数
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * 数据库中的报名人数，只由写入线程修改
+         */
+        private volatile int enrolled;
+
+        private volatile Integer capacity;
+        private volatile boolean open;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        /**
+         * 已移出内存，不能再预占
+         */
+        private volatile boolean evicted;
+
+        private void apply(TrainingCourse course, Set<Long> studentIds) {
+            enrolledStudents = studentIds;
+            enrolled = course.getEnrollCount() == null ? 0 : course.getEnrollCount();
+            open = Integer.valueOf(1).equals(course.getStatus());
+            capacity = course.getMaxEnrollment();
+        }
+
+        /**
+         * 预占一个名额，未设置上限时总是成功
+         */
+        private boolean tryReserve() {
+            while (true) {
+                int current = pending.get();
+                Integer limit = capacity;
+                if (limit != null && enrolled + current >= limit) {
+                    return false;
+                }
+                if (pending.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 已计算的中位数
+     */
+    private static final class CachedMedians {
+        private final long loadedAt = System.currentTimeMillis();
+        private final Map<String, Double> values;
+
+        private CachedMedians(Map<String, Double> values) {
+            this.values = values;
+        }
+    }
+
+    /**
+     * 等待写入的报名
+     */
+    private static final class PendingEnrollment {
+        private final TrainingEnrollment enrollment;
+        private final CourseSeats seats;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private PendingEnrollment(TrainingEnrollment enrollment, CourseSeats seats) {
+            this.enrollment = enrollment;
+            this.seats = seats;
+        }
+
+        /**
+         * 报名已写入：计入已报名学员和报名人数（先加入已报名再移出待写入，期间重复报名都能被识别）
+         */
+        private void enrolled() {
+            seats.enrolledStudents.add(enrollment.getStudentId());
+            seats.enrolled++;
+            release();
+            result.complete(RESULT_ENROLLED);
+        }
+
+        /**
+         * 数据库中已有该学员的报名
+         */
+        private void duplicate() {
+            seats.enrolledStudents.add(enrollment.getStudentId());
+            release();
+            result.complete(RESULT_DUPLICATE);
+        }
+
+        /**
+         * 报名未写入：释放预占名额，允许该学员重新报名
+         */
+        private void reject(String reason) {
+            release();
+            result.complete(reason);
+        }
+
+        private void release() {
+            seats.pendingStudents.remove(enrollment.getStudentId());
+            seats.pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.CounterDelta;
+import com.education.platform.entity.EducationalResource;
+import com.education.platform.mapper.EducationalResourceMapper;
+import com.education.platform.mapper.ResourceStatisticsMapper;
+import com.education.platform.mapper.TrainingCourseMapper;
+import com.education.platform.service.IUsageCounterService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 访问计数服务实现
+ * 每个资源（按学校、日期区分）、每门课程各持有一组LongAdder，请求线程只做无锁累加，不再逐次UPDATE整行。
+ * 定时任务（app.counter.flush-interval）取出各计数的增量，按主键排序后分批用一条UPDATE累加到
+ * 资源表、课程表，并按“资源+日期”合并写入资源日统计表，三者在同一事务中提交；写入失败时增量退回内存，
+ * 下次重试。应用正常停止时会再写入一次，进程异常退出最多丢失一个写入周期内的计数。
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Service
+public class UsageCounterServiceImpl implements IUsageCounterService {
+
+    /**
+     * 单条SQL最多包含的记录数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private EducationalResourceMapper resourceMapper;
+
+    @Autowired
+    private TrainingCourseMapper courseMapper;
+
+    @Autowired
+    private ResourceStatisticsMapper resourceStatisticsMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<ResourceKey, ResourceCounter> resourceCounters = new ConcurrentHashMap<>();
+
+    private final Map<Long, LongAdder> courseViews = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordResourceView(EducationalResource resource) {
+        counterOf(resource).views.increment();
+    }
+
+    @Override
+    public void recordResourceDownload(EducationalResource resource) {
+        counterOf(resource).downloads.increment();
+    }
+
+    @Override
+    public void recordResourceShare(EducationalResource resource) {
+        counterOf(resource).shares.increment();
+    }
+
+    @Override
+    public void recordCourseView(Long courseId) {
+        if (courseId != null) {
+            courseViews.computeIfAbsent(courseId, id -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * 定时写入
+     */
+    @Scheduled(fixedDelayString = "${app.counter.flush-interval:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 应用停止前写入剩余计数
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    public synchronized void flush() {
+        List<CounterDelta> resourceDeltas = drainResources();
+        List<CounterDelta> courseDeltas = drainCourses();
+        if (resourceDeltas.isEmpty() && courseDeltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeResourceCounts(resourceDeltas);
+                writeChunks(courseDeltas, courseMapper::addViewCounts);
+                writeChunks(resourceDeltas, resourceStatisticsMapper::upsertDeltas);
+            });
+        } catch (Exception e) {
+            log.warn("访问计数写入失败，{}条资源计数、{}条课程计数将在下次重试: {}",
+                    resourceDeltas.size(), courseDeltas.size(), e.getMessage());
+            restore(resourceDeltas, courseDeltas);
+        }
+    }
+
+    private ResourceCounter counterOf(EducationalResource resource) {
+        ResourceKey key = new ResourceKey(resource.getId(), resource.getSchoolId(), LocalDate.now());
+        return resourceCounters.computeIfAbsent(key, k -> new ResourceCounter());
+    }
+
+    /**
+     * 取出资源计数增量；往日的计数取出后移除，移除后再读一次，避免丢失移除前瞬间的累加
+     */
+    private List<CounterDelta> drainResources() {
+        LocalDate today = LocalDate.now();
+        List<CounterDelta> deltas = new ArrayList<>();
+        for (Map.Entry<ResourceKey, ResourceCounter> entry : resourceCounters.entrySet()) {
+            ResourceKey key = entry.getKey();
+            ResourceCounter counter = entry.getValue();
+            CounterDelta delta = newDelta(key);
+            counter.drainTo(delta);
+            if (key.statDate.isBefore(today) && resourceCounters.remove(key, counter)) {
+                counter.drainTo(delta);
+            }
+            if (delta.getViewCount() != 0 || delta.getDownloadCount() != 0 || delta.getShareCount() != 0) {
+                deltas.add(delta);
+            }
+        }
+        deltas.sort(Comparator.comparing(CounterDelta::getTargetId).thenComparing(CounterDelta::getStatDate));
+        return deltas;
+    }
+
+    private List<CounterDelta> drainCourses() {
+        List<CounterDelta> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : courseViews.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views != 0) {
+                CounterDelta delta = new CounterDelta();
+                delta.setTargetId(entry.getKey());
+                delta.setViewCount(views);
+                deltas.add(delta);
+            }
+        }
+        deltas.sort(Comparator.comparing(CounterDelta::getTargetId));
+        return deltas;
+    }
+
+    /**
+     * 资源表每个ID在一条UPDATE中只能出现一次，跨日的增量先按资源合并
+     */
+    private void writeResourceCounts(List<CounterDelta> resourceDeltas) {
+        Map<Long, CounterDelta> merged = new LinkedHashMap<>();
+        for (CounterDelta delta : resourceDeltas) {
+            if (delta.getViewCount() == 0 && delta.getDownloadCount() == 0) {
+                continue;
+            }
+            CounterDelta total = merged.computeIfAbsent(delta.getTargetId(), id -> {
+                CounterDelta d = new CounterDelta();
+                d.setTargetId(id);
+                return d;
+            });
+            total.setViewCount(total.getViewCount() + delta.getViewCount());
+            total.setDownloadCount(total.getDownloadCount() + delta.getDownloadCount());
+        }
+        writeChunks(new ArrayList<>(merged.values()), resourceMapper::addCounters);
+    }
+
+    private void writeChunks(List<CounterDelta> deltas, Consumer<List<CounterDelta>> writer) {
+        for (int from = 0; from < deltas.size(); from += BATCH_SIZE) {
+            writer.accept(deltas.subList(from, Math.min(from + BATCH_SIZE, deltas.size())));
+        }
+    }
+
+    /**
+     * 写入失败，增量退回内存
+     */
+    private void restore(List<CounterDelta> resourceDeltas, List<CounterDelta> courseDeltas) {
+        for (CounterDelta delta : resourceDeltas) {
+            ResourceKey key = new ResourceKey(delta.getTargetId(), delta.getSchoolId(), delta.getStatDate());
+            ResourceCounter counter = resourceCounters.computeIfAbsent(key, k -> new ResourceCounter());
+            counter.views.add(delta.getViewCount());
+            counter.downloads.add(delta.getDownloadCount());
+            counter.shares.add(delta.getShareCount());
+        }
+        for (CounterDelta delta : courseDeltas) {
+            courseViews.computeIfAbsent(delta.getTargetId(), id -> new LongAdder()).add(delta.getViewCount());
+        }
+    }
+
+    private static CounterDelta newDelta(ResourceKey key) {
+        CounterDelta delta = new CounterDelta();
+        delta.setTargetId(key.resourceId);
+        delta.setSchoolId(key.schoolId);
+        delta.setStatDate(key.statDate);
+        return delta;
+    }
+
+    /**
+     * 资源计数键：资源、学校、日期
+     */
+    private static final class ResourceKey {
+        private final Long resourceId;
+        private final Long schoolId;
+        private final LocalDate statDate;
+
+        private ResourceKey(Long resourceId, Long schoolId, LocalDate statDate) {
+            this.resourceId = resourceId;
+            this.schoolId = schoolId;
+            this.statDate = statDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResourceKey)) {
+                return false;
+            }
+            ResourceKey other = (ResourceKey) o;
+            return Objects.equals(resourceId, other.resourceId)
+                    && Objects.equals(schoolId, other.schoolId)
+                    && Objects.equals(statDate, other.statDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resourceId, schoolId, statDate);
+        }
+    }
+
+    /**
+     * 单个资源单日的计数
+     */
+    private static final class ResourceCounter {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder downloads = new LongAdder();
+        private final LongAdder shares = new LongAdder();
+
+        private void drainTo(CounterDelta delta) {
+            delta.setViewCount(delta.getViewCount() + views.sumThenReset());
+            delta.setDownloadCount(delta.getDownloadCount() + downloads.sumThenReset());
+            delta.setShareCount(delta.getShareCount() + shares.sumThenReset());
+        }
+    }
+}
@@ -13,6 +13,10 @@ import com.education.platform.mapper.StudentMapper;
 import com.education.platform.mapper.TeacherBasicMapper;
 import com.education.platform.mapper.TeacherMapper;
 import com.education.platform.mapper.UserMapper;
+import com.education.platform.security.AuthorityEpochRegistry;
+import com.education.platform.security.LoginUser;
+import com.education.platform.security.RbacRegistry;
+import com.education.platform.service.IPeopleSearchService;
 import com.education.platform.service.IUserService;
 import com.education.platform.util.JwtUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -61,6 +65,15 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private AuthorityEpochRegistry authorityEpochRegistry;
+
+    @Autowired
+    private RbacRegistry rbacRegistry;
+
+    @Autowired
+    private IPeopleSearchService peopleSearchService;
+
     @Override
     public Map<String, Object> login(String username, String password) {
         User user = userMapper.selectByUsername(username);
@@ -81,13 +94,16 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         user.setLastLoginTime(LocalDateTime.now());
         userMapper.updateById(user);
 
-        // 生成JWT Token
-        String token = jwtUtils.generateToken(username);
-
         // 获取用户角色和权限
         List<String> roles = new ArrayList<>(userMapper.selectRolesByUserId(user.getId()));
         List<String> permissions = new ArrayList<>(userMapper.selectPermissionsByUserId(user.getId()));
 
+        // 生成携带身份声明的JWT Token，后续请求认证无需再查询数据库
+        LoginUser loginUser = userMapper.selectLoginUserByUsername(username);
+        loginUser.setRoles(roles);
+        loginUser.setPermissions(permissions);
+        String token = jwtUtils.generateAccessToken(loginUser, authorityEpochRegistry.current(user.getId()));
+
         // 调试日志
         System.out.println("=== 用户 " + username + " 登录，角色: " + roles + "，权限: " + permissions);
 
@@ -130,6 +146,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
 
             // 插入学生记录
             studentMapper.insert(student);
+            peopleSearchService.refreshUser(user.getId());
         }
         return result > 0;
     }
@@ -189,6 +206,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
                 teacherBasicMapper.insert(teacherBasic);
             }
 
+            peopleSearchService.refreshUser(user.getId());
             return roleAssigned;
         }
         return false;
@@ -209,10 +227,21 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
             throw new RuntimeException("用户不存在");
         }
 
-        // 查询角色ID
-        Long roleId = userMapper.selectRoleIdByCode(roleCode);
+        // 查询角色ID，不存在时自动创建
+        Long roleId = ensureRole(roleCode);
 
-        // 如果角色不存在，自动创建
+        // 分配角色
+        userMapper.assignRoleToUser(userId, roleId);
+
+        // 角色变更后递增权限版本号，使已签发的令牌失效，并刷新RBAC快照
+        authorityEpochRegistry.bump(userId);
+        rbacRegistry.onUserRolesChanged(userId);
+        return true;
+    }
+
+    @Override
+    public Long ensureRole(String roleCode) {
+        Long roleId = userMapper.selectRoleIdByCode(roleCode);
         if (roleId == null) {
             log.info("角色 {} 不存在，自动创建", roleCode);
 
@@ -223,11 +252,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
 
             roleMapper.insert(newRole);
             roleId = newRole.getId();
+            rbacRegistry.onRoleChanged(roleId);
         }
-
-        // 分配角色
-        userMapper.assignRoleToUser(userId, roleId);
-        return true;
+        return roleId;
     }
 
     /**
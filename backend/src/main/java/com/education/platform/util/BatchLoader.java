@@ -0,0 +1,76 @@
+package com.education.platform.util;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 关联数据批量加载工具
+ * 先收集一页数据中的全部外键，再用selectBatchIds一次查出被引用的表，
+ * 最后在内存中按主键关联，避免列表接口逐行查询（N+1）。
+ *
+ * 用法示例：
+ * <pre>
+ * LongObjectMap&lt;User&gt; users = BatchLoader.load(userMapper, students, User::getId, Student::getUserId);
+ * User user = users.get(student.getUserId());
+ * </pre>
+ *
+ * @author Education Platform Team
+ */
+public final class BatchLoader {
+
+    private BatchLoader() {
+    }
+
+    /**
+     * 按外键批量加载关联实体
+     *
+     * @param mapper 被引用表的Mapper
+     * @param rows   当前页数据
+     * @param idOf   被引用实体的主键
+     * @param keys   从当前行提取外键（可传多个，例如审核人和申请人都指向用户表）
+     * @return 主键 → 实体
+     */
+    @SafeVarargs
+    public static <T, E> LongObjectMap<E> load(BaseMapper<E> mapper, Collection<T> rows,
+                                               ToLongFunction<E> idOf, Function<T, Long>... keys) {
+        Set<Long> ids = collectIds(rows, keys);
+        LongObjectMap<E> result = new LongObjectMap<>(ids.size());
+        if (ids.isEmpty()) {
+            return result;
+        }
+        List<E> entities = mapper.selectBatchIds(ids);
+        for (E entity : entities) {
+            result.put(idOf.applyAsLong(entity), entity);
+        }
+        return result;
+    }
+
+    /**
+     * 收集非空外键（去重）
+     */
+    @SafeVarargs
+    public static <T> Set<Long> collectIds(Collection<T> rows, Function<T, Long>... keys) {
+        Set<Long> ids = new HashSet<>();
+        if (rows == null) {
+            return ids;
+        }
+        for (T row : rows) {
+            if (row == null) {
+                continue;
+            }
+            for (Function<T, Long> key : keys) {
+                Long id = key.apply(row);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,67 @@
+package com.education.platform.util;
+
+/**
+ * 定长直方图
+ * 在固定区间内按等宽分桶计数，用于流式计算中位数等分位数指标，
+ * 内存占用只与桶数有关，与数据量无关；超出区间的值计入两端的桶。
+ *
+ * @author Education Platform Team
+ */
+public class BoundedHistogram {
+
+    private final double min;
+
+    private final double binWidth;
+
+    private final long[] counts;
+
+    private long total;
+
+    /**
+     * @param min      区间下限
+     * @param max      区间上限
+     * @param binWidth 桶宽（决定分位数精度）
+     */
+    public BoundedHistogram(double min, double max, double binWidth) {
+        this.min = min;
+        this.binWidth = binWidth;
+        this.counts = new long[(int) Math.round((max - min) / binWidth) + 1];
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * 计入count个相同的值（用于数据库端已分组计数的结果）
+     */
+    public void add(double value, long count) {
+        int index = (int) Math.round((value - min) / binWidth);
+        counts[Math.max(0, Math.min(counts.length - 1, index))] += count;
+        total += count;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * 分位数（精度为桶宽），无数据时返回null
+     *
+     * @param q 0~1之间，0.5为中位数
+     */
+    public Double quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.round((min + i * binWidth) * 100) / 100.0;
+            }
+        }
+        return Math.round((min + (counts.length - 1) * binWidth) * 100) / 100.0;
+    }
+}
@@ -0,0 +1,297 @@
+package com.education.platform.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的数据清洗规则集（不可变，可被多个线程同时使用）
+ * 规则格式：
+ * <pre>
+ * {
+ *   "fields": {
+ *     "gender": {"type": "string", "normalize": {"男": "M", "女": "F"}, "enum": ["M", "F"], "required": true},
+ *     "age":    {"type": "int", "min": 3, "max": 25},
+ *     "idCard": {"type": "string", "case": "upper", "pattern": "^[0-9X]{18}$"},
+ *     "birth":  {"type": "date"}
+ *   },
+ *   "dedupKeys": ["idCard"],
+ *   "dropUnknownFields": false
+ * }
+ * </pre>
+ * 字段处理顺序：去空白（字符串默认开启，trim=false关闭）、代码映射（normalize）、大小写转换、
+ * 类型转换（string/int/long/decimal/boolean/date）、取值范围与长度、正则、枚举校验；
+ * 缺失或为空时使用default，仍为空且required为true时报错。
+ *
+ * @author Education Platform Team
+ */
+public final class CleaningRuleSet {
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.ofPattern("yyyy.M.d"),
+            DateTimeFormatter.ofPattern("yyyyMMdd")
+    );
+
+    private final Map<String, FieldRule> fields;
+
+    private final List<String> dedupKeys;
+
+    private final boolean dropUnknownFields;
+
+    private CleaningRuleSet(Map<String, FieldRule> fields, List<String> dedupKeys, boolean dropUnknownFields) {
+        this.fields = fields;
+        this.dedupKeys = dedupKeys;
+        this.dropUnknownFields = dropUnknownFields;
+    }
+
+    /**
+     * 编译规则
+     *
+     * @throws IllegalArgumentException 规则格式错误
+     */
+    public static CleaningRuleSet compile(JsonNode rules) {
+        if (rules == null || rules.isNull() || rules.isMissingNode()) {
+            return new CleaningRuleSet(Collections.emptyMap(), Collections.emptyList(), false);
+        }
+        if (!rules.isObject()) {
+            throw new IllegalArgumentException("清洗规则必须为JSON对象");
+        }
+        Map<String, FieldRule> fields = new LinkedHashMap<>();
+        JsonNode fieldNodes = rules.path("fields");
+        Iterator<Map.Entry<String, JsonNode>> it = fieldNodes.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            fields.put(entry.getKey(), FieldRule.compile(entry.getKey(), entry.getValue()));
+        }
+        List<String> dedupKeys = new ArrayList<>();
+        for (JsonNode key : rules.path("dedupKeys")) {
+            dedupKeys.add(key.asText());
+        }
+        return new CleaningRuleSet(fields, List.copyOf(dedupKeys), rules.path("dropUnknownFields").asBoolean(false));
+    }
+
+    /**
+     * 清洗一条记录
+     *
+     * @param record 原始记录（不会被修改）
+     * @param errors 收集错误说明
+     * @return 清洗后的记录，存在错误时仍返回已处理的部分
+     */
+    public ObjectNode clean(JsonNode record, List<String> errors) {
+        ObjectNode cleaned = JsonNodeFactory.instance.objectNode();
+        if (record == null || !record.isObject()) {
+            errors.add("数据内容不是JSON对象");
+            return cleaned;
+        }
+        if (!dropUnknownFields) {
+            Iterator<Map.Entry<String, JsonNode>> it = record.fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                if (!fields.containsKey(entry.getKey())) {
+                    cleaned.set(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        for (FieldRule rule : fields.values()) {
+            JsonNode value = rule.apply(record.get(rule.name), errors);
+            if (value != null) {
+                cleaned.set(rule.name, value);
+            }
+        }
+        return cleaned;
+    }
+
+    /**
+     * 去重键：各去重字段清洗后取值的拼接
+     * 未配置去重字段，或任一去重字段缺失、为空时返回null，该记录不参与去重
+     */
+    public String dedupKey(JsonNode cleaned) {
+        if (dedupKeys.isEmpty()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        for (String field : dedupKeys) {
+            JsonNode value = cleaned.get(field);
+            if (value == null || value.isNull() || value.asText().isBlank()) {
+                return null;
+            }
+            key.append(value.asText()).append('\u0001');
+        }
+        return key.toString();
+    }
+
+    /**
+     * 单个字段的规则
+     */
+    private static final class FieldRule {
+        private final String name;
+        private final String type;
+        private final boolean required;
+        private final boolean trim;
+        private final String letterCase;
+        private final Map<String, String> normalize;
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final Integer minLength;
+        private final Integer maxLength;
+        private final Pattern pattern;
+        private final Set<String> allowed;
+        private final JsonNode defaultValue;
+
+        private FieldRule(String name, JsonNode node) {
+            this.name = name;
+            this.type = node.path("type").asText("string").toLowerCase(Locale.ROOT);
+            if (!Set.of("string", "int", "long", "decimal", "boolean", "date").contains(type)) {
+                throw new IllegalArgumentException("字段" + name + "的类型不支持: " + type);
+            }
+            this.required = node.path("required").asBoolean(false);
+            this.trim = node.path("trim").asBoolean(true);
+            this.letterCase = node.hasNonNull("case") ? node.get("case").asText().toLowerCase(Locale.ROOT) : null;
+            Map<String, String> mapping = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> it = node.path("normalize").fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                mapping.put(entry.getKey(), entry.getValue().asText());
+            }
+            this.normalize = mapping.isEmpty() ? null : Map.copyOf(mapping);
+            this.min = node.hasNonNull("min") ? node.get("min").decimalValue() : null;
+            this.max = node.hasNonNull("max") ? node.get("max").decimalValue() : null;
+            this.minLength = node.hasNonNull("minLength") ? node.get("minLength").asInt() : null;
+            this.maxLength = node.hasNonNull("maxLength") ? node.get("maxLength").asInt() : null;
+            this.pattern = node.hasNonNull("pattern") ? Pattern.compile(node.get("pattern").asText()) : null;
+            Set<String> values = new HashSet<>();
+            for (JsonNode value : node.path("enum")) {
+                values.add(value.asText());
+            }
+            this.allowed = values.isEmpty() ? null : Set.copyOf(values);
+            this.defaultValue = node.get("default");
+        }
+
+        private static FieldRule compile(String name, JsonNode node) {
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("字段" + name + "的规则必须为JSON对象");
+            }
+            return new FieldRule(name, node);
+        }
+
+        /**
+         * 处理字段值，返回null表示输出中不包含该字段
+         */
+        private JsonNode apply(JsonNode value, List<String> errors) {
+            if (isEmpty(value) && defaultValue != null) {
+                value = defaultValue;
+            }
+            if (isEmpty(value)) {
+                if (required) {
+                    errors.add(name + "不能为空");
+                }
+                return value;
+            }
+            String text = value.isValueNode() ? value.asText() : value.toString();
+            if (trim) {
+                text = text.trim();
+            }
+            if (normalize != null) {
+                text = normalize.getOrDefault(text, text);
+            }
+            if ("upper".equals(letterCase)) {
+                text = text.toUpperCase(Locale.ROOT);
+            } else if ("lower".equals(letterCase)) {
+                text = text.toLowerCase(Locale.ROOT);
+            }
+
+            JsonNode result;
+            try {
+                result = coerce(text);
+            } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+                errors.add(name + "无法转换为" + type + ": " + text);
+                return value;
+            }
+            check(result, text, errors);
+            return result;
+        }
+
+        private JsonNode coerce(String text) {
+            JsonNodeFactory f = JsonNodeFactory.instance;
+            switch (type) {
+                case "int":
+                    return f.numberNode(new BigDecimal(text).intValueExact());
+                case "long":
+                    return f.numberNode(new BigDecimal(text).longValueExact());
+                case "decimal":
+                    return f.numberNode(new BigDecimal(text));
+                case "boolean":
+                    String b = text.toLowerCase(Locale.ROOT);
+                    if (Set.of("true", "1", "yes", "y", "是").contains(b)) {
+                        return f.booleanNode(true);
+                    }
+                    if (Set.of("false", "0", "no", "n", "否").contains(b)) {
+                        return f.booleanNode(false);
+                    }
+                    throw new NumberFormatException(text);
+                case "date":
+                    return f.textNode(parseDate(text).toString());
+                default:
+                    return f.textNode(text);
+            }
+        }
+
+        private void check(JsonNode result, String text, List<String> errors) {
+            if (result.isNumber()) {
+                BigDecimal number = result.decimalValue();
+                if (min != null && number.compareTo(min) < 0) {
+                    errors.add(name + "小于最小值" + min.toPlainString() + ": " + text);
+                }
+                if (max != null && number.compareTo(max) > 0) {
+                    errors.add(name + "大于最大值" + max.toPlainString() + ": " + text);
+                }
+            }
+            if (minLength != null && text.length() < minLength) {
+                errors.add(name + "长度小于" + minLength);
+            }
+            if (maxLength != null && text.length() > maxLength) {
+                errors.add(name + "长度大于" + maxLength);
+            }
+            if (pattern != null && !pattern.matcher(text).matches()) {
+                errors.add(name + "格式不正确: " + text);
+            }
+            if (allowed != null && !allowed.contains(result.asText())) {
+                errors.add(name + "取值不在允许范围内: " + text);
+            }
+        }
+
+        private static LocalDate parseDate(String text) {
+            DateTimeParseException last = null;
+            for (DateTimeFormatter format : DATE_FORMATS) {
+                try {
+                    return LocalDate.parse(text, format);
+                } catch (DateTimeParseException e) {
+                    last = e;
+                }
+            }
+            throw last;
+        }
+
+        private static boolean isEmpty(JsonNode value) {
+            return value == null || value.isNull() || (value.isTextual() && value.asText().isBlank());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.education.platform.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * 不可变的列式表
+ * 每行由主键、若干整型编码列和有效标记组成，按主键升序存放；列值为字典编码，-1表示空值。
+ * 增量变更通过withChanges生成新表（与原表按主键归并），读取方始终看到完整一致的版本。
+ * 分组计数按行区间拆分后并行统计，再合并各区间的计数数组。
+ *
+ * @author Education Platform Team
+ */
+public final class ColumnarTable {
+
+    /**
+     * 每个并行分片至少包含的行数
+     */
+    private static final int MIN_CHUNK_ROWS = 16384;
+
+    private final long[] ids;
+
+    private final int[][] columns;
+
+    private final boolean[] active;
+
+    private ColumnarTable(long[] ids, int[][] columns, boolean[] active) {
+        this.ids = ids;
+        this.columns = columns;
+        this.active = active;
+    }
+
+    /**
+     * 空表
+     */
+    public static ColumnarTable empty(int columnCount) {
+        return new ColumnarTable(new long[0], new int[columnCount][0], new boolean[0]);
+    }
+
+    /**
+     * 合并变更生成新表：主键已存在的行被覆盖，不存在的行插入；无效行保留占位，全量重建时清除
+     *
+     * @param changes 变更行，无需排序
+     */
+    public ColumnarTable withChanges(List<Row> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        Row[] sorted = changes.toArray(new Row[0]);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.id, b.id));
+
+        int capacity = ids.length + sorted.length;
+        long[] newIds = new long[capacity];
+        int[][] newColumns = new int[columns.length][capacity];
+        boolean[] newActive = new boolean[capacity];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < ids.length || j < sorted.length) {
+            Row change = j < sorted.length ? sorted[j] : null;
+            // 同一主键多次变更时以最后一条为准
+            if (change != null && j + 1 < sorted.length && sorted[j + 1].id == change.id) {
+                j++;
+                continue;
+            }
+            if (change == null || (i < ids.length && ids[i] < change.id)) {
+                newIds[n] = ids[i];
+                for (int c = 0; c < columns.length; c++) {
+                    newColumns[c][n] = columns[c][i];
+                }
+                newActive[n++] = active[i++];
+                continue;
+            }
+            if (i < ids.length && ids[i] == change.id) {
+                i++;
+            }
+            newIds[n] = change.id;
+            for (int c = 0; c < columns.length; c++) {
+                newColumns[c][n] = change.values[c];
+            }
+            newActive[n++] = change.active;
+            j++;
+        }
+        for (int c = 0; c < columns.length; c++) {
+            newColumns[c] = Arrays.copyOf(newColumns[c], n);
+        }
+        return new ColumnarTable(Arrays.copyOf(newIds, n), newColumns, Arrays.copyOf(newActive, n));
+    }
+
+    /**
+     * 有效行数
+     */
+    public long activeCount() {
+        return countWhere(-1, 0);
+    }
+
+    /**
+     * 按列分组计数（仅统计有效行）
+     *
+     * @param column       分组列
+     * @param cardinality  分组列字典大小
+     * @param filterColumn 过滤列，-1表示不过滤
+     * @param filterCode   过滤列取值
+     * @return 下标为分组编码的计数数组
+     */
+    public long[] groupCount(int column, int cardinality, int filterColumn, int filterCode) {
+        int[] keys = columns[column];
+        int[] filter = filterColumn < 0 ? null : columns[filterColumn];
+        return IntStream.range(0, chunkCount()).parallel()
+                .mapToObj(chunk -> {
+                    long[] counts = new long[cardinality];
+                    int end = chunkEnd(chunk);
+                    for (int row = chunkStart(chunk); row < end; row++) {
+                        int key = keys[row];
+                        if (active[row] && key >= 0 && key < cardinality
+                                && (filter == null || filter[row] == filterCode)) {
+                            counts[key]++;
+                        }
+                    }
+                    return counts;
+                })
+                .reduce(ColumnarTable::merge)
+                .orElseGet(() -> new long[cardinality]);
+    }
+
+    /**
+     * 满足过滤条件的有效行数
+     */
+    public long countWhere(int filterColumn, int filterCode) {
+        int[] filter = filterColumn < 0 ? null : columns[filterColumn];
+        return IntStream.range(0, chunkCount()).parallel()
+                .mapToLong(chunk -> {
+                    long count = 0;
+                    int end = chunkEnd(chunk);
+                    for (int row = chunkStart(chunk); row < end; row++) {
+                        if (active[row] && (filter == null || filter[row] == filterCode)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                })
+                .sum();
+    }
+
+    /**
+     * 依次访问有效行的行号
+     */
+    public void forEachActive(IntConsumer action) {
+        for (int row = 0; row < ids.length; row++) {
+            if (active[row]) {
+                action.accept(row);
+            }
+        }
+    }
+
+    /**
+     * 指定行的主键
+     */
+    public long id(int row) {
+        return ids[row];
+    }
+
+    /**
+     * 指定行的列值
+     */
+    public int value(int column, int row) {
+        return columns[column][row];
+    }
+
+    private int chunkCount() {
+        int byRows = ids.length / MIN_CHUNK_ROWS;
+        return Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), byRows));
+    }
+
+    private int chunkStart(int chunk) {
+        return (int) ((long) ids.length * chunk / chunkCount());
+    }
+
+    private int chunkEnd(int chunk) {
+        return (int) ((long) ids.length * (chunk + 1) / chunkCount());
+    }
+
+    private static long[] merge(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    /**
+     * 变更行
+     */
+    public static final class Row {
+        private final long id;
+        private final int[] values;
+        private final boolean active;
+
+        public Row(long id, int[] values, boolean active) {
+            this.id = id;
+            this.values = values;
+            this.active = active;
+        }
+    }
+}
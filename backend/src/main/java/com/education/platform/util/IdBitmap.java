@@ -0,0 +1,447 @@
+package com.education.platform.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 压缩ID位图（Roaring风格）
+ * 按ID高位（id >>> 16）划分区段，每个区段一个容器保存ID的低16位：
+ * 不超过4096个元素时用有序char数组（每个ID 2字节），超过后转为65536位的位图（固定8KB）。
+ * 差集计数、并集按区段逐个进行；区段可单独序列化，用于按区段持久化。
+ * 非线程安全，由调用方加锁；构建完成后不再修改的实例可并发读取。
+ *
+ * @author Education Platform Team
+ */
+public class IdBitmap {
+
+    /**
+     * 支持的最大ID（区段号需能放入int）
+     */
+    public static final long MAX_ID = (1L << 47) - 1;
+
+    /**
+     * 数组容器的最大元素数，超过时转为位图容器
+     */
+    private static final int ARRAY_MAX = 4096;
+
+    private static final int WORDS = 1024;
+
+    private static final byte TYPE_ARRAY = 0;
+
+    private static final byte TYPE_BITMAP = 1;
+
+    /**
+     * 区段号，升序
+     */
+    private int[] keys = new int[4];
+
+    private Container[] containers = new Container[4];
+
+    private int size;
+
+    /**
+     * ID所在的区段
+     */
+    public static int chunkOf(long id) {
+        return (int) (id >>> 16);
+    }
+
+    /**
+     * 多个位图的并集，忽略null
+     */
+    public static IdBitmap or(IdBitmap... bitmaps) {
+        IdBitmap result = new IdBitmap();
+        for (IdBitmap bitmap : bitmaps) {
+            if (bitmap != null) {
+                result.addAll(bitmap);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 加入一个ID
+     *
+     * @return 之前不存在时返回true
+     * @throws IllegalArgumentException ID为负数或超过MAX_ID
+     */
+    public boolean add(long id) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("ID超出位图范围: " + id);
+        }
+        int key = chunkOf(id);
+        char low = (char) id;
+        int i = indexOf(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertAt(i, key, new ArrayContainer());
+        }
+        Container container = containers[i];
+        if (container.contains(low)) {
+            return false;
+        }
+        containers[i] = container.add(low);
+        return true;
+    }
+
+    public boolean contains(long id) {
+        if (id < 0 || id > MAX_ID) {
+            return false;
+        }
+        int i = indexOf(chunkOf(id));
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    public long cardinality() {
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            count += containers[i].cardinality();
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 本位图中不在other里的ID个数，即 |this AND NOT other|
+     */
+    public long andNotCardinality(IdBitmap other) {
+        long count = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container container = containers[i];
+            count += container.cardinality();
+            if (j < other.size && other.keys[j] == keys[i]) {
+                count -= container.andCardinality(other.containers[j]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 并入other的全部ID
+     *
+     * @return 内容发生变化的区段
+     */
+    public List<Integer> addAll(IdBitmap other) {
+        List<Integer> changed = new ArrayList<>();
+        for (int j = 0; j < other.size; j++) {
+            int key = other.keys[j];
+            Container source = other.containers[j];
+            int i = indexOf(key);
+            if (i < 0) {
+                insertAt(-i - 1, key, source.copy());
+                changed.add(key);
+                continue;
+            }
+            Container merged = containers[i].or(source);
+            if (merged.cardinality() != containers[i].cardinality()) {
+                containers[i] = merged;
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 序列化一个区段，区段不存在时返回null
+     */
+    public byte[] serializeChunk(int key) {
+        int i = indexOf(key);
+        return i < 0 ? null : containers[i].serialize();
+    }
+
+    /**
+     * 用序列化数据替换一个区段
+     *
+     * @throws IllegalArgumentException 数据格式不正确
+     */
+    public void putChunk(int key, byte[] data) {
+        Container container = deserialize(data);
+        int i = indexOf(key);
+        if (i >= 0) {
+            containers[i] = container;
+        } else {
+            insertAt(-i - 1, key, container);
+        }
+    }
+
+    /**
+     * 将序列化的区段并入本位图
+     *
+     * @return 区段内容发生变化时返回true
+     * @throws IllegalArgumentException 数据格式不正确
+     */
+    public boolean orChunk(int key, byte[] data) {
+        Container source = deserialize(data);
+        int i = indexOf(key);
+        if (i < 0) {
+            insertAt(-i - 1, key, source);
+            return source.cardinality() > 0;
+        }
+        Container merged = containers[i].or(source);
+        if (merged.cardinality() == containers[i].cardinality()) {
+            return false;
+        }
+        containers[i] = merged;
+        return true;
+    }
+
+    private int indexOf(int key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int i, int key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        size++;
+    }
+
+    private static Container deserialize(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("位图数据为空");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+        if (data[0] == TYPE_BITMAP && data.length == 1 + WORDS * 8) {
+            long[] words = new long[WORDS];
+            buffer.asLongBuffer().get(words);
+            return new BitmapContainer(words);
+        }
+        if (data[0] == TYPE_ARRAY && data.length % 2 == 1 && (data.length - 1) / 2 <= ARRAY_MAX) {
+            char[] values = new char[(data.length - 1) / 2];
+            buffer.asCharBuffer().get(values);
+            for (int i = 1; i < values.length; i++) {
+                if (values[i - 1] >= values[i]) {
+                    throw new IllegalArgumentException("位图数据未排序");
+                }
+            }
+            return new ArrayContainer(values, values.length);
+        }
+        throw new IllegalArgumentException("位图数据格式不正确");
+    }
+
+    /**
+     * 区段容器，保存ID的低16位
+     */
+    private abstract static class Container {
+
+        abstract boolean contains(char value);
+
+        /**
+         * 加入一个不存在的值，返回加入后的容器（可能转换了类型）
+         */
+        abstract Container add(char value);
+
+        abstract int cardinality();
+
+        abstract int andCardinality(Container other);
+
+        /**
+         * 并集，返回新容器，不修改this与other
+         */
+        abstract Container or(Container other);
+
+        abstract Container copy();
+
+        abstract byte[] serialize();
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int i = -Arrays.binarySearch(values, 0, cardinality, value) - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof BitmapContainer) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < array.cardinality) {
+                if (values[i] < array.values[j]) {
+                    i++;
+                } else if (values[i] > array.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            char[] merged = new char[cardinality + array.cardinality];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    merged[n++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    merged[n++] = array.values[j++];
+                } else {
+                    merged[n++] = values[i++];
+                    j++;
+                }
+            }
+            ArrayContainer result = new ArrayContainer(merged, n);
+            return n > ARRAY_MAX ? result.toBitmap() : result;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        byte[] serialize() {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + cardinality * 2);
+            buffer.put(TYPE_ARRAY);
+            for (int i = 0; i < cardinality; i++) {
+                buffer.putChar(values[i]);
+            }
+            return buffer.array();
+        }
+
+        private BitmapContainer toBitmap() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer(long[] words) {
+            this.words = words;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            words[value >>> 6] |= 1L << value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] merged = words.clone();
+            if (other instanceof BitmapContainer) {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int i = 0; i < WORDS; i++) {
+                    merged[i] |= otherWords[i];
+                }
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    merged[array.values[i] >>> 6] |= 1L << array.values[i];
+                }
+            }
+            return new BitmapContainer(merged);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone());
+        }
+
+        @Override
+        byte[] serialize() {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + WORDS * 8);
+            buffer.put(TYPE_BITMAP);
+            buffer.asLongBuffer().put(words);
+            return buffer.array();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.education.platform.util;
 
+import com.education.platform.security.LoginUser;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -26,6 +28,36 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    /**
+     * 访问令牌格式版本（2：携带用户身份与角色声明）
+     */
+    public static final int TOKEN_VERSION = 2;
+
+    public static final String CLAIM_VERSION = "ver";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_SCHOOL_ID = "sid";
+    public static final String CLAIM_CLASS_ID = "cid";
+    public static final String CLAIM_TEACHER_ID = "tid";
+    public static final String CLAIM_STUDENT_ID = "stid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_PERMISSIONS = "perms";
+    public static final String CLAIM_EPOCH = "epoch";
+
+    /**
+     * 签名密钥与解析器（线程安全，启动时构建一次）
+     */
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     /**
      * 生成Token
      */
@@ -49,14 +81,40 @@ public class JwtUtils {
         return generateToken(username, new HashMap<>());
     }
 
+    /**
+     * 生成携带身份声明的访问令牌
+     *
+     * @param loginUser 登录身份
+     * @param epoch     签发时用户的权限版本号
+     */
+    public String generateAccessToken(LoginUser loginUser, long epoch) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_VERSION, TOKEN_VERSION);
+        claims.put(CLAIM_USER_ID, loginUser.getUserId());
+        claims.put(CLAIM_SCHOOL_ID, loginUser.getSchoolId());
+        claims.put(CLAIM_CLASS_ID, loginUser.getClassId());
+        claims.put(CLAIM_TEACHER_ID, loginUser.getTeacherId());
+        claims.put(CLAIM_STUDENT_ID, loginUser.getStudentId());
+        claims.put(CLAIM_ROLES, loginUser.getRoles());
+        claims.put(CLAIM_PERMISSIONS, loginUser.getPermissions());
+        claims.put(CLAIM_EPOCH, epoch);
+        return generateToken(loginUser.getUsername(), claims);
+    }
+
+    /**
+     * 是否为携带身份声明的访问令牌
+     */
+    public boolean isClaimsToken(Claims claims) {
+        Integer version = claims.get(CLAIM_VERSION, Integer.class);
+        return version != null && version >= TOKEN_VERSION;
+    }
+
     /**
      * 从Token中解析用户信息
      */
     public Claims getAllClaimsFromToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
+            return jwtParser
                     .parseClaimsJws(token)
                     .getBody();
         } catch (ExpiredJwtException e) {
@@ -117,8 +175,7 @@ public class JwtUtils {
      * 获取签名密钥
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     /**
@@ -0,0 +1,86 @@
+package com.education.platform.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.education.platform.common.PageCursor;
+import com.education.platform.common.PageResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标（Keyset）分页工具
+ * 按“排序键倒序 + 主键倒序”排列，用上一页最后一条数据的排序键和主键作为查询条件定位下一页，
+ * 不再使用OFFSET跳过前面的行，翻到多深都只扫描一页数据；默认不执行COUNT(*)。
+ *
+ * 用法示例：
+ * <pre>
+ * if (cursor != null) {
+ *     return ApiResult.success(KeysetPaging.seek(announcementMapper, wrapper,
+ *             Announcement::getPublishTime, Announcement::getId, cursor, size, withTotal));
+ * }
+ * </pre>
+ *
+ * @author Education Platform Team
+ */
+public final class KeysetPaging {
+
+    /**
+     * 游标模式单页最大条数
+     */
+    public static final long MAX_SIZE = 100;
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * 游标分页查询
+     *
+     * @param mapper     Mapper
+     * @param wrapper    已设置过滤条件、尚未设置排序的查询条件
+     * @param sortColumn 排序列（LocalDateTime或LocalDate，倒序）
+     * @param idColumn   主键列，排序键相同时用于定序
+     * @param cursor     上一页返回的游标，空字符串表示第一页
+     * @param size       每页条数
+     * @param withTotal  是否统计总条数
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public static <T> PageResult<T> seek(BaseMapper<T> mapper, LambdaQueryWrapper<T> wrapper,
+                                         SFunction<T, ?> sortColumn, SFunction<T, Long> idColumn,
+                                         String cursor, long size, boolean withTotal) {
+        long limit = Math.max(1, Math.min(size, MAX_SIZE));
+        PageCursor position = PageCursor.decode(cursor);
+
+        // 总数按过滤条件统计，不受游标位置影响
+        Long total = withTotal ? mapper.selectCount(wrapper) : null;
+
+        if (position != null) {
+            Object key = position.getSortKey();
+            long id = position.getId();
+            // MySQL倒序时空值排在最后
+            if (key == null) {
+                wrapper.and(w -> w.isNull(sortColumn).lt(idColumn, id));
+            } else {
+                wrapper.and(w -> w
+                        .lt(sortColumn, key)
+                        .or(w1 -> w1.eq(sortColumn, key).lt(idColumn, id))
+                        .or(w2 -> w2.isNull(sortColumn)));
+            }
+        }
+        wrapper.orderByDesc(sortColumn).orderByDesc(idColumn);
+
+        // 多取一条判断是否还有下一页，不执行COUNT查询
+        Page<T> page = new Page<>(1, limit + 1, false);
+        List<T> records = mapper.selectPage(page, wrapper).getRecords();
+
+        String nextCursor = null;
+        if (records.size() > limit) {
+            records = new ArrayList<>(records.subList(0, (int) limit));
+            T last = records.get(records.size() - 1);
+            nextCursor = PageCursor.encode(sortColumn.apply(last), idColumn.apply(last));
+        }
+        return PageResult.ofCursor(records, limit, nextCursor, total);
+    }
+}
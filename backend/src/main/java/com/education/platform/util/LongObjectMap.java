@@ -0,0 +1,108 @@
+package com.education.platform.util;
+
+import java.util.Arrays;
+
+/**
+ * 以long为键的开放寻址哈希表
+ * 键直接存放在long数组中，避免Long装箱；不支持null值。
+ *
+ * @author Education Platform Team
+ */
+public class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * 放入键值，value为null时忽略
+     */
+    public void put(long key, V value) {
+        if (value == null) {
+            return;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+        int index = indexOf(keys, values, key);
+        if (values[index] == null) {
+            size++;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * 获取值，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[indexOf(keys, values, key)];
+    }
+
+    /**
+     * 获取值，key为null或不存在时返回null
+     */
+    public V get(Long key) {
+        return key == null ? null : get(key.longValue());
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int index = indexOf(keys, values, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int indexOf(long[] keys, Object[] values, long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (values[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,178 @@
+package com.education.platform.util;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 表格文件逐行读取工具
+ * CSV按行读取；XLSX使用SAX事件模式解析第一个工作表，不构建工作簿对象，内存占用与文件行数无关。
+ * 每读到一行即回调，单元格值为格式化后的文本，空行跳过。
+ *
+ * @author Education Platform Team
+ */
+public final class SpreadsheetRowReader {
+
+    private SpreadsheetRowReader() {
+    }
+
+    /**
+     * 行回调
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * @param rowNumber 行号（从1开始，与Excel/文本编辑器中看到的行号一致）
+         * @param cells     单元格文本，缺失的单元格为空字符串
+         */
+        void handle(int rowNumber, List<String> cells);
+    }
+
+    /**
+     * 读取UTF-8编码的CSV（可带BOM）
+     */
+    public static void readCsv(InputStream in, RowHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int rowNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (rowNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            handler.handle(rowNumber, parseCsvLine(line));
+        }
+    }
+
+    /**
+     * 读取XLSX文件的第一个工作表
+     */
+    public static void readXlsx(File file, RowHandler handler) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("无法识别的Excel文件: " + e.getMessage(), e);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new SheetRowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Excel文件解析失败: " + e.getMessage(), e);
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    /**
+     * 解析一行CSV：逗号分隔，双引号包裹的字段可包含逗号，字段内两个双引号表示一个双引号
+     */
+    public static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 将SAX单元格事件按行收集，补齐中间缺失的单元格
+     */
+    private static final class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+
+        private List<String> cells;
+
+        private boolean blank;
+
+        private SheetRowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+            blank = true;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!blank) {
+                handler.handle(rowNum + 1, cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            String value = formattedValue == null ? "" : formattedValue;
+            cells.add(value);
+            if (!value.isBlank()) {
+                blank = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.education.platform.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 流式Excel写入工具
+ * 基于SXSSF，内存中只保留最近WINDOW_SIZE行，更早的行压缩写入临时文件，
+ * 导出行数不影响堆内存占用；单个工作表写满后自动续写到新工作表。
+ *
+ * 用法示例：
+ * <pre>
+ * try (StreamingExcelWriter writer = new StreamingExcelWriter("学生名单", headers)) {
+ *     cursor.forEach(row -> writer.writeRow(row.getStudentNumber(), row.getName()));
+ *     writer.finish(out);
+ * }
+ * </pre>
+ *
+ * @author Education Platform Team
+ */
+public final class StreamingExcelWriter implements Closeable {
+
+    /**
+     * 内存中保留的行数
+     */
+    private static final int WINDOW_SIZE = 200;
+
+    /**
+     * 单个工作表最多写入的数据行数（xlsx上限为1048576行，含表头）
+     */
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final SXSSFWorkbook workbook;
+
+    private final String sheetName;
+
+    private final String[] headers;
+
+    private final CellStyle headerStyle;
+
+    private Sheet sheet;
+
+    private int sheetCount;
+
+    private int rowIndex;
+
+    private long rowCount;
+
+    public StreamingExcelWriter(String sheetName, String... headers) {
+        this.workbook = new SXSSFWorkbook(WINDOW_SIZE);
+        this.workbook.setCompressTempFiles(true);
+        this.sheetName = sheetName;
+        this.headers = headers;
+        this.headerStyle = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        this.headerStyle.setFont(font);
+        newSheet();
+    }
+
+    /**
+     * 追加一行数据，值为空时单元格留空
+     */
+    public void writeRow(Object... values) {
+        if (rowIndex > MAX_ROWS_PER_SHEET) {
+            newSheet();
+        }
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            setValue(row.createCell(i), values[i]);
+        }
+        rowCount++;
+    }
+
+    /**
+     * 已写入的数据行数（不含表头）
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 将工作簿写入输出流（不关闭输出流）
+     */
+    public void finish(OutputStream out) throws IOException {
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * 删除临时文件并释放工作簿
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + sheetCount);
+        // 列宽按表头估算，SXSSF不支持按全部内容自动列宽
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(i, Math.max(12, headers[i].length() * 4) * 256);
+        }
+        sheet.createFreezePane(0, 1);
+        rowIndex = 1;
+    }
+
+    private static void setValue(Cell cell, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof BigDecimal) {
+            cell.setCellValue(((BigDecimal) value).doubleValue());
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue(DATE_TIME_FORMATTER.format((LocalDateTime) value));
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue(value.toString());
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+}
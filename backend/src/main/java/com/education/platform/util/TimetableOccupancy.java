@@ -0,0 +1,230 @@
+package com.education.platform.util;
+
+import com.education.platform.entity.Timetable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 课程表占用索引
+ * 星期（1-7）× 节次（1-8）共56个时段，压缩为一个long的低56位；
+ * 每个教师、班级、教室各保存单周、双周两个位图（all占用两者），冲突检查只需位与运算。
+ * 同一时段被多条记录占用（历史数据）时另记重复位，移除这类时段后无法确定是否仍被占用，需由调用方重新加载该资源。
+ * 非线程安全，由调用方加锁。
+ *
+ * @author Education Platform Team
+ */
+public class TimetableOccupancy {
+
+    public static final int DAYS = 7;
+
+    public static final int PERIODS = 8;
+
+    private static final int ODD = 1;
+
+    private static final int EVEN = 2;
+
+    /**
+     * 位图下标：单周、双周、单周重复、双周重复
+     */
+    private static final int ODD_MASK = 0;
+    private static final int EVEN_MASK = 1;
+    private static final int ODD_DUP = 2;
+    private static final int EVEN_DUP = 3;
+
+    /**
+     * 占用资源类型
+     */
+    public enum Resource {
+        TEACHER("教师"),
+        CLASS("班级"),
+        CLASSROOM("教室");
+
+        private final String label;
+
+        Resource(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final LongObjectMap<long[]> teachers = new LongObjectMap<>();
+
+    private final LongObjectMap<long[]> classes = new LongObjectMap<>();
+
+    /**
+     * 学校ID + 教室名称 → 位图
+     */
+    private final Map<String, long[]> classrooms = new HashMap<>();
+
+    /**
+     * 检查条目与已有占用是否冲突，返回第一个冲突的资源，无冲突时返回null
+     */
+    public Resource conflict(Timetable timetable) {
+        long slot = slot(timetable);
+        if (slot == 0) {
+            return null;
+        }
+        int weeks = weeks(timetable.getAcademicWeek());
+        for (Resource resource : Resource.values()) {
+            long[] masks = masks(resource, timetable, false);
+            if (masks != null && occupied(masks, slot, weeks)) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 记录条目占用的时段（时段、星期或节次无效的条目忽略）
+     */
+    public void add(Timetable timetable) {
+        long slot = slot(timetable);
+        if (slot == 0) {
+            return;
+        }
+        int weeks = weeks(timetable.getAcademicWeek());
+        for (Resource resource : Resource.values()) {
+            long[] masks = masks(resource, timetable, true);
+            if (masks != null) {
+                mark(masks, slot, weeks);
+            }
+        }
+    }
+
+    /**
+     * 释放条目占用的时段
+     *
+     * @return 该时段存在重复占用、需要重新加载的资源
+     */
+    public List<Resource> remove(Timetable timetable) {
+        List<Resource> stale = new ArrayList<>(0);
+        long slot = slot(timetable);
+        if (slot == 0) {
+            return stale;
+        }
+        int weeks = weeks(timetable.getAcademicWeek());
+        for (Resource resource : Resource.values()) {
+            long[] masks = masks(resource, timetable, false);
+            if (masks == null) {
+                continue;
+            }
+            if (((weeks & ODD) != 0 && (masks[ODD_DUP] & slot) != 0)
+                    || ((weeks & EVEN) != 0 && (masks[EVEN_DUP] & slot) != 0)) {
+                stale.add(resource);
+                continue;
+            }
+            if ((weeks & ODD) != 0) {
+                masks[ODD_MASK] &= ~slot;
+            }
+            if ((weeks & EVEN) != 0) {
+                masks[EVEN_MASK] &= ~slot;
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * 用数据库中的记录替换某个资源的全部占用
+     *
+     * @param key  用于定位资源的条目（取其教师ID、班级ID或学校ID + 教室）
+     * @param rows 该资源当前的全部课程表记录
+     */
+    public void reset(Resource resource, Timetable key, List<Timetable> rows) {
+        long[] masks = masks(resource, key, true);
+        if (masks == null) {
+            return;
+        }
+        Arrays.fill(masks, 0L);
+        for (Timetable row : rows) {
+            long slot = slot(row);
+            if (slot != 0) {
+                mark(masks, slot, weeks(row.getAcademicWeek()));
+            }
+        }
+    }
+
+    /**
+     * 教室的索引键，未填写教室时返回null
+     */
+    public static String classroomKey(Long schoolId, String classroom) {
+        if (classroom == null || classroom.isBlank()) {
+            return null;
+        }
+        return schoolId + "|" + classroom.trim();
+    }
+
+    private long[] masks(Resource resource, Timetable timetable, boolean create) {
+        switch (resource) {
+            case TEACHER:
+                return masks(teachers, timetable.getTeacherId(), create);
+            case CLASS:
+                return masks(classes, timetable.getClassId(), create);
+            default:
+                String key = classroomKey(timetable.getSchoolId(), timetable.getClassroom());
+                if (key == null) {
+                    return null;
+                }
+                return create ? classrooms.computeIfAbsent(key, k -> new long[4]) : classrooms.get(key);
+        }
+    }
+
+    private static long[] masks(LongObjectMap<long[]> map, Long id, boolean create) {
+        if (id == null) {
+            return null;
+        }
+        long[] masks = map.get(id.longValue());
+        if (masks == null && create) {
+            masks = new long[4];
+            map.put(id.longValue(), masks);
+        }
+        return masks;
+    }
+
+    private static boolean occupied(long[] masks, long slot, int weeks) {
+        return ((weeks & ODD) != 0 && (masks[ODD_MASK] & slot) != 0)
+                || ((weeks & EVEN) != 0 && (masks[EVEN_MASK] & slot) != 0);
+    }
+
+    private static void mark(long[] masks, long slot, int weeks) {
+        if ((weeks & ODD) != 0) {
+            masks[ODD_DUP] |= masks[ODD_MASK] & slot;
+            masks[ODD_MASK] |= slot;
+        }
+        if ((weeks & EVEN) != 0) {
+            masks[EVEN_DUP] |= masks[EVEN_MASK] & slot;
+            masks[EVEN_MASK] |= slot;
+        }
+    }
+
+    /**
+     * 时段对应的位，星期或节次无效时返回0
+     */
+    private static long slot(Timetable timetable) {
+        Integer weekDay = timetable.getWeekDay();
+        Integer period = timetable.getPeriod();
+        if (weekDay == null || period == null || weekDay < 1 || weekDay > DAYS || period < 1 || period > PERIODS) {
+            return 0;
+        }
+        return 1L << ((weekDay - 1) * PERIODS + period - 1);
+    }
+
+    /**
+     * 教学周占用的单双周，未填写视为all
+     */
+    private static int weeks(String academicWeek) {
+        if ("odd".equals(academicWeek)) {
+            return ODD;
+        }
+        if ("even".equals(academicWeek)) {
+            return EVEN;
+        }
+        return ODD | EVEN;
+    }
+}
@@ -0,0 +1,719 @@
+package com.education.platform.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 排课求解器
+ * 每个课时是一个变量，取值为一周中的时段（星期 × 节次，不超过64个，占用以long位图表示）。
+ * 硬约束：同一班级、教师、指定教室同一时段至多一节课，不占用已被现有课程表占用的时段；
+ * 使用教室池的课时按容量分档，每个时段各档及以上的课时数不超过该档及以上的空闲教室数。
+ * 软约束：同一课时需求每天不超过 ceil(周课时/天数) 节；教师连续上课不超过maxConsecutive节。
+ * 求解过程：每个工作线程以不同随机种子贪心构造初始解，再用模拟退火（移动单个课时、交换同班两个课时）
+ * 搜索，增量维护各项计数；线程间共享最好解，长时间无改进的线程从全局最好解重新出发。
+ * 到达时限、找到零代价解，或已无硬冲突且全局最好解长时间无改进时停止，返回迄今最好的解。
+ *
+ * @author Education Platform Team
+ */
+public class TimetableSolver {
+
+    /**
+     * 一次硬冲突折算的代价
+     */
+    private static final long HARD_WEIGHT = 1000;
+
+    private static final int SPREAD_WEIGHT = 2;
+
+    private static final int CONSECUTIVE_WEIGHT = 1;
+
+    private static final double START_TEMPERATURE = 2.0;
+
+    private static final double MIN_TEMPERATURE = 0.02;
+
+    private static final double COOLING = 0.995;
+
+    /**
+     * 每隔多少次迭代检查时限、降温
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * 问题定义：依次登记班级、教师、指定教室、教室池和课时需求，登记方法返回下标
+     */
+    public static final class Problem {
+
+        private final int days;
+        private final int periods;
+        private final int maxConsecutive;
+
+        private final List<Long> classBlocked = new ArrayList<>();
+        private final List<Long> teacherBlocked = new ArrayList<>();
+        private final List<Long> roomBlocked = new ArrayList<>();
+        private final List<Integer> poolRoomTier = new ArrayList<>();
+        private final List<Long> poolRoomBlocked = new ArrayList<>();
+        private final List<int[]> requirements = new ArrayList<>();
+
+        /**
+         * @param days           每周上课天数
+         * @param periods        每天节次数，days × periods不超过64
+         * @param maxConsecutive 教师最多连续上课节数
+         */
+        public Problem(int days, int periods, int maxConsecutive) {
+            if (days < 1 || periods < 1 || days * periods > 64) {
+                throw new IllegalArgumentException("每周时段数须为1-64");
+            }
+            this.days = days;
+            this.periods = periods;
+            this.maxConsecutive = Math.max(1, maxConsecutive);
+        }
+
+        /**
+         * 时段下标（星期、节次均从0开始）
+         */
+        public int slot(int day, int period) {
+            return day * periods + period;
+        }
+
+        public int getSlots() {
+            return days * periods;
+        }
+
+        /**
+         * @param blocked 已被占用的时段位图
+         */
+        public int addClass(long blocked) {
+            classBlocked.add(blocked);
+            return classBlocked.size() - 1;
+        }
+
+        public int addTeacher(long blocked) {
+            teacherBlocked.add(blocked);
+            return teacherBlocked.size() - 1;
+        }
+
+        /**
+         * 登记指定教室（独占，不参与教室池分配）
+         */
+        public int addRoom(long blocked) {
+            roomBlocked.add(blocked);
+            return roomBlocked.size() - 1;
+        }
+
+        /**
+         * 登记教室池中的教室
+         *
+         * @param tier 容量档位，档位越高容量越大
+         */
+        public int addPoolRoom(int tier, long blocked) {
+            poolRoomTier.add(tier);
+            poolRoomBlocked.add(blocked);
+            return poolRoomTier.size() - 1;
+        }
+
+        /**
+         * 登记课时需求
+         *
+         * @param room  指定教室下标，不指定时为-1
+         * @param tier  需要的教室池容量档位，不使用教室池时为-1
+         * @param hours 每周课时数
+         */
+        public int addRequirement(int clazz, int teacher, int room, int tier, int hours) {
+            requirements.add(new int[]{clazz, teacher, room, tier, hours});
+            return requirements.size() - 1;
+        }
+    }
+
+    /**
+     * 求解结果，课时按需求登记顺序展开：需求0的各课时在前，依此类推
+     */
+    public static final class Result {
+        private final int[] lessonRequirement;
+        private final int[] slotOf;
+        private final int[] poolRoomOf;
+        private final long hardViolations;
+        private final long softPenalty;
+        private final long iterations;
+
+        private Result(int[] lessonRequirement, int[] slotOf, int[] poolRoomOf,
+                       long hardViolations, long softPenalty, long iterations) {
+            this.lessonRequirement = lessonRequirement;
+            this.slotOf = slotOf;
+            this.poolRoomOf = poolRoomOf;
+            this.hardViolations = hardViolations;
+            this.softPenalty = softPenalty;
+            this.iterations = iterations;
+        }
+
+        public int getLessonCount() {
+            return slotOf.length;
+        }
+
+        public int requirementOf(int lesson) {
+            return lessonRequirement[lesson];
+        }
+
+        public int slotOf(int lesson) {
+            return slotOf[lesson];
+        }
+
+        /**
+         * 课时分配到的教室池教室下标，不使用教室池或无可用教室时为-1
+         */
+        public int poolRoomOf(int lesson) {
+            return poolRoomOf[lesson];
+        }
+
+        public long getHardViolations() {
+            return hardViolations;
+        }
+
+        public long getSoftPenalty() {
+            return softPenalty;
+        }
+
+        public long getIterations() {
+            return iterations;
+        }
+    }
+
+    /**
+     * 并行求解
+     *
+     * @param executor        运行搜索线程的线程池
+     * @param workers         并行搜索的线程数
+     * @param timeLimitMillis 求解时限
+     */
+    public static Result solve(Problem problem, ExecutorService executor, int workers, long timeLimitMillis, long seed)
+            throws InterruptedException {
+        Model model = new Model(problem);
+        Shared shared = new Shared(model, System.nanoTime() + timeLimitMillis * 1_000_000L,
+                Math.max(2000, timeLimitMillis / 4) * 1_000_000L);
+        List<Future<Long>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            long workerSeed = seed + i * 0x9E3779B97F4A7C15L;
+            futures.add(executor.submit(() -> new Search(model, shared, new Random(workerSeed)).run()));
+        }
+        long iterations = 0;
+        try {
+            for (Future<Long> future : futures) {
+                iterations += future.get();
+            }
+        } catch (ExecutionException e) {
+            shared.stop.set(true);
+            throw new IllegalStateException("排课求解失败", e.getCause());
+        } catch (InterruptedException e) {
+            shared.stop.set(true);
+            throw e;
+        }
+        Search best = new Search(model, shared, new Random(seed));
+        best.load(shared.bestSlots);
+        return new Result(model.lessonReq, shared.bestSlots.clone(), best.assignPoolRooms(),
+                best.hard, best.soft, iterations);
+    }
+
+    /**
+     * 编译后的只读模型，所有搜索线程共享
+     */
+    private static final class Model {
+        final int days;
+        final int periods;
+        final int slots;
+        final int maxConsecutive;
+        final int tiers;
+        final long[] classBlocked;
+        final long[] teacherBlocked;
+        final long[] roomBlocked;
+        final int[] poolRoomTier;
+        final long[] poolRoomBlocked;
+        /**
+         * [slot * tiers + tier]：该时段档位不低于tier的空闲教室数
+         */
+        final int[] poolAvail;
+        final int[] reqClass;
+        final int[] reqTeacher;
+        final int[] reqRoom;
+        final int[] reqTier;
+        final int[] reqMaxPerDay;
+        final int[] lessonReq;
+        final int[][] classLessons;
+        /**
+         * 构造顺序的优先级：教师和班级的总课时越多越先排
+         */
+        final int[] lessonDifficulty;
+
+        Model(Problem p) {
+            days = p.days;
+            periods = p.periods;
+            slots = days * periods;
+            maxConsecutive = p.maxConsecutive;
+            classBlocked = toArray(p.classBlocked);
+            teacherBlocked = toArray(p.teacherBlocked);
+            roomBlocked = toArray(p.roomBlocked);
+            poolRoomTier = p.poolRoomTier.stream().mapToInt(Integer::intValue).toArray();
+            poolRoomBlocked = toArray(p.poolRoomBlocked);
+            int maxTier = -1;
+            for (int tier : poolRoomTier) {
+                maxTier = Math.max(maxTier, tier);
+            }
+            tiers = maxTier + 1;
+            poolAvail = new int[slots * Math.max(1, tiers)];
+            for (int room = 0; room < poolRoomTier.length; room++) {
+                for (int s = 0; s < slots; s++) {
+                    if ((poolRoomBlocked[room] & (1L << s)) == 0) {
+                        for (int t = 0; t <= poolRoomTier[room]; t++) {
+                            poolAvail[s * tiers + t]++;
+                        }
+                    }
+                }
+            }
+
+            int count = p.requirements.size();
+            reqClass = new int[count];
+            reqTeacher = new int[count];
+            reqRoom = new int[count];
+            reqTier = new int[count];
+            reqMaxPerDay = new int[count];
+            int lessons = 0;
+            int[] classHours = new int[classBlocked.length];
+            int[] teacherHours = new int[teacherBlocked.length];
+            for (int r = 0; r < count; r++) {
+                int[] req = p.requirements.get(r);
+                reqClass[r] = req[0];
+                reqTeacher[r] = req[1];
+                reqRoom[r] = req[2];
+                reqTier[r] = tiers > 0 ? Math.min(req[3], tiers - 1) : -1;
+                reqMaxPerDay[r] = (req[4] + days - 1) / days;
+                lessons += req[4];
+                classHours[req[0]] += req[4];
+                teacherHours[req[1]] += req[4];
+            }
+            lessonReq = new int[lessons];
+            lessonDifficulty = new int[lessons];
+            int[] classLessonCount = new int[classBlocked.length];
+            int l = 0;
+            for (int r = 0; r < count; r++) {
+                int[] req = p.requirements.get(r);
+                for (int h = 0; h < req[4]; h++, l++) {
+                    lessonReq[l] = r;
+                    lessonDifficulty[l] = classHours[req[0]] + teacherHours[req[1]] + (req[2] >= 0 ? slots : 0);
+                    classLessonCount[req[0]]++;
+                }
+            }
+            classLessons = new int[classBlocked.length][];
+            for (int c = 0; c < classLessons.length; c++) {
+                classLessons[c] = new int[classLessonCount[c]];
+                classLessonCount[c] = 0;
+            }
+            for (l = 0; l < lessons; l++) {
+                int c = reqClass[lessonReq[l]];
+                classLessons[c][classLessonCount[c]++] = l;
+            }
+        }
+
+        private static long[] toArray(List<Long> values) {
+            return values.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    /**
+     * 线程间共享的最好解与停止条件
+     */
+    private static final class Shared {
+        final Model model;
+        final long deadline;
+        final long stallNanos;
+        final AtomicBoolean stop = new AtomicBoolean();
+        volatile long bestCost = Long.MAX_VALUE;
+        volatile long bestHard = Long.MAX_VALUE;
+        volatile long lastImprovement = System.nanoTime();
+        int[] bestSlots;
+
+        Shared(Model model, long deadline, long stallNanos) {
+            this.model = model;
+            this.deadline = deadline;
+            this.stallNanos = stallNanos;
+        }
+
+        synchronized void offer(long cost, long hard, int[] slots) {
+            if (cost < bestCost) {
+                bestSlots = slots.clone();
+                bestHard = hard;
+                bestCost = cost;
+                lastImprovement = System.nanoTime();
+                if (cost == 0) {
+                    stop.set(true);
+                }
+            }
+        }
+
+        synchronized int[] snapshot() {
+            return bestSlots == null ? null : bestSlots.clone();
+        }
+
+        boolean shouldStop() {
+            if (stop.get()) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - deadline >= 0 || (bestHard == 0 && now - lastImprovement > stallNanos)) {
+                stop.set(true);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 单个搜索线程的状态，增量维护各资源每个时段的课时数和总代价
+     */
+    private static final class Search {
+        private final Model m;
+        private final Shared shared;
+        private final Random random;
+        private final int[] slotOf;
+        private final int[] classUse;
+        private final int[] teacherUse;
+        private final int[] roomUse;
+        private final int[] poolUse;
+        private final int[] reqDay;
+        private long hard;
+        private long soft;
+
+        Search(Model m, Shared shared, Random random) {
+            this.m = m;
+            this.shared = shared;
+            this.random = random;
+            slotOf = new int[m.lessonReq.length];
+            Arrays.fill(slotOf, -1);
+            classUse = new int[m.classBlocked.length * m.slots];
+            teacherUse = new int[m.teacherBlocked.length * m.slots];
+            roomUse = new int[m.roomBlocked.length * m.slots];
+            poolUse = new int[m.slots * Math.max(1, m.tiers)];
+            reqDay = new int[m.reqClass.length * m.days];
+        }
+
+        long run() {
+            construct();
+            shared.offer(cost(), hard, slotOf);
+            int[] localBest = slotOf.clone();
+            long localBestCost = cost();
+            boolean improvedSinceReheat = false;
+            double temperature = START_TEMPERATURE;
+            long iterations = 0;
+            int lessons = slotOf.length;
+            if (lessons == 0) {
+                return 0;
+            }
+            while (true) {
+                if ((++iterations & (CHECK_INTERVAL - 1)) == 0) {
+                    if (shared.shouldStop()) {
+                        break;
+                    }
+                    temperature *= COOLING;
+                    if (temperature < MIN_TEMPERATURE) {
+                        // 一轮退火无改进时从全局最好解重新出发
+                        if (!improvedSinceReheat) {
+                            int[] global = shared.snapshot();
+                            load(global != null ? global : localBest);
+                        }
+                        improvedSinceReheat = false;
+                        temperature = START_TEMPERATURE;
+                    }
+                }
+                int lesson = pickLesson(lessons);
+                int[] siblings = m.classLessons[m.reqClass[m.lessonReq[lesson]]];
+                boolean accepted = random.nextInt(3) == 0 && siblings.length > 1
+                        ? trySwap(lesson, siblings[random.nextInt(siblings.length)], temperature)
+                        : tryMove(lesson, temperature);
+                if (accepted) {
+                    long cost = cost();
+                    if (cost < localBestCost) {
+                        localBestCost = cost;
+                        System.arraycopy(slotOf, 0, localBest, 0, lessons);
+                        improvedSinceReheat = true;
+                        if (cost < shared.bestCost) {
+                            shared.offer(cost, hard, slotOf);
+                        }
+                    }
+                }
+            }
+            return iterations;
+        }
+
+        /**
+         * 贪心构造：按难度从高到低依次放入代价最小的时段
+         */
+        private void construct() {
+            int lessons = slotOf.length;
+            Integer[] order = new Integer[lessons];
+            for (int l = 0; l < lessons; l++) {
+                order[l] = l;
+            }
+            for (int i = lessons - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Integer tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(m.lessonDifficulty[b], m.lessonDifficulty[a]));
+            for (Integer lesson : order) {
+                long classBlocked = m.classBlocked[m.reqClass[m.lessonReq[lesson]]];
+                int best = -1;
+                long bestCost = Long.MAX_VALUE;
+                int ties = 0;
+                for (int s = 0; s < m.slots; s++) {
+                    if ((classBlocked & (1L << s)) != 0) {
+                        continue;
+                    }
+                    place(lesson, s);
+                    long cost = cost();
+                    remove(lesson);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        best = s;
+                        ties = 1;
+                    } else if (cost == bestCost && random.nextInt(++ties) == 0) {
+                        best = s;
+                    }
+                }
+                place(lesson, best >= 0 ? best : random.nextInt(m.slots));
+            }
+        }
+
+        /**
+         * 存在硬冲突时优先挑选处于冲突中的课时
+         */
+        private int pickLesson(int lessons) {
+            int lesson = random.nextInt(lessons);
+            if (hard > 0) {
+                for (int i = 0; i < 8 && !inConflict(lesson); i++) {
+                    lesson = random.nextInt(lessons);
+                }
+            }
+            return lesson;
+        }
+
+        private boolean tryMove(int lesson, double temperature) {
+            int from = slotOf[lesson];
+            long classBlocked = m.classBlocked[m.reqClass[m.lessonReq[lesson]]];
+            int to = random.nextInt(m.slots);
+            for (int i = 0; i < 4 && (to == from || (classBlocked & (1L << to)) != 0); i++) {
+                to = random.nextInt(m.slots);
+            }
+            if (to == from) {
+                return false;
+            }
+            long before = cost();
+            remove(lesson);
+            place(lesson, to);
+            if (accept(cost() - before, temperature)) {
+                return true;
+            }
+            remove(lesson);
+            place(lesson, from);
+            return false;
+        }
+
+        private boolean trySwap(int a, int b, double temperature) {
+            int slotA = slotOf[a];
+            int slotB = slotOf[b];
+            if (slotA == slotB) {
+                return false;
+            }
+            long before = cost();
+            remove(a);
+            remove(b);
+            place(a, slotB);
+            place(b, slotA);
+            if (accept(cost() - before, temperature)) {
+                return true;
+            }
+            remove(a);
+            remove(b);
+            place(a, slotA);
+            place(b, slotB);
+            return false;
+        }
+
+        private boolean accept(long delta, double temperature) {
+            return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+        }
+
+        /**
+         * 用给定的分配替换当前状态
+         */
+        void load(int[] slots) {
+            for (int l = 0; l < slotOf.length; l++) {
+                if (slotOf[l] >= 0) {
+                    remove(l);
+                }
+            }
+            for (int l = 0; l < slotOf.length; l++) {
+                place(l, slots[l]);
+            }
+        }
+
+        /**
+         * 逐时段为使用教室池的课时分配教室：容量档位高的课时先分配，取满足档位的最小教室
+         */
+        int[] assignPoolRooms() {
+            int[] roomOf = new int[slotOf.length];
+            Arrays.fill(roomOf, -1);
+            if (m.poolRoomTier.length == 0) {
+                return roomOf;
+            }
+            Integer[] rooms = new Integer[m.poolRoomTier.length];
+            for (int i = 0; i < rooms.length; i++) {
+                rooms[i] = i;
+            }
+            Arrays.sort(rooms, (a, b) -> Integer.compare(m.poolRoomTier[a], m.poolRoomTier[b]));
+            List<List<Integer>> bySlot = new ArrayList<>(m.slots);
+            for (int s = 0; s < m.slots; s++) {
+                bySlot.add(new ArrayList<>());
+            }
+            for (int l = 0; l < slotOf.length; l++) {
+                if (m.reqTier[m.lessonReq[l]] >= 0) {
+                    bySlot.get(slotOf[l]).add(l);
+                }
+            }
+            boolean[] used = new boolean[rooms.length];
+            for (int s = 0; s < m.slots; s++) {
+                List<Integer> lessons = bySlot.get(s);
+                lessons.sort((a, b) -> Integer.compare(m.reqTier[m.lessonReq[b]], m.reqTier[m.lessonReq[a]]));
+                Arrays.fill(used, false);
+                for (Integer lesson : lessons) {
+                    int tier = m.reqTier[m.lessonReq[lesson]];
+                    for (int i = 0; i < rooms.length; i++) {
+                        int room = rooms[i];
+                        if (!used[i] && m.poolRoomTier[room] >= tier && (m.poolRoomBlocked[room] & (1L << s)) == 0) {
+                            used[i] = true;
+                            roomOf[lesson] = room;
+                            break;
+                        }
+                    }
+                }
+            }
+            return roomOf;
+        }
+
+        private long cost() {
+            return hard * HARD_WEIGHT + soft;
+        }
+
+        private void place(int lesson, int slot) {
+            slotOf[lesson] = slot;
+            apply(lesson, slot, 1);
+        }
+
+        private void remove(int lesson) {
+            apply(lesson, slotOf[lesson], -1);
+            slotOf[lesson] = -1;
+        }
+
+        private void apply(int lesson, int slot, int sign) {
+            int r = m.lessonReq[lesson];
+            int day = slot / m.periods;
+            long bit = 1L << slot;
+
+            int c = m.reqClass[r];
+            int ci = c * m.slots + slot;
+            int cap = (m.classBlocked[c] & bit) != 0 ? 0 : 1;
+            hard -= over(classUse[ci], cap);
+            classUse[ci] += sign;
+            hard += over(classUse[ci], cap);
+
+            int t = m.reqTeacher[r];
+            int ti = t * m.slots + slot;
+            cap = (m.teacherBlocked[t] & bit) != 0 ? 0 : 1;
+            hard -= over(teacherUse[ti], cap);
+            soft -= (long) teacherDayPenalty(t, day) * CONSECUTIVE_WEIGHT;
+            teacherUse[ti] += sign;
+            hard += over(teacherUse[ti], cap);
+            soft += (long) teacherDayPenalty(t, day) * CONSECUTIVE_WEIGHT;
+
+            int room = m.reqRoom[r];
+            if (room >= 0) {
+                int ri = room * m.slots + slot;
+                cap = (m.roomBlocked[room] & bit) != 0 ? 0 : 1;
+                hard -= over(roomUse[ri], cap);
+                roomUse[ri] += sign;
+                hard += over(roomUse[ri], cap);
+            }
+
+            int tier = m.reqTier[r];
+            if (tier >= 0) {
+                hard -= poolOver(slot);
+                poolUse[slot * m.tiers + tier] += sign;
+                hard += poolOver(slot);
+            }
+
+            int di = r * m.days + day;
+            soft -= (long) over(reqDay[di], m.reqMaxPerDay[r]) * SPREAD_WEIGHT;
+            reqDay[di] += sign;
+            soft += (long) over(reqDay[di], m.reqMaxPerDay[r]) * SPREAD_WEIGHT;
+        }
+
+        private boolean inConflict(int lesson) {
+            int r = m.lessonReq[lesson];
+            int slot = slotOf[lesson];
+            long bit = 1L << slot;
+            int c = m.reqClass[r];
+            if (classUse[c * m.slots + slot] > ((m.classBlocked[c] & bit) != 0 ? 0 : 1)) {
+                return true;
+            }
+            int t = m.reqTeacher[r];
+            if (teacherUse[t * m.slots + slot] > ((m.teacherBlocked[t] & bit) != 0 ? 0 : 1)) {
+                return true;
+            }
+            int room = m.reqRoom[r];
+            if (room >= 0 && roomUse[room * m.slots + slot] > ((m.roomBlocked[room] & bit) != 0 ? 0 : 1)) {
+                return true;
+            }
+            return m.reqTier[r] >= 0 && poolOver(slot) > 0;
+        }
+
+        /**
+         * 教师某天超出连续上课上限的节数
+         */
+        private int teacherDayPenalty(int teacher, int day) {
+            int base = teacher * m.slots + day * m.periods;
+            int penalty = 0;
+            int run = 0;
+            for (int p = 0; p < m.periods; p++) {
+                if (teacherUse[base + p] > 0) {
+                    run++;
+                    if (run > m.maxConsecutive) {
+                        penalty++;
+                    }
+                } else {
+                    run = 0;
+                }
+            }
+            return penalty;
+        }
+
+        /**
+         * 某时段教室池无法容纳的课时数
+         */
+        private int poolOver(int slot) {
+            int base = slot * m.tiers;
+            int excess = 0;
+            int demand = 0;
+            for (int t = m.tiers - 1; t >= 0; t--) {
+                demand += poolUse[base + t];
+                excess = Math.max(excess, demand - m.poolAvail[base + t]);
+            }
+            return excess;
+        }
+
+        private static int over(int use, int cap) {
+            return use > cap ? use - cap : 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.education.platform.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 值字典
+ * 将取值映射为从0开始连续的整数编码，编码只增不改，供列式数据按编码存储和分组计数。
+ * 编码由单个线程写入，读取线程可并发解码。
+ *
+ * @param <K> 取值类型（不能为null）
+ * @author Education Platform Team
+ */
+public class ValueDictionary<K> {
+
+    private final Map<K, Integer> codes = new ConcurrentHashMap<>();
+
+    private volatile Object[] values = new Object[16];
+
+    private volatile int size;
+
+    /**
+     * 取值的编码，不存在时分配新编码
+     */
+    public synchronized int encode(K value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        Object[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * 取值的编码，不存在时返回-1
+     */
+    public int code(K value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * 编码对应的取值
+     */
+    @SuppressWarnings("unchecked")
+    public K decode(int code) {
+        return (K) values[code];
+    }
+
+    /**
+     * 已分配的编码数
+     */
+    public int size() {
+        return size;
+    }
+}
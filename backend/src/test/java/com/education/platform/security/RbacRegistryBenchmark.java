@@ -0,0 +1,125 @@
+package com.education.platform.security;
+
+import com.education.platform.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * RBAC快照基准测试：10万用户下的全量构建、鉴权与单用户增量刷新耗时
+ * 数据由模拟的UserMapper提供，只测量快照本身（与联表查询的对比见RbacResolutionBenchmark）；
+ * 运行方式：mvn test -Pbenchmark -Dtest=RbacRegistryBenchmark
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Tag("benchmark")
+class RbacRegistryBenchmark {
+
+    private static final int USERS = 100_000;
+
+    private static final int ROLES = 8;
+
+    private static final int PERMISSIONS_PER_ROLE = 40;
+
+    private static final int LOOKUPS = 10_000_000;
+
+    private UserMapper userMapper;
+
+    private RbacRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        List<Map<String, Object>> roles = new ArrayList<>();
+        List<Map<String, Object>> grants = new ArrayList<>();
+        for (long roleId = 1; roleId <= ROLES; roleId++) {
+            roles.add(row("roleId", roleId, "roleCode", "ROLE_" + roleId));
+            for (int p = 0; p < PERMISSIONS_PER_ROLE; p++) {
+                // 相邻角色的权限部分重叠
+                grants.add(row("roleId", roleId, "permissionCode", "perm:" + (roleId * 20 + p)));
+            }
+        }
+        List<Map<String, Object>> userRoles = new ArrayList<>();
+        Random random = new Random(42);
+        for (long userId = 1; userId <= USERS; userId++) {
+            userRoles.add(row("userId", userId, "roleId", (long) (random.nextInt(ROLES) + 1)));
+            if (random.nextInt(10) == 0) {
+                userRoles.add(row("userId", userId, "roleId", (long) (random.nextInt(ROLES) + 1)));
+            }
+        }
+        when(userMapper.selectRbacFingerprint()).thenReturn("fingerprint");
+        when(userMapper.selectRoleCodes()).thenReturn(roles);
+        when(userMapper.selectRolePermissionCodes(isNull())).thenReturn(grants);
+        when(userMapper.selectUserRoleIds(isNull())).thenReturn(userRoles);
+        when(userMapper.selectUserRoleIds(anyLong())).thenReturn(List.of(row("userId", 1L, "roleId", 1L)));
+
+        registry = new RbacRegistry();
+        ReflectionTestUtils.setField(registry, "userMapper", userMapper);
+    }
+
+    @Test
+    void reloadAndLookup() {
+        // 预热
+        registry.reload();
+
+        long start = System.nanoTime();
+        registry.reload();
+        long reloadMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(registry.isLoaded());
+
+        Random random = new Random(7);
+        long[] userIds = new long[1 << 16];
+        String[] permissions = new String[1 << 10];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = random.nextInt(USERS) + 1;
+        }
+        for (int i = 0; i < permissions.length; i++) {
+            permissions[i] = "perm:" + random.nextInt(ROLES * 20 + PERMISSIONS_PER_ROLE);
+        }
+        int granted = 0;
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            granted += registry.hasPermission(userIds[i & (userIds.length - 1)],
+                    permissions[i & (permissions.length - 1)]) ? 1 : 0;
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            granted += registry.hasPermission(userIds[i & (userIds.length - 1)],
+                    permissions[i & (permissions.length - 1)]) ? 1 : 0;
+        }
+        double lookupNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+        assertTrue(granted > 0);
+
+        start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            registry.onUserRolesChanged(1L);
+        }
+        double refreshMillis = (System.nanoTime() - start) / 100 / 1_000_000.0;
+        assertEquals(List.of("ROLE_1"), registry.getRoles(1L));
+
+        log.info("RBAC快照基准: 用户{}个, 全量构建{}ms, 鉴权{}ns/次, 单用户刷新{}ms",
+                USERS, reloadMillis, String.format("%.1f", lookupNanos), String.format("%.2f", refreshMillis));
+    }
+
+    private static Map<String, Object> row(String k1, Object v1, String k2, Object v2) {
+        Map<String, Object> row = new HashMap<>();
+        row.put(k1, v1);
+        row.put(k2, v2);
+        return row;
+    }
+}
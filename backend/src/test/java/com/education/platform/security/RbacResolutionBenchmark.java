@@ -0,0 +1,142 @@
+package com.education.platform.security;
+
+import com.education.platform.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 用户权限解析前后对比基准：10万用户
+ * 改造前每个请求按用户ID联表查询角色与权限（UserMapper.selectRolesByUserId、selectPermissionsByUserId），
+ * 改造后从RBAC快照读取（RbacRegistry.getRoles、getPermissions）；两种方式解析同一批用户并逐一比对结果。
+ * 需要可用的MySQL，连接取自application.yml的spring.datasource，可用-Dspring.datasource.url等覆盖；
+ * 数据库查询次数由-Dbenchmark.rbac.lookups指定（默认5000）。写入的用户ID从900000000起，结束后物理删除。
+ * 运行方式：mvn test -Pbenchmark -Dtest=RbacResolutionBenchmark
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class RbacResolutionBenchmark {
+
+    /**
+     * 基准数据使用的用户ID下限，不与业务数据重叠
+     */
+    private static final long BASE_ID = 900_000_000L;
+
+    private static final int USERS = 100_000;
+
+    private static final int CHUNK = 1000;
+
+    private static final int SNAPSHOT_ROUNDS = 200;
+
+    @Value("${benchmark.rbac.lookups:5000}")
+    private int lookups;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private RbacRegistry rbacRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_role WHERE user_id >= ?", BASE_ID);
+        jdbcTemplate.update("DELETE FROM user WHERE id >= ?", BASE_ID);
+        rbacRegistry.reload();
+    }
+
+    @Test
+    void resolveAuthorities() {
+        List<Long> roleIds = jdbcTemplate.queryForList("SELECT id FROM role WHERE deleted = 0", Long.class);
+        assertFalse(roleIds.isEmpty(), "role表中没有可分配的角色");
+        seed(roleIds);
+
+        long start = System.nanoTime();
+        rbacRegistry.reload();
+        long reloadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Random random = new Random(7);
+        long[] userIds = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            userIds[i] = BASE_ID + random.nextInt(USERS);
+        }
+
+        // 预热两条路径
+        for (int i = 0; i < Math.min(200, lookups); i++) {
+            userMapper.selectRolesByUserId(userIds[i]);
+            userMapper.selectPermissionsByUserId(userIds[i]);
+            rbacRegistry.getRoles(userIds[i]);
+            rbacRegistry.getPermissions(userIds[i]);
+        }
+
+        List<List<String>> joinRoles = new ArrayList<>(lookups);
+        List<HashSet<String>> joinPermissions = new ArrayList<>(lookups);
+        start = System.nanoTime();
+        for (long userId : userIds) {
+            joinRoles.add(userMapper.selectRolesByUserId(userId));
+            joinPermissions.add(new HashSet<>(userMapper.selectPermissionsByUserId(userId)));
+        }
+        double joinMicros = (System.nanoTime() - start) / 1000.0 / lookups;
+
+        int resolved = 0;
+        start = System.nanoTime();
+        for (int round = 0; round < SNAPSHOT_ROUNDS; round++) {
+            for (long userId : userIds) {
+                resolved += rbacRegistry.getRoles(userId).size() + rbacRegistry.getPermissions(userId).size();
+            }
+        }
+        double snapshotMicros = (System.nanoTime() - start) / 1000.0 / ((long) lookups * SNAPSHOT_ROUNDS);
+
+        for (int i = 0; i < lookups; i++) {
+            assertEquals(new HashSet<>(joinRoles.get(i)), new HashSet<>(rbacRegistry.getRoles(userIds[i])));
+            assertEquals(joinPermissions.get(i), new HashSet<>(rbacRegistry.getPermissions(userIds[i])));
+        }
+
+        log.info("用户权限解析基准（{}用户, {}次）: 联表查询{}μs/次, 快照{}μs/次, 加速比{}, 快照全量构建{}ms, 校验和{}",
+                USERS, lookups, String.format("%.1f", joinMicros), String.format("%.3f", snapshotMicros),
+                String.format("%.0fx", joinMicros / Math.max(snapshotMicros, 1e-6)), reloadMillis, resolved);
+    }
+
+    /**
+     * 写入10万用户，每人一个角色，十分之一的用户再加一个角色
+     */
+    private void seed(List<Long> roleIds) {
+        Random random = new Random(42);
+        for (int from = 0; from < USERS; from += CHUNK) {
+            List<Object[]> users = new ArrayList<>(CHUNK);
+            List<Object[]> userRoles = new ArrayList<>(CHUNK * 2);
+            for (int i = from; i < Math.min(from + CHUNK, USERS); i++) {
+                long userId = BASE_ID + i;
+                users.add(new Object[]{userId, "rbac_bench_" + i, "x", "基准用户" + i});
+                Long first = roleIds.get(random.nextInt(roleIds.size()));
+                userRoles.add(new Object[]{userId, first});
+                if (roleIds.size() > 1 && random.nextInt(10) == 0) {
+                    Long second = roleIds.get(random.nextInt(roleIds.size()));
+                    if (!second.equals(first)) {
+                        userRoles.add(new Object[]{userId, second});
+                    }
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO user (id, username, password, real_name) VALUES (?, ?, ?, ?)", users);
+            jdbcTemplate.batchUpdate("INSERT INTO user_role (user_id, role_id) VALUES (?, ?)", userRoles);
+        }
+    }
+}
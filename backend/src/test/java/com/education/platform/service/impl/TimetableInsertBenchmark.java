@@ -0,0 +1,152 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.TimetableBatchResult;
+import com.education.platform.entity.Timetable;
+import com.education.platform.mapper.TimetableMapper;
+import com.education.platform.service.ITimetableService;
+import com.education.platform.util.TimetableOccupancy;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 课程表写入基准测试
+ * 对比三种写入方式的吞吐量（行/秒）：逐条TimetableMapper.insert（每条自动提交）、
+ * 单事务分块TimetableMapper.insertBatch、TimetableServiceImpl.batchInsert（含冲突检查与占用索引）。
+ * 需要可用的MySQL，连接取自application.yml的spring.datasource，可用-Dspring.datasource.url等覆盖；
+ * 行数由-Dbenchmark.timetable.rows指定（默认5000）。写入的班级、教师ID从900000000起，结束后物理删除。
+ * 运行方式：mvn test -Pbenchmark -Dtest=TimetableInsertBenchmark
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class TimetableInsertBenchmark {
+
+    /**
+     * 基准数据使用的班级、教师ID下限，不与业务数据重叠
+     */
+    private static final long BASE_ID = 900_000_000L;
+
+    private static final int SLOTS = TimetableOccupancy.DAYS * TimetableOccupancy.PERIODS;
+
+    private static final int CHUNK = 200;
+
+    private static final int WARM_UP_ROWS = 200;
+
+    @Value("${benchmark.timetable.rows:5000}")
+    private int rows;
+
+    @Autowired
+    private TimetableMapper timetableMapper;
+
+    @Autowired
+    private ITimetableService timetableService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void insertThroughput() {
+        // 预热，避免首次执行的开销计入结果
+        insertPerRow(generate(WARM_UP_ROWS));
+        cleanUp();
+        insertBatched(generate(WARM_UP_ROWS));
+        cleanUp();
+        timetableService.batchInsert(generate(WARM_UP_ROWS));
+        cleanUp();
+
+        long perRow = insertPerRow(generate(rows));
+        cleanUp();
+        long batched = insertBatched(generate(rows));
+        cleanUp();
+        List<Timetable> timetables = generate(rows);
+        long start = System.nanoTime();
+        TimetableBatchResult result = timetableService.batchInsert(timetables);
+        long service = System.nanoTime() - start;
+        assertEquals(rows, result.getCount());
+
+        log.info("课程表写入基准（{}行）: 逐条写入{}, 单事务分块写入{}, 服务批量写入{}, 加速比{}",
+                rows, rate(perRow), rate(batched), rate(service),
+                String.format("%.1fx", (double) perRow / Math.max(1, service)));
+    }
+
+    /**
+     * 逐条执行INSERT，每条自动提交
+     */
+    private long insertPerRow(List<Timetable> timetables) {
+        long start = System.nanoTime();
+        for (Timetable timetable : timetables) {
+            timetableMapper.insert(timetable);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * 一个事务内每块一条多行INSERT
+     */
+    private long insertBatched(List<Timetable> timetables) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        transaction.executeWithoutResult(status -> {
+            for (int from = 0; from < timetables.size(); from += CHUNK) {
+                timetableMapper.insertBatch(timetables.subList(from, Math.min(from + CHUNK, timetables.size())));
+            }
+        });
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * 互不冲突的课程表：每个班级占满一周的节次，每条记录一位教师，不指定教室
+     */
+    private static List<Timetable> generate(int count) {
+        List<Timetable> timetables = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = i % SLOTS;
+            Timetable timetable = new Timetable();
+            timetable.setSchoolId(1L);
+            timetable.setClassId(BASE_ID + i / SLOTS);
+            timetable.setTeacherId(BASE_ID + i);
+            timetable.setSubject("语文");
+            timetable.setWeekDay(1 + slot / TimetableOccupancy.PERIODS);
+            timetable.setPeriod(1 + slot % TimetableOccupancy.PERIODS);
+            timetable.setStartTime(LocalTime.of(8, 0));
+            timetable.setEndTime(LocalTime.of(8, 45));
+            timetable.setAcademicWeek("all");
+            timetables.add(timetable);
+        }
+        return timetables;
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("DELETE FROM timetable WHERE class_id >= ?", BASE_ID);
+        timetableService.rebuildOccupancy();
+    }
+
+    private String rate(long nanos) {
+        double seconds = nanos / 1e9;
+        return String.format("%.2f秒(%.0f行/秒)", seconds, rows / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,251 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.entity.TrainingCourse;
+import com.education.platform.entity.TrainingEnrollment;
+import com.education.platform.mapper.TrainingCourseMapper;
+import com.education.platform.mapper.TrainingEnrollmentMapper;
+import com.education.platform.service.ITrainingEnrollmentService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 培训报名压测：1万个线程同时报名同一门课程
+ * 数据库由内存模拟（唯一键、带名额条件的UPDATE、事务回滚），验证组提交不超额、不重复，
+ * 以及其他节点占用名额后整批回滚、逐条重试的结果；运行方式：mvn test -Pbenchmark -Dtest=TrainingEnrollmentBenchmark
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Tag("benchmark")
+class TrainingEnrollmentBenchmark {
+
+    private static final long COURSE_ID = 1L;
+
+    private static final int CAPACITY = 3000;
+
+    private static final int THREADS = 10_000;
+
+    /**
+     * 请求涉及的学员数，其余线程重复提交前面学员的报名
+     */
+    private static final int DISTINCT_STUDENTS = 9000;
+
+    private FakeDatabase database;
+
+    private TrainingEnrollmentServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeDatabase();
+        TrainingEnrollmentMapper enrollmentMapper = mock(TrainingEnrollmentMapper.class);
+        TrainingCourseMapper courseMapper = mock(TrainingCourseMapper.class);
+        when(courseMapper.selectById(anyLong())).thenAnswer(inv -> database.course());
+        when(courseMapper.incrementEnrollCount(anyLong(), anyInt()))
+                .thenAnswer(inv -> database.increment(inv.getArgument(1)));
+        when(enrollmentMapper.selectObjs(any())).thenAnswer(inv -> database.studentIds());
+        when(enrollmentMapper.selectExistingStudentIds(anyLong(), anyCollection()))
+                .thenAnswer(inv -> database.existing(inv.getArgument(1)));
+        when(enrollmentMapper.insertBatch(anyList())).thenAnswer(inv -> database.insert(inv.getArgument(0)));
+
+        service = new TrainingEnrollmentServiceImpl();
+        ReflectionTestUtils.setField(service, "enrollmentMapper", enrollmentMapper);
+        ReflectionTestUtils.setField(service, "courseMapper", courseMapper);
+        ReflectionTestUtils.setField(service, "transactionTemplate", database.transactionTemplate());
+        ReflectionTestUtils.setField(service, "enrollTimeout", 60_000L);
+        ReflectionTestUtils.setField(service, "reconcileInterval", 60_000L);
+        ReflectionTestUtils.setField(service, "seatCacheIdle", 1_800_000L);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    void concurrentEnrollment() throws InterruptedException {
+        Map<String, AtomicInteger> results = runConcurrently();
+
+        assertEquals(CAPACITY, count(results, ITrainingEnrollmentService.RESULT_ENROLLED));
+        assertEquals(THREADS, count(results, ITrainingEnrollmentService.RESULT_ENROLLED)
+                + count(results, ITrainingEnrollmentService.RESULT_FULL)
+                + count(results, ITrainingEnrollmentService.RESULT_DUPLICATE));
+        assertEquals(CAPACITY, database.enrollCount);
+        assertEquals(CAPACITY, database.rows.size());
+    }
+
+    @Test
+    void otherNodeTakesSeats() throws InterruptedException {
+        // 本节点先加载课程，之后其他节点直接在数据库中占用2000个名额
+        TrainingEnrollment warmUp = new TrainingEnrollment();
+        warmUp.setCourseId(COURSE_ID);
+        warmUp.setStudentId(-1L);
+        assertEquals(ITrainingEnrollmentService.RESULT_ENROLLED, service.enroll(warmUp));
+        synchronized (database) {
+            for (long studentId = 1_000_000; studentId < 1_002_000; studentId++) {
+                database.rows.add(studentId);
+            }
+            database.enrollCount += 2000;
+        }
+
+        Map<String, AtomicInteger> results = runConcurrently();
+
+        assertEquals(CAPACITY - 2001, count(results, ITrainingEnrollmentService.RESULT_ENROLLED));
+        assertEquals(0, count(results, ITrainingEnrollmentService.RESULT_FAILED));
+        assertEquals(CAPACITY, database.enrollCount);
+        assertEquals(CAPACITY, database.rows.size());
+    }
+
+    private Map<String, AtomicInteger> runConcurrently() throws InterruptedException {
+        Map<String, AtomicInteger> results = new ConcurrentHashMap<>();
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        List<Thread> threads = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            long studentId = i % DISTINCT_STUDENTS;
+            Thread thread = new Thread(null, () -> {
+                TrainingEnrollment enrollment = new TrainingEnrollment();
+                enrollment.setCourseId(COURSE_ID);
+                enrollment.setStudentId(studentId);
+                ready.countDown();
+                try {
+                    go.await();
+                    String result = service.enroll(enrollment);
+                    results.computeIfAbsent(result, k -> new AtomicInteger()).incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "enroll-" + i, 256 * 1024);
+            threads.add(thread);
+            thread.start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        done.await();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.info("报名压测: 线程{}个, 名额{}, 耗时{}ms, 结果{}, 数据库写入{}次",
+                THREADS, CAPACITY, elapsedMillis, results, database.transactions.get());
+        return results;
+    }
+
+    private static int count(Map<String, AtomicInteger> results, String result) {
+        AtomicInteger value = results.get(result);
+        return value == null ? 0 : value.get();
+    }
+
+    /**
+     * 内存模拟的报名表与课程表，事务回滚时撤销本事务的插入与人数累加
+     */
+    private static final class FakeDatabase {
+        private final Set<Long> rows = new HashSet<>();
+        private int enrollCount;
+        private final AtomicInteger transactions = new AtomicInteger();
+        private final List<Long> txInserted = new ArrayList<>();
+        private int txIncrement;
+
+        private synchronized TrainingCourse course() {
+            TrainingCourse course = new TrainingCourse();
+            course.setId(COURSE_ID);
+            course.setStatus(1);
+            course.setMaxEnrollment(CAPACITY);
+            course.setEnrollCount(enrollCount);
+            return course;
+        }
+
+        private synchronized List<Object> studentIds() {
+            return new ArrayList<>(rows);
+        }
+
+        private synchronized List<Long> existing(Collection<Long> studentIds) {
+            List<Long> existing = new ArrayList<>();
+            for (Long studentId : studentIds) {
+                if (rows.contains(studentId)) {
+                    existing.add(studentId);
+                }
+            }
+            return existing;
+        }
+
+        private synchronized int insert(List<TrainingEnrollment> enrollments) {
+            for (TrainingEnrollment enrollment : enrollments) {
+                if (!rows.add(enrollment.getStudentId())) {
+                    throw new DuplicateKeyException("uk_course_student");
+                }
+                txInserted.add(enrollment.getStudentId());
+            }
+            return enrollments.size();
+        }
+
+        private synchronized int increment(int count) {
+            if (enrollCount + count > CAPACITY) {
+                return 0;
+            }
+            enrollCount += count;
+            txIncrement += count;
+            return 1;
+        }
+
+        private TransactionTemplate transactionTemplate() {
+            return new TransactionTemplate() {
+                @Override
+                public <T> T execute(TransactionCallback<T> action) {
+                    synchronized (FakeDatabase.this) {
+                        transactions.incrementAndGet();
+                        txInserted.clear();
+                        txIncrement = 0;
+                        SimpleTransactionStatus status = new SimpleTransactionStatus();
+                        try {
+                            T result = action.doInTransaction(status);
+                            if (status.isRollbackOnly()) {
+                                rollback();
+                            }
+                            return result;
+                        } catch (RuntimeException e) {
+                            rollback();
+                            throw e;
+                        }
+                    }
+                }
+            };
+        }
+
+        private void rollback() {
+            txInserted.forEach(rows::remove);
+            enrollCount -= txIncrement;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.education.platform.service.impl;
+
+import com.education.platform.dto.HistogramBinRow;
+import com.education.platform.mapper.TrainingEnrollmentMapper;
+import com.sun.management.ThreadMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 培训统计中位数验证：100万条报名
+ * 按数据库GROUP BY的语义（进度原值、得分ROUND到1位小数）生成分组计数，与排序求得的精确中位数比对，
+ * 并确认缓存期内不再查询数据库；内存有界：只查询分组计数、不读取逐行数据，计算期间分配的堆内存
+ * 与报名条数无关（100万条与按1000倍放大的分组计数相同，且远小于逐行读取所需）。
+ * 运行方式：mvn test -Pbenchmark -Dtest=TrainingMediansBenchmark
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Tag("benchmark")
+class TrainingMediansBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    /**
+     * 计算一次中位数允许分配的堆内存上限
+     */
+    private static final long MAX_ALLOCATED_BYTES = 1024 * 1024;
+
+    @Test
+    void mediansOfOneMillionRows() {
+        Random random = new Random(2024);
+        int[] progress = new int[ROWS];
+        BigDecimal[] scores = new BigDecimal[ROWS];
+        TreeMap<Integer, Long> progressGroups = new TreeMap<>();
+        TreeMap<BigDecimal, Long> scoreGroups = new TreeMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            // 进度偏向两端，得分近似正态分布，DECIMAL(5,2)
+            progress[i] = random.nextInt(4) == 0 ? 100 : random.nextInt(101);
+            double score = Math.max(0, Math.min(100, 72 + random.nextGaussian() * 12));
+            scores[i] = BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+            progressGroups.merge(progress[i], 1L, Long::sum);
+            scoreGroups.merge(scores[i].setScale(1, RoundingMode.HALF_UP), 1L, Long::sum);
+        }
+
+        // 预热一次，类加载与Mockito初始化的分配不计入下面的测量
+        serviceOf(mapperOf(bins(progressGroups, 1), bins(scoreGroups, 1))).medians();
+        TrainingEnrollmentMapper enrollmentMapper = mapperOf(bins(progressGroups, 1), bins(scoreGroups, 1));
+        TrainingEnrollmentServiceImpl service = serviceOf(enrollmentMapper);
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Map<String, Double> medians = service.medians();
+        double computeMillis = (System.nanoTime() - start) / 1_000_000.0;
+        long allocated = allocatedBytes() - allocatedBefore;
+        start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            service.medians();
+        }
+        double cachedNanos = (System.nanoTime() - start) / 1000.0;
+
+        // 与中位数定义一致：第ceil(n/2)个值
+        int rank = (ROWS + 1) / 2 - 1;
+        Arrays.sort(progress);
+        Arrays.sort(scores);
+        assertEquals((double) progress[rank], medians.get("medianProgress"));
+        assertEquals(scores[rank].setScale(1, RoundingMode.HALF_UP).doubleValue(), medians.get("medianScore"));
+        verify(enrollmentMapper, times(1)).selectProgressHistogram();
+        verify(enrollmentMapper, times(1)).selectScoreHistogram();
+        // 只查询分组计数，不存在逐行读取
+        verifyNoMoreInteractions(enrollmentMapper);
+
+        // 同样的分组、每组计数放大1000倍（10亿条），结果不变，计算期间的堆分配不随数据量增长
+        TrainingEnrollmentServiceImpl scaled = serviceOf(mapperOf(bins(progressGroups, 1000), bins(scoreGroups, 1000)));
+        allocatedBefore = allocatedBytes();
+        assertEquals(medians, scaled.medians());
+        long scaledAllocated = allocatedBytes() - allocatedBefore;
+        // 逐行读取100万条时仅得分数组就需8MB，分组计算的分配应远小于此
+        assertTrue(allocated < MAX_ALLOCATED_BYTES, "计算中位数分配了" + allocated + "字节");
+        assertTrue(scaledAllocated < MAX_ALLOCATED_BYTES, "放大后计算中位数分配了" + scaledAllocated + "字节");
+
+        log.info("培训统计中位数: 报名{}条, 分组{}+{}行, 计算{}ms, 堆分配{}KB(放大1000倍时{}KB), 缓存命中{}ns/次, 结果{}",
+                ROWS, progressGroups.size(), scoreGroups.size(), String.format("%.2f", computeMillis),
+                allocated / 1024, scaledAllocated / 1024, String.format("%.0f", cachedNanos), medians);
+    }
+
+    private static TrainingEnrollmentMapper mapperOf(List<HistogramBinRow> progress, List<HistogramBinRow> score) {
+        TrainingEnrollmentMapper enrollmentMapper = mock(TrainingEnrollmentMapper.class);
+        when(enrollmentMapper.selectProgressHistogram()).thenReturn(progress);
+        when(enrollmentMapper.selectScoreHistogram()).thenReturn(score);
+        return enrollmentMapper;
+    }
+
+    private static TrainingEnrollmentServiceImpl serviceOf(TrainingEnrollmentMapper enrollmentMapper) {
+        TrainingEnrollmentServiceImpl service = new TrainingEnrollmentServiceImpl();
+        ReflectionTestUtils.setField(service, "enrollmentMapper", enrollmentMapper);
+        ReflectionTestUtils.setField(service, "statisticsCacheTtl", 300L);
+        return service;
+    }
+
+    /**
+     * 当前线程累计分配的堆内存（字节）
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static List<HistogramBinRow> bins(Map<? extends Number, Long> groups, long scale) {
+        List<HistogramBinRow> rows = new ArrayList<>(groups.size());
+        for (Map.Entry<? extends Number, Long> entry : groups.entrySet()) {
+            HistogramBinRow row = new HistogramBinRow();
+            row.setValue(entry.getKey().doubleValue());
+            row.setCount(entry.getValue() * scale);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
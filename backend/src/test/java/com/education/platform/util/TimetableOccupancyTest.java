@@ -0,0 +1,151 @@
+package com.education.platform.util;
+
+import com.education.platform.entity.Timetable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 课程表占用索引测试：时段位布局、单双周、重复占用的释放
+ *
+ * @author Education Platform Team
+ */
+class TimetableOccupancyTest {
+
+    @Test
+    void everySlotMapsToItsOwnBit() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        for (int day = 1; day <= TimetableOccupancy.DAYS; day++) {
+            for (int period = 1; period <= TimetableOccupancy.PERIODS; period++) {
+                Timetable timetable = entry(10L, 20L, "A101", day, period, null);
+                assertNull(occupancy.conflict(timetable), "星期" + day + "第" + period + "节不应已被占用");
+                occupancy.add(timetable);
+                assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(timetable));
+            }
+        }
+        // 56个时段全部占满后，无效时段不参与检查
+        assertNull(occupancy.conflict(entry(10L, 20L, "A101", 0, 1, null)));
+        assertNull(occupancy.conflict(entry(10L, 20L, "A101", 1, TimetableOccupancy.PERIODS + 1, null)));
+        assertNull(occupancy.conflict(entry(10L, 20L, "A101", TimetableOccupancy.DAYS + 1, 1, null)));
+    }
+
+    @Test
+    void adjacentSlotsDoNotOverlap() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        occupancy.add(entry(10L, 20L, null, 3, 4, null));
+        assertNull(occupancy.conflict(entry(10L, 20L, null, 3, 3, null)));
+        assertNull(occupancy.conflict(entry(10L, 20L, null, 3, 5, null)));
+        assertNull(occupancy.conflict(entry(10L, 20L, null, 2, 4, null)));
+        assertNull(occupancy.conflict(entry(10L, 20L, null, 4, 4, null)));
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 20L, null, 3, 4, null)));
+    }
+
+    @Test
+    void conflictReportsTheOccupiedResource() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        occupancy.add(entry(10L, 20L, " A101 ", 1, 1, null));
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 21L, "B202", 1, 1, null)));
+        assertEquals(TimetableOccupancy.Resource.CLASS, occupancy.conflict(entry(11L, 20L, "B202", 1, 1, null)));
+        assertEquals(TimetableOccupancy.Resource.CLASSROOM, occupancy.conflict(entry(11L, 21L, "A101", 1, 1, null)));
+        // 教室按学校区分，未填写教室时不检查教室
+        Timetable otherSchool = entry(11L, 21L, "A101", 1, 1, null);
+        otherSchool.setSchoolId(2L);
+        assertNull(occupancy.conflict(otherSchool));
+        assertNull(occupancy.conflict(entry(11L, 21L, " ", 1, 1, null)));
+    }
+
+    @Test
+    void oddAndEvenWeeksShareASlot() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        occupancy.add(entry(10L, 20L, "A101", 2, 3, "odd"));
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 20L, "A101", 2, 3, "odd")));
+        assertNull(occupancy.conflict(entry(10L, 20L, "A101", 2, 3, "even")));
+        // 未填写或all占用单双周
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 20L, "A101", 2, 3, "all")));
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 20L, "A101", 2, 3, null)));
+
+        occupancy.add(entry(10L, 20L, "A101", 2, 3, "even"));
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 20L, "A101", 2, 3, "even")));
+
+        assertTrue(occupancy.remove(entry(10L, 20L, "A101", 2, 3, "odd")).isEmpty());
+        assertNull(occupancy.conflict(entry(10L, 20L, "A101", 2, 3, "odd")));
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 20L, "A101", 2, 3, "even")));
+    }
+
+    @Test
+    void removeReleasesTheSlot() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        Timetable timetable = entry(10L, 20L, "A101", 5, 8, null);
+        occupancy.add(timetable);
+        assertTrue(occupancy.remove(timetable).isEmpty());
+        assertNull(occupancy.conflict(timetable));
+        // 未记录过的资源直接忽略
+        assertTrue(occupancy.remove(entry(99L, 98L, "Z999", 5, 8, null)).isEmpty());
+    }
+
+    @Test
+    void removingADuplicatedSlotAsksForReload() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        // 历史数据：同一教师同一时段两条记录（班级、教室不同）
+        Timetable first = entry(10L, 20L, "A101", 1, 2, null);
+        Timetable second = entry(10L, 21L, "B202", 1, 2, null);
+        occupancy.add(first);
+        occupancy.add(second);
+
+        List<TimetableOccupancy.Resource> stale = occupancy.remove(first);
+        assertEquals(List.of(TimetableOccupancy.Resource.TEACHER), stale);
+        // 重复位未清除，教师仍视为占用；班级、教室已释放
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(first));
+        assertNull(occupancy.conflict(entry(11L, 20L, "A101", 1, 2, null)));
+
+        // 调用方按数据库剩余记录重置后，重复位清除，再次移除可正常释放
+        occupancy.reset(TimetableOccupancy.Resource.TEACHER, first, List.of(second));
+        assertTrue(occupancy.remove(second).isEmpty());
+        assertNull(occupancy.conflict(second));
+    }
+
+    @Test
+    void duplicateInOneWeekOnlyAffectsThatWeek() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        occupancy.add(entry(10L, 20L, null, 4, 1, "odd"));
+        occupancy.add(entry(10L, 21L, null, 4, 1, "odd"));
+        occupancy.add(entry(10L, 22L, null, 4, 1, "even"));
+
+        assertTrue(occupancy.remove(entry(10L, 22L, null, 4, 1, "even")).isEmpty());
+        assertNull(occupancy.conflict(entry(10L, 23L, null, 4, 1, "even")));
+        assertEquals(List.of(TimetableOccupancy.Resource.TEACHER), occupancy.remove(entry(10L, 20L, null, 4, 1, "odd")));
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 23L, null, 4, 1, "odd")));
+    }
+
+    @Test
+    void resetReplacesAllSlotsOfTheResource() {
+        TimetableOccupancy occupancy = new TimetableOccupancy();
+        occupancy.add(entry(10L, 20L, "A101", 1, 1, null));
+        occupancy.add(entry(10L, 20L, "A101", 1, 2, null));
+        occupancy.reset(TimetableOccupancy.Resource.CLASS, entry(0L, 20L, null, 1, 1, null),
+                List.of(entry(10L, 20L, "A101", 7, 8, "even")));
+
+        assertNull(occupancy.conflict(entry(11L, 20L, null, 1, 1, null)));
+        assertNull(occupancy.conflict(entry(11L, 20L, null, 7, 8, "odd")));
+        assertEquals(TimetableOccupancy.Resource.CLASS, occupancy.conflict(entry(11L, 20L, null, 7, 8, null)));
+        // 其他资源不受影响
+        assertEquals(TimetableOccupancy.Resource.TEACHER, occupancy.conflict(entry(10L, 21L, null, 1, 2, null)));
+    }
+
+    private static Timetable entry(Long teacherId, Long classId, String classroom, int weekDay, int period,
+                                   String academicWeek) {
+        Timetable timetable = new Timetable();
+        timetable.setSchoolId(1L);
+        timetable.setTeacherId(teacherId);
+        timetable.setClassId(classId);
+        timetable.setClassroom(classroom);
+        timetable.setWeekDay(weekDay);
+        timetable.setPeriod(period);
+        timetable.setAcademicWeek(academicWeek);
+        return timetable;
+    }
+}
@@ -0,0 +1,126 @@
+package com.education.platform.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 排课求解基准：合成的60个班级的学校
+ * 每周5天、每天8节，每班35节课（12门科目），每位教师按科目带3-15个班，周课时不超过18节；
+ * 物理、化学课使用12间实验室组成的教室池（占用率75%）。
+ * 断言在60秒时限内求得无硬冲突的课程表，并按结果逐课时复核班级、教师、实验室没有重复占用。
+ * 运行方式：mvn test -Pbenchmark -Dtest=TimetableSolverBenchmark
+ *
+ * @author Education Platform Team
+ */
+@Slf4j
+@Tag("benchmark")
+class TimetableSolverBenchmark {
+
+    private static final int CLASSES = 60;
+
+    private static final int DAYS = 5;
+
+    private static final int PERIODS = 8;
+
+    private static final int LAB_ROOMS = 12;
+
+    private static final long TIME_LIMIT_MILLIS = 60_000;
+
+    /**
+     * 科目：周课时、每位教师所带班级数、是否使用实验室
+     */
+    private static final int[][] SUBJECTS = {
+            {6, 3, 0}, {6, 3, 0}, {5, 3, 0}, {3, 5, 1}, {3, 5, 1}, {2, 8, 0},
+            {2, 8, 0}, {2, 8, 0}, {2, 8, 0}, {2, 8, 0}, {1, 15, 0}, {1, 15, 0}
+    };
+
+    @Test
+    void solveSixtyClassSchool() throws InterruptedException {
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(DAYS, PERIODS, 4);
+        for (int i = 0; i < LAB_ROOMS; i++) {
+            problem.addPoolRoom(0, 0L);
+        }
+        int[] classes = new int[CLASSES];
+        for (int c = 0; c < CLASSES; c++) {
+            classes[c] = problem.addClass(0L);
+        }
+        int teachers = 0;
+        for (int[] subject : SUBJECTS) {
+            int hours = subject[0];
+            int perTeacher = subject[1];
+            int firstTeacher = teachers;
+            for (int t = 0; t < (CLASSES + perTeacher - 1) / perTeacher; t++) {
+                problem.addTeacher(0L);
+                teachers++;
+            }
+            for (int c = 0; c < CLASSES; c++) {
+                problem.addRequirement(classes[c], firstTeacher + c / perTeacher, -1, subject[2] == 1 ? 0 : -1, hours);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        TimetableSolver.Result result;
+        long start = System.nanoTime();
+        try {
+            result = TimetableSolver.solve(problem, pool, pool.getParallelism(), TIME_LIMIT_MILLIS, 2024);
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(0, result.getHardViolations(), "仍有硬冲突");
+        assertTrue(elapsedMillis < TIME_LIMIT_MILLIS + 1000, "求解耗时" + elapsedMillis + "ms");
+        verifyNoDoubleBooking(result, teachers);
+
+        log.info("排课求解基准: {}个班级, {}位教师, {}节课, {}线程, 耗时{}ms, 迭代{}次, 硬冲突{}, 软约束代价{}",
+                CLASSES, teachers, result.getLessonCount(), pool.getParallelism(), elapsedMillis,
+                result.getIterations(), result.getHardViolations(), result.getSoftPenalty());
+    }
+
+    /**
+     * 按课时需求登记顺序复核：同一班级、教师、实验室在同一时段至多一节课
+     */
+    private static void verifyNoDoubleBooking(TimetableSolver.Result result, int teachers) {
+        Set<Long> used = new HashSet<>();
+        int slots = DAYS * PERIODS;
+        for (int lesson = 0; lesson < result.getLessonCount(); lesson++) {
+            int requirement = result.requirementOf(lesson);
+            int clazz = requirement % CLASSES;
+            int[] subject = SUBJECTS[requirement / CLASSES];
+            int teacher = teacherOf(requirement / CLASSES) + clazz / subject[1];
+            int slot = result.slotOf(lesson);
+            assertTrue(slot >= 0 && slot < slots, "课时" + lesson + "未排入");
+            assertTrue(used.add(key(0, clazz, slot)), "班级" + clazz + "时段" + slot + "重复");
+            assertTrue(used.add(key(1, teacher, slot)), "教师" + teacher + "时段" + slot + "重复");
+            if (subject[2] == 1) {
+                int room = result.poolRoomOf(lesson);
+                assertTrue(room >= 0, "课时" + lesson + "未分配实验室");
+                assertTrue(used.add(key(2, room, slot)), "实验室" + room + "时段" + slot + "重复");
+            }
+        }
+        assertEquals(teachers, teacherOf(SUBJECTS.length));
+    }
+
+    /**
+     * 科目的第一位教师下标
+     */
+    private static int teacherOf(int subjectIndex) {
+        int teacher = 0;
+        for (int i = 0; i < subjectIndex; i++) {
+            teacher += (CLASSES + SUBJECTS[i][1] - 1) / SUBJECTS[i][1];
+        }
+        return teacher;
+    }
+
+    private static long key(int kind, int id, int slot) {
+        return ((long) kind << 40) | ((long) id << 8) | slot;
+    }
+}
@@ -18,6 +18,7 @@ CREATE TABLE `school` (
   `school_code` VARCHAR(50) NOT NULL UNIQUE COMMENT '学校编码',
   `school_name` VARCHAR(100) NOT NULL COMMENT '学校名称',
   `school_type` VARCHAR(20) NOT NULL COMMENT '学校类型: primary/secondary/vocational',
+  `region` VARCHAR(50) COMMENT '所属区域: 城区/郊区/乡镇',
   `address` VARCHAR(255) COMMENT '地址',
   `contact_person` VARCHAR(50) COMMENT '联系人',
   `contact_phone` VARCHAR(20) COMMENT '联系电话',
@@ -26,7 +27,8 @@ CREATE TABLE `school` (
   `deleted` TINYINT DEFAULT 0 COMMENT '逻辑删除: 0-未删除, 1-已删除',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  INDEX `idx_updated_at` (`updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学校信息表';
 
 -- 1.2 用户表 (统一用户中心)
@@ -49,13 +51,15 @@ CREATE TABLE `user` (
   `status` TINYINT DEFAULT 1 COMMENT '状态: 1-正常, 0-禁用',
   `last_login_time` DATETIME COMMENT '最后登录时间',
   `last_login_ip` VARCHAR(50) COMMENT '最后登录IP',
+  `authority_version` BIGINT NOT NULL DEFAULT 0 COMMENT '权限版本号: 角色、学校、班级变更时递增，签发早于该版本的令牌失效',
   `deleted` TINYINT DEFAULT 0 COMMENT '逻辑删除: 0-未删除, 1-已删除',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   INDEX `idx_school_id` (`school_id`),
   INDEX `idx_class_id` (`class_id`),
-  INDEX `idx_phone` (`phone`)
+  INDEX `idx_phone` (`phone`),
+  INDEX `idx_updated_at` (`updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户信息表';
 
 -- 1.3 角色表
@@ -114,6 +118,14 @@ CREATE TABLE `role_permission` (
   INDEX `idx_role_id` (`role_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='角色权限关联表';
 
+-- 1.6.1 RBAC版本号表（单行，角色、权限、角色权限、用户角色变更时递增，各节点据此判断权限快照是否需要重新加载）
+DROP TABLE IF EXISTS `rbac_version`;
+CREATE TABLE `rbac_version` (
+  `id` INT NOT NULL COMMENT '固定为1',
+  `version` BIGINT NOT NULL DEFAULT 0 COMMENT '版本号',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='RBAC版本号表';
+
 -- 1.7 学生信息表
 DROP TABLE IF EXISTS `student`;
 CREATE TABLE `student` (
@@ -132,7 +144,8 @@ CREATE TABLE `student` (
   PRIMARY KEY (`id`),
   INDEX `idx_user_id` (`user_id`),
   INDEX `idx_class_id` (`class_id`),
-  INDEX `idx_student_number` (`student_number`)
+  INDEX `idx_student_number` (`student_number`),
+  INDEX `idx_updated_at` (`updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学生信息表';
 
 -- 1.8 教师信息表
@@ -150,7 +163,8 @@ CREATE TABLE `teacher` (
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   INDEX `idx_user_id` (`user_id`),
-  INDEX `idx_teacher_number` (`teacher_number`)
+  INDEX `idx_teacher_number` (`teacher_number`),
+  INDEX `idx_updated_at` (`updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='教师信息表';
 
 -- 1.8.1 教师基本信息扩展表
@@ -488,7 +502,8 @@ CREATE TABLE `class` (
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   INDEX `idx_school_id` (`school_id`),
-  INDEX `idx_head_teacher_id` (`head_teacher_id`)
+  INDEX `idx_head_teacher_id` (`head_teacher_id`),
+  INDEX `idx_updated_at` (`updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='班级表';
 
 -- 1.10 家长表
@@ -523,11 +538,29 @@ CREATE TABLE `student_status_change` (
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  INDEX `idx_student_id` (`student_id`),
+  INDEX `idx_student_created` (`student_id`, `created_at`),
   INDEX `idx_user_id` (`user_id`),
-  INDEX `idx_status` (`status`)
+  INDEX `idx_status_type` (`status`, `change_type`),
+  INDEX `idx_created_at` (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学籍异动表';
 
+-- 1.12 学籍异动计数表（单行，随申请、审核、删除增量维护）
+DROP TABLE IF EXISTS `status_change_counter`;
+CREATE TABLE `status_change_counter` (
+  `id` BIGINT NOT NULL COMMENT '主键ID(固定为1)',
+  `total_count` BIGINT NOT NULL DEFAULT 0 COMMENT '申请总数',
+  `pending_count` BIGINT NOT NULL DEFAULT 0 COMMENT '待审核数',
+  `approved_count` BIGINT NOT NULL DEFAULT 0 COMMENT '已通过数',
+  `rejected_count` BIGINT NOT NULL DEFAULT 0 COMMENT '已驳回数',
+  `suspend_count` BIGINT NOT NULL DEFAULT 0 COMMENT '休学申请数',
+  `transfer_count` BIGINT NOT NULL DEFAULT 0 COMMENT '转学申请数',
+  `resume_count` BIGINT NOT NULL DEFAULT 0 COMMENT '复学申请数',
+  `dropout_count` BIGINT NOT NULL DEFAULT 0 COMMENT '退学申请数',
+  `other_count` BIGINT NOT NULL DEFAULT 0 COMMENT '其他申请数',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学籍异动计数表';
+
 -- =============================================
 -- 2. 校园门户模块
 -- =============================================
@@ -550,6 +583,7 @@ CREATE TABLE `timetable` (
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
+  INDEX `idx_school_id` (`school_id`),
   INDEX `idx_class_id` (`class_id`),
   INDEX `idx_teacher_id` (`teacher_id`),
   INDEX `idx_week_day` (`week_day`)
@@ -571,7 +605,7 @@ CREATE TABLE `grade` (
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  INDEX `idx_student_id` (`student_id`),
+  INDEX `idx_student_exam_date` (`student_id`, `exam_date`),
   INDEX `idx_subject` (`subject`),
   INDEX `idx_exam_date` (`exam_date`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='成绩表';
@@ -599,16 +633,14 @@ CREATE TABLE `announcement` (
   INDEX `idx_publish_time` (`publish_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='通知公告表';
 
--- 2.4 公告阅读记录表
+-- 2.4 公告阅读记录表（按用户、公告ID区段保存压缩位图）
 DROP TABLE IF EXISTS `announcement_read`;
 CREATE TABLE `announcement_read` (
-  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
-  `announcement_id` BIGINT NOT NULL COMMENT '公告ID',
   `user_id` BIGINT NOT NULL COMMENT '用户ID',
-  `read_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '阅读时间',
-  PRIMARY KEY (`id`),
-  UNIQUE KEY `uk_announcement_user` (`announcement_id`, `user_id`),
-  INDEX `idx_user_id` (`user_id`)
+  `chunk` INT NOT NULL COMMENT '公告ID区段(公告ID右移16位)',
+  `bitmap` BLOB NOT NULL COMMENT '区段内已读公告ID低16位的压缩位图',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`user_id`, `chunk`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='公告阅读记录表';
 
 -- 2.5 学生表现记录表
@@ -843,7 +875,7 @@ CREATE TABLE `data_collection` (
   `data_source` VARCHAR(100) NOT NULL COMMENT '数据来源',
   `data_content` JSON NOT NULL COMMENT '数据内容',
   `collection_date` DATE NOT NULL COMMENT '采集日期',
-  `status` TINYINT DEFAULT 0 COMMENT '状态: 0-待清洗, 1-已清洗, 2-已入库',
+  `status` TINYINT DEFAULT 0 COMMENT '状态: 0-待清洗, 1-已清洗, 2-已入库, 3-重复',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
@@ -859,23 +891,25 @@ CREATE TABLE `data_cleaning` (
   `clean_result` TEXT COMMENT '清洗结果',
   `status` TINYINT DEFAULT 0 COMMENT '状态: 0-失败, 1-成功',
   `operator_id` BIGINT COMMENT '操作人ID',
-  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间(最近一次清洗时间)',
   PRIMARY KEY (`id`),
-  INDEX `idx_collection_id` (`collection_id`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='数据清洗记录表';
+  UNIQUE KEY `uk_collection_id` (`collection_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='数据清洗记录表(每条采集数据一条，保存最近一次清洗结果)';
 
 -- 4.3 数据分析结果表
 DROP TABLE IF EXISTS `data_analysis`;
 CREATE TABLE `data_analysis` (
   `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '分析ID',
-  `analysis_type` VARCHAR(50) NOT NULL COMMENT '分析类型: distribution/ratio/trend',
-  `school_id` BIGINT COMMENT '学校ID',
+  `analysis_type` VARCHAR(50) NOT NULL COMMENT '分析类型: teacherTitle/teacherSubject/schoolType/schoolRegion/ratioByType/ratioByRegion/classSizeByType/classSizeByRegion/trend/overview',
+  `school_id` BIGINT COMMENT '学校ID(0表示全区)',
   `result_data` JSON NOT NULL COMMENT '结果数据',
   `chart_type` VARCHAR(20) COMMENT '图表类型: bar/line/pie/map',
   `analysis_date` DATE NOT NULL COMMENT '分析日期',
+  `deleted` TINYINT DEFAULT 0 COMMENT '逻辑删除: 0-未删除, 1-已删除',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  INDEX `idx_analysis_type` (`analysis_type`),
+  INDEX `idx_type_school_chart_date` (`analysis_type`, `school_id`, `chart_type`, `analysis_date`),
   INDEX `idx_analysis_date` (`analysis_date`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='数据分析结果表';
 
@@ -963,7 +997,7 @@ CREATE TABLE `educational_resource` (
   PRIMARY KEY (`id`),
   INDEX `idx_school_category` (`school_id`, `category`),
   INDEX `idx_uploader_id` (`uploader_id`),
-  INDEX `idx_status` (`status`)
+  INDEX `idx_status_upload_time` (`status`, `upload_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='教育资源表';
 
 -- 6.2 资源分享表
@@ -1009,8 +1043,8 @@ CREATE TABLE `resource_statistics` (
   `share_count` INT DEFAULT 0 COMMENT '分享数',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
-  INDEX `idx_school_date` (`school_id`, `stat_date`),
-  INDEX `idx_resource_id` (`resource_id`)
+  UNIQUE KEY `uk_resource_date` (`resource_id`, `stat_date`),
+  INDEX `idx_school_date` (`school_id`, `stat_date`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='资源统计表';
 
 -- =============================================
@@ -1151,6 +1185,7 @@ CREATE TABLE `training_course` (
   `view_count` INT DEFAULT 0 COMMENT '浏览次数',
   `enroll_count` INT DEFAULT 0 COMMENT '报名人数',
   `completion_count` INT DEFAULT 0 COMMENT '完成人数',
+  `max_enrollment` INT DEFAULT NULL COMMENT '报名名额上限（为空不限）',
   `deleted` TINYINT DEFAULT 0 COMMENT '逻辑删除: 0-未删除, 1-已删除',
   `start_date` DATETIME COMMENT '开始日期',
   `end_date` DATETIME COMMENT '结束日期',
@@ -1160,7 +1195,7 @@ CREATE TABLE `training_course` (
   PRIMARY KEY (`id`),
   INDEX `idx_category` (`category`),
   INDEX `idx_subject` (`subject`),
-  INDEX `idx_status` (`status`),
+  INDEX `idx_status_upload_time` (`status`, `upload_time`),
   INDEX `idx_instructor` (`instructor_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='培训课程表';
 
@@ -1183,7 +1218,9 @@ CREATE TABLE `training_enrollment` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_course_student` (`course_id`, `student_id`),
   INDEX `idx_student` (`student_id`),
-  INDEX `idx_status` (`status`)
+  INDEX `idx_status` (`status`),
+  INDEX `idx_deleted_progress` (`deleted`, `progress`),
+  INDEX `idx_deleted_score` (`deleted`, `score`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学员报名表';
 
 -- 10.3 培训章节表
@@ -1294,7 +1331,8 @@ CREATE TABLE `training_evaluation` (
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_course_student` (`course_id`, `student_id`),
-  INDEX `idx_course` (`course_id`)
+  INDEX `idx_course_rating` (`course_id`, `deleted`, `rating`),
+  INDEX `idx_updated_at` (`updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='培训评价表';
 
 -- 10.9 班级申请表
@@ -1340,7 +1378,13 @@ INSERT INTO role (role_code, role_name, description) VALUES
 INSERT INTO user_role (user_id, role_id)
 SELECT u.id, r.id FROM user u, role r WHERE u.username = 'admin' AND r.role_code = 'ADMIN';
 
+-- RBAC版本号（直接改库修改或删除角色、权限关联后执行 UPDATE rbac_version SET version = version + 1 WHERE id = 1）
+INSERT INTO rbac_version (id, version) VALUES (1, 0);
+
 -- 初始化学校数据
 INSERT INTO school (school_code, school_name, school_type, address, contact_person, contact_phone, status) VALUES
 ('S001', '第一中学', 'secondary', '北京市朝阳区XX路1号', '张校长', '13900000001', 1),
 ('S002', '第二小学', 'primary', '北京市朝阳区XX路2号', '李校长', '13900000002', 1);
+
+-- 初始化学籍异动计数行
+INSERT INTO status_change_counter (id) VALUES (1);